@@ -0,0 +1,411 @@
+package mil.nga.geopackage.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+
+import mil.nga.geopackage.BoundingBox;
+import mil.nga.geopackage.GeoPackageCore;
+import mil.nga.geopackage.GeoPackageException;
+import mil.nga.geopackage.core.srs.SpatialReferenceSystem;
+import mil.nga.geopackage.extension.coverage.CoverageDataAlgorithm;
+import mil.nga.geopackage.extension.coverage.CoverageDataCore;
+import mil.nga.geopackage.extension.coverage.CoverageDataGrid;
+import mil.nga.geopackage.extension.coverage.CoverageDataImage;
+import mil.nga.geopackage.extension.coverage.CoverageDataRequest;
+import mil.nga.geopackage.extension.coverage.CoverageDataResults;
+import mil.nga.geopackage.extension.coverage.GriddedCoverage;
+import mil.nga.geopackage.extension.coverage.GriddedCoverageDao;
+import mil.nga.geopackage.extension.coverage.GriddedCoverageDataType;
+import mil.nga.geopackage.extension.coverage.GriddedCoverageEncodingType;
+import mil.nga.geopackage.extension.coverage.GriddedTile;
+import mil.nga.geopackage.tiles.matrix.TileMatrix;
+import mil.nga.geopackage.tiles.matrixset.TileMatrixSet;
+import mil.nga.sf.proj.ProjectionConstants;
+
+/**
+ * In memory coverage data used to benchmark the interpolation algorithms
+ * without a GeoPackage connection. Tile values are read from a
+ * {@link BenchmarkCoverageData.Image} and each destination pixel is resolved
+ * the same way implementations resample a single coverage data tile. Requests
+ * are resolved against a single WGS84 coverage image spanning the world.
+ * 
+ * @author osbornb
+ * @since 3.0.3
+ */
+public class BenchmarkCoverageData extends
+		CoverageDataCore<BenchmarkCoverageData.Image> {
+
+	/**
+	 * In memory coverage data image of row major values
+	 */
+	public static class Image implements CoverageDataImage {
+
+		/**
+		 * Row major values
+		 */
+		private final double[] values;
+
+		/**
+		 * Image width
+		 */
+		private final int width;
+
+		/**
+		 * Image height
+		 */
+		private final int height;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param values
+		 *            row major values
+		 * @param width
+		 *            image width
+		 * @param height
+		 *            image height
+		 */
+		public Image(double[] values, int width, int height) {
+			this.values = values;
+			this.width = width;
+			this.height = height;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int getWidth() {
+			return width;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int getHeight() {
+			return height;
+		}
+
+		/**
+		 * Get the value at the coordinate
+		 * 
+		 * @param x
+		 *            x coordinate
+		 * @param y
+		 *            y coordinate
+		 * @return value
+		 */
+		public double getValue(int x, int y) {
+			return values[y * width + x];
+		}
+
+	}
+
+	/**
+	 * Gridded tile with the default scale and offset
+	 */
+	private final GriddedTile griddedTile = new GriddedTile();
+
+	/**
+	 * World coverage image resolved by requests
+	 */
+	private final Image coverage;
+
+	/**
+	 * Single tile matrix of the coverage image
+	 */
+	private final TileMatrix tileMatrix;
+
+	/**
+	 * Constructor, without a coverage image for requests
+	 */
+	public BenchmarkCoverageData() {
+		this(null);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param coverage
+	 *            world coverage image resolved by requests
+	 */
+	public BenchmarkCoverageData(Image coverage) {
+		super(createGeoPackage(), createTileMatrixSet(), null, null, null);
+		this.coverage = coverage;
+		if (coverage != null) {
+			BoundingBox boundingBox = getCoverageBoundingBox();
+			tileMatrix = new TileMatrix();
+			tileMatrix.setZoomLevel(0);
+			tileMatrix.setMatrixWidth(1);
+			tileMatrix.setMatrixHeight(1);
+			tileMatrix.setTileWidth(coverage.getWidth());
+			tileMatrix.setTileHeight(coverage.getHeight());
+			tileMatrix.setPixelXSize((boundingBox.getMaxLongitude() - boundingBox
+					.getMinLongitude()) / coverage.getWidth());
+			tileMatrix.setPixelYSize((boundingBox.getMaxLatitude() - boundingBox
+					.getMinLatitude()) / coverage.getHeight());
+		} else {
+			tileMatrix = null;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Double getValue(GriddedTile griddedTile, Image image, int x, int y) {
+		return image.getValue(x, y);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getDoubleValue(GriddedTile griddedTile, Image image, int x,
+			int y) {
+		return image.getValue(x, y);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Resamples the overlapping pixels of the coverage image, or every
+	 * overlapping pixel when the width or height is null.
+	 */
+	@Override
+	public CoverageDataResults getValues(CoverageDataRequest request,
+			Integer width, Integer height) {
+
+		if (coverage == null) {
+			throw new GeoPackageException(
+					"Benchmark coverage data has no coverage image");
+		}
+
+		CoverageDataResults results = null;
+
+		BoundingBox boundingBox = getCoverageBoundingBox();
+		request.setProjectedBoundingBox(request.getBoundingBox());
+		BoundingBox overlap = request.overlap(boundingBox);
+		if (overlap != null) {
+
+			// Source pixels of the overlap
+			float srcLeft = (float) ((overlap.getMinLongitude() - boundingBox
+					.getMinLongitude()) / tileMatrix.getPixelXSize());
+			float srcTop = (float) ((boundingBox.getMaxLatitude() - overlap
+					.getMaxLatitude()) / tileMatrix.getPixelYSize());
+			float srcWidth = (float) ((overlap.getMaxLongitude() - overlap
+					.getMinLongitude()) / tileMatrix.getPixelXSize());
+			float srcHeight = (float) ((overlap.getMaxLatitude() - overlap
+					.getMinLatitude()) / tileMatrix.getPixelYSize());
+
+			if (width == null || height == null) {
+				width = Math.max(1, (int) Math.ceil(srcWidth));
+				height = Math.max(1, (int) Math.ceil(srcHeight));
+			}
+
+			CoverageDataGrid grid = resample(coverage, getAlgorithm(), width,
+					height, srcWidth / width, srcHeight / height, srcTop,
+					srcLeft);
+			results = new CoverageDataResults(grid, tileMatrix);
+		}
+
+		return results;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CoverageDataResults getValuesUnbounded(CoverageDataRequest request) {
+		return getValues(request, null, null);
+	}
+
+	/**
+	 * Resample the image into a destination grid using primitive values
+	 * 
+	 * @param image
+	 *            source image
+	 * @param algorithm
+	 *            interpolation algorithm
+	 * @param width
+	 *            destination width
+	 * @param height
+	 *            destination height
+	 * @return destination grid
+	 */
+	public CoverageDataGrid resample(Image image,
+			CoverageDataAlgorithm algorithm, int width, int height) {
+		return resample(image, algorithm, width, height, image.getWidth()
+				/ (float) width, image.getHeight() / (float) height, 0, 0);
+	}
+
+	/**
+	 * Resample the image source pixels into a destination grid using
+	 * primitive values
+	 * 
+	 * @param image
+	 *            source image
+	 * @param algorithm
+	 *            interpolation algorithm
+	 * @param width
+	 *            destination width
+	 * @param height
+	 *            destination height
+	 * @param widthRatio
+	 *            source over destination width ratio
+	 * @param heightRatio
+	 *            source over destination height ratio
+	 * @param srcTop
+	 *            source top most pixel
+	 * @param srcLeft
+	 *            source left most pixel
+	 * @return destination grid
+	 */
+	private CoverageDataGrid resample(Image image,
+			CoverageDataAlgorithm algorithm, int width, int height,
+			float widthRatio, float heightRatio, float srcTop, float srcLeft) {
+
+		CoverageDataGrid grid = new CoverageDataGrid(width, height);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				double value;
+				switch (algorithm) {
+				case NEAREST_NEIGHBOR:
+					value = getNearestNeighborValue(griddedTile, image,
+							(CoverageDataGrid) null, null, null, y, x,
+							widthRatio, heightRatio, 0, 0, srcTop, srcLeft);
+					break;
+				case BICUBIC:
+					value = getBicubicInterpolationValue(griddedTile, image,
+							(CoverageDataGrid) null, null, null, y, x,
+							widthRatio, heightRatio, 0, 0, srcTop, srcLeft);
+					break;
+				default:
+					value = getBilinearInterpolationValue(griddedTile, image,
+							(CoverageDataGrid) null, null, null, y, x,
+							widthRatio, heightRatio, 0, 0, srcTop, srcLeft);
+				}
+				grid.set(y, x, value);
+			}
+		}
+
+		return grid;
+	}
+
+	/**
+	 * Resample the image into destination values using boxed values
+	 * 
+	 * @param image
+	 *            source image
+	 * @param algorithm
+	 *            interpolation algorithm
+	 * @param width
+	 *            destination width
+	 * @param height
+	 *            destination height
+	 * @return destination values
+	 */
+	public Double[][] resampleBoxed(Image image,
+			CoverageDataAlgorithm algorithm, int width, int height) {
+
+		float widthRatio = image.getWidth() / (float) width;
+		float heightRatio = image.getHeight() / (float) height;
+
+		Double[][] values = new Double[height][width];
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				Double value;
+				switch (algorithm) {
+				case NEAREST_NEIGHBOR:
+					value = getNearestNeighborValue(griddedTile, image,
+							(Double[][]) null, null, null, y, x, widthRatio,
+							heightRatio, 0, 0, 0, 0);
+					break;
+				case BICUBIC:
+					value = getBicubicInterpolationValue(griddedTile, image,
+							(Double[][]) null, null, null, y, x, widthRatio,
+							heightRatio, 0, 0, 0, 0);
+					break;
+				default:
+					value = getBilinearInterpolationValue(griddedTile, image,
+							(Double[][]) null, null, null, y, x, widthRatio,
+							heightRatio, 0, 0, 0, 0);
+				}
+				values[y][x] = value;
+			}
+		}
+
+		return values;
+	}
+
+	/**
+	 * Create a GeoPackage stand in providing only the float center encoded
+	 * gridded coverage read when constructing coverage data
+	 * 
+	 * @return GeoPackage
+	 */
+	private static GeoPackageCore createGeoPackage() {
+		final GriddedCoverage griddedCoverage = new GriddedCoverage();
+		griddedCoverage.setDataType(GriddedCoverageDataType.FLOAT);
+		griddedCoverage
+				.setGridCellEncodingType(GriddedCoverageEncodingType.CENTER);
+		final GriddedCoverageDao griddedCoverageDao;
+		try {
+			griddedCoverageDao = new GriddedCoverageDao(null,
+					GriddedCoverage.class) {
+				@Override
+				public boolean isTableExists() {
+					return true;
+				}
+
+				@Override
+				public GriddedCoverage query(TileMatrixSet tileMatrixSet) {
+					return griddedCoverage;
+				}
+			};
+		} catch (SQLException e) {
+			throw new GeoPackageException(
+					"Failed to create benchmark Gridded Coverage DAO", e);
+		}
+		return (GeoPackageCore) Proxy.newProxyInstance(
+				GeoPackageCore.class.getClassLoader(),
+				new Class<?>[] { GeoPackageCore.class },
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method,
+							Object[] args) {
+						Object result = null;
+						if (method.getName().equals("getGriddedCoverageDao")) {
+							result = griddedCoverageDao;
+						} else if (method.getName().equals("getName")) {
+							result = "benchmark";
+						}
+						return result;
+					}
+				});
+	}
+
+	/**
+	 * Create a WGS84 tile matrix set
+	 * 
+	 * @return tile matrix set
+	 */
+	private static TileMatrixSet createTileMatrixSet() {
+		SpatialReferenceSystem srs = new SpatialReferenceSystem();
+		srs.setSrsId(ProjectionConstants.EPSG_WORLD_GEODETIC_SYSTEM);
+		srs.setOrganization(ProjectionConstants.AUTHORITY_EPSG);
+		srs.setOrganizationCoordsysId(
+				ProjectionConstants.EPSG_WORLD_GEODETIC_SYSTEM);
+		TileMatrixSet tileMatrixSet = new TileMatrixSet();
+		tileMatrixSet.setSrs(srs);
+		tileMatrixSet.setMinX(-180.0);
+		tileMatrixSet.setMinY(-90.0);
+		tileMatrixSet.setMaxX(180.0);
+		tileMatrixSet.setMaxY(90.0);
+		return tileMatrixSet;
+	}
+
+}
@@ -0,0 +1,341 @@
+package mil.nga.geopackage.benchmark;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import mil.nga.geopackage.db.GeoPackageDataType;
+import mil.nga.geopackage.geom.GeoPackageGeometryData;
+import mil.nga.geopackage.user.custom.UserCustomColumn;
+import mil.nga.geopackage.user.custom.UserCustomTable;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.LineString;
+import mil.nga.sf.MultiPolygon;
+import mil.nga.sf.Point;
+import mil.nga.sf.Polygon;
+import mil.nga.sf.util.GeometryEnvelopeBuilder;
+
+/**
+ * Reproducible benchmark dataset generator. All data is generated from a fixed
+ * seed so that every benchmark run measures identical inputs.
+ * 
+ * @author osbornb
+ * @since 3.0.3
+ */
+public class BenchmarkDataGenerator {
+
+	/**
+	 * Default random seed
+	 */
+	public static final long SEED = 20180517L;
+
+	/**
+	 * WGS84 spatial reference system id
+	 */
+	public static final long SRS_ID = 4326;
+
+	/**
+	 * Points per polygon within generated multi polygons
+	 */
+	public static final int MULTI_POLYGON_RING_POINTS = 32;
+
+	/**
+	 * Random number generator
+	 */
+	private final Random random;
+
+	/**
+	 * Constructor using the default seed
+	 */
+	public BenchmarkDataGenerator() {
+		this(SEED);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param seed
+	 *            random seed
+	 */
+	public BenchmarkDataGenerator(long seed) {
+		random = new Random(seed);
+	}
+
+	/**
+	 * Create a geometry of the type containing approximately the number of
+	 * points
+	 * 
+	 * @param geometryType
+	 *            point, line string, polygon, or multi polygon
+	 * @param points
+	 *            number of points, ignored for points
+	 * @return geometry
+	 */
+	public Geometry createGeometry(GeometryType geometryType, int points) {
+
+		Geometry geometry = null;
+
+		switch (geometryType) {
+		case POINT:
+			geometry = createPoint();
+			break;
+		case LINESTRING:
+			geometry = createLineString(points);
+			break;
+		case POLYGON:
+			geometry = createPolygon(createPoint(), 1.0, points);
+			break;
+		case MULTIPOLYGON:
+			MultiPolygon multiPolygon = new MultiPolygon();
+			int polygons = Math.max(1, points / MULTI_POLYGON_RING_POINTS);
+			for (int i = 0; i < polygons; i++) {
+				multiPolygon.addPolygon(createPolygon(createPoint(), 0.1,
+						MULTI_POLYGON_RING_POINTS));
+			}
+			geometry = multiPolygon;
+			break;
+		default:
+			throw new IllegalArgumentException(
+					"Unsupported benchmark geometry type: " + geometryType);
+		}
+
+		return geometry;
+	}
+
+	/**
+	 * Create geometry data, including the envelope, of the type containing
+	 * approximately the number of points
+	 * 
+	 * @param geometryType
+	 *            point, line string, polygon, or multi polygon
+	 * @param points
+	 *            number of points, ignored for points
+	 * @return geometry data
+	 */
+	public GeoPackageGeometryData createGeometryData(
+			GeometryType geometryType, int points) {
+		Geometry geometry = createGeometry(geometryType, points);
+		GeoPackageGeometryData geometryData = new GeoPackageGeometryData(
+				SRS_ID);
+		geometryData.setGeometry(geometry);
+		geometryData.setEnvelope(GeometryEnvelopeBuilder
+				.buildEnvelope(geometry));
+		return geometryData;
+	}
+
+	/**
+	 * Create a random WGS84 point
+	 * 
+	 * @return point
+	 */
+	public Point createPoint() {
+		double x = random.nextDouble() * 358.0 - 179.0;
+		double y = random.nextDouble() * 168.0 - 84.0;
+		return new Point(x, y);
+	}
+
+	/**
+	 * Create a random walk line string
+	 * 
+	 * @param points
+	 *            number of points
+	 * @return line string
+	 */
+	public LineString createLineString(int points) {
+		LineString lineString = new LineString();
+		Point point = createPoint();
+		double x = point.getX();
+		double y = point.getY();
+		for (int i = 0; i < points; i++) {
+			lineString.addPoint(new Point(x, y));
+			x = clamp(x + random.nextGaussian() * 0.01, -180.0, 180.0);
+			y = clamp(y + random.nextGaussian() * 0.01, -85.0, 85.0);
+		}
+		return lineString;
+	}
+
+	/**
+	 * Create a closed, star shaped polygon around the center
+	 * 
+	 * @param center
+	 *            center point
+	 * @param radius
+	 *            maximum radius in degrees
+	 * @param points
+	 *            number of exterior ring points, including the closing point
+	 * @return polygon
+	 */
+	public Polygon createPolygon(Point center, double radius, int points) {
+		int ringPoints = Math.max(4, points);
+		LineString ring = new LineString();
+		Point first = null;
+		for (int i = 0; i < ringPoints - 1; i++) {
+			double angle = (2.0 * Math.PI * i) / (ringPoints - 1);
+			double distance = radius * (0.5 + 0.5 * random.nextDouble());
+			Point point = new Point(center.getX() + distance
+					* Math.cos(angle), center.getY() + distance
+					* Math.sin(angle));
+			if (first == null) {
+				first = point;
+			}
+			ring.addPoint(point);
+		}
+		ring.addPoint(new Point(first.getX(), first.getY()));
+		Polygon polygon = new Polygon();
+		polygon.addRing(ring);
+		return polygon;
+	}
+
+	/**
+	 * Create smooth terrain like coverage data values as a row major array
+	 * 
+	 * @param width
+	 *            width
+	 * @param height
+	 *            height
+	 * @return coverage data values
+	 */
+	public double[] createCoverageValues(int width, int height) {
+		double phaseX = random.nextDouble() * Math.PI;
+		double phaseY = random.nextDouble() * Math.PI;
+		double[] values = new double[width * height];
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				double value = 500.0
+						+ 250.0
+						* Math.sin(phaseX + x * 0.05)
+						* Math.cos(phaseY + y * 0.04) + 50.0
+						* Math.sin(x * 0.3 + y * 0.2) + random.nextDouble()
+						* 5.0;
+				values[y * width + x] = value;
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Create random dates spread over roughly 50 years
+	 * 
+	 * @param count
+	 *            number of dates
+	 * @return dates
+	 */
+	public Date[] createDates(int count) {
+		long start = 946684800000L; // 2000-01-01T00:00:00Z
+		long range = 50L * 365L * 24L * 60L * 60L * 1000L;
+		Date[] dates = new Date[count];
+		for (int i = 0; i < count; i++) {
+			long offset = (long) (random.nextDouble() * range);
+			dates[i] = new Date(start + offset);
+		}
+		return dates;
+	}
+
+	/**
+	 * Create a user custom table with an id column followed by a repeating
+	 * sequence of integer, real, text, blob, and date time columns
+	 * 
+	 * @param tableName
+	 *            table name
+	 * @param columnCount
+	 *            number of columns, including the id column
+	 * @return user custom table
+	 */
+	public UserCustomTable createUserCustomTable(String tableName,
+			int columnCount) {
+		List<UserCustomColumn> columns = new ArrayList<>();
+		columns.add(UserCustomColumn.createPrimaryKeyColumn(0, "id"));
+		for (int index = 1; index < columnCount; index++) {
+			GeoPackageDataType dataType = getUserColumnDataType(index);
+			columns.add(UserCustomColumn.createColumn(index, "column_"
+					+ index, dataType, false, null));
+		}
+		return new UserCustomTable(tableName, columns);
+	}
+
+	/**
+	 * Create random row values for the user custom table created by
+	 * {@link #createUserCustomTable(String, int)}
+	 * 
+	 * @param id
+	 *            row id
+	 * @param columnCount
+	 *            number of columns, including the id column
+	 * @return row values
+	 */
+	public Object[] createUserRowValues(long id, int columnCount) {
+		Object[] values = new Object[columnCount];
+		values[0] = id;
+		for (int index = 1; index < columnCount; index++) {
+			Object value = null;
+			switch (getUserColumnDataType(index)) {
+			case INTEGER:
+				value = random.nextLong();
+				break;
+			case REAL:
+				value = random.nextDouble();
+				break;
+			case TEXT:
+				value = Long.toString(random.nextLong(), 36);
+				break;
+			case BLOB:
+				byte[] bytes = new byte[64];
+				random.nextBytes(bytes);
+				value = bytes;
+				break;
+			case DATETIME:
+				value = createDates(1)[0];
+				break;
+			default:
+			}
+			values[index] = value;
+		}
+		return values;
+	}
+
+	/**
+	 * Get the data type of the non id user column index
+	 * 
+	 * @param index
+	 *            column index
+	 * @return data type
+	 */
+	private static GeoPackageDataType getUserColumnDataType(int index) {
+		GeoPackageDataType dataType;
+		switch ((index - 1) % 5) {
+		case 0:
+			dataType = GeoPackageDataType.INTEGER;
+			break;
+		case 1:
+			dataType = GeoPackageDataType.REAL;
+			break;
+		case 2:
+			dataType = GeoPackageDataType.TEXT;
+			break;
+		case 3:
+			dataType = GeoPackageDataType.BLOB;
+			break;
+		default:
+			dataType = GeoPackageDataType.DATETIME;
+		}
+		return dataType;
+	}
+
+	/**
+	 * Clamp the value within the range
+	 * 
+	 * @param value
+	 *            value
+	 * @param min
+	 *            min value
+	 * @param max
+	 *            max value
+	 * @return clamped value
+	 */
+	private static double clamp(double value, double min, double max) {
+		return Math.max(min, Math.min(max, value));
+	}
+
+}
@@ -0,0 +1,123 @@
+package mil.nga.geopackage.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import mil.nga.geopackage.BoundingBox;
+import mil.nga.geopackage.extension.coverage.CoverageDataAlgorithm;
+import mil.nga.geopackage.extension.coverage.CoverageDataGrid;
+import mil.nga.geopackage.extension.coverage.CoverageDataResults;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Coverage data interpolation benchmarks resampling a single coverage data
+ * tile with each algorithm, directly and through bounded and unbounded
+ * requests
+ * 
+ * @author osbornb
+ * @since 3.0.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoverageDataBenchmark {
+
+	/**
+	 * Source tile width and height
+	 */
+	public static final int TILE_SIZE = 256;
+
+	/**
+	 * Interpolation algorithm
+	 */
+	@Param({ "NEAREST_NEIGHBOR", "BILINEAR", "BICUBIC" })
+	public CoverageDataAlgorithm algorithm;
+
+	/**
+	 * Destination width and height
+	 */
+	@Param({ "128", "256", "512" })
+	public int size;
+
+	/**
+	 * Request bounding box covering a quarter of the source tile
+	 */
+	private static final BoundingBox REQUEST_BOUNDING_BOX = new BoundingBox(
+			-90.0, -45.0, 90.0, 45.0);
+
+	/**
+	 * Coverage data
+	 */
+	private BenchmarkCoverageData coverageData;
+
+	/**
+	 * Source tile image
+	 */
+	private BenchmarkCoverageData.Image image;
+
+	/**
+	 * Create the coverage data and source tile
+	 */
+	@Setup
+	public void setup() {
+		image = new BenchmarkCoverageData.Image(
+				new BenchmarkDataGenerator().createCoverageValues(TILE_SIZE,
+						TILE_SIZE), TILE_SIZE, TILE_SIZE);
+		coverageData = new BenchmarkCoverageData(image);
+		coverageData.setAlgorithm(algorithm);
+	}
+
+	/**
+	 * Resample the tile with primitive values
+	 * 
+	 * @return coverage data grid
+	 */
+	@Benchmark
+	public CoverageDataGrid resample() {
+		return coverageData.resample(image, algorithm, size, size);
+	}
+
+	/**
+	 * Resample the tile with boxed values
+	 * 
+	 * @return coverage data values
+	 */
+	@Benchmark
+	public Double[][] resampleBoxed() {
+		return coverageData.resampleBoxed(image, algorithm, size, size);
+	}
+
+	/**
+	 * Request the values within the bounding box at the destination size
+	 * 
+	 * @return coverage data results
+	 */
+	@Benchmark
+	public CoverageDataResults request() {
+		return coverageData.getValues(REQUEST_BOUNDING_BOX, size, size);
+	}
+
+	/**
+	 * Request every source pixel value within the bounding box
+	 * 
+	 * @return coverage data results
+	 */
+	@Benchmark
+	public CoverageDataResults requestUnbounded() {
+		return coverageData.getValuesUnbounded(REQUEST_BOUNDING_BOX);
+	}
+
+}
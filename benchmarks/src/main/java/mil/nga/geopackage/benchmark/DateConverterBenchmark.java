@@ -0,0 +1,155 @@
+package mil.nga.geopackage.benchmark;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import mil.nga.geopackage.db.DateConverter;
+import mil.nga.geopackage.db.GeoPackageDataType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Date converter parse and format benchmarks, single threaded and with
+ * multiple threads sharing the converter
+ * 
+ * @author osbornb
+ * @since 3.0.3
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateConverterBenchmark {
+
+	/**
+	 * Number of generated dates
+	 */
+	public static final int DATES = 1024;
+
+	/**
+	 * Threads used by the contended benchmarks
+	 */
+	public static final int THREADS = 4;
+
+	/**
+	 * Date data type, DATE or DATETIME
+	 */
+	@Param({ "DATE", "DATETIME" })
+	public GeoPackageDataType dataType;
+
+	/**
+	 * Shared date converter
+	 */
+	private DateConverter converter;
+
+	/**
+	 * Dates to format
+	 */
+	private Date[] dates;
+
+	/**
+	 * Date strings to parse
+	 */
+	private String[] values;
+
+	/**
+	 * Per thread position within the generated dates
+	 */
+	@State(Scope.Thread)
+	public static class Cursor {
+
+		/**
+		 * Current index
+		 */
+		private int index;
+
+		/**
+		 * Get the next index
+		 * 
+		 * @return index
+		 */
+		public int next() {
+			int next = index;
+			index = (index + 1) % DATES;
+			return next;
+		}
+
+	}
+
+	/**
+	 * Create the converter and dates
+	 */
+	@Setup
+	public void setup() {
+		converter = DateConverter.converter(dataType);
+		dates = new BenchmarkDataGenerator().createDates(DATES);
+		values = new String[DATES];
+		for (int i = 0; i < DATES; i++) {
+			values[i] = converter.stringValue(dates[i]);
+		}
+	}
+
+	/**
+	 * Format a date
+	 * 
+	 * @param cursor
+	 *            thread cursor
+	 * @return date string
+	 */
+	@Benchmark
+	public String format(Cursor cursor) {
+		return converter.stringValue(dates[cursor.next()]);
+	}
+
+	/**
+	 * Parse a date string
+	 * 
+	 * @param cursor
+	 *            thread cursor
+	 * @return date
+	 */
+	@Benchmark
+	public Date parse(Cursor cursor) {
+		return converter.dateValue(values[cursor.next()]);
+	}
+
+	/**
+	 * Format a date with multiple threads sharing the converter
+	 * 
+	 * @param cursor
+	 *            thread cursor
+	 * @return date string
+	 */
+	@Benchmark
+	@Threads(THREADS)
+	public String formatContended(Cursor cursor) {
+		return converter.stringValue(dates[cursor.next()]);
+	}
+
+	/**
+	 * Parse a date string with multiple threads sharing the converter
+	 * 
+	 * @param cursor
+	 *            thread cursor
+	 * @return date
+	 */
+	@Benchmark
+	@Threads(THREADS)
+	public Date parseContended(Cursor cursor) {
+		return converter.dateValue(values[cursor.next()]);
+	}
+
+}
@@ -0,0 +1,141 @@
+package mil.nga.geopackage.benchmark;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import mil.nga.geopackage.geom.GeoPackageGeometryData;
+import mil.nga.geopackage.geom.GeoPackageGeometryWriter;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * GeoPackage geometry data encoding and decoding benchmarks across geometry
+ * types and sizes
+ * 
+ * @author osbornb
+ * @since 3.0.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeometryDataBenchmark {
+
+	/**
+	 * Geometry type
+	 */
+	@Param({ "POINT", "LINESTRING", "POLYGON", "MULTIPOLYGON" })
+	public GeometryType geometryType;
+
+	/**
+	 * Number of points in each geometry, ignored for points
+	 */
+	@Param({ "16", "1024", "65536" })
+	public int points;
+
+	/**
+	 * Geometry data to encode
+	 */
+	private GeoPackageGeometryData geometryData;
+
+	/**
+	 * Encoded geometry data bytes to decode
+	 */
+	private byte[] bytes;
+
+	/**
+	 * Reusable geometry writer
+	 */
+	private final GeoPackageGeometryWriter writer = new GeoPackageGeometryWriter();
+
+	/**
+	 * Reusable encode buffer
+	 */
+	private ByteBuffer buffer;
+
+	/**
+	 * Create the geometry data and bytes
+	 * 
+	 * @throws IOException
+	 *             upon failure
+	 */
+	@Setup
+	public void setup() throws IOException {
+		BenchmarkDataGenerator generator = new BenchmarkDataGenerator();
+		geometryData = generator.createGeometryData(geometryType, points);
+		bytes = geometryData.toBytes();
+		buffer = ByteBuffer.allocateDirect(bytes.length);
+	}
+
+	/**
+	 * Decode the header and geometry
+	 * 
+	 * @return geometry
+	 */
+	@Benchmark
+	public Geometry fromBytes() {
+		return new GeoPackageGeometryData(bytes).getGeometry();
+	}
+
+	/**
+	 * Decode only the header, deferring the geometry decode
+	 * 
+	 * @return geometry data
+	 */
+	@Benchmark
+	public GeoPackageGeometryData fromBytesLazy() {
+		return new GeoPackageGeometryData(bytes, true);
+	}
+
+	/**
+	 * Encode the header and geometry
+	 * 
+	 * @return bytes
+	 * @throws IOException
+	 *             upon failure
+	 */
+	@Benchmark
+	public byte[] toBytes() throws IOException {
+		return geometryData.toBytes();
+	}
+
+	/**
+	 * Encode the header and geometry into a reused direct buffer
+	 * 
+	 * @return bytes written
+	 */
+	@Benchmark
+	public int toByteBuffer() {
+		buffer.clear();
+		return writer.write(geometryData, buffer);
+	}
+
+	/**
+	 * Encode the geometry into a reused direct buffer, computing the envelope
+	 * while writing
+	 * 
+	 * @return bytes written
+	 */
+	@Benchmark
+	public int toByteBufferWithEnvelope() {
+		buffer.clear();
+		return writer.write(geometryData.getGeometry(),
+				geometryData.getSrsId(), buffer);
+	}
+
+}
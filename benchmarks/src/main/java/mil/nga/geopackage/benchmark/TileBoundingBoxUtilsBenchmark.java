@@ -0,0 +1,169 @@
+package mil.nga.geopackage.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import mil.nga.geopackage.BoundingBox;
+import mil.nga.geopackage.tiles.TileBoundingBoxUtils;
+import mil.nga.sf.Point;
+import mil.nga.sf.proj.ProjectionConstants;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Tile bounding box utility grid math benchmarks
+ * 
+ * @author osbornb
+ * @since 3.0.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TileBoundingBoxUtilsBenchmark {
+
+	/**
+	 * Number of generated inputs per benchmark invocation
+	 */
+	public static final int OPERATIONS = 1024;
+
+	/**
+	 * Zoom level
+	 */
+	@Param({ "4", "12", "18" })
+	public int zoom;
+
+	/**
+	 * Web Mercator total bounding box
+	 */
+	private BoundingBox totalBox;
+
+	/**
+	 * Tiles per side at the zoom level
+	 */
+	private int tilesPerSide;
+
+	/**
+	 * Web Mercator bounding boxes within the total bounding box
+	 */
+	private BoundingBox[] boundingBoxes;
+
+	/**
+	 * WGS84 points
+	 */
+	private Point[] points;
+
+	/**
+	 * Tile columns
+	 */
+	private long[] tileColumns;
+
+	/**
+	 * Tile rows
+	 */
+	private long[] tileRows;
+
+	/**
+	 * Create the inputs
+	 */
+	@Setup
+	public void setup() {
+		Random random = new Random(BenchmarkDataGenerator.SEED);
+		BenchmarkDataGenerator generator = new BenchmarkDataGenerator();
+		double max = ProjectionConstants.WEB_MERCATOR_HALF_WORLD_WIDTH;
+		totalBox = new BoundingBox(-max, -max, max, max);
+		tilesPerSide = TileBoundingBoxUtils.tilesPerSide(zoom);
+		boundingBoxes = new BoundingBox[OPERATIONS];
+		points = new Point[OPERATIONS];
+		tileColumns = new long[OPERATIONS];
+		tileRows = new long[OPERATIONS];
+		double tileSize = TileBoundingBoxUtils.tileSize(tilesPerSide);
+		for (int i = 0; i < OPERATIONS; i++) {
+			double width = tileSize * (1 + random.nextInt(4));
+			double height = tileSize * (1 + random.nextInt(4));
+			double minX = -max + random.nextDouble() * (2 * max - width);
+			double minY = -max + random.nextDouble() * (2 * max - height);
+			boundingBoxes[i] = new BoundingBox(minX, minY, minX + width, minY
+					+ height);
+			points[i] = generator.createPoint();
+			tileColumns[i] = random.nextInt(tilesPerSide);
+			tileRows[i] = random.nextInt(tilesPerSide);
+		}
+	}
+
+	/**
+	 * Get the tile grids of bounding boxes within a tile matrix
+	 * 
+	 * @param blackhole
+	 *            blackhole
+	 */
+	@Benchmark
+	@OperationsPerInvocation(OPERATIONS)
+	public void getTileGrid(Blackhole blackhole) {
+		for (BoundingBox boundingBox : boundingBoxes) {
+			blackhole.consume(TileBoundingBoxUtils.getTileGrid(totalBox,
+					tilesPerSide, tilesPerSide, boundingBox));
+		}
+	}
+
+	/**
+	 * Get the bounding boxes of tile columns and rows within a tile matrix
+	 * 
+	 * @param blackhole
+	 *            blackhole
+	 */
+	@Benchmark
+	@OperationsPerInvocation(OPERATIONS)
+	public void getBoundingBox(Blackhole blackhole) {
+		for (int i = 0; i < OPERATIONS; i++) {
+			blackhole.consume(TileBoundingBoxUtils.getBoundingBox(totalBox,
+					tilesPerSide, tilesPerSide, tileColumns[i], tileRows[i]));
+		}
+	}
+
+	/**
+	 * Get the Web Mercator bounding boxes of XYZ tiles
+	 * 
+	 * @param blackhole
+	 *            blackhole
+	 */
+	@Benchmark
+	@OperationsPerInvocation(OPERATIONS)
+	public void getWebMercatorBoundingBox(Blackhole blackhole) {
+		for (int i = 0; i < OPERATIONS; i++) {
+			blackhole.consume(TileBoundingBoxUtils.getWebMercatorBoundingBox(
+					tileColumns[i], tileRows[i], zoom));
+		}
+	}
+
+	/**
+	 * Get the XYZ tile grids containing WGS84 points, including the projection
+	 * transform
+	 * 
+	 * @param blackhole
+	 *            blackhole
+	 */
+	@Benchmark
+	@OperationsPerInvocation(OPERATIONS)
+	public void getTileGridFromWGS84(Blackhole blackhole) {
+		for (Point point : points) {
+			blackhole.consume(TileBoundingBoxUtils.getTileGridFromWGS84(point,
+					zoom));
+		}
+	}
+
+}
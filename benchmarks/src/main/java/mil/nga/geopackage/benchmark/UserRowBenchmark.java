@@ -0,0 +1,162 @@
+package mil.nga.geopackage.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import mil.nga.geopackage.user.UserCoreResultUtils;
+import mil.nga.geopackage.user.UserCoreRow;
+import mil.nga.geopackage.user.custom.UserCustomColumn;
+import mil.nga.geopackage.user.custom.UserCustomTable;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * User row copy and value access benchmarks
+ * 
+ * @author osbornb
+ * @since 3.0.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserRowBenchmark {
+
+	/**
+	 * Number of table columns, including the id column
+	 */
+	@Param({ "6", "26" })
+	public int columnCount;
+
+	/**
+	 * Row to copy and read
+	 */
+	private BenchmarkRow row;
+
+	/**
+	 * Column names in table order
+	 */
+	private String[] columnNames;
+
+	/**
+	 * Minimal concrete user row over a user custom table
+	 */
+	public static class BenchmarkRow extends
+			UserCoreRow<UserCustomColumn, UserCustomTable> {
+
+		/**
+		 * Constructor
+		 * 
+		 * @param table
+		 *            table
+		 * @param columnTypes
+		 *            column types
+		 * @param values
+		 *            values
+		 */
+		public BenchmarkRow(UserCustomTable table, int[] columnTypes,
+				Object[] values) {
+			super(table, columnTypes, values);
+		}
+
+		/**
+		 * Copy Constructor
+		 * 
+		 * @param row
+		 *            row to copy
+		 */
+		public BenchmarkRow(BenchmarkRow row) {
+			super(row);
+		}
+
+	}
+
+	/**
+	 * Create the table and row
+	 */
+	@Setup
+	public void setup() {
+		BenchmarkDataGenerator generator = new BenchmarkDataGenerator();
+		UserCustomTable table = generator.createUserCustomTable("benchmark",
+				columnCount);
+		Object[] values = generator.createUserRowValues(1, columnCount);
+		int[] columnTypes = new int[columnCount];
+		for (int i = 0; i < columnCount; i++) {
+			columnTypes[i] = getColumnType(values[i]);
+		}
+		row = new BenchmarkRow(table, columnTypes, values);
+		columnNames = table.getColumnNames();
+	}
+
+	/**
+	 * Copy the row, deep copying blob and date values
+	 * 
+	 * @return row copy
+	 */
+	@Benchmark
+	public BenchmarkRow copy() {
+		return new BenchmarkRow(row);
+	}
+
+	/**
+	 * Get every row value by column index
+	 * 
+	 * @param blackhole
+	 *            blackhole
+	 */
+	@Benchmark
+	public void getValueByIndex(Blackhole blackhole) {
+		for (int i = 0; i < columnCount; i++) {
+			blackhole.consume(row.getValue(i));
+		}
+	}
+
+	/**
+	 * Get every row value by column name
+	 * 
+	 * @param blackhole
+	 *            blackhole
+	 */
+	@Benchmark
+	public void getValueByName(Blackhole blackhole) {
+		for (String columnName : columnNames) {
+			blackhole.consume(row.getValue(columnName));
+		}
+	}
+
+	/**
+	 * Get the result field type of the value
+	 * 
+	 * @param value
+	 *            value
+	 * @return field type
+	 */
+	private static int getColumnType(Object value) {
+		int type;
+		if (value == null) {
+			type = UserCoreResultUtils.FIELD_TYPE_NULL;
+		} else if (value instanceof Long) {
+			type = UserCoreResultUtils.FIELD_TYPE_INTEGER;
+		} else if (value instanceof Double) {
+			type = UserCoreResultUtils.FIELD_TYPE_FLOAT;
+		} else if (value instanceof byte[]) {
+			type = UserCoreResultUtils.FIELD_TYPE_BLOB;
+		} else {
+			type = UserCoreResultUtils.FIELD_TYPE_STRING;
+		}
+		return type;
+	}
+
+}
@@ -0,0 +1,24 @@
+package mil.nga.geopackage;
+
+/**
+ * Loader for opening GeoPackages on demand by name when leased from a
+ * {@link GeoPackageCoreCache}
+ * 
+ * @author osbornb
+ * 
+ * @param <T>
+ *            templated GeoPackage object
+ * @since 3.0.3
+ */
+public interface GeoPackageCacheLoader<T extends GeoPackageCore> {
+
+	/**
+	 * Open the GeoPackage with the name
+	 * 
+	 * @param name
+	 *            GeoPackage name
+	 * @return open GeoPackage
+	 */
+	public T open(String name);
+
+}
@@ -5,6 +5,7 @@ import java.util.List;
 
 import mil.nga.geopackage.attributes.AttributesColumn;
 import mil.nga.geopackage.attributes.AttributesTable;
+import mil.nga.geopackage.core.GeoPackageCatalog;
 import mil.nga.geopackage.core.contents.Contents;
 import mil.nga.geopackage.core.contents.ContentsDao;
 import mil.nga.geopackage.core.contents.ContentsDataType;
@@ -262,6 +263,24 @@ public interface GeoPackageCore extends Closeable {
 	 */
 	public String getTableType(String table);
 
+	/**
+	 * Get the schema catalog snapshot of the core tables, loading it if not
+	 * loaded or invalidated. Writes through the core table DAOs invalidate the
+	 * snapshot, raw SQL changes to the core tables require
+	 * {@link #invalidateCatalog()}.
+	 * 
+	 * @return catalog snapshot
+	 * @since 3.0.3
+	 */
+	public GeoPackageCatalog getCatalog();
+
+	/**
+	 * Invalidate the schema catalog snapshot so it is reloaded on next use
+	 * 
+	 * @since 3.0.3
+	 */
+	public void invalidateCatalog();
+
 	/**
 	 * Get a Spatial Reference System DAO
 	 * 
@@ -1,14 +1,26 @@
 package mil.nga.geopackage;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Abstract GeoPackage Core Cache for maintaining and reusing open GeoPackage
- * connections
+ * connections. The cache is thread safe. GeoPackages may be leased with
+ * {@link #lease(String)}, opening on demand through the
+ * {@link GeoPackageCacheLoader}, and returned with
+ * {@link #release(GeoPackageCore)}. Leased GeoPackages are never closed by the cache; closing a leased
+ * GeoPackage is deferred until its last lease is released. When a max open
+ * count or max idle time is set, unleased GeoPackages are evicted and closed
+ * in least recently used order.
  * 
  * @author osbornb
  *
@@ -18,9 +30,52 @@ import java.util.Set;
 public abstract class GeoPackageCoreCache<T extends GeoPackageCore> {
 
 	/**
-	 * Cache of GeoPackage names and GeoPackages
+	 * Cache of GeoPackage names and entries in least recently used order,
+	 * also the lock guarding cache state
 	 */
-	private Map<String, T> cache = new HashMap<String, T>();
+	private final Map<String, Entry<T>> cache = new LinkedHashMap<>(16,
+			0.75f, true);
+
+	/**
+	 * Removed GeoPackages with outstanding leases, closed on last release
+	 * unless removed without closing
+	 */
+	private final Map<T, Entry<T>> retired = new IdentityHashMap<>();
+
+	/**
+	 * Loader for opening GeoPackages on demand
+	 */
+	private volatile GeoPackageCacheLoader<T> loader;
+
+	/**
+	 * Max open GeoPackages, 0 for no limit
+	 */
+	private volatile int maxOpen = 0;
+
+	/**
+	 * Max unleased idle time in milliseconds before eviction, 0 for no limit
+	 */
+	private volatile long maxIdleMillis = 0;
+
+	/**
+	 * Cache hits
+	 */
+	private final AtomicLong hits = new AtomicLong();
+
+	/**
+	 * Cache misses
+	 */
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * GeoPackages opened by the loader
+	 */
+	private final AtomicLong opens = new AtomicLong();
+
+	/**
+	 * GeoPackages evicted and closed
+	 */
+	private final AtomicLong evictions = new AtomicLong();
 
 	/**
 	 * Constructor
@@ -29,6 +84,84 @@ public abstract class GeoPackageCoreCache<T extends GeoPackageCore> {
 
 	}
 
+	/**
+	 * Constructor
+	 * 
+	 * @param loader
+	 *            loader for opening GeoPackages on demand
+	 * @since 3.0.3
+	 */
+	public GeoPackageCoreCache(GeoPackageCacheLoader<T> loader) {
+		this.loader = loader;
+	}
+
+	/**
+	 * Get the loader for opening GeoPackages on demand
+	 * 
+	 * @return loader or null
+	 * @since 3.0.3
+	 */
+	public GeoPackageCacheLoader<T> getLoader() {
+		return loader;
+	}
+
+	/**
+	 * Set the loader for opening GeoPackages on demand
+	 * 
+	 * @param loader
+	 *            loader
+	 * @since 3.0.3
+	 */
+	public void setLoader(GeoPackageCacheLoader<T> loader) {
+		this.loader = loader;
+	}
+
+	/**
+	 * Get the max open GeoPackages
+	 * 
+	 * @return max open, 0 for no limit
+	 * @since 3.0.3
+	 */
+	public int getMaxOpen() {
+		return maxOpen;
+	}
+
+	/**
+	 * Set the max open GeoPackages. The limit is exceeded only while all open
+	 * GeoPackages are leased.
+	 * 
+	 * @param maxOpen
+	 *            max open, 0 for no limit
+	 * @since 3.0.3
+	 */
+	public void setMaxOpen(int maxOpen) {
+		this.maxOpen = maxOpen;
+		evict();
+	}
+
+	/**
+	 * Get the max unleased idle time before eviction
+	 * 
+	 * @return max idle milliseconds, 0 for no limit
+	 * @since 3.0.3
+	 */
+	public long getMaxIdleMillis() {
+		return maxIdleMillis;
+	}
+
+	/**
+	 * Set the max unleased idle time before eviction. Idle GeoPackages are
+	 * evicted when the cache is accessed or by calling {@link #evict()}.
+	 * 
+	 * @param maxIdleMillis
+	 *            max idle milliseconds, 0 for no limit
+	 * @since 3.0.3
+	 */
+	public void setMaxIdleMillis(long maxIdleMillis) {
+		this.maxIdleMillis = maxIdleMillis;
+		evict();
+	}
+
 	/**
 	 * Get the names of the cached GeoPackages
 	 * 
@@ -36,7 +169,9 @@ public abstract class GeoPackageCoreCache<T extends GeoPackageCore> {
 	 * @since 1.0.1
 	 */
 	public Set<String> getNames() {
-		return cache.keySet();
+		synchronized (cache) {
+			return new HashSet<>(cache.keySet());
+		}
 	}
 
 	/**
@@ -46,18 +181,240 @@ public abstract class GeoPackageCoreCache<T extends GeoPackageCore> {
 	 * @since 1.0.1
 	 */
 	public Collection<T> getGeoPackages() {
-		return cache.values();
+		List<T> geoPackages = new ArrayList<>();
+		synchronized (cache) {
+			for (Entry<T> entry : cache.values()) {
+				if (entry.geoPackage != null) {
+					geoPackages.add(entry.geoPackage);
+				}
+			}
+		}
+		return geoPackages;
 	}
 
 	/**
-	 * Get the GeoPackage with name
+	 * Get the GeoPackage with name. The GeoPackage is not leased and may be
+	 * evicted, use {@link #lease(String)} to hold it open.
 	 * 
 	 * @param name
 	 *            GeoPackage name
 	 * @return cached GeoPackage
 	 */
 	public T get(String name) {
-		return cache.get(name);
+		T geoPackage = null;
+		synchronized (cache) {
+			Entry<T> entry = cache.get(name);
+			if (entry != null) {
+				geoPackage = entry.geoPackage;
+				entry.touch();
+			}
+		}
+		if (geoPackage != null) {
+			hits.incrementAndGet();
+		} else {
+			misses.incrementAndGet();
+		}
+		return geoPackage;
+	}
+
+	/**
+	 * Lease the GeoPackage with name, opening it with the loader when not
+	 * cached. The GeoPackage will not be closed by the cache until released
+	 * with {@link #release(GeoPackageCore)}.
+	 * 
+	 * @param name
+	 *            GeoPackage name
+	 * @return leased GeoPackage
+	 * @since 3.0.3
+	 */
+	public T lease(String name) {
+
+		Entry<T> entry;
+		boolean load = false;
+		synchronized (cache) {
+			entry = cache.get(name);
+			if (entry == null) {
+				if (loader == null) {
+					throw new GeoPackageException(
+							"GeoPackage is not cached and no loader is set. Name: "
+									+ name);
+				}
+				entry = new Entry<T>();
+				cache.put(name, entry);
+				load = true;
+			}
+			entry.leases++;
+			entry.touch();
+		}
+
+		T geoPackage;
+		if (load) {
+			misses.incrementAndGet();
+			geoPackage = load(name, entry);
+		} else {
+			hits.incrementAndGet();
+			geoPackage = await(name, entry);
+		}
+
+		return geoPackage;
+	}
+
+	/**
+	 * Release a GeoPackage lease. A GeoPackage closed or removed while leased
+	 * is closed when its last lease is released.
+	 * 
+	 * @param geoPackage
+	 *            leased GeoPackage
+	 * @since 3.0.3
+	 */
+	public void release(T geoPackage) {
+
+		T close = null;
+		synchronized (cache) {
+			Entry<T> entry = cache.get(geoPackage.getName());
+			if (entry != null && entry.geoPackage == geoPackage
+					&& (entry.leases > 0 || !retired.containsKey(geoPackage))) {
+				if (entry.leases <= 0) {
+					throw new GeoPackageException(
+							"GeoPackage is not leased. Name: "
+									+ geoPackage.getName());
+				}
+				entry.leases--;
+				entry.touch();
+			} else {
+				entry = retired.get(geoPackage);
+				if (entry == null) {
+					throw new GeoPackageException(
+							"GeoPackage is not leased from the cache. Name: "
+									+ geoPackage.getName());
+				}
+				if (--entry.leases <= 0) {
+					retired.remove(geoPackage);
+					if (entry.closeOnRelease) {
+						close = geoPackage;
+					}
+				}
+			}
+		}
+
+		if (close != null) {
+			close.close();
+		}
+		evict();
+	}
+
+	/**
+	 * Get the number of leases held on the GeoPackage with name
+	 * 
+	 * @param name
+	 *            GeoPackage name
+	 * @return lease count
+	 * @since 3.0.3
+	 */
+	public int getLeases(String name) {
+		int leases = 0;
+		synchronized (cache) {
+			Entry<T> entry = cache.get(name);
+			if (entry != null) {
+				leases = entry.leases;
+			}
+		}
+		return leases;
+	}
+
+	/**
+	 * Evict and close unleased GeoPackages exceeding the max open count or
+	 * idle longer than the max idle time, least recently used first
+	 * 
+	 * @return number of evicted GeoPackages
+	 * @since 3.0.3
+	 */
+	public int evict() {
+
+		List<T> close = new ArrayList<>();
+
+		int max = maxOpen;
+		long maxIdle = maxIdleMillis;
+		if (max > 0 || maxIdle > 0) {
+			long now = System.currentTimeMillis();
+			synchronized (cache) {
+				int excess = max > 0 ? cache.size() - max : 0;
+				Iterator<Entry<T>> entries = cache.values().iterator();
+				while (entries.hasNext()) {
+					Entry<T> entry = entries.next();
+					if (entry.leases == 0 && entry.geoPackage != null) {
+						boolean idle = maxIdle > 0
+								&& now - entry.lastAccess >= maxIdle;
+						if (excess > 0 || idle) {
+							entries.remove();
+							close.add(entry.geoPackage);
+							excess--;
+						} else {
+							break;
+						}
+					}
+				}
+			}
+		}
+
+		for (T geoPackage : close) {
+			geoPackage.close();
+		}
+		evictions.addAndGet(close.size());
+
+		return close.size();
+	}
+
+	/**
+	 * Get the number of cached GeoPackages, including those being opened
+	 * 
+	 * @return size
+	 * @since 3.0.3
+	 */
+	public int size() {
+		synchronized (cache) {
+			return cache.size();
+		}
+	}
+
+	/**
+	 * Get the number of gets and leases of already cached GeoPackages
+	 * 
+	 * @return hits
+	 * @since 3.0.3
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Get the number of gets and leases of GeoPackages not already cached
+	 * 
+	 * @return misses
+	 * @since 3.0.3
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * Get the number of GeoPackages opened by the loader
+	 * 
+	 * @return opens
+	 * @since 3.0.3
+	 */
+	public long getOpens() {
+		return opens.get();
+	}
+
+	/**
+	 * Get the number of GeoPackages evicted and closed
+	 * 
+	 * @return evictions
+	 * @since 3.0.3
+	 */
+	public long getEvictions() {
+		return evictions.get();
 	}
 
 	/**
@@ -68,27 +425,57 @@ public abstract class GeoPackageCoreCache<T extends GeoPackageCore> {
 	 * @return true if exists
 	 */
 	public boolean exists(String name) {
-		return cache.containsKey(name);
+		synchronized (cache) {
+			return cache.containsKey(name);
+		}
 	}
 
 	/**
-	 * Close all GeoPackages in the cache
+	 * Close all GeoPackages in the cache. Leased GeoPackages are closed when
+	 * released.
 	 */
 	public void closeAll() {
-		for (T geoPackage : cache.values()) {
+		List<T> close = new ArrayList<>();
+		synchronized (cache) {
+			for (Entry<T> entry : cache.values()) {
+				T geoPackage = retire(entry, true);
+				if (geoPackage != null) {
+					close.add(geoPackage);
+				}
+			}
+			cache.clear();
+		}
+		for (T geoPackage : close) {
 			geoPackage.close();
 		}
-		cache.clear();
 	}
 
 	/**
-	 * Add a GeoPackage to the cache
+	 * Add a GeoPackage to the cache. A different GeoPackage cached with the
+	 * same name is replaced and closed, or closed when released if leased.
 	 * 
 	 * @param geoPackage
 	 *            GeoPackage
 	 */
 	public void add(T geoPackage) {
-		cache.put(geoPackage.getName(), geoPackage);
+		T close = null;
+		synchronized (cache) {
+			Entry<T> entry = cache.get(geoPackage.getName());
+			if (entry != null && entry.geoPackage == geoPackage) {
+				entry.touch();
+			} else {
+				Entry<T> added = new Entry<T>();
+				added.complete(geoPackage);
+				cache.put(geoPackage.getName(), added);
+				if (entry != null) {
+					close = retire(entry, true);
+				}
+			}
+		}
+		if (close != null) {
+			close.close();
+		}
+		evict();
 	}
 
 	/**
@@ -106,24 +493,39 @@ public abstract class GeoPackageCoreCache<T extends GeoPackageCore> {
 
 	/**
 	 * Remove the GeoPackage with the name but does not close it, call
-	 * {@link #close(String)} to close and remove
+	 * {@link #close(String)} to close and remove. Outstanding leases remain
+	 * valid and may still be released.
 	 * 
 	 * @param name
 	 *            GeoPackage name
 	 * @return removed GeoPackage
 	 */
 	public T remove(String name) {
-		return cache.remove(name);
+		T geoPackage = null;
+		synchronized (cache) {
+			Entry<T> entry = cache.remove(name);
+			if (entry != null) {
+				geoPackage = entry.geoPackage;
+				retire(entry, false);
+			}
+		}
+		return geoPackage;
 	}
 
 	/**
 	 * Clears all cached GeoPackages but does not close them, call
-	 * {@link #closeAll()} to close and clear all GeoPackages
+	 * {@link #closeAll()} to close and clear all GeoPackages. Outstanding
+	 * leases remain valid and may still be released.
 	 * 
 	 * @since 1.0.1
 	 */
 	public void clear() {
-		cache.clear();
+		synchronized (cache) {
+			for (Entry<T> entry : cache.values()) {
+				retire(entry, false);
+			}
+			cache.clear();
+		}
 	}
 
 	/**
@@ -138,7 +540,8 @@ public abstract class GeoPackageCoreCache<T extends GeoPackageCore> {
 	}
 
 	/**
-	 * Close the GeoPackage with name
+	 * Close the GeoPackage with name. A leased GeoPackage is removed and
+	 * closed when released.
 	 * 
 	 * @param name
 	 *            GeoPackage name
@@ -146,11 +549,19 @@ public abstract class GeoPackageCoreCache<T extends GeoPackageCore> {
 	 * @since 1.0.1
 	 */
 	public boolean close(String name) {
-		T geoPackage = remove(name);
-		if (geoPackage != null) {
-			geoPackage.close();
+		boolean found = false;
+		T close = null;
+		synchronized (cache) {
+			Entry<T> entry = cache.remove(name);
+			if (entry != null) {
+				found = entry.geoPackage != null;
+				close = retire(entry, true);
+			}
 		}
-		return geoPackage != null;
+		if (close != null) {
+			close.close();
+		}
+		return found;
 	}
 
 	/**
@@ -161,7 +572,7 @@ public abstract class GeoPackageCoreCache<T extends GeoPackageCore> {
 	 * @since 1.0.1
 	 */
 	public void closeRetain(Collection<String> retain) {
-		Set<String> close = new HashSet<>(cache.keySet());
+		Set<String> close = getNames();
 		close.removeAll(retain);
 		for (String name : close) {
 			close(name);
@@ -181,4 +592,178 @@ public abstract class GeoPackageCoreCache<T extends GeoPackageCore> {
 		}
 	}
 
+	/**
+	 * Retire a removed entry, tracking it while leased so leases may still be
+	 * released and deferring the close until the last release. Must be called
+	 * while holding the cache lock.
+	 * 
+	 * @param entry
+	 *            removed entry
+	 * @param close
+	 *            true to close the GeoPackage, false to leave it open
+	 * @return GeoPackage to close now, or null
+	 */
+	private T retire(Entry<T> entry, boolean close) {
+		T closeNow = null;
+		if (entry.geoPackage != null) {
+			if (entry.leases > 0) {
+				entry.closeOnRelease = close;
+				retired.put(entry.geoPackage, entry);
+			} else if (close) {
+				closeNow = entry.geoPackage;
+			}
+		}
+		return closeNow;
+	}
+
+	/**
+	 * Open the GeoPackage for a new leased entry with the loader
+	 * 
+	 * @param name
+	 *            GeoPackage name
+	 * @param entry
+	 *            loading entry
+	 * @return leased GeoPackage
+	 */
+	private T load(String name, Entry<T> entry) {
+
+		T geoPackage = null;
+		RuntimeException failure = null;
+		try {
+			geoPackage = loader.open(name);
+			if (geoPackage == null) {
+				failure = new GeoPackageException(
+						"Loader did not open GeoPackage. Name: " + name);
+			}
+		} catch (RuntimeException e) {
+			failure = e;
+		}
+
+		if (failure != null) {
+			synchronized (cache) {
+				if (cache.get(name) == entry) {
+					cache.remove(name);
+				}
+				entry.leases--;
+			}
+			entry.fail(failure);
+			throw new GeoPackageException("Failed to open GeoPackage. Name: "
+					+ name, failure);
+		}
+
+		opens.incrementAndGet();
+		synchronized (cache) {
+			entry.complete(geoPackage);
+			if (cache.get(name) != entry) {
+				// Closed or removed while opening
+				retired.put(geoPackage, entry);
+			}
+		}
+		evict();
+
+		return geoPackage;
+	}
+
+	/**
+	 * Wait for a leased entry opened by another thread
+	 * 
+	 * @param name
+	 *            GeoPackage name
+	 * @param entry
+	 *            leased entry
+	 * @return leased GeoPackage
+	 */
+	private T await(String name, Entry<T> entry) {
+
+		RuntimeException failure = null;
+		try {
+			entry.loaded.await();
+			failure = entry.failure;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			failure = new GeoPackageException(
+					"Interrupted while waiting for GeoPackage to open", e);
+		}
+
+		if (failure != null) {
+			synchronized (cache) {
+				entry.leases--;
+			}
+			throw new GeoPackageException("Failed to open GeoPackage. Name: "
+					+ name, failure);
+		}
+
+		return entry.geoPackage;
+	}
+
+	/**
+	 * Cache entry
+	 * 
+	 * @param <T>
+	 *            templated GeoPackage object
+	 */
+	private static class Entry<T> {
+
+		/**
+		 * Latch released when opened or failed
+		 */
+		private final CountDownLatch loaded = new CountDownLatch(1);
+
+		/**
+		 * GeoPackage, null while opening
+		 */
+		private volatile T geoPackage;
+
+		/**
+		 * Open failure
+		 */
+		private volatile RuntimeException failure;
+
+		/**
+		 * Lease count, guarded by the cache lock
+		 */
+		private int leases = 0;
+
+		/**
+		 * Last access time in milliseconds, guarded by the cache lock
+		 */
+		private long lastAccess = System.currentTimeMillis();
+
+		/**
+		 * Close when the last lease of the retired GeoPackage is released,
+		 * guarded by the cache lock
+		 */
+		private boolean closeOnRelease = true;
+
+		/**
+		 * Update the last access time
+		 */
+		private void touch() {
+			lastAccess = System.currentTimeMillis();
+		}
+
+		/**
+		 * Complete the open
+		 * 
+		 * @param geoPackage
+		 *            GeoPackage
+		 */
+		private void complete(T geoPackage) {
+			this.geoPackage = geoPackage;
+			loaded.countDown();
+		}
+
+		/**
+		 * Fail the open
+		 * 
+		 * @param failure
+		 *            failure
+		 */
+		private void fail(RuntimeException failure) {
+			this.failure = failure;
+			loaded.countDown();
+		}
+
+	}
+
 }
@@ -0,0 +1,545 @@
+package mil.nga.geopackage.core;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import mil.nga.geopackage.core.contents.Contents;
+import mil.nga.geopackage.core.contents.ContentsDao;
+import mil.nga.geopackage.core.srs.SpatialReferenceSystem;
+import mil.nga.geopackage.core.srs.SpatialReferenceSystemDao;
+import mil.nga.geopackage.extension.Extensions;
+import mil.nga.geopackage.extension.ExtensionsDao;
+import mil.nga.geopackage.features.columns.GeometryColumns;
+import mil.nga.geopackage.features.columns.GeometryColumnsDao;
+import mil.nga.geopackage.tiles.matrix.TileMatrix;
+import mil.nga.geopackage.tiles.matrix.TileMatrixDao;
+import mil.nga.geopackage.tiles.matrixset.TileMatrixSet;
+import mil.nga.geopackage.tiles.matrixset.TileMatrixSetDao;
+
+/**
+ * Immutable in memory snapshot of the GeoPackage schema catalog: the Contents,
+ * Geometry Columns, Tile Matrix Set, Tile Matrix, Extensions, and Spatial
+ * Reference System table rows. Lookups are answered from maps without
+ * querying the database. Rows are returned as copies, so changes to them do
+ * not alter the snapshot and must be saved through their DAOs, which causes a
+ * new snapshot to be loaded. Contents copies answer their geometry columns,
+ * tile matrix set, and tile matrix collections from the snapshot.
+ * 
+ * @author osbornb
+ * @since 3.0.3
+ */
+public class GeoPackageCatalog {
+
+	/**
+	 * Contents table exists flag
+	 */
+	private final boolean contentsExists;
+
+	/**
+	 * Contents by table name, in query order
+	 */
+	private final Map<String, Contents> contents;
+
+	/**
+	 * Table names
+	 */
+	private final List<String> tables;
+
+	/**
+	 * Table names by data type
+	 */
+	private final Map<String, List<String>> tablesByType;
+
+	/**
+	 * Geometry columns by table name
+	 */
+	private final Map<String, GeometryColumns> geometryColumns;
+
+	/**
+	 * Tile matrix sets by table name
+	 */
+	private final Map<String, TileMatrixSet> tileMatrixSets;
+
+	/**
+	 * Tile matrices by table name, ordered by zoom level
+	 */
+	private final Map<String, List<TileMatrix>> tileMatrices;
+
+	/**
+	 * Extensions, in query order
+	 */
+	private final List<Extensions> extensions;
+
+	/**
+	 * Extensions by table name, null key for GeoPackage extensions
+	 */
+	private final Map<String, List<Extensions>> tableExtensions;
+
+	/**
+	 * Spatial reference systems by id
+	 */
+	private final Map<Long, SpatialReferenceSystem> srs;
+
+	/**
+	 * Load a catalog snapshot from the core DAOs. Tables that do not exist
+	 * load as empty.
+	 * 
+	 * @param contentsDao
+	 *            contents dao
+	 * @param geometryColumnsDao
+	 *            geometry columns dao
+	 * @param tileMatrixSetDao
+	 *            tile matrix set dao
+	 * @param tileMatrixDao
+	 *            tile matrix dao
+	 * @param extensionsDao
+	 *            extensions dao
+	 * @param srsDao
+	 *            spatial reference system dao
+	 * @return catalog snapshot
+	 * @throws SQLException
+	 *             upon query error
+	 */
+	public static GeoPackageCatalog load(ContentsDao contentsDao,
+			GeometryColumnsDao geometryColumnsDao,
+			TileMatrixSetDao tileMatrixSetDao, TileMatrixDao tileMatrixDao,
+			ExtensionsDao extensionsDao, SpatialReferenceSystemDao srsDao)
+			throws SQLException {
+
+		boolean contentsExists = contentsDao.isTableExists();
+		List<Contents> contents = contentsExists ? contentsDao.queryForAll()
+				: new ArrayList<Contents>();
+		List<GeometryColumns> geometryColumns = geometryColumnsDao
+				.isTableExists() ? geometryColumnsDao.queryForAll()
+				: new ArrayList<GeometryColumns>();
+		List<TileMatrixSet> tileMatrixSets = tileMatrixSetDao.isTableExists() ? tileMatrixSetDao
+				.queryForAll() : new ArrayList<TileMatrixSet>();
+		List<TileMatrix> tileMatrices = tileMatrixDao.isTableExists() ? tileMatrixDao
+				.queryForAll() : new ArrayList<TileMatrix>();
+		List<Extensions> extensions = extensionsDao.isTableExists() ? extensionsDao
+				.queryForAll() : new ArrayList<Extensions>();
+		List<SpatialReferenceSystem> srs = srsDao.isTableExists() ? srsDao
+				.queryForAll() : new ArrayList<SpatialReferenceSystem>();
+
+		return new GeoPackageCatalog(contentsExists, contents, geometryColumns,
+				tileMatrixSets, tileMatrices, extensions, srs);
+	}
+
+	/**
+	 * Constructor for a snapshot of only the Contents table
+	 * 
+	 * @param contentsExists
+	 *            true if the contents table exists
+	 * @param contents
+	 *            contents
+	 */
+	public GeoPackageCatalog(boolean contentsExists, List<Contents> contents) {
+		this(contentsExists, contents, new ArrayList<GeometryColumns>(),
+				new ArrayList<TileMatrixSet>(), new ArrayList<TileMatrix>(),
+				new ArrayList<Extensions>(),
+				new ArrayList<SpatialReferenceSystem>());
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param contentsExists
+	 *            true if the contents table exists
+	 * @param contents
+	 *            contents
+	 * @param geometryColumns
+	 *            geometry columns
+	 * @param tileMatrixSets
+	 *            tile matrix sets
+	 * @param tileMatrices
+	 *            tile matrices
+	 * @param extensions
+	 *            extensions
+	 * @param srs
+	 *            spatial reference systems
+	 */
+	public GeoPackageCatalog(boolean contentsExists, List<Contents> contents,
+			List<GeometryColumns> geometryColumns,
+			List<TileMatrixSet> tileMatrixSets, List<TileMatrix> tileMatrices,
+			List<Extensions> extensions, List<SpatialReferenceSystem> srs) {
+
+		this.contentsExists = contentsExists;
+
+		Map<String, Contents> contentsMap = new LinkedHashMap<>();
+		List<String> tableList = new ArrayList<>();
+		Map<String, List<String>> typeMap = new HashMap<>();
+		for (Contents content : contents) {
+			String tableName = content.getTableName();
+			contentsMap.put(tableName, content.copy());
+			tableList.add(tableName);
+			String dataType = content.getDataTypeString();
+			List<String> typeTables = typeMap.get(dataType);
+			if (typeTables == null) {
+				typeTables = new ArrayList<>();
+				typeMap.put(dataType, typeTables);
+			}
+			typeTables.add(tableName);
+		}
+		for (Map.Entry<String, List<String>> entry : typeMap.entrySet()) {
+			entry.setValue(Collections.unmodifiableList(entry.getValue()));
+		}
+		this.contents = Collections.unmodifiableMap(contentsMap);
+		this.tables = Collections.unmodifiableList(tableList);
+		this.tablesByType = Collections.unmodifiableMap(typeMap);
+
+		Map<String, GeometryColumns> geometryColumnsMap = new HashMap<>();
+		for (GeometryColumns columns : geometryColumns) {
+			geometryColumnsMap.put(columns.getTableName(), new GeometryColumns(
+					columns));
+		}
+		this.geometryColumns = Collections.unmodifiableMap(geometryColumnsMap);
+
+		Map<String, TileMatrixSet> tileMatrixSetMap = new HashMap<>();
+		for (TileMatrixSet tileMatrixSet : tileMatrixSets) {
+			tileMatrixSetMap.put(tileMatrixSet.getTableName(), new TileMatrixSet(
+					tileMatrixSet));
+		}
+		this.tileMatrixSets = Collections.unmodifiableMap(tileMatrixSetMap);
+
+		Map<String, List<TileMatrix>> tileMatrixMap = new HashMap<>();
+		for (TileMatrix tileMatrix : tileMatrices) {
+			List<TileMatrix> tableMatrices = tileMatrixMap.get(tileMatrix
+					.getTableName());
+			if (tableMatrices == null) {
+				tableMatrices = new ArrayList<>();
+				tileMatrixMap.put(tileMatrix.getTableName(), tableMatrices);
+			}
+			tableMatrices.add(new TileMatrix(tileMatrix));
+		}
+		Comparator<TileMatrix> zoomOrder = new Comparator<TileMatrix>() {
+			@Override
+			public int compare(TileMatrix matrix1, TileMatrix matrix2) {
+				long zoom1 = matrix1.getZoomLevel();
+				long zoom2 = matrix2.getZoomLevel();
+				return zoom1 < zoom2 ? -1 : (zoom1 == zoom2 ? 0 : 1);
+			}
+		};
+		for (Map.Entry<String, List<TileMatrix>> entry : tileMatrixMap
+				.entrySet()) {
+			Collections.sort(entry.getValue(), zoomOrder);
+			entry.setValue(Collections.unmodifiableList(entry.getValue()));
+		}
+		this.tileMatrices = Collections.unmodifiableMap(tileMatrixMap);
+
+		List<Extensions> extensionList = new ArrayList<>();
+		Map<String, List<Extensions>> extensionsMap = new HashMap<>();
+		for (Extensions extension : extensions) {
+			Extensions extensionCopy = new Extensions(extension);
+			extensionList.add(extensionCopy);
+			List<Extensions> tableExtensionList = extensionsMap.get(extension
+					.getTableName());
+			if (tableExtensionList == null) {
+				tableExtensionList = new ArrayList<>();
+				extensionsMap.put(extension.getTableName(), tableExtensionList);
+			}
+			tableExtensionList.add(extensionCopy);
+		}
+		this.extensions = extensionList;
+		this.tableExtensions = Collections.unmodifiableMap(extensionsMap);
+
+		Map<Long, SpatialReferenceSystem> srsMap = new LinkedHashMap<>();
+		for (SpatialReferenceSystem system : srs) {
+			srsMap.put(system.getSrsId(), new SpatialReferenceSystem(system));
+		}
+		this.srs = Collections.unmodifiableMap(srsMap);
+	}
+
+	/**
+	 * Determine if the Contents table existed when the snapshot was loaded
+	 * 
+	 * @return true if the contents table exists
+	 */
+	public boolean isContentsExists() {
+		return contentsExists;
+	}
+
+	/**
+	 * Get copies of all contents, in query order
+	 * 
+	 * @return contents copies
+	 */
+	public List<Contents> getContents() {
+		List<Contents> copies = new ArrayList<>();
+		for (Contents content : contents.values()) {
+			copies.add(copy(content));
+		}
+		return copies;
+	}
+
+	/**
+	 * Get a copy of the contents of the table
+	 * 
+	 * @param table
+	 *            table name
+	 * @return contents copy or null
+	 */
+	public Contents getContents(String table) {
+		Contents content = contents.get(table);
+		if (content != null) {
+			content = copy(content);
+		}
+		return content;
+	}
+
+	/**
+	 * Get all table names
+	 * 
+	 * @return unmodifiable table names
+	 */
+	public List<String> getTables() {
+		return tables;
+	}
+
+	/**
+	 * Get the table names of the data type
+	 * 
+	 * @param dataType
+	 *            data type
+	 * @return unmodifiable table names
+	 */
+	public List<String> getTables(String dataType) {
+		List<String> typeTables = tablesByType.get(dataType);
+		if (typeTables == null) {
+			typeTables = Collections.emptyList();
+		}
+		return typeTables;
+	}
+
+	/**
+	 * Determine if the table has contents
+	 * 
+	 * @param table
+	 *            table name
+	 * @return true if a contents table
+	 */
+	public boolean isTable(String table) {
+		return contents.containsKey(table);
+	}
+
+	/**
+	 * Get the contents data type of the table
+	 * 
+	 * @param table
+	 *            table name
+	 * @return data type or null
+	 */
+	public String getTableType(String table) {
+		String tableType = null;
+		Contents content = contents.get(table);
+		if (content != null) {
+			tableType = content.getDataTypeString();
+		}
+		return tableType;
+	}
+
+	/**
+	 * Determine if the table is of the contents data type
+	 * 
+	 * @param dataType
+	 *            data type
+	 * @param table
+	 *            table name
+	 * @return true if of the data type
+	 */
+	public boolean isTableType(String dataType, String table) {
+		return dataType.equals(getTableType(table));
+	}
+
+	/**
+	 * Get a copy of the geometry columns of the feature table
+	 * 
+	 * @param table
+	 *            table name
+	 * @return geometry columns copy or null
+	 */
+	public GeometryColumns getGeometryColumns(String table) {
+		GeometryColumns columns = geometryColumns.get(table);
+		if (columns != null) {
+			columns = new GeometryColumns(columns);
+		}
+		return columns;
+	}
+
+	/**
+	 * Get a copy of the tile matrix set of the tile table
+	 * 
+	 * @param table
+	 *            table name
+	 * @return tile matrix set copy or null
+	 */
+	public TileMatrixSet getTileMatrixSet(String table) {
+		TileMatrixSet tileMatrixSet = tileMatrixSets.get(table);
+		if (tileMatrixSet != null) {
+			tileMatrixSet = new TileMatrixSet(tileMatrixSet);
+		}
+		return tileMatrixSet;
+	}
+
+	/**
+	 * Get copies of the tile matrices of the tile table, ordered by zoom level
+	 * 
+	 * @param table
+	 *            table name
+	 * @return tile matrix copies
+	 */
+	public List<TileMatrix> getTileMatrices(String table) {
+		List<TileMatrix> copies = new ArrayList<>();
+		List<TileMatrix> tableMatrices = tileMatrices.get(table);
+		if (tableMatrices != null) {
+			for (TileMatrix tileMatrix : tableMatrices) {
+				copies.add(new TileMatrix(tileMatrix));
+			}
+		}
+		return copies;
+	}
+
+	/**
+	 * Get a copy of the tile matrix of the tile table at the zoom level
+	 * 
+	 * @param table
+	 *            table name
+	 * @param zoomLevel
+	 *            zoom level
+	 * @return tile matrix copy or null
+	 */
+	public TileMatrix getTileMatrix(String table, long zoomLevel) {
+		TileMatrix tileMatrix = null;
+		List<TileMatrix> tableMatrices = tileMatrices.get(table);
+		if (tableMatrices != null) {
+			for (TileMatrix matrix : tableMatrices) {
+				if (matrix.getZoomLevel() == zoomLevel) {
+					tileMatrix = new TileMatrix(matrix);
+					break;
+				}
+			}
+		}
+		return tileMatrix;
+	}
+
+	/**
+	 * Get copies of all extensions, in query order
+	 * 
+	 * @return extensions copies
+	 */
+	public List<Extensions> getExtensions() {
+		return copyExtensions(extensions);
+	}
+
+	/**
+	 * Get copies of the extensions of the table
+	 * 
+	 * @param table
+	 *            table name, null for GeoPackage extensions
+	 * @return extensions copies
+	 */
+	public List<Extensions> getExtensions(String table) {
+		return copyExtensions(tableExtensions.get(table));
+	}
+
+	/**
+	 * Determine if the extension is registered for the table
+	 * 
+	 * @param extensionName
+	 *            extension name
+	 * @param table
+	 *            table name, null for GeoPackage extensions
+	 * @return true if registered
+	 */
+	public boolean hasExtension(String extensionName, String table) {
+		boolean has = false;
+		List<Extensions> tableExtensionList = tableExtensions.get(table);
+		if (tableExtensionList != null) {
+			for (Extensions extension : tableExtensionList) {
+				if (extensionName.equals(extension.getExtensionName())) {
+					has = true;
+					break;
+				}
+			}
+		}
+		return has;
+	}
+
+	/**
+	 * Get copies of all spatial reference systems
+	 * 
+	 * @return spatial reference system copies
+	 */
+	public List<SpatialReferenceSystem> getSrs() {
+		List<SpatialReferenceSystem> copies = new ArrayList<>();
+		for (SpatialReferenceSystem system : srs.values()) {
+			copies.add(new SpatialReferenceSystem(system));
+		}
+		return copies;
+	}
+
+	/**
+	 * Get a copy of the spatial reference system by id
+	 * 
+	 * @param srsId
+	 *            spatial reference system id
+	 * @return spatial reference system copy or null
+	 */
+	public SpatialReferenceSystem getSrs(long srsId) {
+		SpatialReferenceSystem system = srs.get(srsId);
+		if (system != null) {
+			system = new SpatialReferenceSystem(system);
+		}
+		return system;
+	}
+
+	/**
+	 * Copy the contents with its geometry columns, tile matrix set, and tile
+	 * matrix collections answered from the snapshot
+	 * 
+	 * @param content
+	 *            snapshot contents
+	 * @return contents copy
+	 */
+	private Contents copy(Contents content) {
+		String table = content.getTableName();
+		List<GeometryColumns> tableGeometryColumns = new ArrayList<>();
+		GeometryColumns columns = getGeometryColumns(table);
+		if (columns != null) {
+			tableGeometryColumns.add(columns);
+		}
+		List<TileMatrixSet> tableTileMatrixSets = new ArrayList<>();
+		TileMatrixSet tileMatrixSet = getTileMatrixSet(table);
+		if (tileMatrixSet != null) {
+			tableTileMatrixSets.add(tileMatrixSet);
+		}
+		return content.copy(new SnapshotForeignCollection<>(
+				tableGeometryColumns), new SnapshotForeignCollection<>(
+				tableTileMatrixSets), new SnapshotForeignCollection<>(
+				getTileMatrices(table)));
+	}
+
+	/**
+	 * Copy the extensions
+	 * 
+	 * @param extensionList
+	 *            snapshot extensions, may be null
+	 * @return extensions copies
+	 */
+	private static List<Extensions> copyExtensions(
+			List<Extensions> extensionList) {
+		List<Extensions> copies = new ArrayList<>();
+		if (extensionList != null) {
+			for (Extensions extension : extensionList) {
+				copies.add(new Extensions(extension));
+			}
+		}
+		return copies;
+	}
+
+}
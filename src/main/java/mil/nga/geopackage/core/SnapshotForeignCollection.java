@@ -0,0 +1,354 @@
+package mil.nga.geopackage.core;
+
+import java.util.AbstractCollection;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.j256.ormlite.dao.CloseableIterator;
+import com.j256.ormlite.dao.CloseableWrappedIterable;
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.dao.ForeignCollection;
+import com.j256.ormlite.support.DatabaseResults;
+
+/**
+ * Read only foreign collection over rows of a {@link GeoPackageCatalog}
+ * snapshot, answered from memory without querying the database. Changes must
+ * be made through the row DAOs, which causes a new snapshot to be loaded.
+ *
+ * @author osbornb
+ *
+ * @param <T>
+ *            row type
+ */
+class SnapshotForeignCollection<T> extends AbstractCollection<T> implements
+		ForeignCollection<T> {
+
+	/**
+	 * Snapshot rows
+	 */
+	private final List<T> rows;
+
+	/**
+	 * Constructor
+	 *
+	 * @param rows
+	 *            snapshot rows
+	 */
+	SnapshotForeignCollection(List<T> rows) {
+		this.rows = Collections.unmodifiableList(rows);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return rows.size();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CloseableIterator<T> iterator() {
+		return new SnapshotIterator();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CloseableIterator<T> closeableIterator() {
+		return iterator();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CloseableIterator<T> iterator(int flags) {
+		return iterator();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CloseableIterator<T> closeableIterator(int flags) {
+		return iterator();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CloseableIterator<T> iteratorThrow() {
+		return iterator();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CloseableIterator<T> iteratorThrow(int flags) {
+		return iterator();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CloseableWrappedIterable<T> getWrappedIterable() {
+		return new CloseableWrappedIterable<T>() {
+
+			@Override
+			public CloseableIterator<T> iterator() {
+				return SnapshotForeignCollection.this.iterator();
+			}
+
+			@Override
+			public CloseableIterator<T> closeableIterator() {
+				return iterator();
+			}
+
+			@Override
+			public void close() {
+			}
+
+		};
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CloseableWrappedIterable<T> getWrappedIterable(int flags) {
+		return getWrappedIterable();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void closeLastIterator() {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Snapshot rows are loaded eagerly.
+	 */
+	@Override
+	public boolean isEager() {
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int update(T data) {
+		throw readOnly();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int updateAll() {
+		throw readOnly();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int refresh(T data) {
+		throw readOnly();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int refreshAll() {
+		throw readOnly();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int refreshCollection() {
+		throw readOnly();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean add(T data) {
+		throw readOnly();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Snapshot collections are not backed by a DAO.
+	 *
+	 * @return null
+	 */
+	@Override
+	public Dao<T, ?> getDao() {
+		return null;
+	}
+
+	/**
+	 * Create the read only snapshot exception
+	 *
+	 * @return exception
+	 */
+	private static UnsupportedOperationException readOnly() {
+		return new UnsupportedOperationException(
+				"Catalog snapshot collections are read only, change rows through their DAO");
+	}
+
+	/**
+	 * Iterator over the snapshot rows
+	 */
+	private class SnapshotIterator implements CloseableIterator<T> {
+
+		/**
+		 * Current row index, -1 before the first row
+		 */
+		private int index = -1;
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean hasNext() {
+			return index + 1 < rows.size();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return rows.get(++index);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void remove() {
+			throw readOnly();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void close() {
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void closeQuietly() {
+		}
+
+		/**
+		 * {@inheritDoc}
+		 *
+		 * Snapshot rows have no database results.
+		 *
+		 * @return null
+		 */
+		@Override
+		public DatabaseResults getRawResults() {
+			return null;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void moveToNext() {
+			index = Math.min(index + 1, rows.size());
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public T first() {
+			return moveAbsolute(0);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public T previous() {
+			return moveRelative(-1);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public T current() {
+			return row(index);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public T nextThrow() {
+			return moveRelative(1);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public T moveRelative(int offset) {
+			return moveAbsolute(index + offset);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public T moveAbsolute(int position) {
+			index = Math.max(-1, Math.min(position, rows.size()));
+			return row(index);
+		}
+
+		/**
+		 * Get the row at the index
+		 *
+		 * @param position
+		 *            row index
+		 * @return row or null when out of range
+		 */
+		private T row(int position) {
+			T row = null;
+			if (position >= 0 && position < rows.size()) {
+				row = rows.get(position);
+			}
+			return row;
+		}
+
+	}
+
+}
@@ -194,7 +194,9 @@ public class Contents {
 		dataType = contents.dataType;
 		identifier = contents.identifier;
 		description = contents.description;
-		lastChange = new Date(contents.lastChange.getTime());
+		if (contents.lastChange != null) {
+			lastChange = new Date(contents.lastChange.getTime());
+		}
 		minX = contents.minX;
 		maxX = contents.maxX;
 		minY = contents.minY;
@@ -203,6 +205,45 @@ public class Contents {
 		srsId = contents.srsId;
 	}
 
+	/**
+	 * Copy the contents for the same table with a copy of the Spatial Reference
+	 * System, sharing the lazy foreign collections of the geometry columns,
+	 * tile matrix set, and tile matrix rows referencing the table
+	 * 
+	 * @return contents copy
+	 * @since 3.0.3
+	 */
+	public Contents copy() {
+		return copy(geometryColumns, tileMatrixSet, tileMatrix);
+	}
+
+	/**
+	 * Copy the contents for the same table with a copy of the Spatial Reference
+	 * System, using the provided foreign collections of the geometry columns,
+	 * tile matrix set, and tile matrix rows referencing the table
+	 * 
+	 * @param geometryColumns
+	 *            geometry columns collection
+	 * @param tileMatrixSet
+	 *            tile matrix set collection
+	 * @param tileMatrix
+	 *            tile matrix collection
+	 * @return contents copy
+	 * @since 3.0.3
+	 */
+	public Contents copy(ForeignCollection<GeometryColumns> geometryColumns,
+			ForeignCollection<TileMatrixSet> tileMatrixSet,
+			ForeignCollection<TileMatrix> tileMatrix) {
+		Contents copy = new Contents(this);
+		if (srs != null) {
+			copy.srs = new SpatialReferenceSystem(srs);
+		}
+		copy.geometryColumns = geometryColumns;
+		copy.tileMatrixSet = tileMatrixSet;
+		copy.tileMatrix = tileMatrix;
+		return copy;
+	}
+
 	/**
 	 * Get the id
 	 * 
@@ -0,0 +1,337 @@
+package mil.nga.geopackage.core.srs;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import mil.nga.sf.proj.Projection;
+import mil.nga.sf.proj.ProjectionFactory;
+import mil.nga.sf.proj.ProjectionTransform;
+
+/**
+ * Global cache of projections by organization, coordinate system id, and
+ * definition, and of projection transforms by from and to projection.
+ * Projections are shared across threads. Projection transforms are not
+ * thread safe and are cached per thread. The cache is cleared when Spatial
+ * Reference Systems change through a {@link SpatialReferenceSystemDao}, as
+ * notified to its DAO observers. Changes made with raw SQL must call
+ * {@link #invalidate(String, long)} or {@link #clear()}.
+ * 
+ * @author osbornb
+ * @since 3.0.3
+ */
+public class ProjectionCache {
+
+	/**
+	 * Max cached projection transforms per thread
+	 */
+	private static final int MAX_THREAD_TRANSFORMS = 256;
+
+	/**
+	 * Cached projections
+	 */
+	private static final ConcurrentHashMap<ProjectionKey, Projection> projections = new ConcurrentHashMap<>();
+
+	/**
+	 * Invalidation generation, per thread transform caches are cleared when
+	 * behind
+	 */
+	private static final AtomicLong generation = new AtomicLong();
+
+	/**
+	 * Per thread projection transforms
+	 */
+	private static final ThreadLocal<TransformCache> transforms = new ThreadLocal<TransformCache>() {
+		@Override
+		protected TransformCache initialValue() {
+			return new TransformCache();
+		}
+	};
+
+	/**
+	 * Get the projection for the organization, coordinate system id, and
+	 * optional definition
+	 * 
+	 * @param organization
+	 *            organization
+	 * @param coordsysId
+	 *            organization coordinate system id
+	 * @param definition
+	 *            definition, may be null
+	 * @return projection
+	 */
+	public static Projection getProjection(String organization,
+			long coordsysId, String definition) {
+		ProjectionKey key = new ProjectionKey(organization, coordsysId,
+				definition);
+		Projection projection = projections.get(key);
+		if (projection == null) {
+			projection = ProjectionFactory.getProjection(organization,
+					coordsysId, null, definition);
+			Projection existing = projections.putIfAbsent(key, projection);
+			if (existing != null) {
+				projection = existing;
+			}
+		}
+		return projection;
+	}
+
+	/**
+	 * Get the projection transform between the projections for the current
+	 * thread. The transform must not be shared with other threads.
+	 * 
+	 * @param from
+	 *            from projection
+	 * @param to
+	 *            to projection
+	 * @return projection transform
+	 */
+	public static ProjectionTransform getTransformation(Projection from,
+			Projection to) {
+		TransformCache cache = transforms.get();
+		long currentGeneration = generation.get();
+		if (cache.generation != currentGeneration
+				|| cache.transforms.size() >= MAX_THREAD_TRANSFORMS) {
+			cache.transforms.clear();
+			cache.generation = currentGeneration;
+		}
+		TransformKey key = new TransformKey(from, to);
+		ProjectionTransform transform = cache.transforms.get(key);
+		if (transform == null) {
+			transform = from.getTransformation(to);
+			cache.transforms.put(key, transform);
+		}
+		return transform;
+	}
+
+	/**
+	 * Get the projection transform from the projection to the authority and
+	 * code projection for the current thread. The transform must not be
+	 * shared with other threads.
+	 * 
+	 * @param from
+	 *            from projection
+	 * @param authority
+	 *            to authority
+	 * @param code
+	 *            to code
+	 * @return projection transform
+	 */
+	public static ProjectionTransform getTransformation(Projection from,
+			String authority, long code) {
+		return getTransformation(from,
+				ProjectionFactory.getProjection(authority, code));
+	}
+
+	/**
+	 * Get the projection transform from the projection to the EPSG code
+	 * projection for the current thread. The transform must not be shared
+	 * with other threads.
+	 * 
+	 * @param from
+	 *            from projection
+	 * @param epsg
+	 *            to EPSG code
+	 * @return projection transform
+	 */
+	public static ProjectionTransform getTransformation(Projection from,
+			long epsg) {
+		return getTransformation(from, ProjectionFactory.getProjection(epsg));
+	}
+
+	/**
+	 * Invalidate cached projections and transforms for the organization and
+	 * coordinate system id
+	 * 
+	 * @param organization
+	 *            organization
+	 * @param coordsysId
+	 *            organization coordinate system id
+	 */
+	public static void invalidate(String organization, long coordsysId) {
+		if (organization != null) {
+			Iterator<ProjectionKey> keys = projections.keySet().iterator();
+			while (keys.hasNext()) {
+				ProjectionKey key = keys.next();
+				if (key.coordsysId == coordsysId
+						&& key.authority.equalsIgnoreCase(organization)) {
+					keys.remove();
+				}
+			}
+			ProjectionFactory.clear(organization, coordsysId);
+		}
+		generation.incrementAndGet();
+	}
+
+	/**
+	 * Invalidate cached projections and transforms for the Spatial Reference
+	 * System
+	 * 
+	 * @param srs
+	 *            spatial reference system
+	 */
+	public static void invalidate(SpatialReferenceSystem srs) {
+		if (srs != null) {
+			invalidate(srs.getOrganization(), srs.getOrganizationCoordsysId());
+		}
+	}
+
+	/**
+	 * Clear all cached projections and transforms, including the projection
+	 * factory projections
+	 */
+	public static void clear() {
+		projections.clear();
+		ProjectionFactory.clear();
+		generation.incrementAndGet();
+	}
+
+	/**
+	 * Projection cache key
+	 */
+	private static class ProjectionKey {
+
+		/**
+		 * Authority, compared ignoring case
+		 */
+		private final String authority;
+
+		/**
+		 * Coordinate system id
+		 */
+		private final long coordsysId;
+
+		/**
+		 * Definition or null
+		 */
+		private final String definition;
+
+		/**
+		 * Hash code
+		 */
+		private final int hashCode;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param organization
+		 *            organization
+		 * @param coordsysId
+		 *            coordinate system id
+		 * @param definition
+		 *            definition
+		 */
+		private ProjectionKey(String organization, long coordsysId,
+				String definition) {
+			this.authority = organization;
+			this.coordsysId = coordsysId;
+			this.definition = definition;
+			int hash = 0;
+			for (int i = 0; i < organization.length(); i++) {
+				hash = 31 * hash
+						+ Character.toUpperCase(organization.charAt(i));
+			}
+			hash = 31 * hash + (int) (coordsysId ^ (coordsysId >>> 32));
+			hash = 31 * hash + (definition != null ? definition.hashCode() : 0);
+			this.hashCode = hash;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			boolean equal = this == obj;
+			if (!equal && obj instanceof ProjectionKey) {
+				ProjectionKey other = (ProjectionKey) obj;
+				equal = hashCode == other.hashCode
+						&& coordsysId == other.coordsysId
+						&& authority.equalsIgnoreCase(other.authority)
+						&& (definition == null ? other.definition == null
+								: definition.equals(other.definition));
+			}
+			return equal;
+		}
+
+	}
+
+	/**
+	 * Projection transform cache key by projection identity
+	 */
+	private static class TransformKey {
+
+		/**
+		 * From projection
+		 */
+		private final Projection from;
+
+		/**
+		 * To projection
+		 */
+		private final Projection to;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param from
+		 *            from projection
+		 * @param to
+		 *            to projection
+		 */
+		private TransformKey(Projection from, Projection to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(from)
+					+ System.identityHashCode(to);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			boolean equal = this == obj;
+			if (!equal && obj instanceof TransformKey) {
+				TransformKey other = (TransformKey) obj;
+				equal = from == other.from && to == other.to;
+			}
+			return equal;
+		}
+
+	}
+
+	/**
+	 * Per thread projection transforms
+	 */
+	private static class TransformCache {
+
+		/**
+		 * Invalidation generation of the cached transforms
+		 */
+		private long generation = 0;
+
+		/**
+		 * Cached transforms
+		 */
+		private final Map<TransformKey, ProjectionTransform> transforms = new HashMap<>();
+
+	}
+
+}
@@ -4,7 +4,6 @@ import mil.nga.geopackage.core.contents.Contents;
 import mil.nga.geopackage.features.columns.GeometryColumns;
 import mil.nga.geopackage.tiles.matrixset.TileMatrixSet;
 import mil.nga.sf.proj.Projection;
-import mil.nga.sf.proj.ProjectionFactory;
 import mil.nga.sf.proj.ProjectionTransform;
 
 import com.j256.ormlite.dao.ForeignCollection;
@@ -342,15 +341,16 @@ public class SpatialReferenceSystem {
 			definition = getDefinition();
 		}
 
-		Projection projection = ProjectionFactory.getProjection(authority,
-				code, null, definition);
+		Projection projection = ProjectionCache.getProjection(authority, code,
+				definition);
 
 		return projection;
 	}
 
 	/**
 	 * Get the projection transform from the provided projection to the Spatial
-	 * Reference System projection
+	 * Reference System projection. A new transform is created on each call and
+	 * may be handed to other threads.
 	 * 
 	 * @param projection
 	 *            from projection
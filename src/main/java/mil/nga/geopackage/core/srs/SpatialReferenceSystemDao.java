@@ -18,6 +18,7 @@ import mil.nga.geopackage.tiles.matrixset.TileMatrixSetDao;
 import mil.nga.sf.proj.ProjectionConstants;
 
 import com.j256.ormlite.dao.BaseDaoImpl;
+import com.j256.ormlite.dao.Dao;
 import com.j256.ormlite.dao.DaoManager;
 import com.j256.ormlite.dao.ForeignCollection;
 import com.j256.ormlite.stmt.PreparedQuery;
@@ -32,6 +33,18 @@ import com.j256.ormlite.support.ConnectionSource;
 public class SpatialReferenceSystemDao extends
 		BaseDaoImpl<SpatialReferenceSystem, Long> {
 
+	/**
+	 * Observer clearing the projection cache when Spatial Reference Systems
+	 * change through the DAO, including builder and id based updates and
+	 * deletes
+	 */
+	private static final Dao.DaoObserver PROJECTION_CACHE_OBSERVER = new Dao.DaoObserver() {
+		@Override
+		public void onChange() {
+			ProjectionCache.clear();
+		}
+	};
+
 	/**
 	 * Contents DAO
 	 */
@@ -65,6 +78,7 @@ public class SpatialReferenceSystemDao extends
 	public SpatialReferenceSystemDao(ConnectionSource connectionSource,
 			Class<SpatialReferenceSystem> dataClass) throws SQLException {
 		super(connectionSource, dataClass);
+		registerObserver(PROJECTION_CACHE_OBSERVER);
 	}
 
 	/**
@@ -341,6 +355,7 @@ public class SpatialReferenceSystemDao extends
 	public void updateDefinition_12_063(long srsId, String definition) {
 		if (hasDefinition_12_063()) {
 			crsWktExtension.updateDefinition(srsId, definition);
+			notifyChanges();
 		}
 	}
 
@@ -0,0 +1,344 @@
+package mil.nga.geopackage.db;
+
+/**
+ * Immutable, thread safe codec between UTC epoch milliseconds and the fixed
+ * layout GeoPackage date ({@value DateConverter#DATE_FORMAT}) and date time
+ * ({@value DateConverter#DATETIME_FORMAT} or
+ * {@value DateConverter#DATETIME_FORMAT2}) strings. Parsing and formatting are
+ * hand rolled over the fixed character positions without formatters, locks,
+ * or exceptions. Values that do not match a layout exactly, or fall outside
+ * the Gregorian years 1583 through 9999, are reported as {@link #INVALID} or
+ * null so callers may fall back to lenient formatter based conversion.
+ * 
+ * @author osbornb
+ * @since 3.0.3
+ */
+public final class DateCodec {
+
+	/**
+	 * Invalid parse result
+	 */
+	public static final long INVALID = Long.MIN_VALUE;
+
+	/**
+	 * Date layout length
+	 */
+	public static final int DATE_LENGTH = 10;
+
+	/**
+	 * Date time layout length without milliseconds
+	 */
+	public static final int DATETIME_SECONDS_LENGTH = 20;
+
+	/**
+	 * Date time layout length with milliseconds
+	 */
+	public static final int DATETIME_LENGTH = 24;
+
+	/**
+	 * Milliseconds per day
+	 */
+	private static final long MILLIS_PER_DAY = 86400000L;
+
+	/**
+	 * Min supported year, the first full Gregorian calendar year
+	 */
+	private static final int MIN_YEAR = 1583;
+
+	/**
+	 * Max supported year
+	 */
+	private static final int MAX_YEAR = 9999;
+
+	/**
+	 * Min supported epoch milliseconds
+	 */
+	private static final long MIN_MILLIS = epochDay(MIN_YEAR, 1, 1)
+			* MILLIS_PER_DAY;
+
+	/**
+	 * Max supported epoch milliseconds
+	 */
+	private static final long MAX_MILLIS = (epochDay(MAX_YEAR, 12, 31) + 1)
+			* MILLIS_PER_DAY - 1;
+
+	/**
+	 * Constructor
+	 */
+	private DateCodec() {
+	}
+
+	/**
+	 * Parse a date string in the {@value DateConverter#DATE_FORMAT} layout
+	 * 
+	 * @param value
+	 *            date string
+	 * @return UTC epoch milliseconds or {@link #INVALID}
+	 */
+	public static long parseDate(CharSequence value) {
+		long millis = INVALID;
+		if (value.length() == DATE_LENGTH) {
+			long day = parseDay(value);
+			if (day != INVALID) {
+				millis = day * MILLIS_PER_DAY;
+			}
+		}
+		return millis;
+	}
+
+	/**
+	 * Parse a date time string in the {@value DateConverter#DATETIME_FORMAT}
+	 * or {@value DateConverter#DATETIME_FORMAT2} layout
+	 * 
+	 * @param value
+	 *            date time string
+	 * @return UTC epoch milliseconds or {@link #INVALID}
+	 */
+	public static long parseDateTime(CharSequence value) {
+
+		long millis = INVALID;
+
+		int length = value.length();
+		if ((length == DATETIME_LENGTH || length == DATETIME_SECONDS_LENGTH)
+				&& value.charAt(10) == 'T' && value.charAt(13) == ':'
+				&& value.charAt(16) == ':' && value.charAt(length - 1) == 'Z') {
+
+			long day = parseDay(value);
+			int hour = digits(value, 11, 2);
+			int minute = digits(value, 14, 2);
+			int second = digits(value, 17, 2);
+			int milli = 0;
+			if (length == DATETIME_LENGTH) {
+				milli = value.charAt(19) == '.' ? digits(value, 20, 3) : -1;
+			}
+
+			if (day != INVALID && hour >= 0 && hour < 24 && minute >= 0
+					&& minute < 60 && second >= 0 && second < 60 && milli >= 0) {
+				millis = day * MILLIS_PER_DAY
+						+ ((hour * 60 + minute) * 60 + second) * 1000L + milli;
+			}
+		}
+
+		return millis;
+	}
+
+	/**
+	 * Format the UTC epoch milliseconds in the
+	 * {@value DateConverter#DATE_FORMAT} layout
+	 * 
+	 * @param millis
+	 *            UTC epoch milliseconds
+	 * @return date string, null if outside the supported years
+	 */
+	public static String formatDate(long millis) {
+		String value = null;
+		if (isSupported(millis)) {
+			char[] chars = new char[DATE_LENGTH];
+			formatDay(floorDiv(millis, MILLIS_PER_DAY), chars);
+			value = new String(chars);
+		}
+		return value;
+	}
+
+	/**
+	 * Format the UTC epoch milliseconds in the
+	 * {@value DateConverter#DATETIME_FORMAT} layout
+	 * 
+	 * @param millis
+	 *            UTC epoch milliseconds
+	 * @return date time string, null if outside the supported years
+	 */
+	public static String formatDateTime(long millis) {
+		String value = null;
+		if (isSupported(millis)) {
+			long day = floorDiv(millis, MILLIS_PER_DAY);
+			int time = (int) (millis - day * MILLIS_PER_DAY);
+			char[] chars = new char[DATETIME_LENGTH];
+			formatDay(day, chars);
+			chars[10] = 'T';
+			putDigits(chars, 11, 2, time / 3600000);
+			chars[13] = ':';
+			putDigits(chars, 14, 2, time / 60000 % 60);
+			chars[16] = ':';
+			putDigits(chars, 17, 2, time / 1000 % 60);
+			chars[19] = '.';
+			putDigits(chars, 20, 3, time % 1000);
+			chars[23] = 'Z';
+			value = new String(chars);
+		}
+		return value;
+	}
+
+	/**
+	 * Determine if the UTC epoch milliseconds are within the supported years
+	 * 
+	 * @param millis
+	 *            UTC epoch milliseconds
+	 * @return true if supported
+	 */
+	public static boolean isSupported(long millis) {
+		return millis >= MIN_MILLIS && millis <= MAX_MILLIS;
+	}
+
+	/**
+	 * Parse the yyyy-MM-dd date at the start of the value
+	 * 
+	 * @param value
+	 *            value
+	 * @return epoch day or {@link #INVALID}
+	 */
+	private static long parseDay(CharSequence value) {
+		long day = INVALID;
+		if (value.charAt(4) == '-' && value.charAt(7) == '-') {
+			int year = digits(value, 0, 4);
+			int month = digits(value, 5, 2);
+			int dayOfMonth = digits(value, 8, 2);
+			if (year >= MIN_YEAR && month >= 1 && month <= 12
+					&& dayOfMonth >= 1
+					&& dayOfMonth <= daysInMonth(year, month)) {
+				day = epochDay(year, month, dayOfMonth);
+			}
+		}
+		return day;
+	}
+
+	/**
+	 * Format the epoch day into the first ten characters
+	 * 
+	 * @param epochDay
+	 *            epoch day
+	 * @param chars
+	 *            characters
+	 */
+	private static void formatDay(long epochDay, char[] chars) {
+		long z = epochDay + 719468;
+		long era = (z >= 0 ? z : z - 146096) / 146097;
+		long dayOfEra = z - era * 146097;
+		long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524
+				- dayOfEra / 146096) / 365;
+		long dayOfYear = dayOfEra
+				- (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+		long monthPosition = (5 * dayOfYear + 2) / 153;
+		int day = (int) (dayOfYear - (153 * monthPosition + 2) / 5 + 1);
+		int month = (int) (monthPosition < 10 ? monthPosition + 3
+				: monthPosition - 9);
+		int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+		putDigits(chars, 0, 4, year);
+		chars[4] = '-';
+		putDigits(chars, 5, 2, month);
+		chars[7] = '-';
+		putDigits(chars, 8, 2, day);
+	}
+
+	/**
+	 * Get the proleptic Gregorian epoch day of the date
+	 * 
+	 * @param year
+	 *            year
+	 * @param month
+	 *            month, 1 through 12
+	 * @param day
+	 *            day of month
+	 * @return days since 1970-01-01
+	 */
+	private static long epochDay(int year, int month, int day) {
+		long y = month <= 2 ? year - 1 : year;
+		long era = (y >= 0 ? y : y - 399) / 400;
+		long yearOfEra = y - era * 400;
+		long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5
+				+ day - 1;
+		long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100
+				+ dayOfYear;
+		return era * 146097 + dayOfEra - 719468;
+	}
+
+	/**
+	 * Get the number of days in the month
+	 * 
+	 * @param year
+	 *            year
+	 * @param month
+	 *            month, 1 through 12
+	 * @return days in month
+	 */
+	private static int daysInMonth(int year, int month) {
+		int days;
+		switch (month) {
+		case 2:
+			days = (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29
+					: 28;
+			break;
+		case 4:
+		case 6:
+		case 9:
+		case 11:
+			days = 30;
+			break;
+		default:
+			days = 31;
+		}
+		return days;
+	}
+
+	/**
+	 * Parse a fixed count of decimal digits
+	 * 
+	 * @param value
+	 *            value
+	 * @param index
+	 *            start index
+	 * @param count
+	 *            digit count
+	 * @return parsed value, -1 if a character is not a digit
+	 */
+	private static int digits(CharSequence value, int index, int count) {
+		int result = 0;
+		for (int i = index; i < index + count && result >= 0; i++) {
+			int digit = value.charAt(i) - '0';
+			if (digit >= 0 && digit <= 9) {
+				result = result * 10 + digit;
+			} else {
+				result = -1;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Write a zero padded fixed count of decimal digits
+	 * 
+	 * @param chars
+	 *            characters
+	 * @param index
+	 *            start index
+	 * @param count
+	 *            digit count
+	 * @param value
+	 *            non negative value
+	 */
+	private static void putDigits(char[] chars, int index, int count, int value) {
+		int remaining = value;
+		for (int i = index + count - 1; i >= index; i--) {
+			chars[i] = (char) ('0' + remaining % 10);
+			remaining /= 10;
+		}
+	}
+
+	/**
+	 * Floor division
+	 * 
+	 * @param dividend
+	 *            dividend
+	 * @param divisor
+	 *            positive divisor
+	 * @return floor of the quotient
+	 */
+	private static long floorDiv(long dividend, long divisor) {
+		long quotient = dividend / divisor;
+		if (dividend % divisor < 0) {
+			quotient--;
+		}
+		return quotient;
+	}
+
+}
@@ -10,7 +10,10 @@ import java.util.TimeZone;
 import mil.nga.geopackage.GeoPackageException;
 
 /**
- * Date converter between database date formats and date objects
+ * Date converter between database date formats and date objects. Converters
+ * are immutable and thread safe. Values in the exact GeoPackage layouts are
+ * converted by {@link DateCodec} without locking, with per thread date
+ * formatters used only for other leniently parsed values.
  * 
  * @author osbornb
  * @since 1.3.0
@@ -32,6 +35,18 @@ public class DateConverter {
 	 */
 	public static final String DATETIME_FORMAT2 = "yyyy-MM-dd'T'HH:mm:ss'Z'";
 
+	/**
+	 * Shared date converter
+	 */
+	private static final DateConverter DATE_CONVERTER = new DateConverter(
+			false, DATE_FORMAT);
+
+	/**
+	 * Shared date time converter
+	 */
+	private static final DateConverter DATETIME_CONVERTER = new DateConverter(
+			true, DATETIME_FORMAT, DATETIME_FORMAT2);
+
 	/**
 	 * Get a date converter for the data type
 	 * 
@@ -63,7 +78,7 @@ public class DateConverter {
 	 * @return date converter
 	 */
 	public static DateConverter dateConverter() {
-		return new DateConverter(DATE_FORMAT);
+		return DATE_CONVERTER;
 	}
 
 	/**
@@ -72,25 +87,38 @@ public class DateConverter {
 	 * @return date converter
 	 */
 	public static DateConverter dateTimeConverter() {
-		return new DateConverter(DATETIME_FORMAT, DATETIME_FORMAT2);
+		return DATETIME_CONVERTER;
 	}
 
 	/**
-	 * Simple date formatters
+	 * True for date time values, false for date values
+	 */
+	private final boolean dateTime;
+
+	/**
+	 * Per thread simple date formatters for lenient fallback conversion
 	 */
-	private final List<SimpleDateFormat> formatters = new ArrayList<>();
+	private final List<ThreadLocal<SimpleDateFormat>> formatters = new ArrayList<>();
 
 	/**
 	 * Constructor
 	 * 
-	 * @param format
-	 *            date format
+	 * @param dateTime
+	 *            true for date time values
+	 * @param formats
+	 *            date formats
 	 */
-	private DateConverter(String... formats) {
-		for (String format : formats) {
-			SimpleDateFormat sdf = new SimpleDateFormat(format);
-			sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
-			formatters.add(sdf);
+	private DateConverter(boolean dateTime, String... formats) {
+		this.dateTime = dateTime;
+		for (final String format : formats) {
+			formatters.add(new ThreadLocal<SimpleDateFormat>() {
+				@Override
+				protected SimpleDateFormat initialValue() {
+					SimpleDateFormat sdf = new SimpleDateFormat(format);
+					sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
+					return sdf;
+				}
+			});
 		}
 	}
 
@@ -104,10 +132,24 @@ public class DateConverter {
 	public String stringValue(Date date) {
 		String value = null;
 		if (date != null) {
-			SimpleDateFormat sdf = formatters.get(0);
-			synchronized (sdf) {
-				value = sdf.format(date);
-			}
+			value = stringValue(date.getTime());
+		}
+		return value;
+	}
+
+	/**
+	 * Get the formatted string date value of the UTC epoch milliseconds
+	 * 
+	 * @param millis
+	 *            UTC epoch milliseconds
+	 * @return formatted string date
+	 * @since 3.0.3
+	 */
+	public String stringValue(long millis) {
+		String value = dateTime ? DateCodec.formatDateTime(millis) : DateCodec
+				.formatDate(millis);
+		if (value == null) {
+			value = formatters.get(0).get().format(new Date(millis));
 		}
 		return value;
 	}
@@ -122,14 +164,31 @@ public class DateConverter {
 	public Date dateValue(String date) {
 		Date value = null;
 		if (date != null) {
+			value = new Date(millisValue(date));
+		}
+		return value;
+	}
+
+	/**
+	 * Get the UTC epoch milliseconds value of the formatted string date
+	 * 
+	 * @param date
+	 *            formatted string date
+	 * @return UTC epoch milliseconds
+	 * @since 3.0.3
+	 */
+	public long millisValue(String date) {
+
+		long value = dateTime ? DateCodec.parseDateTime(date) : DateCodec
+				.parseDate(date);
+
+		if (value == DateCodec.INVALID) {
 
 			// Try each simple date formatter in order
 			ParseException exception = null;
-			for (SimpleDateFormat sdf : formatters) {
+			for (ThreadLocal<SimpleDateFormat> sdf : formatters) {
 				try {
-					synchronized (sdf) {
-						value = sdf.parse(date);
-					}
+					value = sdf.get().parse(date).getTime();
 					break;
 				} catch (ParseException e) {
 					if (exception == null) {
@@ -140,12 +199,12 @@ public class DateConverter {
 
 			// If no value could be parsed throw the first expected parse
 			// format exception
-			if (value == null) {
+			if (exception != null && value == DateCodec.INVALID) {
 				throw new GeoPackageException("Failed to parse date string: "
 						+ date, exception);
 			}
-
 		}
+
 		return value;
 	}
 
@@ -0,0 +1,22 @@
+package mil.nga.geopackage.db;
+
+/**
+ * Factory for opening additional connections to the same GeoPackage file, as
+ * used by a {@link GeoPackageCoreConnectionPool}
+ * 
+ * @author osbornb
+ * 
+ * @param <C>
+ *            connection type
+ * @since 3.0.3
+ */
+public interface GeoPackageCoreConnectionFactory<C extends GeoPackageCoreConnection> {
+
+	/**
+	 * Open a new connection, read only when used for a read pool
+	 * 
+	 * @return connection
+	 */
+	public C open();
+
+}
@@ -0,0 +1,225 @@
+package mil.nga.geopackage.db;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+import mil.nga.geopackage.GeoPackageException;
+
+/**
+ * Thread safe, bounded pool of connections to a GeoPackage file. Connections
+ * are opened on demand through the factory up to the max connections, and
+ * acquiring blocks while all connections are in use.
+ * 
+ * @author osbornb
+ * 
+ * @param <C>
+ *            connection type
+ * @since 3.0.3
+ */
+public class GeoPackageCoreConnectionPool<C extends GeoPackageCoreConnection>
+		implements Closeable {
+
+	/**
+	 * Connection factory
+	 */
+	private final GeoPackageCoreConnectionFactory<C> factory;
+
+	/**
+	 * Max connections
+	 */
+	private final int maxConnections;
+
+	/**
+	 * Connection permits
+	 */
+	private final Semaphore permits;
+
+	/**
+	 * Open connections not in use
+	 */
+	private final LinkedBlockingQueue<C> idle = new LinkedBlockingQueue<>();
+
+	/**
+	 * Acquired connections not yet released, guarded by this pool
+	 */
+	private final Set<C> checkedOut = Collections
+			.newSetFromMap(new IdentityHashMap<C, Boolean>());
+
+	/**
+	 * Number of open connections
+	 */
+	private int openConnections = 0;
+
+	/**
+	 * Closed flag
+	 */
+	private volatile boolean closed = false;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param factory
+	 *            connection factory
+	 * @param maxConnections
+	 *            max connections
+	 */
+	public GeoPackageCoreConnectionPool(
+			GeoPackageCoreConnectionFactory<C> factory, int maxConnections) {
+		if (maxConnections < 1) {
+			throw new GeoPackageException(
+					"Max connections must be at least 1, max connections: "
+							+ maxConnections);
+		}
+		this.factory = factory;
+		this.maxConnections = maxConnections;
+		this.permits = new Semaphore(maxConnections, true);
+	}
+
+	/**
+	 * Get the max connections
+	 * 
+	 * @return max connections
+	 */
+	public int getMaxConnections() {
+		return maxConnections;
+	}
+
+	/**
+	 * Get the number of open connections
+	 * 
+	 * @return open connections
+	 */
+	public synchronized int getOpenConnections() {
+		return openConnections;
+	}
+
+	/**
+	 * Get the number of acquired connections not yet released
+	 * 
+	 * @return connections in use
+	 */
+	public synchronized int getConnectionsInUse() {
+		return checkedOut.size();
+	}
+
+	/**
+	 * Get the number of connections available without blocking
+	 * 
+	 * @return available connections
+	 */
+	public int getAvailableConnections() {
+		return permits.availablePermits();
+	}
+
+	/**
+	 * Determine if the pool is closed
+	 * 
+	 * @return true if closed
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * Acquire a connection, waiting while all connections are in use. Return
+	 * it with {@link #release(GeoPackageCoreConnection)}.
+	 * 
+	 * @return connection
+	 */
+	public C acquire() {
+
+		if (closed) {
+			throw new GeoPackageException("Connection pool is closed");
+		}
+
+		try {
+			permits.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new GeoPackageException(
+					"Interrupted while waiting for a pooled connection", e);
+		}
+
+		C connection = idle.poll();
+		if (connection == null) {
+			try {
+				connection = factory.open();
+				synchronized (this) {
+					openConnections++;
+				}
+			} catch (RuntimeException e) {
+				permits.release();
+				throw new GeoPackageException(
+						"Failed to open a pooled connection", e);
+			}
+		}
+
+		synchronized (this) {
+			checkedOut.add(connection);
+		}
+
+		return connection;
+	}
+
+	/**
+	 * Release an acquired connection back to the pool. Each acquired
+	 * connection must be released exactly once.
+	 * 
+	 * @param connection
+	 *            connection
+	 */
+	public void release(C connection) {
+		synchronized (this) {
+			if (!checkedOut.remove(connection)) {
+				throw new GeoPackageException(
+						"Connection is not acquired from the pool");
+			}
+		}
+		if (closed) {
+			closeConnection(connection);
+		} else {
+			idle.offer(connection);
+			if (closed && idle.remove(connection)) {
+				closeConnection(connection);
+			}
+		}
+		permits.release();
+	}
+
+	/**
+	 * Close the pool and its idle connections. Connections in use are closed
+	 * when released.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		List<C> connections = new ArrayList<>();
+		idle.drainTo(connections);
+		for (C connection : connections) {
+			closeConnection(connection);
+		}
+	}
+
+	/**
+	 * Close a pooled connection
+	 * 
+	 * @param connection
+	 *            connection
+	 */
+	private void closeConnection(C connection) {
+		try {
+			connection.close();
+		} finally {
+			synchronized (this) {
+				openConnections--;
+			}
+		}
+	}
+
+}
@@ -7,6 +7,7 @@ import mil.nga.geopackage.GeoPackageException;
 import mil.nga.geopackage.core.srs.SpatialReferenceSystem;
 import mil.nga.geopackage.core.srs.SpatialReferenceSystemDao;
 import mil.nga.geopackage.io.ResourceIOUtils;
+import mil.nga.geopackage.io.SQLTemplate;
 import mil.nga.geopackage.property.GeoPackageProperties;
 import mil.nga.geopackage.property.PropertyConstants;
 import mil.nga.geopackage.user.UserColumn;
@@ -225,11 +226,11 @@ public class GeoPackageTableCreator {
 
 		String path = GeoPackageProperties.getProperty(PropertyConstants.SQL,
 				"directory");
-		List<String> statements = ResourceIOUtils.parseSQLStatements(path,
+		List<SQLTemplate> statements = ResourceIOUtils.getSQLTemplates(path,
 				tableScript);
 
-		for (String statement : statements) {
-			db.execSQL(statement);
+		for (SQLTemplate statement : statements) {
+			db.execSQL(statement.getSql());
 		}
 
 		return statements.size();
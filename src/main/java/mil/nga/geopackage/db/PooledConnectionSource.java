@@ -0,0 +1,204 @@
+package mil.nga.geopackage.db;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.j256.ormlite.db.DatabaseType;
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.support.DatabaseConnection;
+
+/**
+ * ORMLite connection source routing read only connections to a pooled
+ * GeoPackage connection's readers and read write connections to its writer.
+ * Reads within a writer transaction, including ORMLite special connections,
+ * use the writer.
+ * 
+ * @author osbornb
+ * @since 3.0.3
+ */
+public class PooledConnectionSource implements ConnectionSource {
+
+	/**
+	 * Pooled connection
+	 */
+	private final PooledGeoPackageCoreConnection<?> connection;
+
+	/**
+	 * Writer connection source
+	 */
+	private final ConnectionSource writer;
+
+	/**
+	 * Database connections borrowed from readers and their reader
+	 */
+	private final Map<DatabaseConnection, Borrowed> borrowed = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructor
+	 * 
+	 * @param connection
+	 *            pooled connection
+	 */
+	public PooledConnectionSource(PooledGeoPackageCoreConnection<?> connection) {
+		this.connection = connection;
+		this.writer = connection.getWriter().getConnectionSource();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public DatabaseConnection getReadOnlyConnection(String tableName)
+			throws SQLException {
+		DatabaseConnection databaseConnection;
+		if (writer.getSpecialConnection(tableName) != null
+				|| connection.isPinnedToWriter()) {
+			databaseConnection = writer.getReadOnlyConnection(tableName);
+		} else {
+			GeoPackageCoreConnection reader = connection.acquireReader();
+			try {
+				databaseConnection = reader.getConnectionSource()
+						.getReadOnlyConnection(tableName);
+			} catch (SQLException | RuntimeException e) {
+				connection.releaseReader(reader);
+				throw e;
+			}
+			Borrowed borrowedReader = borrowed.get(databaseConnection);
+			if (borrowedReader != null) {
+				borrowedReader.count++;
+			} else {
+				borrowed.put(databaseConnection, new Borrowed(reader));
+			}
+		}
+		return databaseConnection;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public DatabaseConnection getReadWriteConnection(String tableName)
+			throws SQLException {
+		return writer.getReadWriteConnection(tableName);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void releaseConnection(DatabaseConnection databaseConnection)
+			throws SQLException {
+		Borrowed borrowedReader = borrowed.get(databaseConnection);
+		if (borrowedReader != null) {
+			GeoPackageCoreConnection reader = borrowedReader.reader;
+			if (--borrowedReader.count == 0) {
+				borrowed.remove(databaseConnection);
+			}
+			try {
+				reader.getConnectionSource().releaseConnection(
+						databaseConnection);
+			} finally {
+				connection.releaseReader(reader);
+			}
+		} else {
+			writer.releaseConnection(databaseConnection);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean saveSpecialConnection(DatabaseConnection databaseConnection)
+			throws SQLException {
+		return writer.saveSpecialConnection(databaseConnection);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void clearSpecialConnection(DatabaseConnection databaseConnection) {
+		writer.clearSpecialConnection(databaseConnection);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public DatabaseConnection getSpecialConnection(String tableName) {
+		return writer.getSpecialConnection(tableName);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void close() throws IOException {
+		connection.close();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void closeQuietly() {
+		connection.close();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public DatabaseType getDatabaseType() {
+		return writer.getDatabaseType();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isOpen(String tableName) {
+		return writer.isOpen(tableName);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isSingleConnection(String tableName) {
+		return false;
+	}
+
+	/**
+	 * Reader borrowed for a database connection and its borrow count. A
+	 * reader's database connection is only borrowed again by the thread
+	 * holding its lease.
+	 */
+	private static class Borrowed {
+
+		/**
+		 * Reader connection
+		 */
+		private final GeoPackageCoreConnection reader;
+
+		/**
+		 * Borrow count
+		 */
+		private int count = 1;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param reader
+		 *            reader connection
+		 */
+		private Borrowed(GeoPackageCoreConnection reader) {
+			this.reader = reader;
+		}
+
+	}
+
+}
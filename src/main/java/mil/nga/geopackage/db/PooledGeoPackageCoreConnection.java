@@ -0,0 +1,372 @@
+package mil.nga.geopackage.db;
+
+import java.util.List;
+import java.util.Locale;
+
+import com.j256.ormlite.support.ConnectionSource;
+
+/**
+ * GeoPackage connection with a single writer connection and a bounded pool of
+ * read only connections to the same file. Writes go to the writer. Reads,
+ * including ORMLite DAO reads through {@link #getConnectionSource()}, go to a
+ * pooled reader so they may run concurrently, which requires the database to
+ * use write ahead logging (PRAGMA journal_mode=WAL). A thread that began a
+ * transaction or savepoint through {@link #execSQL(String)} reads from the
+ * writer until the transaction ends so it sees its own changes. User
+ * connections route their queries by pairing {@link #acquireReader()} with
+ * {@link #releaseReader(GeoPackageCoreConnection)} for the life of the result.
+ * Reader leases are re-entrant per thread, so nested reads such as a query
+ * made while iterating another result share the thread's reader instead of
+ * waiting on the pool. A reader must be released on the thread that acquired
+ * it.
+ * 
+ * @author osbornb
+ * 
+ * @param <C>
+ *            connection type
+ * @since 3.0.3
+ */
+public class PooledGeoPackageCoreConnection<C extends GeoPackageCoreConnection>
+		extends GeoPackageCoreConnection {
+
+	/**
+	 * Writer connection
+	 */
+	private final C writer;
+
+	/**
+	 * Reader connection pool
+	 */
+	private final GeoPackageCoreConnectionPool<C> readers;
+
+	/**
+	 * Routing connection source
+	 */
+	private final PooledConnectionSource connectionSource;
+
+	/**
+	 * Per thread writer transaction depth
+	 */
+	private final ThreadLocal<int[]> transactionDepth = new ThreadLocal<int[]>() {
+		@Override
+		protected int[] initialValue() {
+			return new int[1];
+		}
+	};
+
+	/**
+	 * Per thread reader lease
+	 */
+	private final ThreadLocal<ReaderLease> readerLease = new ThreadLocal<>();
+
+	/**
+	 * Constructor
+	 * 
+	 * @param writer
+	 *            writer connection
+	 * @param readers
+	 *            read only connection pool
+	 */
+	public PooledGeoPackageCoreConnection(C writer,
+			GeoPackageCoreConnectionPool<C> readers) {
+		this.writer = writer;
+		this.readers = readers;
+		this.connectionSource = new PooledConnectionSource(this);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param writer
+	 *            writer connection
+	 * @param readerFactory
+	 *            read only connection factory
+	 * @param maxReaders
+	 *            max read only connections
+	 */
+	public PooledGeoPackageCoreConnection(C writer,
+			GeoPackageCoreConnectionFactory<C> readerFactory, int maxReaders) {
+		this(writer, new GeoPackageCoreConnectionPool<C>(readerFactory,
+				maxReaders));
+	}
+
+	/**
+	 * Get the writer connection
+	 * 
+	 * @return writer connection
+	 */
+	public C getWriter() {
+		return writer;
+	}
+
+	/**
+	 * Get the read only connection pool
+	 * 
+	 * @return reader pool
+	 */
+	public GeoPackageCoreConnectionPool<C> getReaders() {
+		return readers;
+	}
+
+	/**
+	 * Determine if reads on the current thread are pinned to the writer by an
+	 * open transaction
+	 * 
+	 * @return true if pinned to the writer
+	 */
+	public boolean isPinnedToWriter() {
+		return transactionDepth.get()[0] > 0;
+	}
+
+	/**
+	 * Acquire a connection for reading, the writer when pinned or a pooled
+	 * reader. A thread already holding a pooled reader is given the same
+	 * reader again. Must be paired with
+	 * {@link #releaseReader(GeoPackageCoreConnection)} on the same thread.
+	 * 
+	 * @return read connection
+	 */
+	public C acquireReader() {
+		C reader;
+		if (isPinnedToWriter()) {
+			reader = writer;
+		} else {
+			ReaderLease lease = readerLease.get();
+			if (lease != null) {
+				lease.count++;
+			} else {
+				lease = new ReaderLease(readers.acquire());
+				readerLease.set(lease);
+			}
+			reader = lease.reader;
+		}
+		return reader;
+	}
+
+	/**
+	 * Release a connection acquired with {@link #acquireReader()}, returning
+	 * a pooled reader to the pool once the thread's outermost lease is
+	 * released
+	 * 
+	 * @param reader
+	 *            read connection
+	 */
+	public void releaseReader(GeoPackageCoreConnection reader) {
+		if (reader != writer) {
+			ReaderLease lease = readerLease.get();
+			if (lease != null && lease.reader == reader) {
+				if (--lease.count == 0) {
+					readerLease.remove();
+					readers.release(lease.reader);
+				}
+			} else {
+				@SuppressWarnings("unchecked")
+				C pooled = (C) reader;
+				readers.release(pooled);
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ConnectionSource getConnectionSource() {
+		return connectionSource;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Transaction and savepoint statements pin the current thread's reads to
+	 * the writer until the outermost transaction ends.
+	 */
+	@Override
+	public void execSQL(String sql) {
+		writer.execSQL(sql);
+		trackTransaction(sql);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int delete(String table, String whereClause, String[] whereArgs) {
+		return writer.delete(table, whereClause, whereArgs);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int count(String table, String where, String[] args) {
+		int count;
+		C reader = acquireReader();
+		try {
+			count = reader.count(table, where, args);
+		} finally {
+			releaseReader(reader);
+		}
+		return count;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Integer min(String table, String column, String where,
+			String[] args) {
+		Integer min;
+		C reader = acquireReader();
+		try {
+			min = reader.min(table, column, where, args);
+		} finally {
+			releaseReader(reader);
+		}
+		return min;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Integer max(String table, String column, String where,
+			String[] args) {
+		Integer max;
+		C reader = acquireReader();
+		try {
+			max = reader.max(table, column, where, args);
+		} finally {
+			releaseReader(reader);
+		}
+		return max;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean columnExists(String tableName, String columnName) {
+		boolean exists;
+		C reader = acquireReader();
+		try {
+			exists = reader.columnExists(tableName, columnName);
+		} finally {
+			releaseReader(reader);
+		}
+		return exists;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String querySingleStringResult(String sql, String[] args) {
+		String result;
+		C reader = acquireReader();
+		try {
+			result = reader.querySingleStringResult(sql, args);
+		} finally {
+			releaseReader(reader);
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Integer querySingleIntResult(String sql, String[] args) {
+		Integer result;
+		C reader = acquireReader();
+		try {
+			result = reader.querySingleIntResult(sql, args);
+		} finally {
+			releaseReader(reader);
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<String> querySingleColumnStringResults(String sql,
+			String[] args) {
+		List<String> results;
+		C reader = acquireReader();
+		try {
+			results = reader.querySingleColumnStringResults(sql, args);
+		} finally {
+			releaseReader(reader);
+		}
+		return results;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * Closes the reader pool and the writer.
+	 */
+	@Override
+	public void close() {
+		try {
+			readers.close();
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Track the current thread's transaction depth from the executed
+	 * statement
+	 * 
+	 * @param sql
+	 *            sql statement
+	 */
+	private void trackTransaction(String sql) {
+		String statement = sql.trim();
+		if (statement.length() > 32) {
+			statement = statement.substring(0, 32);
+		}
+		statement = statement.toUpperCase(Locale.US);
+		int[] depth = transactionDepth.get();
+		if (statement.startsWith("BEGIN") || statement.startsWith("SAVEPOINT")) {
+			depth[0]++;
+		} else if (statement.startsWith("RELEASE")) {
+			depth[0] = Math.max(0, depth[0] - 1);
+		} else if (statement.startsWith("COMMIT") || statement.startsWith("END")
+				|| (statement.startsWith("ROLLBACK") && !statement
+						.matches("ROLLBACK\\s+(TRANSACTION\\s+)?TO\\b.*"))) {
+			depth[0] = 0;
+		}
+	}
+
+	/**
+	 * Pooled reader held by a thread and its nested acquire count
+	 */
+	private class ReaderLease {
+
+		/**
+		 * Pooled reader
+		 */
+		private final C reader;
+
+		/**
+		 * Acquire count
+		 */
+		private int count = 1;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param reader
+		 *            pooled reader
+		 */
+		private ReaderLease(C reader) {
+			this.reader = reader;
+		}
+
+	}
+
+}
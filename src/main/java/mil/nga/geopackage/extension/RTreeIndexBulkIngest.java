@@ -0,0 +1,257 @@
+package mil.nga.geopackage.extension;
+
+import java.io.Closeable;
+
+import mil.nga.geopackage.db.CoreSQLUtils;
+import mil.nga.geopackage.db.GeoPackageCoreConnection;
+
+/**
+ * RTree Index bulk ingest session. While open, the RTree insert trigger of the
+ * feature table is replaced so that inserts of feature ids larger than the
+ * largest id when the session began do not pay a per row RTree update. Those
+ * rows are indexed when the session is closed. The update and delete triggers
+ * remain in place, so updates and deletes of any row, and inserts of smaller
+ * ids, continue to maintain the RTree. Closing the session loads the inserted
+ * rows and restores the insert trigger within a single savepoint. The open session is recorded in the
+ * {@link RTreeIndexCoreExtension#BULK_INGEST_TABLE_NAME} table so that a
+ * session abandoned by a failed process can be detected with
+ * {@link RTreeIndexCoreExtension#hasPendingBulkIngest(String, String)} and
+ * repaired with
+ * {@link RTreeIndexCoreExtension#recoverBulkIngest(String, String, String)}.
+ * 
+ * @author osbornb
+ * @since 3.0.3
+ */
+public class RTreeIndexBulkIngest implements Closeable {
+
+	/**
+	 * Savepoint name
+	 */
+	private static final String SAVEPOINT = "rtree_bulk_ingest";
+
+	/**
+	 * RTree Index extension
+	 */
+	private final RTreeIndexCoreExtension extension;
+
+	/**
+	 * Connection
+	 */
+	private final GeoPackageCoreConnection connection;
+
+	/**
+	 * Table name
+	 */
+	private final String tableName;
+
+	/**
+	 * Geometry column name
+	 */
+	private final String geometryColumnName;
+
+	/**
+	 * Id column name
+	 */
+	private final String idColumnName;
+
+	/**
+	 * Largest feature id when the session began, null for an empty table
+	 */
+	private final Long startMaxId;
+
+	/**
+	 * Rebuild the entire RTree on close instead of loading the changed rows
+	 */
+	private boolean rebuild = false;
+
+	/**
+	 * Closed flag
+	 */
+	private boolean closed = false;
+
+	/**
+	 * Constructor, begins the session by recording it as pending and replacing
+	 * the RTree insert trigger within a single savepoint
+	 * 
+	 * @param extension
+	 *            RTree Index extension
+	 * @param connection
+	 *            connection
+	 * @param tableName
+	 *            table name
+	 * @param geometryColumnName
+	 *            geometry column name
+	 * @param idColumnName
+	 *            id column name
+	 */
+	RTreeIndexBulkIngest(RTreeIndexCoreExtension extension,
+			GeoPackageCoreConnection connection, String tableName,
+			String geometryColumnName, String idColumnName) {
+		this(extension, connection, tableName, geometryColumnName,
+				idColumnName, true);
+	}
+
+	/**
+	 * Constructor, begins the session by replacing the RTree insert trigger
+	 * within a single savepoint
+	 * 
+	 * @param extension
+	 *            RTree Index extension
+	 * @param connection
+	 *            connection
+	 * @param tableName
+	 *            table name
+	 * @param geometryColumnName
+	 *            geometry column name
+	 * @param idColumnName
+	 *            id column name
+	 * @param record
+	 *            true to record the session as pending, false when resuming
+	 *            an already recorded session
+	 */
+	RTreeIndexBulkIngest(RTreeIndexCoreExtension extension,
+			GeoPackageCoreConnection connection, String tableName,
+			String geometryColumnName, String idColumnName, boolean record) {
+		this.extension = extension;
+		this.connection = connection;
+		this.tableName = tableName;
+		this.geometryColumnName = geometryColumnName;
+		this.idColumnName = idColumnName;
+		this.startMaxId = queryMaxId();
+
+		boolean begun = false;
+		connection.execSQL("SAVEPOINT " + SAVEPOINT);
+		try {
+			if (record) {
+				extension.addBulkIngest(tableName, geometryColumnName);
+			}
+			extension.dropInsertTrigger(tableName, geometryColumnName);
+			if (startMaxId != null) {
+				extension.createBulkIngestInsertTrigger(tableName,
+						geometryColumnName, idColumnName, startMaxId);
+			}
+			connection.execSQL("RELEASE " + SAVEPOINT);
+			begun = true;
+		} finally {
+			if (!begun) {
+				connection.execSQL("ROLLBACK TO " + SAVEPOINT);
+				connection.execSQL("RELEASE " + SAVEPOINT);
+			}
+		}
+	}
+
+	/**
+	 * Get the table name
+	 * 
+	 * @return table name
+	 */
+	public String getTableName() {
+		return tableName;
+	}
+
+	/**
+	 * Get the geometry column name
+	 * 
+	 * @return geometry column name
+	 */
+	public String getGeometryColumnName() {
+		return geometryColumnName;
+	}
+
+	/**
+	 * Get the largest feature id when the session began. Rows inserted with
+	 * larger ids are indexed on close.
+	 * 
+	 * @return max id, null if the table was empty
+	 */
+	public Long getStartMaxId() {
+		return startMaxId;
+	}
+
+	/**
+	 * Is the entire RTree rebuilt on close
+	 * 
+	 * @return true if rebuilt
+	 */
+	public boolean isRebuild() {
+		return rebuild;
+	}
+
+	/**
+	 * Set whether the entire RTree is rebuilt on close, such as when
+	 * recovering a session whose triggers may not be intact
+	 * 
+	 * @param rebuild
+	 *            true to rebuild
+	 */
+	public void setRebuild(boolean rebuild) {
+		this.rebuild = rebuild;
+	}
+
+	/**
+	 * Is the session closed
+	 * 
+	 * @return true if closed
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * Close the session by indexing the inserted rows, restoring the RTree
+	 * triggers, and removing the pending session record. The RTree changes,
+	 * triggers, and record removal are applied atomically. Upon failure the
+	 * changes are rolled back, the session remains open, and close may be
+	 * retried.
+	 */
+	@Override
+	public void close() {
+		if (!closed) {
+
+			connection.execSQL("SAVEPOINT " + SAVEPOINT);
+			try {
+
+				Long endMaxId = queryMaxId();
+
+				if (rebuild || (startMaxId == null && endMaxId != null)) {
+					extension.reloadRTreeIndex(tableName, geometryColumnName,
+							idColumnName);
+				} else if (endMaxId != null && endMaxId > startMaxId) {
+					extension.loadRTreeIndex(tableName, geometryColumnName,
+							idColumnName, startMaxId + 1, endMaxId);
+				}
+
+				extension.dropAllTriggers(tableName, geometryColumnName);
+				extension.createAllTriggers(tableName, geometryColumnName,
+						idColumnName);
+				extension.removeBulkIngest(tableName, geometryColumnName);
+
+				connection.execSQL("RELEASE " + SAVEPOINT);
+				closed = true;
+
+			} finally {
+				if (!closed) {
+					connection.execSQL("ROLLBACK TO " + SAVEPOINT);
+					connection.execSQL("RELEASE " + SAVEPOINT);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Query for the largest feature id
+	 * 
+	 * @return max id or null
+	 */
+	private Long queryMaxId() {
+		Long maxId = null;
+		String result = connection.querySingleStringResult("SELECT MAX("
+				+ CoreSQLUtils.quoteWrap(idColumnName) + ") FROM "
+				+ CoreSQLUtils.quoteWrap(tableName), null);
+		if (result != null) {
+			maxId = Long.parseLong(result);
+		}
+		return maxId;
+	}
+
+}
@@ -1,14 +1,19 @@
 package mil.nga.geopackage.extension;
 
 import java.sql.SQLException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import mil.nga.geopackage.GeoPackageConstants;
 import mil.nga.geopackage.GeoPackageCore;
 import mil.nga.geopackage.GeoPackageException;
+import mil.nga.geopackage.db.CoreSQLUtils;
 import mil.nga.geopackage.db.GeoPackageCoreConnection;
 import mil.nga.geopackage.features.user.FeatureTable;
+import mil.nga.geopackage.io.GeoPackageProgress;
 import mil.nga.geopackage.io.ResourceIOUtils;
+import mil.nga.geopackage.io.SQLTemplate;
 import mil.nga.geopackage.property.GeoPackageProperties;
 import mil.nga.geopackage.property.PropertyConstants;
 
@@ -60,6 +65,43 @@ public abstract class RTreeIndexCoreExtension extends BaseExtension {
 	 */
 	public static final String LOAD_PROPERTY = "load";
 
+	/**
+	 * Load in spatially sorted order SQL property
+	 * 
+	 * @since 3.0.3
+	 */
+	public static final String LOAD_SORTED_PROPERTY = "load_sorted";
+
+	/**
+	 * Load primary key range property
+	 * 
+	 * @since 3.0.3
+	 */
+	public static final String LOAD_RANGE_PROPERTY = "load_range";
+
+	/**
+	 * Load primary key range in spatially sorted order property
+	 * 
+	 * @since 3.0.3
+	 */
+	public static final String LOAD_RANGE_SORTED_PROPERTY = "load_range_sorted";
+
+	/**
+	 * Default number of feature rows loaded and committed per chunk when
+	 * loading the RTree
+	 * 
+	 * @since 3.0.3
+	 */
+	public static final int DEFAULT_LOAD_CHUNK_SIZE = 10000;
+
+	/**
+	 * Table recording the bulk ingest sessions that replaced the RTree insert
+	 * trigger and have not yet restored it
+	 * 
+	 * @since 3.0.3
+	 */
+	public static final String BULK_INGEST_TABLE_NAME = "nga_rtree_bulk_ingest";
+
 	/**
 	 * Drop SQL property
 	 */
@@ -70,6 +112,13 @@ public abstract class RTreeIndexCoreExtension extends BaseExtension {
 	 */
 	public static final String TRIGGER_INSERT_NAME = "insert";
 
+	/**
+	 * Trigger insert during a bulk ingest session property
+	 * 
+	 * @since 3.0.3
+	 */
+	public static final String TRIGGER_INSERT_BULK_INGEST_PROPERTY = "insert_bulk_ingest";
+
 	/**
 	 * Trigger update 1 name
 	 */
@@ -160,6 +209,22 @@ public abstract class RTreeIndexCoreExtension extends BaseExtension {
 	public static final String TRIGGER_SUBSTITUTE = GeoPackageProperties
 			.getProperty(SUBSTITUTE_PROPERTY, "trigger");
 
+	/**
+	 * Primary key range start substitute value
+	 * 
+	 * @since 3.0.3
+	 */
+	public static final String RANGE_START_SUBSTITUTE = GeoPackageProperties
+			.getProperty(SUBSTITUTE_PROPERTY, "range_start");
+
+	/**
+	 * Primary key range end substitute value
+	 * 
+	 * @since 3.0.3
+	 */
+	public static final String RANGE_END_SUBSTITUTE = GeoPackageProperties
+			.getProperty(SUBSTITUTE_PROPERTY, "range_end");
+
 	/**
 	 * SQL resource directory
 	 */
@@ -171,6 +236,22 @@ public abstract class RTreeIndexCoreExtension extends BaseExtension {
 	 */
 	private GeoPackageCoreConnection connection = null;
 
+	/**
+	 * Progress
+	 */
+	protected GeoPackageProgress progress;
+
+	/**
+	 * Number of feature rows loaded and committed per chunk when loading the
+	 * RTree
+	 */
+	private int loadChunkSize = DEFAULT_LOAD_CHUNK_SIZE;
+
+	/**
+	 * Load the rows in spatially sorted order
+	 */
+	private boolean loadSorted = false;
+
 	/**
 	 * Constructor
 	 * 
@@ -183,6 +264,83 @@ public abstract class RTreeIndexCoreExtension extends BaseExtension {
 		connection = geoPackage.getDatabase();
 	}
 
+	/**
+	 * Set the progress tracker used when loading the RTree
+	 * 
+	 * @param progress
+	 *            progress tracker
+	 * @since 3.0.3
+	 */
+	public void setProgress(GeoPackageProgress progress) {
+		this.progress = progress;
+	}
+
+	/**
+	 * Get the number of feature rows loaded and committed per chunk when
+	 * loading the RTree
+	 * 
+	 * @return load chunk size
+	 * @since 3.0.3
+	 */
+	public int getLoadChunkSize() {
+		return loadChunkSize;
+	}
+
+	/**
+	 * Set the number of feature rows loaded and committed per chunk when
+	 * loading the RTree
+	 * 
+	 * @param loadChunkSize
+	 *            load chunk size, must be at least 1
+	 * @since 3.0.3
+	 */
+	public void setLoadChunkSize(int loadChunkSize) {
+		if (loadChunkSize < 1) {
+			throw new GeoPackageException(
+					"Load chunk size must be at least 1, size: "
+							+ loadChunkSize);
+		}
+		this.loadChunkSize = loadChunkSize;
+	}
+
+	/**
+	 * Is the RTree loaded in spatially sorted order
+	 * 
+	 * @return true if sorted
+	 * @since 3.0.3
+	 */
+	public boolean isLoadSorted() {
+		return loadSorted;
+	}
+
+	/**
+	 * Set whether RTree loads insert rows ordered by geometry envelope center,
+	 * producing better packed RTree nodes at the cost of sorting. Single
+	 * statement loads sort the entire table, while chunked and range loads
+	 * sort the rows within each chunk or range.
+	 * 
+	 * @param loadSorted
+	 *            true to sort
+	 * @since 3.0.3
+	 */
+	public void setLoadSorted(boolean loadSorted) {
+		this.loadSorted = loadSorted;
+	}
+
+	/**
+	 * Get the RTree Index Virtual Table name for the table and geometry column
+	 * 
+	 * @param tableName
+	 *            table name
+	 * @param geometryColumnName
+	 *            geometry column name
+	 * @return RTree table name
+	 * @since 3.0.3
+	 */
+	public String getRTreeTableName(String tableName, String geometryColumnName) {
+		return "rtree_" + tableName + "_" + geometryColumnName;
+	}
+
 	/**
 	 * Get or create the extension
 	 * 
@@ -406,7 +564,9 @@ public abstract class RTreeIndexCoreExtension extends BaseExtension {
 	}
 
 	/**
-	 * Load the RTree Spatial Index Values
+	 * Load the RTree Spatial Index Values in a single statement. When load
+	 * sorted is set, the entire table is inserted ordered by geometry envelope
+	 * center.
 	 * 
 	 * @param tableName
 	 *            table name
@@ -418,11 +578,380 @@ public abstract class RTreeIndexCoreExtension extends BaseExtension {
 	public void loadRTreeIndex(String tableName, String geometryColumnName,
 			String idColumnName) {
 
+		String sqlName = GeoPackageProperties.getProperty(SQL_PROPERTY,
+				loadSorted ? LOAD_SORTED_PROPERTY : LOAD_PROPERTY);
+		executeSQL(sqlName, tableName, geometryColumnName, idColumnName);
+	}
+
+	/**
+	 * Load the RTree Spatial Index Values in primary key ordered chunks, see
+	 * {@link #loadRTreeIndexChunks(String, String, String, boolean)}
+	 * 
+	 * @param featureTable
+	 *            feature table
+	 * @return number of feature rows loaded
+	 * @since 3.0.3
+	 */
+	public long loadRTreeIndexChunks(FeatureTable featureTable) {
+		return loadRTreeIndexChunks(featureTable.getTableName(), featureTable
+				.getGeometryColumn().getName(), featureTable.getPkColumn()
+				.getName(), false);
+	}
+
+	/**
+	 * Resume loading the RTree Spatial Index Values in chunks after the last
+	 * loaded feature id, see
+	 * {@link #loadRTreeIndexChunks(String, String, String, boolean)}
+	 * 
+	 * @param featureTable
+	 *            feature table
+	 * @return number of feature rows loaded
+	 * @since 3.0.3
+	 */
+	public long resumeRTreeIndex(FeatureTable featureTable) {
+		return loadRTreeIndexChunks(featureTable.getTableName(), featureTable
+				.getGeometryColumn().getName(), featureTable.getPkColumn()
+				.getName(), true);
+	}
+
+	/**
+	 * Load the RTree Spatial Index Values in primary key ordered chunks of
+	 * {@link #getLoadChunkSize()} rows instead of the single statement of
+	 * {@link #loadRTreeIndex(String, String, String)}. Each chunk is a
+	 * separate statement, committed on its own unless the caller holds a
+	 * transaction, so readers are only blocked for a single chunk. Each chunk
+	 * end is found with a single primary key index seek. Progress is added
+	 * per chunk and loading stops after the current chunk when the progress is
+	 * no longer active. When load sorted is set, the rows of each chunk are
+	 * inserted ordered by geometry envelope center, which is not a global
+	 * sort of the table. When resuming, loading continues after the largest
+	 * feature id already in the RTree, which is the last committed chunk when
+	 * the RTree is only populated by this load (before the triggers are
+	 * created).
+	 * 
+	 * @param tableName
+	 *            table name
+	 * @param geometryColumnName
+	 *            geometry column name
+	 * @param idColumnName
+	 *            id column name
+	 * @param resume
+	 *            true to resume after the last loaded feature id
+	 * @return number of feature rows loaded
+	 * @since 3.0.3
+	 */
+	public long loadRTreeIndexChunks(String tableName,
+			String geometryColumnName, String idColumnName, boolean resume) {
+
+		String sqlName = GeoPackageProperties.getProperty(SQL_PROPERTY,
+				loadSorted ? LOAD_RANGE_SORTED_PROPERTY : LOAD_RANGE_PROPERTY);
+
+		String quotedTable = CoreSQLUtils.quoteWrap(tableName);
+		String quotedId = CoreSQLUtils.quoteWrap(idColumnName);
+
+		Long lastId = null;
+		if (resume) {
+			lastId = queryLong("SELECT MAX(id) FROM "
+					+ CoreSQLUtils.quoteWrap(getRTreeTableName(tableName,
+							geometryColumnName)), null);
+		}
+
+		String where = "";
+		if (lastId != null) {
+			where = " WHERE " + quotedId + " > " + lastId;
+		}
+
+		// Count the remaining rows and find the first chunk start once
+		long remaining = queryLong("SELECT COUNT(*) FROM " + quotedTable
+				+ where, null);
+		if (progress != null) {
+			progress.setMax((int) Math.min(remaining, Integer.MAX_VALUE));
+		}
+		Long rangeStart = queryLong("SELECT MIN(" + quotedId + ") FROM "
+				+ quotedTable + where, null);
+
+		// Seek the start of the chunk after each chunk
+		String nextChunk = "SELECT " + quotedId + " FROM " + quotedTable
+				+ " WHERE " + quotedId + " >= ? ORDER BY " + quotedId
+				+ " LIMIT 1 OFFSET " + loadChunkSize;
+
+		long loaded = 0;
+
+		while (rangeStart != null
+				&& (progress == null || progress.isActive())) {
+
+			Long nextStart = queryLong(nextChunk,
+					new String[] { String.valueOf(rangeStart) });
+
+			long rangeEnd;
+			long rows;
+			if (nextStart != null) {
+				rangeEnd = nextStart - 1;
+				rows = loadChunkSize;
+			} else {
+				rangeEnd = Long.MAX_VALUE;
+				rows = remaining - loaded;
+			}
+
+			executeSQL(sqlName, tableName, geometryColumnName, idColumnName,
+					rangeStart, rangeEnd);
+
+			loaded += rows;
+			if (progress != null) {
+				progress.addProgress((int) rows);
+			}
+
+			rangeStart = nextStart;
+		}
+
+		return loaded;
+	}
+
+	/**
+	 * Load the RTree Spatial Index Values for the inclusive feature id range
+	 * in a single statement
+	 * 
+	 * @param tableName
+	 *            table name
+	 * @param geometryColumnName
+	 *            geometry column name
+	 * @param idColumnName
+	 *            id column name
+	 * @param rangeStart
+	 *            feature id range start
+	 * @param rangeEnd
+	 *            feature id range end
+	 * @since 3.0.3
+	 */
+	public void loadRTreeIndex(String tableName, String geometryColumnName,
+			String idColumnName, long rangeStart, long rangeEnd) {
+		String sqlName = GeoPackageProperties.getProperty(SQL_PROPERTY,
+				loadSorted ? LOAD_RANGE_SORTED_PROPERTY : LOAD_RANGE_PROPERTY);
+		executeSQL(sqlName, tableName, geometryColumnName, idColumnName,
+				rangeStart, rangeEnd);
+	}
+
+	/**
+	 * Reload the entire RTree Spatial Index in a single statement, replacing
+	 * the existing RTree values
+	 * 
+	 * @param tableName
+	 *            table name
+	 * @param geometryColumnName
+	 *            geometry column name
+	 * @param idColumnName
+	 *            id column name
+	 * @since 3.0.3
+	 */
+	public void reloadRTreeIndex(String tableName, String geometryColumnName,
+			String idColumnName) {
+		connection.execSQL("DELETE FROM "
+				+ CoreSQLUtils.quoteWrap(getRTreeTableName(tableName,
+						geometryColumnName)));
 		String sqlName = GeoPackageProperties.getProperty(SQL_PROPERTY,
 				LOAD_PROPERTY);
 		executeSQL(sqlName, tableName, geometryColumnName, idColumnName);
 	}
 
+	/**
+	 * Begin a bulk ingest session for the feature table. Until the session is
+	 * closed, rows inserted with ids larger than the current max id are not
+	 * indexed by the RTree insert trigger, and are indexed when the session
+	 * is closed. Updates and deletes continue to maintain the RTree.
+	 * The session is recorded as pending until closed, see
+	 * {@link #hasPendingBulkIngest(String, String)}.
+	 * 
+	 * @param featureTable
+	 *            feature table
+	 * @return bulk ingest session
+	 * @since 3.0.3
+	 */
+	public RTreeIndexBulkIngest beginBulkIngest(FeatureTable featureTable) {
+		return beginBulkIngest(featureTable.getTableName(), featureTable
+				.getGeometryColumn().getName(), featureTable.getPkColumn()
+				.getName());
+	}
+
+	/**
+	 * Begin a bulk ingest session for the feature table. Until the session is
+	 * closed, rows inserted with ids larger than the current max id are not
+	 * indexed by the RTree insert trigger, and are indexed when the session
+	 * is closed. Updates and deletes continue to maintain the RTree.
+	 * The session is recorded as pending until closed, see
+	 * {@link #hasPendingBulkIngest(String, String)}.
+	 * 
+	 * @param tableName
+	 *            table name
+	 * @param geometryColumnName
+	 *            geometry column name
+	 * @param idColumnName
+	 *            id column name
+	 * @return bulk ingest session
+	 * @since 3.0.3
+	 */
+	public RTreeIndexBulkIngest beginBulkIngest(String tableName,
+			String geometryColumnName, String idColumnName) {
+		if (!has(tableName, geometryColumnName)) {
+			throw new GeoPackageException(
+					"RTree Index extension does not exist. Table: "
+							+ tableName + ", Geometry Column: "
+							+ geometryColumnName);
+		}
+		return new RTreeIndexBulkIngest(this, connection, tableName,
+				geometryColumnName, idColumnName);
+	}
+
+	/**
+	 * Determine if a bulk ingest session for the feature table was begun and
+	 * never closed, leaving the RTree insert trigger replaced
+	 * 
+	 * @param featureTable
+	 *            feature table
+	 * @return true if a bulk ingest session is pending
+	 * @since 3.0.3
+	 */
+	public boolean hasPendingBulkIngest(FeatureTable featureTable) {
+		return hasPendingBulkIngest(featureTable.getTableName(), featureTable
+				.getGeometryColumn().getName());
+	}
+
+	/**
+	 * Determine if a bulk ingest session for the feature table was begun and
+	 * never closed, leaving the RTree insert trigger replaced
+	 * 
+	 * @param tableName
+	 *            table name
+	 * @param geometryColumnName
+	 *            geometry column name
+	 * @return true if a bulk ingest session is pending
+	 * @since 3.0.3
+	 */
+	public boolean hasPendingBulkIngest(String tableName,
+			String geometryColumnName) {
+		return connection.tableExists(BULK_INGEST_TABLE_NAME)
+				&& connection.count(BULK_INGEST_TABLE_NAME,
+						"table_name = ? AND column_name = ?", new String[] {
+								tableName, geometryColumnName }) > 0;
+	}
+
+	/**
+	 * Recover a pending bulk ingest session left open by a failed or
+	 * abandoned process by rebuilding the RTree and restoring the triggers
+	 * 
+	 * @param featureTable
+	 *            feature table
+	 * @return true if a pending session was recovered
+	 * @since 3.0.3
+	 */
+	public boolean recoverBulkIngest(FeatureTable featureTable) {
+		return recoverBulkIngest(featureTable.getTableName(), featureTable
+				.getGeometryColumn().getName(), featureTable.getPkColumn()
+				.getName());
+	}
+
+	/**
+	 * Recover a pending bulk ingest session left open by a failed or
+	 * abandoned process by rebuilding the RTree and restoring the triggers
+	 * 
+	 * @param tableName
+	 *            table name
+	 * @param geometryColumnName
+	 *            geometry column name
+	 * @param idColumnName
+	 *            id column name
+	 * @return true if a pending session was recovered
+	 * @since 3.0.3
+	 */
+	public boolean recoverBulkIngest(String tableName,
+			String geometryColumnName, String idColumnName) {
+		boolean recovered = false;
+		if (hasPendingBulkIngest(tableName, geometryColumnName)) {
+			RTreeIndexBulkIngest bulkIngest = new RTreeIndexBulkIngest(this,
+					connection, tableName, geometryColumnName, idColumnName,
+					false);
+			bulkIngest.setRebuild(true);
+			bulkIngest.close();
+			recovered = true;
+		}
+		return recovered;
+	}
+
+	/**
+	 * Record the bulk ingest session as pending
+	 * 
+	 * @param tableName
+	 *            table name
+	 * @param geometryColumnName
+	 *            geometry column name
+	 */
+	void addBulkIngest(String tableName, String geometryColumnName) {
+		if (hasPendingBulkIngest(tableName, geometryColumnName)) {
+			throw new GeoPackageException(
+					"RTree Index bulk ingest session is already pending. Table: "
+							+ tableName + ", Geometry Column: "
+							+ geometryColumnName);
+		}
+		connection.execSQL("CREATE TABLE IF NOT EXISTS "
+				+ CoreSQLUtils.quoteWrap(BULK_INGEST_TABLE_NAME)
+				+ " (table_name TEXT NOT NULL, column_name TEXT NOT NULL,"
+				+ " CONSTRAINT pk_nrbi PRIMARY KEY (table_name, column_name))");
+		connection.execSQL("INSERT INTO "
+				+ CoreSQLUtils.quoteWrap(BULK_INGEST_TABLE_NAME)
+				+ " (table_name, column_name) VALUES ("
+				+ quoteLiteral(tableName) + ", "
+				+ quoteLiteral(geometryColumnName) + ")");
+	}
+
+	/**
+	 * Remove the pending bulk ingest session record, dropping the record table
+	 * when no sessions remain
+	 * 
+	 * @param tableName
+	 *            table name
+	 * @param geometryColumnName
+	 *            geometry column name
+	 */
+	void removeBulkIngest(String tableName, String geometryColumnName) {
+		if (connection.tableExists(BULK_INGEST_TABLE_NAME)) {
+			connection.delete(BULK_INGEST_TABLE_NAME,
+					"table_name = ? AND column_name = ?", new String[] {
+							tableName, geometryColumnName });
+			if (connection.count(BULK_INGEST_TABLE_NAME, null, null) == 0) {
+				connection.execSQL("DROP TABLE "
+						+ CoreSQLUtils.quoteWrap(BULK_INGEST_TABLE_NAME));
+			}
+		}
+	}
+
+	/**
+	 * Quote the value as a SQL string literal
+	 * 
+	 * @param value
+	 *            value
+	 * @return string literal
+	 */
+	private static String quoteLiteral(String value) {
+		return "'" + value.replace("'", "''") + "'";
+	}
+
+	/**
+	 * Query for a single integer result
+	 * 
+	 * @param sql
+	 *            sql statement
+	 * @param args
+	 *            arguments
+	 * @return long result or null
+	 */
+	private Long queryLong(String sql, String[] args) {
+		Long value = null;
+		String result = connection.querySingleStringResult(sql, args);
+		if (result != null) {
+			value = Long.parseLong(result);
+		}
+		return value;
+	}
+
 	/**
 	 * Create Triggers to Maintain Spatial Index Values
 	 * 
@@ -480,6 +1009,38 @@ public abstract class RTreeIndexCoreExtension extends BaseExtension {
 		executeSQL(sqlName, tableName, geometryColumnName, idColumnName);
 	}
 
+	/**
+	 * Create the bulk ingest session insert trigger, replacing the insert
+	 * trigger while a session is open
+	 * 
+	 * <pre>
+	 * Conditions: Insertion of non-empty geometry
+	 *             Row ID at most the max id when the session began
+	 * Actions   : Insert record into rtree
+	 * </pre>
+	 * 
+	 * Rows inserted with larger ids are loaded when the session is closed.
+	 * 
+	 * @param tableName
+	 *            table name
+	 * @param geometryColumnName
+	 *            geometry column name
+	 * @param idColumnName
+	 *            id column name
+	 * @param maxId
+	 *            max id when the session began
+	 */
+	void createBulkIngestInsertTrigger(String tableName,
+			String geometryColumnName, String idColumnName, long maxId) {
+
+		String sqlName = GeoPackageProperties.getProperty(TRIGGER_PROPERTY,
+				TRIGGER_INSERT_BULK_INGEST_PROPERTY);
+		Map<String, String> values = substituteValues(tableName,
+				geometryColumnName, idColumnName, null);
+		values.put(RANGE_END_SUBSTITUTE, String.valueOf(maxId));
+		executeSQL(sqlName, values);
+	}
+
 	/**
 	 * Create update 1 trigger
 	 * 
@@ -893,23 +1454,65 @@ public abstract class RTreeIndexCoreExtension extends BaseExtension {
 	private void executeSQL(String sqlName, String tableName,
 			String geometryColumnName, String idColumnName, String triggerName) {
 
-		List<String> statements = ResourceIOUtils.parseSQLStatements(
+		Map<String, String> values = substituteValues(tableName,
+				geometryColumnName, idColumnName, triggerName);
+		executeSQL(sqlName, values);
+
+	}
+
+	/**
+	 * Execute the SQL for the SQL file name while substituting values for the
+	 * table, geometry column, id column, and inclusive primary key range
+	 * 
+	 * @param sqlName
+	 *            sql file name
+	 * @param tableName
+	 *            table name
+	 * @param geometryColumnName
+	 *            geometry column name
+	 * @param idColumnName
+	 *            id column name
+	 * @param rangeStart
+	 *            primary key range start
+	 * @param rangeEnd
+	 *            primary key range end
+	 */
+	private void executeSQL(String sqlName, String tableName,
+			String geometryColumnName, String idColumnName, long rangeStart,
+			long rangeEnd) {
+
+		Map<String, String> values = substituteValues(tableName,
+				geometryColumnName, idColumnName, null);
+		values.put(RANGE_START_SUBSTITUTE, String.valueOf(rangeStart));
+		values.put(RANGE_END_SUBSTITUTE, String.valueOf(rangeEnd));
+		executeSQL(sqlName, values);
+
+	}
+
+	/**
+	 * Execute the precompiled SQL templates for the SQL file name with the
+	 * substitute values
+	 * 
+	 * @param sqlName
+	 *            sql file name
+	 * @param values
+	 *            substitute to value mapping
+	 */
+	private void executeSQL(String sqlName, Map<String, String> values) {
+
+		List<SQLTemplate> statements = ResourceIOUtils.getSQLTemplates(
 				SQL_DIRECTORY, sqlName);
 
-		for (String statement : statements) {
-			String sql = substituteSqlArguments(statement, tableName,
-					geometryColumnName, idColumnName, triggerName);
-			connection.execSQL(sql);
+		for (SQLTemplate statement : statements) {
+			connection.execSQL(statement.render(values));
 		}
 
 	}
 
 	/**
-	 * Replace the SQL arguments for the table, geometry column, id column, and
-	 * trigger name
+	 * Get the SQL substitute values for the table, geometry column, id column,
+	 * and trigger name
 	 * 
-	 * @param sql
-	 *            sql to substitute
 	 * @param tableName
 	 *            table name
 	 * @param geometryColumnName
@@ -918,28 +1521,25 @@ public abstract class RTreeIndexCoreExtension extends BaseExtension {
 	 *            id column name
 	 * @param triggerName
 	 *            trigger name
-	 * @return substituted sql
+	 * @return substitute to value mapping
 	 */
-	private String substituteSqlArguments(String sql, String tableName,
+	private Map<String, String> substituteValues(String tableName,
 			String geometryColumnName, String idColumnName, String triggerName) {
 
-		String substituted = sql;
+		Map<String, String> values = new HashMap<>();
 
-		substituted = substituted.replaceAll(TABLE_SUBSTITUTE, tableName);
-		substituted = substituted.replaceAll(GEOMETRY_COLUMN_SUBSTITUTE,
-				geometryColumnName);
+		values.put(TABLE_SUBSTITUTE, tableName);
+		values.put(GEOMETRY_COLUMN_SUBSTITUTE, geometryColumnName);
 
 		if (idColumnName != null) {
-			substituted = substituted.replaceAll(PK_COLUMN_SUBSTITUTE,
-					idColumnName);
+			values.put(PK_COLUMN_SUBSTITUTE, idColumnName);
 		}
 
 		if (triggerName != null) {
-			substituted = substituted.replaceAll(TRIGGER_SUBSTITUTE,
-					triggerName);
+			values.put(TRIGGER_SUBSTITUTE, triggerName);
 		}
 
-		return substituted;
+		return values;
 	}
 
 }
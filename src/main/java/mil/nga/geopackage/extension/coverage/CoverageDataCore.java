@@ -2,25 +2,37 @@ package mil.nga.geopackage.extension.coverage;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import mil.nga.geopackage.BoundingBox;
 import mil.nga.geopackage.GeoPackageConstants;
 import mil.nga.geopackage.GeoPackageCore;
 import mil.nga.geopackage.GeoPackageException;
 import mil.nga.geopackage.core.contents.ContentsDataType;
+import mil.nga.geopackage.core.srs.ProjectionCache;
 import mil.nga.geopackage.extension.BaseExtension;
 import mil.nga.geopackage.extension.ExtensionScopeType;
 import mil.nga.geopackage.extension.Extensions;
 import mil.nga.geopackage.property.GeoPackageProperties;
 import mil.nga.geopackage.property.PropertyConstants;
+import mil.nga.geopackage.tiles.TileBoundingBoxUtils;
 import mil.nga.geopackage.tiles.matrix.TileMatrix;
 import mil.nga.geopackage.tiles.matrixset.TileMatrixSet;
+import mil.nga.geopackage.tiles.user.TileDaoUtils;
 import mil.nga.geopackage.tiles.user.TileTable;
 import mil.nga.sf.proj.Projection;
 import mil.nga.sf.proj.ProjectionTransform;
 
+import org.osgeo.proj4j.CoordinateTransform;
 import org.osgeo.proj4j.ProjCoordinate;
 
 /**
@@ -134,6 +146,29 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 	 */
 	protected GriddedCoverageEncodingType encoding = GriddedCoverageEncodingType.CENTER;
 
+	/**
+	 * Executor for decoding and interpolating coverage data tiles in parallel,
+	 * null to process tiles serially in the calling thread
+	 */
+	protected ExecutorService executor;
+
+	/**
+	 * Decoded coverage data tile cache, null when not caching
+	 */
+	protected CoverageDataTileCache tileCache;
+
+	/**
+	 * Spacing in requested pixels between the exactly transformed control
+	 * pixels when reprojecting coverage data
+	 */
+	protected int reprojectionSpacing = 16;
+
+	/**
+	 * Max allowed error in source pixels when interpolating reprojected pixel
+	 * locations between control pixels, 0 to transform every pixel
+	 */
+	protected double reprojectionTolerance = 0.0;
+
 	/**
 	 * Constructor
 	 * 
@@ -189,7 +224,7 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 
 	/**
 	 * Get the coverage data value from the image at the coordinate
-	 *
+	 * 
 	 * @param griddedTile
 	 *            gridded tile
 	 * @param image
@@ -203,6 +238,28 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 	public abstract Double getValue(GriddedTile griddedTile, TImage image,
 			int x, int y);
 
+	/**
+	 * Get the primitive coverage data value from the image at the coordinate.
+	 * Implementations reading pixel values directly may override to avoid
+	 * boxing.
+	 * 
+	 * @param griddedTile
+	 *            gridded tile
+	 * @param image
+	 *            coverage data image
+	 * @param x
+	 *            x coordinate
+	 * @param y
+	 *            y coordinate
+	 * @return coverage data value, NaN if null
+	 * @since 3.0.3
+	 */
+	public double getDoubleValue(GriddedTile griddedTile, TImage image, int x,
+			int y) {
+		Double value = getValue(griddedTile, image, x, y);
+		return value != null ? value : Double.NaN;
+	}
+
 	/**
 	 * Get the requested coverage data values with the requested width and
 	 * height
@@ -214,6 +271,7 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 	 * @param height
 	 *            coverage data request height
 	 * @return coverage data results
+	 * @see #getTileReaderValues(CoverageDataRequest, Integer, Integer)
 	 */
 	public abstract CoverageDataResults getValues(CoverageDataRequest request,
 			Integer width, Integer height);
@@ -230,6 +288,17 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 	public abstract CoverageDataResults getValuesUnbounded(
 			CoverageDataRequest request);
 
+	/**
+	 * Determine if the coverage data reads single tiles by implementing
+	 * {@link CoverageDataTileReader}
+	 * 
+	 * @return true if a tile reader
+	 * @since 3.0.3
+	 */
+	public boolean isTileReader() {
+		return this instanceof CoverageDataTileReader;
+	}
+
 	/**
 	 * Get the Tile Matrix Set
 	 * 
@@ -437,6 +506,347 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 		this.encoding = encoding;
 	}
 
+	/**
+	 * Get the executor used to process coverage data tiles in parallel
+	 * 
+	 * @return executor or null if tiles are processed serially
+	 * @since 3.0.3
+	 */
+	public ExecutorService getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Set the executor used to decode and interpolate coverage data tiles in
+	 * parallel, such as a {@link java.util.concurrent.ForkJoinPool}. Batch
+	 * point queries and bounded tile reader requests through
+	 * {@link #getTileReaderValues(CoverageDataRequest, Integer, Integer)} read
+	 * and interpolate each covering tile group as an executor task, and
+	 * implementations may submit their own tile tasks with
+	 * {@link #processTasks(List)}. Results are identical to serial
+	 * processing. The executor is not shut down by the coverage data.
+	 * 
+	 * @param executor
+	 *            executor or null to process tiles serially
+	 * @since 3.0.3
+	 */
+	public void setExecutor(ExecutorService executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Is parallel tile processing enabled
+	 * 
+	 * @return true if an executor is set
+	 * @since 3.0.3
+	 */
+	public boolean isParallel() {
+		return executor != null;
+	}
+
+	/**
+	 * Process the coverage data tile tasks. When an executor is set and there
+	 * are multiple tasks, the tasks are run on the executor. Otherwise, tasks
+	 * run serially in the calling thread. Results are always returned in task
+	 * order.
+	 * 
+	 * @param tasks
+	 *            tile tasks
+	 * @param <T>
+	 *            task result type
+	 * @return task results in task order
+	 * @since 3.0.3
+	 */
+	protected <T> List<T> processTasks(List<? extends Callable<T>> tasks) {
+
+		List<T> results = new ArrayList<>(tasks.size());
+
+		if (executor == null || tasks.size() < 2) {
+
+			for (Callable<T> task : tasks) {
+				try {
+					results.add(task.call());
+				} catch (GeoPackageException e) {
+					throw e;
+				} catch (Exception e) {
+					throw new GeoPackageException(
+							"Failed to process coverage data tile for table: "
+									+ tileMatrixSet.getTableName(), e);
+				}
+			}
+
+		} else {
+
+			List<Future<T>> futures = new ArrayList<>(tasks.size());
+			try {
+				for (Callable<T> task : tasks) {
+					futures.add(executor.submit(task));
+				}
+				for (Future<T> future : futures) {
+					results.add(future.get());
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new GeoPackageException(
+						"Interrupted while processing coverage data tiles for table: "
+								+ tileMatrixSet.getTableName(), e);
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof GeoPackageException) {
+					throw (GeoPackageException) cause;
+				}
+				throw new GeoPackageException(
+						"Failed to process coverage data tile for table: "
+								+ tileMatrixSet.getTableName(), cause);
+			} finally {
+				for (Future<T> future : futures) {
+					future.cancel(true);
+				}
+			}
+
+		}
+
+		return results;
+	}
+
+	/**
+	 * Stitch the per tile coverage data results into a single coverage data
+	 * grid. Tile results are placed in list order at their base row and column.
+	 * 
+	 * @param width
+	 *            results width
+	 * @param height
+	 *            results height
+	 * @param tileResults
+	 *            tile results
+	 * @return coverage data grid
+	 * @since 3.0.3
+	 */
+	protected CoverageDataGrid stitchTileResults(int width, int height,
+			List<CoverageDataTileResult> tileResults) {
+
+		CoverageDataGrid values = new CoverageDataGrid(width, height);
+
+		for (CoverageDataTileResult tileResult : tileResults) {
+			CoverageDataGrid grid = tileResult.getGrid();
+			if (grid != null) {
+				values.set(tileResult.getBaseRow(),
+						tileResult.getBaseColumn(), grid);
+			}
+		}
+
+		return values;
+	}
+
+	/**
+	 * Get the spacing in requested pixels between exactly transformed control
+	 * pixels when reprojecting
+	 * 
+	 * @return reprojection control pixel spacing
+	 * @since 3.0.3
+	 */
+	public int getReprojectionSpacing() {
+		return reprojectionSpacing;
+	}
+
+	/**
+	 * Set the spacing in requested pixels between exactly transformed control
+	 * pixels when reprojecting
+	 * 
+	 * @param reprojectionSpacing
+	 *            reprojection control pixel spacing
+	 * @since 3.0.3
+	 */
+	public void setReprojectionSpacing(int reprojectionSpacing) {
+		this.reprojectionSpacing = reprojectionSpacing;
+	}
+
+	/**
+	 * Get the max allowed error in source pixels when interpolating reprojected
+	 * pixel locations between control pixels
+	 * 
+	 * @return reprojection tolerance, 0 when every pixel is transformed
+	 * @since 3.0.3
+	 */
+	public double getReprojectionTolerance() {
+		return reprojectionTolerance;
+	}
+
+	/**
+	 * Set the max allowed error in source pixels when interpolating
+	 * reprojected pixel locations between control pixels. Control grid cells
+	 * exceeding the tolerance are transformed pixel by pixel. A tolerance such
+	 * as 0.125 greatly reduces projection transformations on large requests.
+	 * 
+	 * @param reprojectionTolerance
+	 *            reprojection tolerance, 0 to transform every pixel
+	 * @since 3.0.3
+	 */
+	public void setReprojectionTolerance(double reprojectionTolerance) {
+		this.reprojectionTolerance = reprojectionTolerance;
+	}
+
+	/**
+	 * Get the decoded coverage data tile cache
+	 * 
+	 * @return tile cache or null if not caching
+	 * @since 3.0.3
+	 */
+	public CoverageDataTileCache getTileCache() {
+		return tileCache;
+	}
+
+	/**
+	 * Set the decoded coverage data tile cache. A single cache may be shared
+	 * between coverage data instances, tables, and GeoPackages, as cached
+	 * tiles are keyed by GeoPackage identity. The GeoPackage is registered
+	 * with the cache so gridded tile and gridded coverage writes invalidate
+	 * its cached tiles. Remove the tiles of a closed GeoPackage with
+	 * {@link CoverageDataTileCache#remove(GeoPackageCore)}.
+	 * 
+	 * @param tileCache
+	 *            tile cache or null to disable caching
+	 * @since 3.0.3
+	 */
+	public void setTileCache(CoverageDataTileCache tileCache) {
+		if (tileCache != null) {
+			tileCache.register(geoPackage);
+		}
+		this.tileCache = tileCache;
+	}
+
+	/**
+	 * Get the cached decoded coverage data tile
+	 * 
+	 * @param zoomLevel
+	 *            zoom level
+	 * @param tileColumn
+	 *            tile column
+	 * @param tileRow
+	 *            tile row
+	 * @return cached tile or null
+	 * @since 3.0.3
+	 */
+	protected CoverageDataTile getCachedTile(long zoomLevel, long tileColumn,
+			long tileRow) {
+		CoverageDataTile tile = null;
+		if (tileCache != null) {
+			tile = tileCache.get(geoPackage, tileMatrixSet.getTableName(),
+					zoomLevel, tileColumn, tileRow);
+		}
+		return tile;
+	}
+
+	/**
+	 * Decode every pixel of the coverage data tile image. Tiles read through
+	 * {@link #getTile(TileMatrix, long, long)} are cached when a tile cache is
+	 * set.
+	 * 
+	 * @param griddedTile
+	 *            gridded tile
+	 * @param image
+	 *            coverage data image
+	 * @param zoomLevel
+	 *            zoom level
+	 * @param tileColumn
+	 *            tile column
+	 * @param tileRow
+	 *            tile row
+	 * @return decoded coverage data tile
+	 * @since 3.0.3
+	 */
+	protected CoverageDataTile createTile(GriddedTile griddedTile,
+			TImage image, long zoomLevel, long tileColumn, long tileRow) {
+
+		int imageWidth = image.getWidth();
+		int imageHeight = image.getHeight();
+		CoverageDataGrid values = new CoverageDataGrid(
+				new double[imageWidth * imageHeight], imageWidth, imageHeight);
+		for (int y = 0; y < imageHeight; y++) {
+			for (int x = 0; x < imageWidth; x++) {
+				values.set(y, x, getDoubleValue(griddedTile, image, x, y));
+			}
+		}
+
+		CoverageDataTile tile = new CoverageDataTile(
+				tileMatrixSet.getTableName(), zoomLevel, tileColumn, tileRow,
+				griddedTile, values);
+
+		return tile;
+	}
+
+	/**
+	 * Get the decoded coverage data tile from the cache, or read, decode, and
+	 * cache it. Tiles read before an invalidation that completes during the
+	 * read are not cached. Requires a {@link CoverageDataTileReader}
+	 * implementation.
+	 * 
+	 * @param tileMatrix
+	 *            tile matrix
+	 * @param tileColumn
+	 *            tile column
+	 * @param tileRow
+	 *            tile row
+	 * @return decoded coverage data tile or null if no tile exists
+	 * @since 3.0.3
+	 */
+	protected CoverageDataTile getTile(TileMatrix tileMatrix, long tileColumn,
+			long tileRow) {
+		CoverageDataTile tile = getCachedTile(tileMatrix.getZoomLevel(),
+				tileColumn, tileRow);
+		if (tile == null && tileColumn >= 0 && tileRow >= 0
+				&& tileColumn < tileMatrix.getMatrixWidth()
+				&& tileRow < tileMatrix.getMatrixHeight()) {
+			CoverageDataTileCache cache = tileCache;
+			long generation = cache != null ? cache.getGeneration() : 0;
+			tile = ((CoverageDataTileReader) this).readTile(tileMatrix,
+					tileColumn, tileRow);
+			if (tile != null && cache != null) {
+				cache.put(geoPackage, tile, generation);
+			}
+		}
+		return tile;
+	}
+
+	/**
+	 * Invalidate the cached decoded coverage data tile. Call when the tile row
+	 * is written directly without writing its gridded tile, as gridded tile
+	 * writes invalidate the cached tiles of the GeoPackage.
+	 * 
+	 * @param zoomLevel
+	 *            zoom level
+	 * @param tileColumn
+	 *            tile column
+	 * @param tileRow
+	 *            tile row
+	 * @return true if a cached tile was removed
+	 * @since 3.0.3
+	 */
+	public boolean invalidateTile(long zoomLevel, long tileColumn, long tileRow) {
+		boolean removed = false;
+		if (tileCache != null) {
+			removed = tileCache.remove(geoPackage,
+					tileMatrixSet.getTableName(), zoomLevel, tileColumn,
+					tileRow);
+		}
+		return removed;
+	}
+
+	/**
+	 * Invalidate all cached decoded coverage data tiles of the table
+	 * 
+	 * @return number of cached tiles removed
+	 * @since 3.0.3
+	 */
+	public int invalidateTiles() {
+		int removed = 0;
+		if (tileCache != null) {
+			removed = tileCache.remove(geoPackage,
+					tileMatrixSet.getTableName());
+		}
+		return removed;
+	}
+
 	/**
 	 * Get or create the extension
 	 * 
@@ -590,7 +1000,7 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 
 	/**
 	 * Reproject the coverage data to the requested projection
-	 *
+	 * 
 	 * @param values
 	 *            coverage data values
 	 * @param requestedCoverageWidth
@@ -610,6 +1020,36 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 			BoundingBox requestBoundingBox,
 			ProjectionTransform transformRequestToCoverage,
 			BoundingBox coverageBoundingBox) {
+		CoverageDataGrid projectedValues = reprojectCoverageData(
+				new CoverageDataGrid(values), requestedCoverageWidth,
+				requestedCoverageHeight, requestBoundingBox,
+				transformRequestToCoverage, coverageBoundingBox);
+		return projectedValues.toValues();
+	}
+
+	/**
+	 * Reproject the coverage data grid to the requested projection
+	 * 
+	 * @param values
+	 *            coverage data grid
+	 * @param requestedCoverageWidth
+	 *            requested coverage data width
+	 * @param requestedCoverageHeight
+	 *            requested coverage data height
+	 * @param requestBoundingBox
+	 *            request bounding box in the request projection
+	 * @param transformRequestToCoverage
+	 *            transformation from request to coverage data
+	 * @param coverageBoundingBox
+	 *            coverage data bounding box
+	 * @return projected coverage data grid
+	 * @since 3.0.3
+	 */
+	protected CoverageDataGrid reprojectCoverageData(CoverageDataGrid values,
+			int requestedCoverageWidth, int requestedCoverageHeight,
+			BoundingBox requestBoundingBox,
+			ProjectionTransform transformRequestToCoverage,
+			BoundingBox coverageBoundingBox) {
 
 		final double requestedWidthUnitsPerPixel = (requestBoundingBox
 				.getMaxLongitude() - requestBoundingBox.getMinLongitude())
@@ -623,48 +1063,395 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 		final double tilesDistanceHeight = coverageBoundingBox.getMaxLatitude()
 				- coverageBoundingBox.getMinLatitude();
 
-		final int width = values[0].length;
-		final int height = values.length;
-
-		Double[][] projectedValues = new Double[requestedCoverageHeight][requestedCoverageWidth];
-
-		// Retrieve each coverage data value in the unprojected coverage data
-		for (int y = 0; y < requestedCoverageHeight; y++) {
-			for (int x = 0; x < requestedCoverageWidth; x++) {
-
-				double longitude = requestBoundingBox.getMinLongitude()
-						+ (x * requestedWidthUnitsPerPixel);
-				double latitude = requestBoundingBox.getMaxLatitude()
-						- (y * requestedHeightUnitsPerPixel);
-				ProjCoordinate fromCoord = new ProjCoordinate(longitude,
-						latitude);
-				ProjCoordinate toCoord = transformRequestToCoverage
-						.transform(fromCoord);
-				double projectedLongitude = toCoord.x;
-				double projectedLatitude = toCoord.y;
-
-				int xPixel = (int) Math
-						.round(((projectedLongitude - coverageBoundingBox
-								.getMinLongitude()) / tilesDistanceWidth)
-								* width);
-				int yPixel = (int) Math
-						.round(((coverageBoundingBox.getMaxLatitude() - projectedLatitude) / tilesDistanceHeight)
-								* height);
-
-				xPixel = Math.max(0, xPixel);
-				xPixel = Math.min(width - 1, xPixel);
-
-				yPixel = Math.max(0, yPixel);
-				yPixel = Math.min(height - 1, yPixel);
-
-				Double coverageData = values[yPixel][xPixel];
-				projectedValues[y][x] = coverageData;
+		final int width = values.getWidth();
+		final int height = values.getHeight();
+
+		final ReprojectionPixelTransform pixelTransform = new ReprojectionPixelTransform(
+				transformRequestToCoverage, requestBoundingBox,
+				requestedWidthUnitsPerPixel, requestedHeightUnitsPerPixel,
+				coverageBoundingBox, tilesDistanceWidth, tilesDistanceHeight,
+				width, height);
+
+		CoverageDataGrid projectedValues = new CoverageDataGrid(
+				requestedCoverageWidth, requestedCoverageHeight);
+
+		int[] controlX = getReprojectionControlPixels(requestedCoverageWidth);
+		int[] controlY = getReprojectionControlPixels(requestedCoverageHeight);
+
+		if (controlX == null || controlY == null) {
+
+			// Retrieve each coverage data value in the unprojected coverage
+			// data
+			reprojectCoverageData(values, projectedValues, pixelTransform, 0,
+					requestedCoverageWidth, 0, requestedCoverageHeight);
+
+		} else {
+
+			// Transform the control grid pixels to source pixel locations
+			int controlWidth = controlX.length;
+			double[] controlSourceX = new double[controlWidth
+					* controlY.length];
+			double[] controlSourceY = new double[controlSourceX.length];
+			double[] source = new double[2];
+			for (int row = 0; row < controlY.length; row++) {
+				for (int column = 0; column < controlWidth; column++) {
+					pixelTransform.transform(controlX[column], controlY[row],
+							source);
+					int index = (row * controlWidth) + column;
+					controlSourceX[index] = source[0];
+					controlSourceY[index] = source[1];
+				}
+			}
+
+			// Interpolate the source pixel locations within each control grid
+			// cell when within the tolerance, otherwise transform each pixel
+			for (int row = 0; row + 1 < controlY.length; row++) {
+
+				int minY = controlY[row];
+				int maxY = controlY[row + 1];
+				int endY = row + 2 < controlY.length ? maxY : maxY + 1;
+
+				for (int column = 0; column + 1 < controlWidth; column++) {
+
+					int minX = controlX[column];
+					int maxX = controlX[column + 1];
+					int endX = column + 2 < controlWidth ? maxX : maxX + 1;
+
+					int topLeft = (row * controlWidth) + column;
+					int bottomLeft = topLeft + controlWidth;
+					double[] cellX = new double[] { controlSourceX[topLeft],
+							controlSourceX[topLeft + 1],
+							controlSourceX[bottomLeft],
+							controlSourceX[bottomLeft + 1] };
+					double[] cellY = new double[] { controlSourceY[topLeft],
+							controlSourceY[topLeft + 1],
+							controlSourceY[bottomLeft],
+							controlSourceY[bottomLeft + 1] };
+
+					if (isWithinReprojectionTolerance(pixelTransform, minX,
+							maxX, minY, maxY, cellX, cellY, source)) {
+
+						for (int y = minY; y < endY; y++) {
+							double yRatio = (double) (y - minY) / (maxY - minY);
+							for (int x = minX; x < endX; x++) {
+								double xRatio = (double) (x - minX)
+										/ (maxX - minX);
+								double sourceX = interpolate(cellX, xRatio,
+										yRatio);
+								double sourceY = interpolate(cellY, xRatio,
+										yRatio);
+								projectedValues.set(y, x, getReprojectedValue(
+										values, sourceX, sourceY));
+							}
+						}
+
+					} else {
+						reprojectCoverageData(values, projectedValues,
+								pixelTransform, minX, endX, minY, endY);
+					}
+				}
 			}
 		}
 
 		return projectedValues;
 	}
 
+	/**
+	 * Reproject the coverage data within the requested pixel range by
+	 * transforming each requested pixel
+	 * 
+	 * @param values
+	 *            coverage data grid
+	 * @param projectedValues
+	 *            projected coverage data grid to populate
+	 * @param pixelTransform
+	 *            requested to source pixel transform
+	 * @param minX
+	 *            min requested x pixel, inclusive
+	 * @param endX
+	 *            end requested x pixel, exclusive
+	 * @param minY
+	 *            min requested y pixel, inclusive
+	 * @param endY
+	 *            end requested y pixel, exclusive
+	 */
+	private void reprojectCoverageData(CoverageDataGrid values,
+			CoverageDataGrid projectedValues,
+			ReprojectionPixelTransform pixelTransform, int minX, int endX,
+			int minY, int endY) {
+		double[] source = new double[2];
+		for (int y = minY; y < endY; y++) {
+			for (int x = minX; x < endX; x++) {
+				pixelTransform.transform(x, y, source);
+				projectedValues.set(y, x,
+						getReprojectedValue(values, source[0], source[1]));
+			}
+		}
+	}
+
+	/**
+	 * Get the coverage data value nearest to the source pixel location
+	 * 
+	 * @param values
+	 *            coverage data grid
+	 * @param sourceX
+	 *            source x pixel location
+	 * @param sourceY
+	 *            source y pixel location
+	 * @return coverage data value
+	 */
+	private static double getReprojectedValue(CoverageDataGrid values,
+			double sourceX, double sourceY) {
+
+		int xPixel = (int) Math.round(sourceX);
+		int yPixel = (int) Math.round(sourceY);
+
+		xPixel = Math.max(0, xPixel);
+		xPixel = Math.min(values.getWidth() - 1, xPixel);
+
+		yPixel = Math.max(0, yPixel);
+		yPixel = Math.min(values.getHeight() - 1, yPixel);
+
+		return values.get(yPixel, xPixel);
+	}
+
+	/**
+	 * Get the control grid pixel locations along a requested dimension, or
+	 * null if reprojection should transform every pixel
+	 * 
+	 * @param length
+	 *            requested width or height
+	 * @return control pixel locations including the first and last pixel
+	 */
+	private int[] getReprojectionControlPixels(int length) {
+
+		int[] controlPixels = null;
+
+		if (reprojectionTolerance > 0 && reprojectionSpacing > 1
+				&& length > reprojectionSpacing) {
+			int count = ((length - 1) + reprojectionSpacing - 1)
+					/ reprojectionSpacing + 1;
+			controlPixels = new int[count];
+			for (int i = 0; i < count - 1; i++) {
+				controlPixels[i] = i * reprojectionSpacing;
+			}
+			controlPixels[count - 1] = length - 1;
+		}
+
+		return controlPixels;
+	}
+
+	/**
+	 * Determine if interpolating source pixel locations within the control
+	 * grid cell is within the reprojection tolerance, checking the cell center
+	 * and edge midpoints against exact transformations
+	 * 
+	 * @param pixelTransform
+	 *            requested to source pixel transform
+	 * @param minX
+	 *            min cell x pixel
+	 * @param maxX
+	 *            max cell x pixel
+	 * @param minY
+	 *            min cell y pixel
+	 * @param maxY
+	 *            max cell y pixel
+	 * @param cellX
+	 *            source x of the top left, top right, bottom left, and bottom
+	 *            right cell corners
+	 * @param cellY
+	 *            source y of the top left, top right, bottom left, and bottom
+	 *            right cell corners
+	 * @param source
+	 *            reusable source location array
+	 * @return true if within tolerance
+	 */
+	private boolean isWithinReprojectionTolerance(
+			ReprojectionPixelTransform pixelTransform, int minX, int maxX,
+			int minY, int maxY, double[] cellX, double[] cellY,
+			double[] source) {
+
+		for (int i = 0; i < 4; i++) {
+			if (Double.isNaN(cellX[i]) || Double.isInfinite(cellX[i])
+					|| Double.isNaN(cellY[i]) || Double.isInfinite(cellY[i])) {
+				return false;
+			}
+		}
+
+		int midX = (minX + maxX) / 2;
+		int midY = (minY + maxY) / 2;
+		int[][] checks = new int[][] { { midX, midY }, { midX, minY },
+				{ midX, maxY }, { minX, midY }, { maxX, midY } };
+
+		for (int[] check : checks) {
+			double xRatio = (double) (check[0] - minX) / (maxX - minX);
+			double yRatio = (double) (check[1] - minY) / (maxY - minY);
+			pixelTransform.transform(check[0], check[1], source);
+			if (Math.abs(interpolate(cellX, xRatio, yRatio) - source[0]) > reprojectionTolerance
+					|| Math.abs(interpolate(cellY, xRatio, yRatio)
+							- source[1]) > reprojectionTolerance) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Bilinearly interpolate the cell corner values
+	 * 
+	 * @param corners
+	 *            top left, top right, bottom left, and bottom right values
+	 * @param xRatio
+	 *            x ratio between the left and right corners
+	 * @param yRatio
+	 *            y ratio between the top and bottom corners
+	 * @return interpolated value
+	 */
+	private static double interpolate(double[] corners, double xRatio,
+			double yRatio) {
+		double top = corners[0] + ((corners[1] - corners[0]) * xRatio);
+		double bottom = corners[2] + ((corners[3] - corners[2]) * xRatio);
+		return top + ((bottom - top) * yRatio);
+	}
+
+	/**
+	 * Transforms requested pixels to source pixel locations in the
+	 * unprojected coverage data
+	 */
+	private static class ReprojectionPixelTransform {
+
+		/**
+		 * Request to coverage data coordinate transform
+		 */
+		private final CoordinateTransform transform;
+
+		/**
+		 * Reusable from coordinate
+		 */
+		private final ProjCoordinate fromCoord = new ProjCoordinate();
+
+		/**
+		 * Reusable to coordinate
+		 */
+		private final ProjCoordinate toCoord = new ProjCoordinate();
+
+		/**
+		 * Request min longitude
+		 */
+		private final double requestMinLongitude;
+
+		/**
+		 * Request max latitude
+		 */
+		private final double requestMaxLatitude;
+
+		/**
+		 * Requested width units per pixel
+		 */
+		private final double requestedWidthUnitsPerPixel;
+
+		/**
+		 * Requested height units per pixel
+		 */
+		private final double requestedHeightUnitsPerPixel;
+
+		/**
+		 * Coverage data min longitude
+		 */
+		private final double coverageMinLongitude;
+
+		/**
+		 * Coverage data max latitude
+		 */
+		private final double coverageMaxLatitude;
+
+		/**
+		 * Coverage data width distance
+		 */
+		private final double tilesDistanceWidth;
+
+		/**
+		 * Coverage data height distance
+		 */
+		private final double tilesDistanceHeight;
+
+		/**
+		 * Coverage data width in pixels
+		 */
+		private final int width;
+
+		/**
+		 * Coverage data height in pixels
+		 */
+		private final int height;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param transformRequestToCoverage
+		 *            transformation from request to coverage data
+		 * @param requestBoundingBox
+		 *            request bounding box in the request projection
+		 * @param requestedWidthUnitsPerPixel
+		 *            requested width units per pixel
+		 * @param requestedHeightUnitsPerPixel
+		 *            requested height units per pixel
+		 * @param coverageBoundingBox
+		 *            coverage data bounding box
+		 * @param tilesDistanceWidth
+		 *            coverage data width distance
+		 * @param tilesDistanceHeight
+		 *            coverage data height distance
+		 * @param width
+		 *            coverage data width in pixels
+		 * @param height
+		 *            coverage data height in pixels
+		 */
+		public ReprojectionPixelTransform(
+				ProjectionTransform transformRequestToCoverage,
+				BoundingBox requestBoundingBox,
+				double requestedWidthUnitsPerPixel,
+				double requestedHeightUnitsPerPixel,
+				BoundingBox coverageBoundingBox, double tilesDistanceWidth,
+				double tilesDistanceHeight, int width, int height) {
+			this.transform = transformRequestToCoverage.getTransform();
+			this.requestMinLongitude = requestBoundingBox.getMinLongitude();
+			this.requestMaxLatitude = requestBoundingBox.getMaxLatitude();
+			this.requestedWidthUnitsPerPixel = requestedWidthUnitsPerPixel;
+			this.requestedHeightUnitsPerPixel = requestedHeightUnitsPerPixel;
+			this.coverageMinLongitude = coverageBoundingBox.getMinLongitude();
+			this.coverageMaxLatitude = coverageBoundingBox.getMaxLatitude();
+			this.tilesDistanceWidth = tilesDistanceWidth;
+			this.tilesDistanceHeight = tilesDistanceHeight;
+			this.width = width;
+			this.height = height;
+		}
+
+		/**
+		 * Transform the requested pixel to the source pixel location
+		 * 
+		 * @param x
+		 *            requested x pixel
+		 * @param y
+		 *            requested y pixel
+		 * @param source
+		 *            array to populate with the source x and y pixel location
+		 */
+		public void transform(int x, int y, double[] source) {
+			fromCoord.x = requestMinLongitude
+					+ (x * requestedWidthUnitsPerPixel);
+			fromCoord.y = requestMaxLatitude
+					- (y * requestedHeightUnitsPerPixel);
+			transform.transform(fromCoord, toCoord);
+			source[0] = ((toCoord.x - coverageMinLongitude) / tilesDistanceWidth)
+					* width;
+			source[1] = ((coverageMaxLatitude - toCoord.y) / tilesDistanceHeight)
+					* height;
+		}
+
+	}
+
 	/**
 	 * Format the unbounded results from coverage data tiles into a single
 	 * double array of coverage data
@@ -689,50 +1476,98 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 			Map<Long, Map<Long, Double[][]>> rowsMap, int tileCount,
 			long minRow, long maxRow, long minColumn, long maxColumn) {
 
-		// Handle formatting the results
-		Double[][] values = null;
-		if (!rowsMap.isEmpty()) {
-
-			// If only one tile result, use the coverage data as the result
-			if (tileCount == 1) {
-				values = rowsMap.get(minRow).get(minColumn);
-			} else {
+		Map<Long, Map<Long, CoverageDataGrid>> gridRowsMap = new TreeMap<>();
+		for (Map.Entry<Long, Map<Long, Double[][]>> rows : rowsMap.entrySet()) {
+			Map<Long, CoverageDataGrid> gridColumnsMap = new TreeMap<>();
+			for (Map.Entry<Long, Double[][]> columns : rows.getValue()
+					.entrySet()) {
+				gridColumnsMap.put(columns.getKey(), new CoverageDataGrid(
+						columns.getValue()));
+			}
+			gridRowsMap.put(rows.getKey(), gridColumnsMap);
+		}
 
-				// Else, combine all results into a single coverage data result
+		CoverageDataGrid grid = formatUnboundedGridResults(tileMatrix,
+				gridRowsMap, tileCount, minRow, maxRow, minColumn, maxColumn);
 
-				// Get the top left and bottom right coverage data values
-				Double[][] topLeft = rowsMap.get(minRow).get(minColumn);
-				Double[][] bottomRight = rowsMap.get(maxRow).get(maxColumn);
+		Double[][] values = null;
+		if (grid != null) {
+			values = grid.toValues();
+		}
 
-				// Determine the width and height of the top left coverage data
-				// results
-				int firstWidth = topLeft[0].length;
-				int firstHeight = topLeft.length;
+		return values;
+	}
 
-				// Determine the final result width and height
-				int width = firstWidth;
-				int height = firstHeight;
-				if (minColumn < maxColumn) {
-					width += bottomRight[0].length;
-					long middleColumns = maxColumn - minColumn - 1;
+	/**
+	 * Format the unbounded results from coverage data tile grids into a single
+	 * coverage data grid
+	 * 
+	 * @param tileMatrix
+	 *            tile matrix
+	 * @param rowsMap
+	 *            rows map
+	 * @param tileCount
+	 *            tile count
+	 * @param minRow
+	 *            min row
+	 * @param maxRow
+	 *            max row
+	 * @param minColumn
+	 *            min column
+	 * @param maxColumn
+	 *            max column
+	 * @return coverage data grid
+	 * @since 3.0.3
+	 */
+	protected CoverageDataGrid formatUnboundedGridResults(
+			TileMatrix tileMatrix,
+			Map<Long, Map<Long, CoverageDataGrid>> rowsMap, int tileCount,
+			long minRow, long maxRow, long minColumn, long maxColumn) {
+
+		// Handle formatting the results
+		CoverageDataGrid values = null;
+		if (!rowsMap.isEmpty()) {
+
+			// If only one tile result, use the coverage data as the result
+			if (tileCount == 1) {
+				values = rowsMap.get(minRow).get(minColumn);
+			} else {
+
+				// Else, combine all results into a single coverage data result
+
+				// Get the top left and bottom right coverage data values
+				CoverageDataGrid topLeft = rowsMap.get(minRow).get(minColumn);
+				CoverageDataGrid bottomRight = rowsMap.get(maxRow).get(
+						maxColumn);
+
+				// Determine the width and height of the top left coverage data
+				// results
+				int firstWidth = topLeft.getWidth();
+				int firstHeight = topLeft.getHeight();
+
+				// Determine the final result width and height
+				int width = firstWidth;
+				int height = firstHeight;
+				if (minColumn < maxColumn) {
+					width += bottomRight.getWidth();
+					long middleColumns = maxColumn - minColumn - 1;
 					if (middleColumns > 0) {
 						width += (middleColumns * tileMatrix.getTileWidth());
 					}
 				}
 				if (minRow < maxRow) {
-					height += bottomRight.length;
+					height += bottomRight.getHeight();
 					long middleRows = maxRow - minRow - 1;
 					if (middleRows > 0) {
 						height += (middleRows * tileMatrix.getTileHeight());
 					}
 				}
 
-				// Create the coverage data result array
-				values = new Double[height][width];
-
-				// Copy the coverage data values from each tile results into the
-				// final result arrays
-				for (Map.Entry<Long, Map<Long, Double[][]>> rows : rowsMap
+				// Determine where each tile's coverage data values start in
+				// the final result grid
+				List<CoverageDataTileResult> tileResults = new ArrayList<>(
+						tileCount);
+				for (Map.Entry<Long, Map<Long, CoverageDataGrid>> rows : rowsMap
 						.entrySet()) {
 
 					// Determine the starting base row for this tile
@@ -745,9 +1580,9 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 					}
 
 					// Get the row's columns map
-					Map<Long, Double[][]> columnsMap = rows.getValue();
+					Map<Long, CoverageDataGrid> columnsMap = rows.getValue();
 
-					for (Map.Entry<Long, Double[][]> columns : columnsMap
+					for (Map.Entry<Long, CoverageDataGrid> columns : columnsMap
 							.entrySet()) {
 
 						// Determine the starting base column for this tile
@@ -759,22 +1594,15 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 											.getTileWidth());
 						}
 
-						// Get the tiles coverage data values
-						Double[][] localValues = columns.getValue();
-
-						// Copy the columns array at each local coverage data
-						// row to the global row and column result location
-						for (int localRow = 0; localRow < localValues.length; localRow++) {
-
-							int globalRow = baseRow + localRow;
-
-							System.arraycopy(localValues[localRow], 0,
-									values[globalRow], baseColumn,
-									localValues[localRow].length);
-						}
+						tileResults.add(new CoverageDataTileResult(row, column,
+								baseRow, baseColumn, columns.getValue()));
 					}
 
 				}
+
+				// Copy the coverage data values from each tile result into
+				// the final result grid
+				values = stitchTileResults(width, height, tileResults);
 			}
 
 		}
@@ -1136,16 +1964,55 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 			Double topLeft, Double topRight, Double bottomLeft,
 			Double bottomRight) {
 
-		Double value = null;
+		double value = getBilinearInterpolationValue(offsetX, offsetY, minX,
+				maxX, minY, maxY, toDouble(topLeft), toDouble(topRight),
+				toDouble(bottomLeft), toDouble(bottomRight));
+
+		return toValue(value);
+	}
+
+	/**
+	 * Get the primitive Bilinear Interpolation coverage data value
+	 * 
+	 * @param offsetX
+	 *            x source pixel offset
+	 * @param offsetY
+	 *            y source pixel offset
+	 * @param minX
+	 *            min x value
+	 * @param maxX
+	 *            max x value
+	 * @param minY
+	 *            min y value
+	 * @param maxY
+	 *            max y value
+	 * @param topLeft
+	 *            top left coverage value, NaN if null
+	 * @param topRight
+	 *            top right coverage value, NaN if null
+	 * @param bottomLeft
+	 *            bottom left coverage value, NaN if null
+	 * @param bottomRight
+	 *            bottom right coverage value, NaN if null
+	 * @return coverage data value, NaN if null
+	 * @since 3.0.3
+	 */
+	protected double getBilinearInterpolationValue(float offsetX,
+			float offsetY, float minX, float maxX, float minY, float maxY,
+			double topLeft, double topRight, double bottomLeft,
+			double bottomRight) {
+
+		double value = Double.NaN;
 
-		if (topLeft != null && (topRight != null || minX == maxX)
-				&& (bottomLeft != null || minY == maxY)
-				&& (bottomRight != null || (minX == maxX && minY == maxY))) {
+		if (!Double.isNaN(topLeft)
+				&& (!Double.isNaN(topRight) || minX == maxX)
+				&& (!Double.isNaN(bottomLeft) || minY == maxY)
+				&& (!Double.isNaN(bottomRight) || (minX == maxX && minY == maxY))) {
 
 			float diffX = maxX - minX;
 
 			double topRow;
-			Double bottomRow;
+			double bottomRow;
 			if (diffX == 0) {
 				topRow = topLeft;
 				bottomRow = bottomLeft;
@@ -1267,10 +2134,36 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 	protected Double getCubicInterpolationValue(Double value0, Double value1,
 			Double value2, Double value3, double offset) {
 
-		Double value = null;
+		double value = getCubicInterpolationValue(toDouble(value0),
+				toDouble(value1), toDouble(value2), toDouble(value3), offset);
+
+		return toValue(value);
+	}
+
+	/**
+	 * Interpolate 4 primitive values using the offset between value1 and
+	 * value2
+	 * 
+	 * @param value0
+	 *            index 0 value, NaN if null
+	 * @param value1
+	 *            index 1 value, NaN if null
+	 * @param value2
+	 *            index 2 value, NaN if null
+	 * @param value3
+	 *            index 3 value, NaN if null
+	 * @param offset
+	 *            offset between the middle two pixels
+	 * @return value coverage data value, NaN if null
+	 * @since 3.0.3
+	 */
+	protected double getCubicInterpolationValue(double value0, double value1,
+			double value2, double value3, double offset) {
+
+		double value = Double.NaN;
 
-		if (value0 != null && value1 != null && value2 != null
-				&& value3 != null) {
+		if (!Double.isNaN(value0) && !Double.isNaN(value1)
+				&& !Double.isNaN(value2) && !Double.isNaN(value3)) {
 
 			double coefficient0 = 2 * value1;
 			double coefficient1 = value2 - value0;
@@ -1283,6 +2176,69 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 		return value;
 	}
 
+	/**
+	 * Get the bicubic interpolation coverage data value from the 4 x 4 primitive
+	 * coverage data values
+	 * 
+	 * @param values
+	 *            coverage data values stored row major as [y * 4 + x], NaN
+	 *            for null values
+	 * @param offsetX
+	 *            x source pixel offset
+	 * @param offsetY
+	 *            y source pixel offset
+	 * @return bicubic coverage data value, NaN if null
+	 * @since 3.0.3
+	 */
+	protected double getBicubicInterpolationValue(double[] values,
+			float offsetX, float offsetY) {
+
+		double value = Double.NaN;
+
+		double[] rowValues = new double[4];
+
+		for (int y = 0; y < 4; y++) {
+			int index = y * 4;
+			double rowValue = getCubicInterpolationValue(values[index],
+					values[index + 1], values[index + 2], values[index + 3],
+					offsetX);
+			if (Double.isNaN(rowValue)) {
+				rowValues = null;
+				break;
+			}
+			rowValues[y] = rowValue;
+		}
+
+		if (rowValues != null) {
+			value = getCubicInterpolationValue(rowValues[0], rowValues[1],
+					rowValues[2], rowValues[3], offsetY);
+		}
+
+		return value;
+	}
+
+	/**
+	 * Convert the coverage data value to a primitive value
+	 * 
+	 * @param value
+	 *            coverage data value or null
+	 * @return coverage data value, NaN if null
+	 */
+	private static double toDouble(Double value) {
+		return value != null ? value : Double.NaN;
+	}
+
+	/**
+	 * Convert the primitive coverage data value to a value
+	 * 
+	 * @param value
+	 *            coverage data value, NaN if null
+	 * @return coverage data value or null
+	 */
+	private static Double toValue(double value) {
+		return Double.isNaN(value) ? null : value;
+	}
+
 	/**
 	 * Pad the bounding box with extra space for the overlapping pixels
 	 * 
@@ -1430,11 +2386,40 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 	 * @return coverage data value
 	 */
 	public Double getValue(GriddedTile griddedTile, int unsignedPixelValue) {
+		return toValue(getDoubleValue(griddedTile, unsignedPixelValue));
+	}
 
-		Double value = null;
+	/**
+	 * Get the primitive coverage data value for the "unsigned short" pixel
+	 * value
+	 * 
+	 * @param griddedTile
+	 *            gridded tile
+	 * @param pixelValue
+	 *            pixel value as an unsigned short
+	 * @return coverage data value, NaN if null
+	 * @since 3.0.3
+	 */
+	public double getDoubleValue(GriddedTile griddedTile, short pixelValue) {
+		return getDoubleValue(griddedTile, getUnsignedPixelValue(pixelValue));
+	}
+
+	/**
+	 * Get the primitive coverage data value for the unsigned short pixel value
+	 * 
+	 * @param griddedTile
+	 *            gridded tile
+	 * @param unsignedPixelValue
+	 *            pixel value as an unsigned 16 bit integer
+	 * @return coverage data value, NaN if null
+	 * @since 3.0.3
+	 */
+	public double getDoubleValue(GriddedTile griddedTile,
+			int unsignedPixelValue) {
+
+		double value = Double.NaN;
 		if (!isDataNull(unsignedPixelValue)) {
-			value = pixelValueToValue(griddedTile, new Double(
-					unsignedPixelValue));
+			value = pixelValueToValue(griddedTile, (double) unsignedPixelValue);
 		}
 
 		return value;
@@ -1450,9 +2435,9 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 	 *            pixel value
 	 * @return coverage data value
 	 */
-	private Double pixelValueToValue(GriddedTile griddedTile, Double pixelValue) {
+	private double pixelValueToValue(GriddedTile griddedTile, double pixelValue) {
 
-		Double value = pixelValue;
+		double value = pixelValue;
 
 		if (griddedCoverage != null
 				&& griddedCoverage.getDataType() == GriddedCoverageDataType.INTEGER) {
@@ -1503,6 +2488,46 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 		return values;
 	}
 
+	/**
+	 * Get the primitive coverage data values from the "unsigned short" pixel
+	 * values
+	 * 
+	 * @param griddedTile
+	 *            gridded tile
+	 * @param pixelValues
+	 *            pixel values as "unsigned shorts"
+	 * @return coverage data values, NaN for null values
+	 * @since 3.0.3
+	 */
+	public double[] getDoubleValues(GriddedTile griddedTile,
+			short[] pixelValues) {
+		double[] values = new double[pixelValues.length];
+		for (int i = 0; i < pixelValues.length; i++) {
+			values[i] = getDoubleValue(griddedTile, pixelValues[i]);
+		}
+		return values;
+	}
+
+	/**
+	 * Get the primitive coverage data values from the "unsigned short" pixel
+	 * values
+	 * 
+	 * @param griddedTile
+	 *            gridded tile
+	 * @param unsignedPixelValues
+	 *            pixel values as 16 bit integers
+	 * @return coverage data values, NaN for null values
+	 * @since 3.0.3
+	 */
+	public double[] getDoubleValues(GriddedTile griddedTile,
+			int[] unsignedPixelValues) {
+		double[] values = new double[unsignedPixelValues.length];
+		for (int i = 0; i < unsignedPixelValues.length; i++) {
+			values[i] = getDoubleValue(griddedTile, unsignedPixelValues[i]);
+		}
+		return values;
+	}
+
 	/**
 	 * Create the coverage data tile table with metadata
 	 * 
@@ -1628,10 +2653,24 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 	 * @return coverage data value
 	 */
 	public Double getValue(GriddedTile griddedTile, float pixelValue) {
+		return toValue(getDoubleValue(griddedTile, pixelValue));
+	}
 
-		Double value = null;
+	/**
+	 * Get the primitive coverage data value for the pixel value
+	 * 
+	 * @param griddedTile
+	 *            gridded tile
+	 * @param pixelValue
+	 *            pixel value
+	 * @return coverage data value, NaN if null
+	 * @since 3.0.3
+	 */
+	public double getDoubleValue(GriddedTile griddedTile, float pixelValue) {
+
+		double value = Double.NaN;
 		if (!isDataNull(pixelValue)) {
-			value = pixelValueToValue(griddedTile, new Double(pixelValue));
+			value = pixelValueToValue(griddedTile, (double) pixelValue);
 		}
 
 		return value;
@@ -1654,6 +2693,25 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 		return values;
 	}
 
+	/**
+	 * Get the primitive coverage data values from the pixel values
+	 * 
+	 * @param griddedTile
+	 *            gridded tile
+	 * @param pixelValues
+	 *            pixel values
+	 * @return coverage data values, NaN for null values
+	 * @since 3.0.3
+	 */
+	public double[] getDoubleValues(GriddedTile griddedTile,
+			float[] pixelValues) {
+		double[] values = new double[pixelValues.length];
+		for (int i = 0; i < pixelValues.length; i++) {
+			values[i] = getDoubleValue(griddedTile, pixelValues[i]);
+		}
+		return values;
+	}
+
 	/**
 	 * Get the pixel value of the coverage data value
 	 * 
@@ -1680,7 +2738,9 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 	}
 
 	/**
-	 * Get the coverage data value at the coordinate
+	 * Get the coverage data value at the coordinate. When the coverage data is
+	 * a {@link CoverageDataTileReader}, the covering tile is read through the
+	 * tile cache when one is set.
 	 * 
 	 * @param latitude
 	 *            latitude
@@ -1689,76 +2749,900 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 	 * @return coverage data value
 	 */
 	public Double getValue(double latitude, double longitude) {
+		Double value = null;
+		if (isTileReader()) {
+			double[] values = getValues(new double[] { latitude },
+					new double[] { longitude });
+			if (!Double.isNaN(values[0])) {
+				value = values[0];
+			}
+		} else {
+			value = getRequestValue(latitude, longitude);
+		}
+		return value;
+	}
+
+	/**
+	 * Get the coverage data value at the coordinate with a single pixel
+	 * request
+	 * 
+	 * @param latitude
+	 *            latitude in the request projection
+	 * @param longitude
+	 *            longitude in the request projection
+	 * @return coverage data value
+	 */
+	private Double getRequestValue(double latitude, double longitude) {
 		CoverageDataRequest request = new CoverageDataRequest(latitude,
 				longitude);
 		CoverageDataResults values = getValues(request, 1, 1);
 		Double value = null;
 		if (values != null) {
-			value = values.getValues()[0][0];
+			value = values.getValue(0, 0);
 		}
 		return value;
 	}
 
 	/**
-	 * Get the coverage data values within the bounding box
+	 * Validate the coordinate counts match
 	 * 
-	 * @param requestBoundingBox
-	 *            request bounding box
-	 * @return coverage data results
+	 * @param latitudes
+	 *            latitudes
+	 * @param longitudes
+	 *            longitudes
 	 */
-	public CoverageDataResults getValues(BoundingBox requestBoundingBox) {
-		CoverageDataRequest request = new CoverageDataRequest(
-				requestBoundingBox);
-		CoverageDataResults values = getValues(request);
-		return values;
+	private static void validateCoordinates(double[] latitudes,
+			double[] longitudes) {
+		if (latitudes.length != longitudes.length) {
+			throw new GeoPackageException(
+					"Latitude and longitude counts do not match. Latitudes: "
+							+ latitudes.length + ", Longitudes: "
+							+ longitudes.length);
+		}
 	}
 
 	/**
-	 * Get the coverage data values within the bounding box with the requested
-	 * width and height result size
+	 * Get the coverage data values at the coordinates in the request
+	 * projection with single pixel requests
 	 * 
-	 * @param requestBoundingBox
-	 *            request bounding box
-	 * @param width
-	 *            coverage data request width
-	 * @param height
-	 *            coverage data request height
-	 * @return coverage data results
+	 * @param latitudes
+	 *            latitudes in the request projection
+	 * @param longitudes
+	 *            longitudes in the request projection
+	 * @return coverage data values in coordinate order, NaN for null values
 	 */
-	public CoverageDataResults getValues(BoundingBox requestBoundingBox,
-			Integer width, Integer height) {
-		CoverageDataRequest request = new CoverageDataRequest(
-				requestBoundingBox);
-		CoverageDataResults values = getValues(request, width, height);
+	private double[] getRequestValues(double[] latitudes, double[] longitudes) {
+		double[] values = new double[latitudes.length];
+		for (int i = 0; i < latitudes.length; i++) {
+			Double value = getRequestValue(latitudes[i], longitudes[i]);
+			values[i] = value != null ? value : Double.NaN;
+		}
 		return values;
 	}
 
 	/**
-	 * Get the requested coverage data values
+	 * Transform the coordinates between the projections
+	 * 
+	 * @param from
+	 *            from projection
+	 * @param to
+	 *            to projection
+	 * @param latitudes
+	 *            latitudes
+	 * @param longitudes
+	 *            longitudes
+	 * @return transformed latitudes and longitudes, or the same arrays when
+	 *         the projections are the same
+	 */
+	private static double[][] transform(Projection from, Projection to,
+			double[] latitudes, double[] longitudes) {
+
+		double[][] coordinates = new double[][] { latitudes, longitudes };
+
+		ProjectionTransform projectionTransform = ProjectionCache
+				.getTransformation(from, to);
+		if (!projectionTransform.isSameProjection()) {
+			CoordinateTransform transform = projectionTransform.getTransform();
+			double[] projectedLatitudes = new double[latitudes.length];
+			double[] projectedLongitudes = new double[longitudes.length];
+			ProjCoordinate fromCoord = new ProjCoordinate();
+			ProjCoordinate toCoord = new ProjCoordinate();
+			for (int i = 0; i < latitudes.length; i++) {
+				fromCoord.x = longitudes[i];
+				fromCoord.y = latitudes[i];
+				transform.transform(fromCoord, toCoord);
+				projectedLongitudes[i] = toCoord.x;
+				projectedLatitudes[i] = toCoord.y;
+			}
+			coordinates[0] = projectedLatitudes;
+			coordinates[1] = projectedLongitudes;
+		}
+
+		return coordinates;
+	}
+
+	/**
+	 * Get the coverage data values at the coordinates. Coordinates are
+	 * transformed to the coverage data projection in a single pass, grouped by
+	 * covering tile, and each tile is read and decoded once. Coverage data
+	 * that is not a {@link CoverageDataTileReader} queries each coordinate
+	 * with a single pixel request.
 	 * 
-	 * @param request
-	 *            coverage data request
-	 * @return coverage data results
+	 * @param latitudes
+	 *            latitudes in the request projection
+	 * @param longitudes
+	 *            longitudes in the request projection
+	 * @return coverage data values in coordinate order, NaN for null values
+	 * @since 3.0.3
 	 */
-	public CoverageDataResults getValues(CoverageDataRequest request) {
-		CoverageDataResults values = getValues(request, width, height);
+	public double[] getValues(double[] latitudes, double[] longitudes) {
+
+		validateCoordinates(latitudes, longitudes);
+
+		double[] values;
+		if (isTileReader()) {
+			double[] projectedLatitudes = latitudes;
+			double[] projectedLongitudes = longitudes;
+			if (requestProjection != null) {
+				double[][] projected = transform(requestProjection,
+						coverageProjection, latitudes, longitudes);
+				projectedLatitudes = projected[0];
+				projectedLongitudes = projected[1];
+			}
+			values = getProjectedValues(projectedLatitudes,
+					projectedLongitudes);
+		} else {
+			values = getRequestValues(latitudes, longitudes);
+		}
+
 		return values;
 	}
 
 	/**
-	 * Get the unbounded coverage data values within the bounding box. Unbounded
-	 * results retrieves and returns each coverage data pixel. The results size
-	 * equals the width and height of all matching pixels.
+	 * Get the coverage data values at the coordinates already in the coverage
+	 * data projection. Coordinates are grouped by covering tile and each tile
+	 * is read and decoded once. Coordinates without a value at the most
+	 * detailed zoom level are retried at lower zoom levels when zooming out is
+	 * enabled. Coverage data that is not a {@link CoverageDataTileReader}
+	 * queries each coordinate with a single pixel request.
 	 * 
-	 * @param requestBoundingBox
-	 *            request bounding box
-	 * @return coverage data results
+	 * @param latitudes
+	 *            latitudes (y) in the coverage data projection
+	 * @param longitudes
+	 *            longitudes (x) in the coverage data projection
+	 * @return coverage data values in coordinate order, NaN for null values
+	 * @since 3.0.3
 	 */
-	public CoverageDataResults getValuesUnbounded(BoundingBox requestBoundingBox) {
-		CoverageDataRequest request = new CoverageDataRequest(
-				requestBoundingBox);
-		return getValuesUnbounded(request);
-	}
+	public double[] getProjectedValues(double[] latitudes, double[] longitudes) {
+
+		validateCoordinates(latitudes, longitudes);
+
+		double[] values;
+		if (isTileReader()) {
+			values = getTileValues(latitudes, longitudes);
+		} else {
+			double[] requestLatitudes = latitudes;
+			double[] requestLongitudes = longitudes;
+			if (requestProjection != null) {
+				double[][] request = transform(coverageProjection,
+						requestProjection, latitudes, longitudes);
+				requestLatitudes = request[0];
+				requestLongitudes = request[1];
+			}
+			values = getRequestValues(requestLatitudes, requestLongitudes);
+		}
+
+		return values;
+	}
+
+	/**
+	 * Get the coverage data values at the coordinates already in the coverage
+	 * data projection, starting at the zoom level. Coordinates are grouped by
+	 * covering tile and each tile is read and decoded once. Coordinates without
+	 * a value at the zoom level are retried at more detailed zoom levels when
+	 * zooming in is enabled and at less detailed zoom levels when zooming out
+	 * is enabled, in the order set by zoom in before out. Requires a
+	 * {@link CoverageDataTileReader} implementation.
+	 * 
+	 * @param latitudes
+	 *            latitudes (y) in the coverage data projection
+	 * @param longitudes
+	 *            longitudes (x) in the coverage data projection
+	 * @param zoomLevel
+	 *            zoom level to start at
+	 * @return coverage data values in coordinate order, NaN for null values
+	 * @since 3.0.3
+	 */
+	public double[] getProjectedValues(double[] latitudes,
+			double[] longitudes, long zoomLevel) {
+
+		validateCoordinates(latitudes, longitudes);
+		if (!isTileReader()) {
+			throw new GeoPackageException(
+					"Coverage data is not a tile reader. Table: "
+							+ tileMatrixSet.getTableName());
+		}
+
+		List<TileMatrix> tileMatrices = getTileMatrices();
+		int start = -1;
+		for (int i = 0; start < 0 && i < tileMatrices.size(); i++) {
+			if (tileMatrices.get(i).getZoomLevel() == zoomLevel) {
+				start = i;
+			}
+		}
+
+		return getTileValues(latitudes, longitudes, tileMatrices, start);
+	}
+
+	/**
+	 * Get the coverage data values at the coordinates in the coverage data
+	 * projection, grouped by covering tile and reading each tile once. Points
+	 * start at the most detailed zoom level, the closest zoom level to a zero
+	 * size request.
+	 * 
+	 * @param latitudes
+	 *            latitudes (y) in the coverage data projection
+	 * @param longitudes
+	 *            longitudes (x) in the coverage data projection
+	 * @return coverage data values in coordinate order, NaN for null values
+	 */
+	private double[] getTileValues(double[] latitudes, double[] longitudes) {
+		List<TileMatrix> tileMatrices = getTileMatrices();
+		return getTileValues(latitudes, longitudes, tileMatrices,
+				tileMatrices.size() - 1);
+	}
+
+	/**
+	 * Get the coverage data values at the coordinates in the coverage data
+	 * projection, grouped by covering tile and reading each tile once
+	 * 
+	 * @param latitudes
+	 *            latitudes (y) in the coverage data projection
+	 * @param longitudes
+	 *            longitudes (x) in the coverage data projection
+	 * @param tileMatrices
+	 *            tile matrices ordered by zoom level
+	 * @param start
+	 *            index of the tile matrix to start at, -1 for none
+	 * @return coverage data values in coordinate order, NaN for null values
+	 */
+	private double[] getTileValues(double[] latitudes, double[] longitudes,
+			List<TileMatrix> tileMatrices, int start) {
+
+		double[] values = new double[latitudes.length];
+		Arrays.fill(values, Double.NaN);
+
+		int[] remaining = new int[latitudes.length];
+		for (int i = 0; i < remaining.length; i++) {
+			remaining[i] = i;
+		}
+		int remainingCount = remaining.length;
+
+		for (TileMatrix tileMatrix : getZoomOrder(tileMatrices, start)) {
+
+			if (remainingCount == 0) {
+				break;
+			}
+
+			populateValues(tileMatrix, latitudes, longitudes, remaining,
+					remainingCount, values);
+
+			// Keep the coordinates still without values for the next zoom
+			int nextCount = 0;
+			for (int i = 0; i < remainingCount; i++) {
+				int index = remaining[i];
+				if (Double.isNaN(values[index])) {
+					remaining[nextCount++] = index;
+				}
+			}
+			remainingCount = nextCount;
+		}
+
+		return values;
+	}
+
+	/**
+	 * Get the tile matrices to read in order, starting at the tile matrix and
+	 * then zooming in and out as enabled
+	 * 
+	 * @param tileMatrices
+	 *            tile matrices ordered by zoom level
+	 * @param start
+	 *            index of the tile matrix to start at, -1 for none
+	 * @return tile matrices in read order
+	 */
+	private List<TileMatrix> getZoomOrder(List<TileMatrix> tileMatrices,
+			int start) {
+
+		List<TileMatrix> order = new ArrayList<>();
+
+		if (start >= 0) {
+
+			order.add(tileMatrices.get(start));
+
+			List<TileMatrix> zoomedIn = tileMatrices.subList(start + 1,
+					tileMatrices.size());
+			List<TileMatrix> zoomedOut = new ArrayList<>(tileMatrices.subList(
+					0, start));
+			Collections.reverse(zoomedOut);
+
+			if (zoomIn && zoomInBeforeOut) {
+				order.addAll(zoomedIn);
+			}
+			if (zoomOut) {
+				order.addAll(zoomedOut);
+			}
+			if (zoomIn && !zoomInBeforeOut) {
+				order.addAll(zoomedIn);
+			}
+		}
+
+		return order;
+	}
+
+	/**
+	 * Query for the tile matrices of the coverage data ordered by zoom level
+	 * 
+	 * @return tile matrices
+	 */
+	private List<TileMatrix> getTileMatrices() {
+		List<TileMatrix> tileMatrices = null;
+		try {
+			tileMatrices = geoPackage.getTileMatrixDao().queryBuilder()
+					.orderBy(TileMatrix.COLUMN_ZOOM_LEVEL, true).where()
+					.eq(TileMatrix.COLUMN_TABLE_NAME,
+							tileMatrixSet.getTableName()).query();
+		} catch (SQLException e) {
+			throw new GeoPackageException(
+					"Failed to query for Tile Matrices for table name: "
+							+ tileMatrixSet.getTableName(), e);
+		}
+		return tileMatrices;
+	}
+
+	/**
+	 * Populate the coverage data values of the coordinates from the tile
+	 * matrix zoom level, reading each covering tile once
+	 * 
+	 * @param tileMatrix
+	 *            tile matrix
+	 * @param latitudes
+	 *            latitudes in the coverage data projection
+	 * @param longitudes
+	 *            longitudes in the coverage data projection
+	 * @param indices
+	 *            coordinate indices to populate
+	 * @param count
+	 *            number of coordinate indices to populate
+	 * @param values
+	 *            values to populate
+	 */
+	private void populateValues(TileMatrix tileMatrix, double[] latitudes,
+			double[] longitudes, int[] indices, int count, double[] values) {
+
+		long matrixWidth = tileMatrix.getMatrixWidth();
+		long matrixHeight = tileMatrix.getMatrixHeight();
+
+		// Determine the covering tile of each coordinate as a single key
+		long[] tileKeys = new long[count];
+		int keyCount = 0;
+		int[] keyIndices = new int[count];
+		for (int i = 0; i < count; i++) {
+			int index = indices[i];
+			long tileColumn = TileBoundingBoxUtils.getTileColumn(
+					coverageBoundingBox, matrixWidth, longitudes[index]);
+			long tileRow = TileBoundingBoxUtils.getTileRow(coverageBoundingBox,
+					matrixHeight, latitudes[index]);
+			if (tileColumn >= 0 && tileColumn < matrixWidth && tileRow >= 0
+					&& tileRow < matrixHeight) {
+				tileKeys[keyCount] = (tileRow * matrixWidth) + tileColumn;
+				keyIndices[keyCount] = index;
+				keyCount++;
+			}
+		}
+
+		// Group the coordinates by tile, sorting by a distinct tile number and
+		// coordinate index packed into a primitive long
+		long[] distinctKeys = Arrays.copyOf(tileKeys, keyCount);
+		Arrays.sort(distinctKeys);
+		int distinctCount = 0;
+		for (int i = 0; i < keyCount; i++) {
+			if (i == 0 || distinctKeys[i] != distinctKeys[distinctCount - 1]) {
+				distinctKeys[distinctCount++] = distinctKeys[i];
+			}
+		}
+		long[] grouped = new long[keyCount];
+		for (int i = 0; i < keyCount; i++) {
+			long tileNumber = Arrays.binarySearch(distinctKeys, 0,
+					distinctCount, tileKeys[i]);
+			grouped[i] = (tileNumber << 32) | keyIndices[i];
+		}
+		Arrays.sort(grouped);
+
+		// Create a task for each tile group, run in parallel when an executor
+		// is set. Each task populates only the value indices of its group.
+		List<Callable<Void>> tasks = new ArrayList<>(distinctCount);
+		int groupStart = 0;
+		for (int i = 1; i <= grouped.length; i++) {
+			if (i == grouped.length
+					|| (grouped[i] >>> 32) != (grouped[groupStart] >>> 32)) {
+				long tileKey = distinctKeys[(int) (grouped[groupStart] >>> 32)];
+				tasks.add(new TileGroupTask(tileMatrix, tileKey % matrixWidth,
+						tileKey / matrixWidth, grouped, groupStart, i,
+						latitudes, longitudes, values));
+				groupStart = i;
+			}
+		}
+		processTasks(tasks);
+	}
+
+	/**
+	 * Task populating the coverage data values of the coordinates covered by a
+	 * single tile
+	 */
+	private class TileGroupTask implements Callable<Void> {
+
+		/**
+		 * Tile matrix
+		 */
+		private final TileMatrix tileMatrix;
+
+		/**
+		 * Tile column
+		 */
+		private final long tileColumn;
+
+		/**
+		 * Tile row
+		 */
+		private final long tileRow;
+
+		/**
+		 * Grouped tile numbers and coordinate indices
+		 */
+		private final long[] grouped;
+
+		/**
+		 * Group start, inclusive
+		 */
+		private final int start;
+
+		/**
+		 * Group end, exclusive
+		 */
+		private final int end;
+
+		/**
+		 * Latitudes in the coverage data projection
+		 */
+		private final double[] latitudes;
+
+		/**
+		 * Longitudes in the coverage data projection
+		 */
+		private final double[] longitudes;
+
+		/**
+		 * Values to populate
+		 */
+		private final double[] values;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param tileMatrix
+		 *            tile matrix
+		 * @param tileColumn
+		 *            tile column
+		 * @param tileRow
+		 *            tile row
+		 * @param grouped
+		 *            grouped tile numbers and coordinate indices
+		 * @param start
+		 *            group start, inclusive
+		 * @param end
+		 *            group end, exclusive
+		 * @param latitudes
+		 *            latitudes in the coverage data projection
+		 * @param longitudes
+		 *            longitudes in the coverage data projection
+		 * @param values
+		 *            values to populate
+		 */
+		private TileGroupTask(TileMatrix tileMatrix, long tileColumn,
+				long tileRow, long[] grouped, int start, int end,
+				double[] latitudes, double[] longitudes, double[] values) {
+			this.tileMatrix = tileMatrix;
+			this.tileColumn = tileColumn;
+			this.tileRow = tileRow;
+			this.grouped = grouped;
+			this.start = start;
+			this.end = end;
+			this.latitudes = latitudes;
+			this.longitudes = longitudes;
+			this.values = values;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Void call() {
+			Map<Long, CoverageDataTile> tiles = new HashMap<>();
+			for (int i = start; i < end; i++) {
+				int index = (int) grouped[i];
+				values[index] = getValue(tileMatrix, tiles, tileColumn,
+						tileRow, latitudes[index], longitudes[index]);
+			}
+			return null;
+		}
+
+	}
+
+	/**
+	 * Get the coverage data value at the coordinate within the tile using the
+	 * interpolation algorithm
+	 * 
+	 * @param tileMatrix
+	 *            tile matrix
+	 * @param tiles
+	 *            tiles read for the current tile group
+	 * @param tileColumn
+	 *            tile column
+	 * @param tileRow
+	 *            tile row
+	 * @param latitude
+	 *            latitude in the coverage data projection
+	 * @param longitude
+	 *            longitude in the coverage data projection
+	 * @return coverage data value, NaN if null
+	 */
+	private double getValue(TileMatrix tileMatrix,
+			Map<Long, CoverageDataTile> tiles, long tileColumn, long tileRow,
+			double latitude, double longitude) {
+
+		BoundingBox tileBoundingBox = TileBoundingBoxUtils.getBoundingBox(
+				coverageBoundingBox, tileMatrix, tileColumn, tileRow);
+		float xSource = (float) ((longitude - tileBoundingBox
+				.getMinLongitude()) / tileMatrix.getPixelXSize());
+		float ySource = (float) ((tileBoundingBox.getMaxLatitude() - latitude) / tileMatrix
+				.getPixelYSize());
+
+		double value = Double.NaN;
+
+		switch (algorithm) {
+		case NEAREST_NEIGHBOR:
+			for (int[] nearestNeighbor : getNearestNeighbors(xSource, ySource)) {
+				value = getValue(tileMatrix, tiles, tileColumn, tileRow,
+						nearestNeighbor[0], nearestNeighbor[1]);
+				if (!Double.isNaN(value)) {
+					break;
+				}
+			}
+			break;
+		case BILINEAR:
+		case BICUBIC:
+			CoverageDataSourcePixel sourcePixelX = getXSourceMinAndMax(xSource);
+			CoverageDataSourcePixel sourcePixelY = getYSourceMinAndMax(ySource);
+			if (algorithm == CoverageDataAlgorithm.BICUBIC) {
+				sourcePixelX.setMin(sourcePixelX.getMin() - 1);
+				sourcePixelX.setMax(sourcePixelX.getMax() + 1);
+				sourcePixelY.setMin(sourcePixelY.getMin() - 1);
+				sourcePixelY.setMax(sourcePixelY.getMax() + 1);
+			}
+			int width = sourcePixelX.getMax() - sourcePixelX.getMin() + 1;
+			int height = sourcePixelY.getMax() - sourcePixelY.getMin() + 1;
+			double[] values = new double[width * height];
+			boolean populated = true;
+			for (int y = 0; populated && y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					double pixelValue = getValue(tileMatrix, tiles,
+							tileColumn, tileRow, sourcePixelX.getMin() + x,
+							sourcePixelY.getMin() + y);
+					if (Double.isNaN(pixelValue)) {
+						populated = false;
+						break;
+					}
+					values[(y * width) + x] = pixelValue;
+				}
+			}
+			if (populated) {
+				if (algorithm == CoverageDataAlgorithm.BICUBIC) {
+					value = getBicubicInterpolationValue(values,
+							sourcePixelX.getOffset(), sourcePixelY.getOffset());
+				} else {
+					value = getBilinearInterpolationValue(
+							sourcePixelX.getOffset(), sourcePixelY.getOffset(),
+							sourcePixelX.getMin(), sourcePixelX.getMax(),
+							sourcePixelY.getMin(), sourcePixelY.getMax(),
+							values[0], values[1], values[2], values[3]);
+				}
+			}
+			break;
+		default:
+			throw new GeoPackageException("Unsupported Algorithm: "
+					+ algorithm);
+		}
+
+		return value;
+	}
+
+	/**
+	 * Get the coverage data value of the pixel relative to the tile, reading
+	 * from the neighboring tile when the pixel is outside of the tile
+	 * 
+	 * @param tileMatrix
+	 *            tile matrix
+	 * @param tiles
+	 *            tiles read for the current tile group
+	 * @param tileColumn
+	 *            tile column
+	 * @param tileRow
+	 *            tile row
+	 * @param x
+	 *            x pixel relative to the tile
+	 * @param y
+	 *            y pixel relative to the tile
+	 * @return coverage data value, NaN if null
+	 */
+	private double getValue(TileMatrix tileMatrix,
+			Map<Long, CoverageDataTile> tiles, long tileColumn, long tileRow,
+			int x, int y) {
+
+		int tileWidth = (int) tileMatrix.getTileWidth();
+		int tileHeight = (int) tileMatrix.getTileHeight();
+
+		int columnOffset = (int) Math.floor((double) x / tileWidth);
+		int rowOffset = (int) Math.floor((double) y / tileHeight);
+		long column = tileColumn + columnOffset;
+		long row = tileRow + rowOffset;
+
+		double value = Double.NaN;
+
+		if (column >= 0 && column < tileMatrix.getMatrixWidth() && row >= 0
+				&& row < tileMatrix.getMatrixHeight()) {
+
+			long tileKey = (row * tileMatrix.getMatrixWidth()) + column;
+			CoverageDataTile tile = tiles.get(tileKey);
+			if (tile == null && !tiles.containsKey(tileKey)) {
+				tile = getTile(tileMatrix, column, row);
+				tiles.put(tileKey, tile);
+			}
+
+			if (tile != null) {
+				int tileX = x - (columnOffset * tileWidth);
+				int tileY = y - (rowOffset * tileHeight);
+				if (tileX < tile.getWidth() && tileY < tile.getHeight()) {
+					value = tile.getValue(tileX, tileY);
+				}
+			}
+		}
+
+		return value;
+	}
+
+	/**
+	 * Get the coverage data values within the bounding box
+	 * 
+	 * @param requestBoundingBox
+	 *            request bounding box
+	 * @return coverage data results
+	 */
+	public CoverageDataResults getValues(BoundingBox requestBoundingBox) {
+		CoverageDataRequest request = new CoverageDataRequest(
+				requestBoundingBox);
+		CoverageDataResults values = getValues(request);
+		return values;
+	}
+
+	/**
+	 * Get the coverage data values within the bounding box with the requested
+	 * width and height result size
+	 * 
+	 * @param requestBoundingBox
+	 *            request bounding box
+	 * @param width
+	 *            coverage data request width
+	 * @param height
+	 *            coverage data request height
+	 * @return coverage data results
+	 */
+	public CoverageDataResults getValues(BoundingBox requestBoundingBox,
+			Integer width, Integer height) {
+		CoverageDataRequest request = new CoverageDataRequest(
+				requestBoundingBox);
+		CoverageDataResults values = getValues(request, width, height);
+		return values;
+	}
+
+	/**
+	 * Get the requested coverage data values
+	 * 
+	 * @param request
+	 *            coverage data request
+	 * @return coverage data results
+	 */
+	public CoverageDataResults getValues(CoverageDataRequest request) {
+		CoverageDataResults values = getValues(request, width, height);
+		return values;
+	}
+
+	/**
+	 * Get the unbounded coverage data values within the bounding box. Unbounded
+	 * results retrieves and returns each coverage data pixel. The results size
+	 * equals the width and height of all matching pixels.
+	 * 
+	 * @param requestBoundingBox
+	 *            request bounding box
+	 * @return coverage data results
+	 */
+	public CoverageDataResults getValuesUnbounded(BoundingBox requestBoundingBox) {
+		CoverageDataRequest request = new CoverageDataRequest(
+				requestBoundingBox);
+		return getValuesUnbounded(request);
+	}
+
+	/**
+	 * Get the requested coverage data values by sampling the center of each
+	 * result pixel through the batch point path of a
+	 * {@link CoverageDataTileReader}. Sample points are grouped by covering
+	 * tile and each tile group is read and interpolated as one task, in
+	 * parallel when an executor is set. Sampling starts at the zoom level with
+	 * the pixel size closest to the result pixel size and falls back to other
+	 * zoom levels as zoom in, zoom out, and zoom in before out are set.
+	 * Implementations of {@link #getValues(CoverageDataRequest, Integer, Integer)}
+	 * that read single tiles may return these results. A missing width or
+	 * height is derived from the other dimension and the request aspect ratio,
+	 * or from the most detailed zoom level pixel size when both are missing.
+	 * 
+	 * @param request
+	 *            coverage data request
+	 * @param width
+	 *            coverage data request width
+	 * @param height
+	 *            coverage data request height
+	 * @return coverage data results, null if there are no tile matrices
+	 * @since 3.0.3
+	 */
+	protected CoverageDataResults getTileReaderValues(
+			CoverageDataRequest request, Integer width, Integer height) {
+
+		if (!isTileReader()) {
+			throw new GeoPackageException(
+					"Coverage data is not a tile reader. Table: "
+							+ tileMatrixSet.getTableName());
+		}
+
+		CoverageDataResults results = null;
+
+		List<TileMatrix> tileMatrices = getTileMatrices();
+		if (!tileMatrices.isEmpty()) {
+
+			BoundingBox requestBoundingBox = request.getBoundingBox();
+			BoundingBox projectedBoundingBox = requestBoundingBox;
+			if (requestProjection != null) {
+				projectedBoundingBox = requestBoundingBox
+						.transform(ProjectionCache.getTransformation(
+								requestProjection, coverageProjection));
+			}
+			double projectedWidth = projectedBoundingBox.getMaxLongitude()
+					- projectedBoundingBox.getMinLongitude();
+			double projectedHeight = projectedBoundingBox.getMaxLatitude()
+					- projectedBoundingBox.getMinLatitude();
+
+			// Determine the result size
+			if (width == null || height == null) {
+				if (width != null) {
+					height = getLength(width, projectedHeight, projectedWidth);
+				} else if (height != null) {
+					width = getLength(height, projectedWidth, projectedHeight);
+				} else {
+					TileMatrix mostDetailed = tileMatrices.get(tileMatrices
+							.size() - 1);
+					width = getLength(1, projectedWidth,
+							mostDetailed.getPixelXSize());
+					height = getLength(1, projectedHeight,
+							mostDetailed.getPixelYSize());
+				}
+			}
+
+			// Sample the center of each result pixel
+			double minLongitude = requestBoundingBox.getMinLongitude();
+			double maxLatitude = requestBoundingBox.getMaxLatitude();
+			double pixelWidth = (requestBoundingBox.getMaxLongitude() - minLongitude)
+					/ width;
+			double pixelHeight = (maxLatitude - requestBoundingBox
+					.getMinLatitude()) / height;
+			double[] latitudes = new double[width * height];
+			double[] longitudes = new double[latitudes.length];
+			for (int y = 0, index = 0; y < height; y++) {
+				double latitude = maxLatitude - ((y + 0.5) * pixelHeight);
+				for (int x = 0; x < width; x++, index++) {
+					latitudes[index] = latitude;
+					longitudes[index] = minLongitude + ((x + 0.5) * pixelWidth);
+				}
+			}
+			if (requestProjection != null) {
+				double[][] projected = transform(requestProjection,
+						coverageProjection, latitudes, longitudes);
+				latitudes = projected[0];
+				longitudes = projected[1];
+			}
+
+			// Start at the zoom level closest to the result pixel size
+			int start = getClosestTileMatrix(tileMatrices, projectedWidth
+					/ width, projectedHeight / height);
+
+			double[] values = getTileValues(latitudes, longitudes,
+					tileMatrices, start);
+			results = new CoverageDataResults(new CoverageDataGrid(values,
+					width, height), tileMatrices.get(start));
+		}
+
+		return results;
+	}
+
+	/**
+	 * Get a result length of at least one from the other length and the ratio
+	 * of the projected lengths
+	 * 
+	 * @param length
+	 *            other result length
+	 * @param projectedLength
+	 *            projected length
+	 * @param otherProjectedLength
+	 *            other projected length
+	 * @return result length
+	 */
+	private static int getLength(int length, double projectedLength,
+			double otherProjectedLength) {
+		int result = 1;
+		if (otherProjectedLength > 0) {
+			result = Math.max(1, (int) Math.round(length * projectedLength
+					/ otherProjectedLength));
+		}
+		return result;
+	}
+
+	/**
+	 * Get the index of the tile matrix with the pixel size closest to the
+	 * result pixel size
+	 * 
+	 * @param tileMatrices
+	 *            tile matrices ordered by zoom level
+	 * @param pixelWidth
+	 *            result pixel width in the coverage data projection
+	 * @param pixelHeight
+	 *            result pixel height in the coverage data projection
+	 * @return tile matrix index
+	 */
+	private static int getClosestTileMatrix(List<TileMatrix> tileMatrices,
+			double pixelWidth, double pixelHeight) {
+
+		// Pixel sizes sorted from the most detailed zoom level
+		double[] widths = new double[tileMatrices.size()];
+		double[] heights = new double[tileMatrices.size()];
+		for (int i = 0; i < widths.length; i++) {
+			TileMatrix tileMatrix = tileMatrices.get(widths.length - i - 1);
+			widths[i] = tileMatrix.getPixelXSize();
+			heights[i] = tileMatrix.getPixelYSize();
+		}
+		Arrays.sort(widths);
+		Arrays.sort(heights);
+
+		int index = tileMatrices.size() - 1;
+		Long zoomLevel = TileDaoUtils.getClosestZoomLevel(widths, heights,
+				tileMatrices, pixelWidth, pixelHeight);
+		if (zoomLevel != null) {
+			for (int i = 0; i < tileMatrices.size(); i++) {
+				if (tileMatrices.get(i).getZoomLevel() == zoomLevel) {
+					index = i;
+					break;
+				}
+			}
+		}
+		return index;
+	}
 
 	/**
 	 * Get the bilinear interpolation coverage data value
@@ -1796,26 +3680,10 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 			Double[][] topRows, int y, int x, float widthRatio,
 			float heightRatio, float destTop, float destLeft, float srcTop,
 			float srcLeft) {
-
-		// Determine which source pixel to use
-		float xSource = getXSource(x, destLeft, srcLeft, widthRatio);
-		float ySource = getYSource(y, destTop, srcTop, heightRatio);
-
-		CoverageDataSourcePixel sourcePixelX = getXSourceMinAndMax(xSource);
-		CoverageDataSourcePixel sourcePixelY = getYSourceMinAndMax(ySource);
-
-		Double[][] values = new Double[2][2];
-		populateValues(griddedTile, image, leftLastColumns, topLeftRows,
-				topRows, sourcePixelX, sourcePixelY, values);
-
-		Double value = null;
-
-		if (values != null) {
-			value = getBilinearInterpolationValue(sourcePixelX, sourcePixelY,
-					values);
-		}
-
-		return value;
+		return toValue(getBilinearInterpolationValue(griddedTile, image,
+				toGrid(leftLastColumns), toGrid(topLeftRows), toGrid(topRows),
+				y, x, widthRatio, heightRatio, destTop, destLeft, srcTop,
+				srcLeft));
 	}
 
 	/**
@@ -1854,116 +3722,249 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 			Double[][] topRows, int y, int x, float widthRatio,
 			float heightRatio, float destTop, float destLeft, float srcTop,
 			float srcLeft) {
+		return toValue(getBicubicInterpolationValue(griddedTile, image,
+				toGrid(leftLastColumns), toGrid(topLeftRows), toGrid(topRows),
+				y, x, widthRatio, heightRatio, destTop, destLeft, srcTop,
+				srcLeft));
+	}
+
+	/**
+	 * Get the nearest neighbor coverage data value
+	 * 
+	 * @param griddedTile
+	 *            gridded tile
+	 * @param image
+	 *            image
+	 * @param leftLastColumns
+	 *            last columns in the tile to the left
+	 * @param topLeftRows
+	 *            last rows of the tile to the top left
+	 * @param topRows
+	 *            last rows of the tile to the top
+	 * @param y
+	 *            y coordinate
+	 * @param x
+	 *            x coordinate
+	 * @param widthRatio
+	 *            width source over destination ratio
+	 * @param heightRatio
+	 *            height source over destination ratio
+	 * @param destTop
+	 *            destination top most pixel
+	 * @param destLeft
+	 *            destination left most pixel
+	 * @param srcTop
+	 *            source top most pixel
+	 * @param srcLeft
+	 *            source left most pixel
+	 * @return nearest neighbor coverage data value
+	 */
+	protected Double getNearestNeighborValue(GriddedTile griddedTile,
+			TImage image, Double[][] leftLastColumns, Double[][] topLeftRows,
+			Double[][] topRows, int y, int x, float widthRatio,
+			float heightRatio, float destTop, float destLeft, float srcTop,
+			float srcLeft) {
+		return toValue(getNearestNeighborValue(griddedTile, image,
+				toGrid(leftLastColumns), toGrid(topLeftRows), toGrid(topRows),
+				y, x, widthRatio, heightRatio, destTop, destLeft, srcTop,
+				srcLeft));
+	}
+
+	/**
+	 * Wrap the boxed coverage data values in a coverage data grid, null values
+	 * as NaN
+	 * 
+	 * @param values
+	 *            coverage data values or null
+	 * @return coverage data grid or null
+	 */
+	private static CoverageDataGrid toGrid(Double[][] values) {
+		CoverageDataGrid grid = null;
+		if (values != null) {
+			grid = new CoverageDataGrid(values);
+		}
+		return grid;
+	}
+
+	/**
+	 * Get the primitive bilinear interpolation coverage data value
+	 * 
+	 * @param griddedTile
+	 *            gridded tile
+	 * @param image
+	 *            image
+	 * @param leftLastColumns
+	 *            last columns in the tile to the left as [column][row]
+	 * @param topLeftRows
+	 *            last rows of the tile to the top left
+	 * @param topRows
+	 *            last rows of the tile to the top
+	 * @param y
+	 *            y coordinate
+	 * @param x
+	 *            x coordinate
+	 * @param widthRatio
+	 *            width source over destination ratio
+	 * @param heightRatio
+	 *            height source over destination ratio
+	 * @param destTop
+	 *            destination top most pixel
+	 * @param destLeft
+	 *            destination left most pixel
+	 * @param srcTop
+	 *            source top most pixel
+	 * @param srcLeft
+	 *            source left most pixel
+	 * @return bilinear coverage data value, NaN if null
+	 * @since 3.0.3
+	 */
+	protected double getBilinearInterpolationValue(GriddedTile griddedTile,
+			TImage image, CoverageDataGrid leftLastColumns,
+			CoverageDataGrid topLeftRows, CoverageDataGrid topRows, int y,
+			int x, float widthRatio, float heightRatio, float destTop,
+			float destLeft, float srcTop, float srcLeft) {
 
 		// Determine which source pixel to use
 		float xSource = getXSource(x, destLeft, srcLeft, widthRatio);
 		float ySource = getYSource(y, destTop, srcTop, heightRatio);
 
 		CoverageDataSourcePixel sourcePixelX = getXSourceMinAndMax(xSource);
-		sourcePixelX.setMin(sourcePixelX.getMin() - 1);
-		sourcePixelX.setMax(sourcePixelX.getMax() + 1);
-
 		CoverageDataSourcePixel sourcePixelY = getYSourceMinAndMax(ySource);
-		sourcePixelY.setMin(sourcePixelY.getMin() - 1);
-		sourcePixelY.setMax(sourcePixelY.getMax() + 1);
-
-		Double[][] values = new Double[4][4];
-		populateValues(griddedTile, image, leftLastColumns, topLeftRows,
-				topRows, sourcePixelX, sourcePixelY, values);
 
-		Double value = null;
+		double value = Double.NaN;
 
-		if (values != null) {
-			value = getBicubicInterpolationValue(values, sourcePixelX,
-					sourcePixelY);
+		double[] values = new double[4];
+		if (populateValues(griddedTile, image, leftLastColumns, topLeftRows,
+				topRows, sourcePixelX, sourcePixelY, values)) {
+			value = getBilinearInterpolationValue(sourcePixelX.getOffset(),
+					sourcePixelY.getOffset(), sourcePixelX.getMin(),
+					sourcePixelX.getMax(), sourcePixelY.getMin(),
+					sourcePixelY.getMax(), values[0], values[1], values[2],
+					values[3]);
 		}
 
 		return value;
 	}
 
 	/**
-	 * Populate the coverage data values
+	 * Get the primitive bicubic interpolation coverage data value
 	 * 
 	 * @param griddedTile
 	 *            gridded tile
 	 * @param image
 	 *            image
 	 * @param leftLastColumns
-	 *            last columns in the tile to the left
+	 *            last columns in the tile to the left as [column][row]
 	 * @param topLeftRows
 	 *            last rows of the tile to the top left
 	 * @param topRows
 	 *            last rows of the tile to the top
-	 * @param pixelX
-	 *            source x pixel
-	 * @param pixelY
-	 *            source y pixel
-	 * @param values
-	 *            values to populate
+	 * @param y
+	 *            y coordinate
+	 * @param x
+	 *            x coordinate
+	 * @param widthRatio
+	 *            width source over destination ratio
+	 * @param heightRatio
+	 *            height source over destination ratio
+	 * @param destTop
+	 *            destination top most pixel
+	 * @param destLeft
+	 *            destination left most pixel
+	 * @param srcTop
+	 *            source top most pixel
+	 * @param srcLeft
+	 *            source left most pixel
+	 * @return bicubic coverage data value, NaN if null
+	 * @since 3.0.3
 	 */
-	private void populateValues(GriddedTile griddedTile, TImage image,
-			Double[][] leftLastColumns, Double[][] topLeftRows,
-			Double[][] topRows, CoverageDataSourcePixel pixelX,
-			CoverageDataSourcePixel pixelY, Double[][] values) {
+	protected double getBicubicInterpolationValue(GriddedTile griddedTile,
+			TImage image, CoverageDataGrid leftLastColumns,
+			CoverageDataGrid topLeftRows, CoverageDataGrid topRows, int y,
+			int x, float widthRatio, float heightRatio, float destTop,
+			float destLeft, float srcTop, float srcLeft) {
+
+		// Determine which source pixel to use
+		float xSource = getXSource(x, destLeft, srcLeft, widthRatio);
+		float ySource = getYSource(y, destTop, srcTop, heightRatio);
+
+		CoverageDataSourcePixel sourcePixelX = getXSourceMinAndMax(xSource);
+		sourcePixelX.setMin(sourcePixelX.getMin() - 1);
+		sourcePixelX.setMax(sourcePixelX.getMax() + 1);
 
-		populateValues(griddedTile, image, leftLastColumns, topLeftRows,
-				topRows, pixelX.getMin(), pixelX.getMax(), pixelY.getMin(),
-				pixelY.getMax(), values);
+		CoverageDataSourcePixel sourcePixelY = getYSourceMinAndMax(ySource);
+		sourcePixelY.setMin(sourcePixelY.getMin() - 1);
+		sourcePixelY.setMax(sourcePixelY.getMax() + 1);
+
+		double value = Double.NaN;
+
+		double[] values = new double[16];
+		if (populateValues(griddedTile, image, leftLastColumns, topLeftRows,
+				topRows, sourcePixelX, sourcePixelY, values)) {
+			value = getBicubicInterpolationValue(values,
+					sourcePixelX.getOffset(), sourcePixelY.getOffset());
+		}
+
+		return value;
 	}
 
 	/**
-	 * Populate the coverage data values
+	 * Populate the primitive coverage data values
 	 * 
 	 * @param griddedTile
 	 *            gridded tile
 	 * @param image
 	 *            image
 	 * @param leftLastColumns
-	 *            last columns in the tile to the left
+	 *            last columns in the tile to the left as [column][row]
 	 * @param topLeftRows
 	 *            last rows of the tile to the top left
 	 * @param topRows
 	 *            last rows of the tile to the top
-	 * @param minX
-	 *            min x coordinate
-	 * @param maxX
-	 *            max x coordinate
-	 * @param minY
-	 *            min y coordinate
-	 * @param maxY
-	 *            max y coordinate
+	 * @param pixelX
+	 *            source x pixel
+	 * @param pixelY
+	 *            source y pixel
 	 * @param values
-	 *            values to populate
-	 */
-	private void populateValues(GriddedTile griddedTile, TImage image,
-			Double[][] leftLastColumns, Double[][] topLeftRows,
-			Double[][] topRows, int minX, int maxX, int minY, int maxY,
-			Double[][] values) {
-
-		for (int yLocation = maxY; values != null && yLocation >= minY; yLocation--) {
+	 *            row major values to populate
+	 * @return true if all values were populated, false if a null value was
+	 *         found
+	 */
+	private boolean populateValues(GriddedTile griddedTile, TImage image,
+			CoverageDataGrid leftLastColumns, CoverageDataGrid topLeftRows,
+			CoverageDataGrid topRows, CoverageDataSourcePixel pixelX,
+			CoverageDataSourcePixel pixelY, double[] values) {
+
+		int minX = pixelX.getMin();
+		int maxX = pixelX.getMax();
+		int minY = pixelY.getMin();
+		int maxY = pixelY.getMax();
+		int width = maxX - minX + 1;
+
+		for (int yLocation = maxY; yLocation >= minY; yLocation--) {
 			for (int xLocation = maxX; xLocation >= minX; xLocation--) {
-				Double value = getValueOverBorders(griddedTile, image,
+				double value = getValueOverBorders(griddedTile, image,
 						leftLastColumns, topLeftRows, topRows, xLocation,
 						yLocation);
-				if (value == null) {
-					values = null;
-					break;
-				} else {
-					values[yLocation - minY][xLocation - minX] = value;
+				if (Double.isNaN(value)) {
+					return false;
 				}
+				values[((yLocation - minY) * width) + (xLocation - minX)] = value;
 			}
 		}
+
+		return true;
 	}
 
 	/**
-	 * Get the nearest neighbor coverage data value
+	 * Get the primitive nearest neighbor coverage data value
 	 * 
 	 * @param griddedTile
 	 *            gridded tile
 	 * @param image
 	 *            image
 	 * @param leftLastColumns
-	 *            last columns in the tile to the left
+	 *            last columns in the tile to the left as [column][row]
 	 * @param topLeftRows
 	 *            last rows of the tile to the top left
 	 * @param topRows
@@ -1984,13 +3985,14 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 	 *            source top most pixel
 	 * @param srcLeft
 	 *            source left most pixel
-	 * @return nearest neighbor coverage data value
+	 * @return nearest neighbor coverage data value, NaN if null
+	 * @since 3.0.3
 	 */
-	protected Double getNearestNeighborValue(GriddedTile griddedTile,
-			TImage image, Double[][] leftLastColumns, Double[][] topLeftRows,
-			Double[][] topRows, int y, int x, float widthRatio,
-			float heightRatio, float destTop, float destLeft, float srcTop,
-			float srcLeft) {
+	protected double getNearestNeighborValue(GriddedTile griddedTile,
+			TImage image, CoverageDataGrid leftLastColumns,
+			CoverageDataGrid topLeftRows, CoverageDataGrid topRows, int y,
+			int x, float widthRatio, float heightRatio, float destTop,
+			float destLeft, float srcTop, float srcLeft) {
 
 		// Determine which source pixel to use
 		float xSource = getXSource(x, destLeft, srcLeft, widthRatio);
@@ -2001,12 +4003,12 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 
 		// Get the coverage data value from the source pixel nearest neighbors
 		// until one is found
-		Double value = null;
+		double value = Double.NaN;
 		for (int[] nearestNeighbor : nearestNeighbors) {
 			value = getValueOverBorders(griddedTile, image, leftLastColumns,
 					topLeftRows, topRows, nearestNeighbor[0],
 					nearestNeighbor[1]);
-			if (value != null) {
+			if (!Double.isNaN(value)) {
 				break;
 			}
 		}
@@ -2015,9 +4017,9 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 	}
 
 	/**
-	 * Get the coverage data value from the coordinate location. If the
-	 * coordinate crosses the left, top, or top left tile, attempts to get the
-	 * coverage data value from previously processed border coverage data
+	 * Get the primitive coverage data value from the coordinate location. If
+	 * the coordinate crosses the left, top, or top left tile, attempts to get
+	 * the coverage data value from previously processed border coverage data
 	 * values.
 	 * 
 	 * @param griddedTile
@@ -2025,21 +4027,21 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 	 * @param image
 	 *            image
 	 * @param leftLastColumns
-	 *            last columns in the tile to the left
+	 *            last columns in the tile to the left as [column][row]
 	 * @param topLeftRows
 	 *            last rows of the tile to the top left
 	 * @param topRows
 	 *            last rows of the tile to the top
-	 * @param y
+	 * @param x
 	 *            x coordinate
 	 * @param y
 	 *            y coordinate
-	 * @return coverage data value
+	 * @return coverage data value, NaN if null
 	 */
-	private Double getValueOverBorders(GriddedTile griddedTile, TImage image,
-			Double[][] leftLastColumns, Double[][] topLeftRows,
-			Double[][] topRows, int x, int y) {
-		Double value = null;
+	private double getValueOverBorders(GriddedTile griddedTile, TImage image,
+			CoverageDataGrid leftLastColumns, CoverageDataGrid topLeftRows,
+			CoverageDataGrid topRows, int x, int y) {
+		double value = Double.NaN;
 
 		// Only handle locations in the current tile, to the left, top left, or
 		// top tiles. Tiles are processed sorted by rows and columns, so values
@@ -2048,16 +4050,16 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 		if (x < image.getWidth() && y < image.getHeight()) {
 
 			if (x >= 0 && y >= 0) {
-				value = getValue(griddedTile, image, x, y);
+				value = getDoubleValue(griddedTile, image, x, y);
 			} else if (x < 0 && y < 0) {
 				// Try to get the coverage data value from the top left tile
 				// values
 				if (topLeftRows != null) {
 					int row = (-1 * y) - 1;
-					if (row < topLeftRows.length) {
-						int column = x + topLeftRows[row].length;
+					if (row < topLeftRows.getHeight()) {
+						int column = x + topLeftRows.getWidth();
 						if (column >= 0) {
-							value = topLeftRows[row][column];
+							value = topLeftRows.get(row, column);
 						}
 					}
 				}
@@ -2065,10 +4067,10 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 				// Try to get the coverage data value from the left tile values
 				if (leftLastColumns != null) {
 					int column = (-1 * x) - 1;
-					if (column < leftLastColumns.length) {
+					if (column < leftLastColumns.getHeight()) {
 						int row = y;
-						if (row < leftLastColumns[column].length) {
-							value = leftLastColumns[column][row];
+						if (row < leftLastColumns.getWidth()) {
+							value = leftLastColumns.get(column, row);
 						}
 					}
 				}
@@ -2076,10 +4078,10 @@ public abstract class CoverageDataCore<TImage extends CoverageDataImage>
 				// Try to get the coverage data value from the top tile values
 				if (topRows != null) {
 					int row = (-1 * y) - 1;
-					if (row < topRows.length) {
+					if (row < topRows.getHeight()) {
 						int column = x;
-						if (column < topRows[row].length) {
-							value = topRows[row][column];
+						if (column < topRows.getWidth()) {
+							value = topRows.get(row, column);
 						}
 					}
 				}
@@ -0,0 +1,235 @@
+package mil.nga.geopackage.extension.coverage;
+
+import java.util.Arrays;
+
+import mil.nga.geopackage.GeoPackageException;
+
+/**
+ * Primitive grid of coverage data values stored as a single row major double
+ * array. Null (data null or missing) coverage data values are stored as
+ * {@link Double#NaN}.
+ * 
+ * @author osbornb
+ * @since 3.0.3
+ */
+public class CoverageDataGrid {
+
+	/**
+	 * Row major coverage data values, NaN for null values
+	 */
+	private final double[] values;
+
+	/**
+	 * Grid width, the number of columns in each row
+	 */
+	private final int width;
+
+	/**
+	 * Grid height, the number of rows
+	 */
+	private final int height;
+
+	/**
+	 * Constructor, all values are initialized as null
+	 * 
+	 * @param width
+	 *            grid width
+	 * @param height
+	 *            grid height
+	 */
+	public CoverageDataGrid(int width, int height) {
+		this(new double[width * height], width, height);
+		Arrays.fill(values, Double.NaN);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param values
+	 *            row major values, NaN for null values
+	 * @param width
+	 *            grid width
+	 * @param height
+	 *            grid height
+	 */
+	public CoverageDataGrid(double[] values, int width, int height) {
+		if (values.length != width * height) {
+			throw new GeoPackageException("Values length of "
+					+ values.length + " does not match the width " + width
+					+ " and height " + height);
+		}
+		this.values = values;
+		this.width = width;
+		this.height = height;
+	}
+
+	/**
+	 * Constructor from a boxed double array stored as [row][column]
+	 * 
+	 * @param values
+	 *            coverage data values
+	 */
+	public CoverageDataGrid(Double[][] values) {
+		this(values.length > 0 ? values[0].length : 0, values.length);
+		for (int row = 0; row < height; row++) {
+			Double[] rowValues = values[row];
+			int index = row * width;
+			for (int column = 0; column < width; column++) {
+				Double value = rowValues[column];
+				if (value != null) {
+					this.values[index + column] = value;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Get the row major values, NaN for null values
+	 * 
+	 * @return values
+	 */
+	public double[] getValues() {
+		return values;
+	}
+
+	/**
+	 * Get the grid width, the number of columns in each row
+	 * 
+	 * @return width
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * Get the grid height, the number of rows
+	 * 
+	 * @return height
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Get the values array index of the row and column
+	 * 
+	 * @param row
+	 *            row index
+	 * @param column
+	 *            column index
+	 * @return values index
+	 */
+	public int getIndex(int row, int column) {
+		return (row * width) + column;
+	}
+
+	/**
+	 * Get the coverage data value at the row and column
+	 * 
+	 * @param row
+	 *            row index
+	 * @param column
+	 *            column index
+	 * @return coverage data value, NaN if null
+	 */
+	public double get(int row, int column) {
+		return values[getIndex(row, column)];
+	}
+
+	/**
+	 * Get the coverage data value at the row and column
+	 * 
+	 * @param row
+	 *            row index
+	 * @param column
+	 *            column index
+	 * @return coverage data value or null
+	 */
+	public Double getValue(int row, int column) {
+		double value = get(row, column);
+		return Double.isNaN(value) ? null : value;
+	}
+
+	/**
+	 * Determine if the coverage data value at the row and column is null
+	 * 
+	 * @param row
+	 *            row index
+	 * @param column
+	 *            column index
+	 * @return true if null
+	 */
+	public boolean isNull(int row, int column) {
+		return Double.isNaN(get(row, column));
+	}
+
+	/**
+	 * Set the coverage data value at the row and column
+	 * 
+	 * @param row
+	 *            row index
+	 * @param column
+	 *            column index
+	 * @param value
+	 *            coverage data value, NaN for null
+	 */
+	public void set(int row, int column, double value) {
+		values[getIndex(row, column)] = value;
+	}
+
+	/**
+	 * Set the coverage data value at the row and column
+	 * 
+	 * @param row
+	 *            row index
+	 * @param column
+	 *            column index
+	 * @param value
+	 *            coverage data value or null
+	 */
+	public void setValue(int row, int column, Double value) {
+		set(row, column, value != null ? value : Double.NaN);
+	}
+
+	/**
+	 * Copy all values from the source grid into this grid with the source top
+	 * left value placed at the row and column
+	 * 
+	 * @param row
+	 *            starting row index
+	 * @param column
+	 *            starting column index
+	 * @param source
+	 *            source grid
+	 */
+	public void set(int row, int column, CoverageDataGrid source) {
+		double[] sourceValues = source.getValues();
+		int sourceWidth = source.getWidth();
+		for (int sourceRow = 0; sourceRow < source.getHeight(); sourceRow++) {
+			System.arraycopy(sourceValues, sourceRow * sourceWidth, values,
+					getIndex(row + sourceRow, column), sourceWidth);
+		}
+	}
+
+	/**
+	 * Create a boxed double array of the coverage data values stored as
+	 * [row][column]
+	 * 
+	 * @return coverage data values
+	 */
+	public Double[][] toValues() {
+		Double[][] boxedValues = new Double[height][width];
+		for (int row = 0; row < height; row++) {
+			Double[] rowValues = boxedValues[row];
+			int index = row * width;
+			for (int column = 0; column < width; column++) {
+				double value = values[index + column];
+				if (!Double.isNaN(value)) {
+					rowValues[column] = value;
+				}
+			}
+		}
+		return boxedValues;
+	}
+
+}
@@ -12,9 +12,15 @@ import mil.nga.geopackage.tiles.matrix.TileMatrix;
 public class CoverageDataResults {
 
 	/**
-	 * Double array of coverage data values stored as [row][column]
+	 * Primitive grid of coverage data values
 	 */
-	private final Double[][] values;
+	private final CoverageDataGrid grid;
+
+	/**
+	 * Boxed double array of coverage data values stored as [row][column],
+	 * provided or created once when requested
+	 */
+	private volatile Double[][] values;
 
 	/**
 	 * Tile matrix used to find the coverage data values
@@ -40,21 +46,53 @@ public class CoverageDataResults {
 	 *            tile matrix
 	 */
 	public CoverageDataResults(Double[][] values, TileMatrix tileMatrix) {
+		this(new CoverageDataGrid(values), tileMatrix);
 		this.values = values;
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param grid
+	 *            coverage data grid
+	 * @param tileMatrix
+	 *            tile matrix
+	 * @since 3.0.3
+	 */
+	public CoverageDataResults(CoverageDataGrid grid, TileMatrix tileMatrix) {
+		this.grid = grid;
 		this.tileMatrix = tileMatrix;
-		height = values.length;
-		width = values[0].length;
+		height = grid.getHeight();
+		width = grid.getWidth();
 	}
 
 	/**
-	 * Get the double array of coverage data values stored as [row][column]
+	 * Get the double array of coverage data values stored as [row][column].
+	 * The boxed values are created from the primitive grid once, on the first
+	 * call, and the same array is returned by later calls. Changes written to
+	 * the returned array are returned by {@link #getValue(int, int)} but are
+	 * not reflected in the primitive {@link #getGrid()} and
+	 * {@link #get(int, int)} values.
 	 * 
 	 * @return coverage data values
 	 */
-	public Double[][] getValues() {
+	public synchronized Double[][] getValues() {
+		if (values == null) {
+			values = grid.toValues();
+		}
 		return values;
 	}
 
+	/**
+	 * Get the primitive grid of coverage data values, NaN for null values
+	 * 
+	 * @return coverage data grid
+	 * @since 3.0.3
+	 */
+	public CoverageDataGrid getGrid() {
+		return grid;
+	}
+
 	/**
 	 * Get the tile matrix used to find the coverage data values
 	 * 
@@ -83,7 +121,8 @@ public class CoverageDataResults {
 	}
 
 	/**
-	 * Get the coverage data value at the row and column
+	 * Get the coverage data value at the row and column, from the boxed
+	 * values when they have been created
 	 * 
 	 * @param row
 	 *            row index
@@ -92,7 +131,28 @@ public class CoverageDataResults {
 	 * @return coverage data value
 	 */
 	public Double getValue(int row, int column) {
-		return values[row][column];
+		Double value;
+		Double[][] boxedValues = values;
+		if (boxedValues != null) {
+			value = boxedValues[row][column];
+		} else {
+			value = grid.getValue(row, column);
+		}
+		return value;
+	}
+
+	/**
+	 * Get the primitive coverage data value at the row and column
+	 * 
+	 * @param row
+	 *            row index
+	 * @param column
+	 *            column index
+	 * @return coverage data value, NaN if null
+	 * @since 3.0.3
+	 */
+	public double get(int row, int column) {
+		return grid.get(row, column);
 	}
 
 	/**
@@ -0,0 +1,186 @@
+package mil.nga.geopackage.extension.coverage;
+
+/**
+ * Decoded coverage data tile containing the coverage data values of every
+ * tile pixel along with the gridded tile scale and offset used to decode them
+ * 
+ * @author osbornb
+ * @since 3.0.3
+ */
+public class CoverageDataTile {
+
+	/**
+	 * Approximate fixed memory overhead in bytes of a decoded tile, excluding
+	 * the values
+	 */
+	private static final long OVERHEAD_BYTES = 128;
+
+	/**
+	 * Coverage data tile table name
+	 */
+	private final String tableName;
+
+	/**
+	 * Zoom level
+	 */
+	private final long zoomLevel;
+
+	/**
+	 * Tile column
+	 */
+	private final long tileColumn;
+
+	/**
+	 * Tile row
+	 */
+	private final long tileRow;
+
+	/**
+	 * Gridded tile, may be null
+	 */
+	private final GriddedTile griddedTile;
+
+	/**
+	 * Decoded coverage data values stored as [y][x] pixels
+	 */
+	private final CoverageDataGrid values;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param tableName
+	 *            coverage data tile table name
+	 * @param zoomLevel
+	 *            zoom level
+	 * @param tileColumn
+	 *            tile column
+	 * @param tileRow
+	 *            tile row
+	 * @param griddedTile
+	 *            gridded tile
+	 * @param values
+	 *            decoded coverage data values
+	 */
+	public CoverageDataTile(String tableName, long zoomLevel, long tileColumn,
+			long tileRow, GriddedTile griddedTile, CoverageDataGrid values) {
+		this.tableName = tableName;
+		this.zoomLevel = zoomLevel;
+		this.tileColumn = tileColumn;
+		this.tileRow = tileRow;
+		this.griddedTile = griddedTile;
+		this.values = values;
+	}
+
+	/**
+	 * Get the coverage data tile table name
+	 * 
+	 * @return table name
+	 */
+	public String getTableName() {
+		return tableName;
+	}
+
+	/**
+	 * Get the zoom level
+	 * 
+	 * @return zoom level
+	 */
+	public long getZoomLevel() {
+		return zoomLevel;
+	}
+
+	/**
+	 * Get the tile column
+	 * 
+	 * @return tile column
+	 */
+	public long getTileColumn() {
+		return tileColumn;
+	}
+
+	/**
+	 * Get the tile row
+	 * 
+	 * @return tile row
+	 */
+	public long getTileRow() {
+		return tileRow;
+	}
+
+	/**
+	 * Get the gridded tile
+	 * 
+	 * @return gridded tile or null
+	 */
+	public GriddedTile getGriddedTile() {
+		return griddedTile;
+	}
+
+	/**
+	 * Get the gridded tile scale
+	 * 
+	 * @return scale, 1.0 when no gridded tile
+	 */
+	public double getScale() {
+		return griddedTile != null ? griddedTile.getScale() : 1.0;
+	}
+
+	/**
+	 * Get the gridded tile offset
+	 * 
+	 * @return offset, 0.0 when no gridded tile
+	 */
+	public double getOffset() {
+		return griddedTile != null ? griddedTile.getOffset() : 0.0;
+	}
+
+	/**
+	 * Get the decoded coverage data values
+	 * 
+	 * @return coverage data grid
+	 */
+	public CoverageDataGrid getValues() {
+		return values;
+	}
+
+	/**
+	 * Get the tile width
+	 * 
+	 * @return width
+	 */
+	public int getWidth() {
+		return values.getWidth();
+	}
+
+	/**
+	 * Get the tile height
+	 * 
+	 * @return height
+	 */
+	public int getHeight() {
+		return values.getHeight();
+	}
+
+	/**
+	 * Get the coverage data value at the pixel coordinate
+	 * 
+	 * @param x
+	 *            x coordinate
+	 * @param y
+	 *            y coordinate
+	 * @return coverage data value, NaN if null
+	 */
+	public double getValue(int x, int y) {
+		return values.get(y, x);
+	}
+
+	/**
+	 * Get the approximate memory size of the decoded tile in bytes
+	 * 
+	 * @return size in bytes
+	 */
+	public long getSizeInBytes() {
+		return OVERHEAD_BYTES + (8L * values.getValues().length);
+	}
+
+}
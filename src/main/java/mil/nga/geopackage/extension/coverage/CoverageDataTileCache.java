@@ -0,0 +1,481 @@
+package mil.nga.geopackage.extension.coverage;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import mil.nga.geopackage.GeoPackageCore;
+
+import com.j256.ormlite.dao.Dao;
+
+/**
+ * Thread safe, least recently used cache of decoded coverage data tiles keyed
+ * by GeoPackage, table name, zoom level, tile column, and tile row.
+ * GeoPackages are compared by identity, so a single cache may be shared
+ * between GeoPackages with the same coverage table names. The cache is
+ * bounded by the approximate size in bytes of the decoded tiles. GeoPackages
+ * registered with {@link #register(GeoPackageCore)} have their tiles
+ * invalidated when gridded tile or gridded coverage rows are written through
+ * their DAOs, as happens when coverage data tiles are written. Tiles must
+ * otherwise be invalidated when tile rows are written directly, and should be
+ * removed when the GeoPackage is closed.
+ * 
+ * @author osbornb
+ * @since 3.0.3
+ */
+public class CoverageDataTileCache {
+
+	/**
+	 * Default max cache size in bytes
+	 */
+	public static final long DEFAULT_MAX_BYTES = 64 * 1024 * 1024;
+
+	/**
+	 * Max cache size in bytes
+	 */
+	private final long maxBytes;
+
+	/**
+	 * Least recently used ordered tiles
+	 */
+	private final Map<TileKey, CoverageDataTile> tiles = new LinkedHashMap<>(
+			16, 0.75f, true);
+
+	/**
+	 * Current cache size in bytes
+	 */
+	private long sizeInBytes = 0;
+
+	/**
+	 * Cache hit count
+	 */
+	private long hitCount = 0;
+
+	/**
+	 * Cache miss count
+	 */
+	private long missCount = 0;
+
+	/**
+	 * Cache eviction count
+	 */
+	private long evictionCount = 0;
+
+	/**
+	 * Invalidation generation, incremented whenever tiles are invalidated
+	 */
+	private long generation = 0;
+
+	/**
+	 * Write observers of registered GeoPackages, compared by identity
+	 */
+	private final Map<GeoPackageCore, Dao.DaoObserver> observers = new IdentityHashMap<>();
+
+	/**
+	 * Constructor, uses the default max size of {@link #DEFAULT_MAX_BYTES}
+	 */
+	public CoverageDataTileCache() {
+		this(DEFAULT_MAX_BYTES);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param maxBytes
+	 *            max cache size in bytes
+	 */
+	public CoverageDataTileCache(long maxBytes) {
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Get the max cache size in bytes
+	 * 
+	 * @return max bytes
+	 */
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 * Get the current cache size in bytes
+	 * 
+	 * @return size in bytes
+	 */
+	public synchronized long getSizeInBytes() {
+		return sizeInBytes;
+	}
+
+	/**
+	 * Get the number of cached tiles
+	 * 
+	 * @return tile count
+	 */
+	public synchronized int size() {
+		return tiles.size();
+	}
+
+	/**
+	 * Get the cache hit count
+	 * 
+	 * @return hit count
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Get the cache miss count
+	 * 
+	 * @return miss count
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * Get the count of tiles evicted to stay within the max size
+	 * 
+	 * @return eviction count
+	 */
+	public synchronized long getEvictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * Get the invalidation generation. Capture the generation before reading a
+	 * tile and cache the decoded tile with
+	 * {@link #put(GeoPackageCore, CoverageDataTile, long)} so tiles read
+	 * before an invalidation are not cached after it.
+	 * 
+	 * @return invalidation generation
+	 */
+	public synchronized long getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * Register the GeoPackage to invalidate its cached tiles whenever gridded
+	 * tile or gridded coverage rows are written through the GeoPackage DAOs
+	 * 
+	 * @param geoPackage
+	 *            GeoPackage
+	 * @return true if newly registered
+	 */
+	public synchronized boolean register(final GeoPackageCore geoPackage) {
+		boolean registered = !observers.containsKey(geoPackage);
+		if (registered) {
+			Dao.DaoObserver observer = new Dao.DaoObserver() {
+				@Override
+				public void onChange() {
+					invalidate(geoPackage);
+				}
+			};
+			geoPackage.getGriddedTileDao().registerObserver(observer);
+			geoPackage.getGriddedCoverageDao().registerObserver(observer);
+			observers.put(geoPackage, observer);
+		}
+		return registered;
+	}
+
+	/**
+	 * Determine if the GeoPackage is registered for write invalidation
+	 * 
+	 * @param geoPackage
+	 *            GeoPackage
+	 * @return true if registered
+	 */
+	public synchronized boolean isRegistered(GeoPackageCore geoPackage) {
+		return observers.containsKey(geoPackage);
+	}
+
+	/**
+	 * Get the cached tile
+	 * 
+	 * @param geoPackage
+	 *            GeoPackage
+	 * @param tableName
+	 *            coverage data tile table name
+	 * @param zoomLevel
+	 *            zoom level
+	 * @param tileColumn
+	 *            tile column
+	 * @param tileRow
+	 *            tile row
+	 * @return cached tile or null
+	 */
+	public synchronized CoverageDataTile get(GeoPackageCore geoPackage,
+			String tableName, long zoomLevel, long tileColumn, long tileRow) {
+		CoverageDataTile tile = tiles.get(new TileKey(geoPackage, tableName,
+				zoomLevel, tileColumn, tileRow));
+		if (tile != null) {
+			hitCount++;
+		} else {
+			missCount++;
+		}
+		return tile;
+	}
+
+	/**
+	 * Cache the tile, evicting the least recently used tiles as needed to stay
+	 * within the max size. Tiles larger than the max size are not cached.
+	 * 
+	 * @param geoPackage
+	 *            GeoPackage
+	 * @param tile
+	 *            decoded coverage data tile
+	 * @return true if cached
+	 */
+	public synchronized boolean put(GeoPackageCore geoPackage,
+			CoverageDataTile tile) {
+		return put(geoPackage, tile, generation);
+	}
+
+	/**
+	 * Cache the tile if no tiles were invalidated since the generation was
+	 * retrieved, evicting the least recently used tiles as needed to stay
+	 * within the max size. Tiles larger than the max size are not cached.
+	 * 
+	 * @param geoPackage
+	 *            GeoPackage
+	 * @param tile
+	 *            decoded coverage data tile
+	 * @param generation
+	 *            invalidation generation retrieved before reading the tile
+	 * @return true if cached
+	 */
+	public synchronized boolean put(GeoPackageCore geoPackage,
+			CoverageDataTile tile, long generation) {
+
+		boolean cached = false;
+
+		if (generation == this.generation) {
+
+			long tileBytes = tile.getSizeInBytes();
+			TileKey key = new TileKey(geoPackage, tile.getTableName(),
+					tile.getZoomLevel(), tile.getTileColumn(),
+					tile.getTileRow());
+
+			CoverageDataTile previous = tiles.remove(key);
+			if (previous != null) {
+				sizeInBytes -= previous.getSizeInBytes();
+			}
+
+			cached = tileBytes <= maxBytes;
+			if (cached) {
+				Iterator<CoverageDataTile> iterator = tiles.values()
+						.iterator();
+				while (sizeInBytes + tileBytes > maxBytes
+						&& iterator.hasNext()) {
+					sizeInBytes -= iterator.next().getSizeInBytes();
+					iterator.remove();
+					evictionCount++;
+				}
+				tiles.put(key, tile);
+				sizeInBytes += tileBytes;
+			}
+		}
+
+		return cached;
+	}
+
+	/**
+	 * Invalidate the cached tile
+	 * 
+	 * @param geoPackage
+	 *            GeoPackage
+	 * @param tableName
+	 *            coverage data tile table name
+	 * @param zoomLevel
+	 *            zoom level
+	 * @param tileColumn
+	 *            tile column
+	 * @param tileRow
+	 *            tile row
+	 * @return true if a cached tile was removed
+	 */
+	public synchronized boolean remove(GeoPackageCore geoPackage,
+			String tableName, long zoomLevel, long tileColumn, long tileRow) {
+		generation++;
+		CoverageDataTile tile = tiles.remove(new TileKey(geoPackage,
+				tableName, zoomLevel, tileColumn, tileRow));
+		if (tile != null) {
+			sizeInBytes -= tile.getSizeInBytes();
+		}
+		return tile != null;
+	}
+
+	/**
+	 * Invalidate all cached tiles of the GeoPackage table
+	 * 
+	 * @param geoPackage
+	 *            GeoPackage
+	 * @param tableName
+	 *            coverage data tile table name
+	 * @return number of cached tiles removed
+	 */
+	public synchronized int remove(GeoPackageCore geoPackage, String tableName) {
+		generation++;
+		int removed = 0;
+		Iterator<Map.Entry<TileKey, CoverageDataTile>> iterator = tiles
+				.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<TileKey, CoverageDataTile> entry = iterator.next();
+			TileKey key = entry.getKey();
+			if (key.geoPackage == geoPackage
+					&& key.tableName.equals(tableName)) {
+				sizeInBytes -= entry.getValue().getSizeInBytes();
+				iterator.remove();
+				removed++;
+			}
+		}
+		return removed;
+	}
+
+	/**
+	 * Invalidate all cached tiles of the GeoPackage and unregister it from
+	 * write invalidation, such as when it is closed
+	 * 
+	 * @param geoPackage
+	 *            GeoPackage
+	 * @return number of cached tiles removed
+	 */
+	public synchronized int remove(GeoPackageCore geoPackage) {
+		Dao.DaoObserver observer = observers.remove(geoPackage);
+		if (observer != null) {
+			geoPackage.getGriddedTileDao().unregisterObserver(observer);
+			geoPackage.getGriddedCoverageDao().unregisterObserver(observer);
+		}
+		return invalidate(geoPackage);
+	}
+
+	/**
+	 * Invalidate all cached tiles of the GeoPackage
+	 * 
+	 * @param geoPackage
+	 *            GeoPackage
+	 * @return number of cached tiles removed
+	 */
+	private synchronized int invalidate(GeoPackageCore geoPackage) {
+		generation++;
+		int removed = 0;
+		Iterator<Map.Entry<TileKey, CoverageDataTile>> iterator = tiles
+				.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<TileKey, CoverageDataTile> entry = iterator.next();
+			if (entry.getKey().geoPackage == geoPackage) {
+				sizeInBytes -= entry.getValue().getSizeInBytes();
+				iterator.remove();
+				removed++;
+			}
+		}
+		return removed;
+	}
+
+	/**
+	 * Invalidate all cached tiles
+	 */
+	public synchronized void clear() {
+		generation++;
+		tiles.clear();
+		sizeInBytes = 0;
+	}
+
+	/**
+	 * Reset the hit, miss, and eviction counts
+	 */
+	public synchronized void resetCounts() {
+		hitCount = 0;
+		missCount = 0;
+		evictionCount = 0;
+	}
+
+	/**
+	 * Tile cache key
+	 */
+	private static class TileKey {
+
+		/**
+		 * GeoPackage, compared by identity
+		 */
+		private final GeoPackageCore geoPackage;
+
+		/**
+		 * Table name
+		 */
+		private final String tableName;
+
+		/**
+		 * Zoom level
+		 */
+		private final long zoomLevel;
+
+		/**
+		 * Tile column
+		 */
+		private final long tileColumn;
+
+		/**
+		 * Tile row
+		 */
+		private final long tileRow;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param geoPackage
+		 *            GeoPackage
+		 * @param tableName
+		 *            table name
+		 * @param zoomLevel
+		 *            zoom level
+		 * @param tileColumn
+		 *            tile column
+		 * @param tileRow
+		 *            tile row
+		 */
+		public TileKey(GeoPackageCore geoPackage, String tableName,
+				long zoomLevel, long tileColumn, long tileRow) {
+			this.geoPackage = geoPackage;
+			this.tableName = tableName;
+			this.zoomLevel = zoomLevel;
+			this.tileColumn = tileColumn;
+			this.tileRow = tileRow;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + System.identityHashCode(geoPackage);
+			result = prime * result + tableName.hashCode();
+			result = prime * result + (int) (zoomLevel ^ (zoomLevel >>> 32));
+			result = prime * result + (int) (tileColumn ^ (tileColumn >>> 32));
+			result = prime * result + (int) (tileRow ^ (tileRow >>> 32));
+			return result;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			TileKey other = (TileKey) obj;
+			return zoomLevel == other.zoomLevel
+					&& tileColumn == other.tileColumn
+					&& tileRow == other.tileRow
+					&& geoPackage == other.geoPackage
+					&& tableName.equals(other.tableName);
+		}
+
+	}
+
+}
@@ -0,0 +1,34 @@
+package mil.nga.geopackage.extension.coverage;
+
+import mil.nga.geopackage.tiles.matrix.TileMatrix;
+
+/**
+ * Optional interface for coverage data implementations able to read and
+ * decode a single coverage data tile. Coverage data implementing it answer
+ * point and batch point queries by reading each covering tile once, through
+ * the tile cache when set. Other implementations answer point queries with
+ * single pixel requests.
+ * 
+ * @author osbornb
+ * @since 3.0.3
+ */
+public interface CoverageDataTileReader {
+
+	/**
+	 * Read and decode the coverage data tile at the zoom level, column, and
+	 * row. Implementations query the tile and gridded tile, create the image,
+	 * and decode it with
+	 * {@link CoverageDataCore#createTile(GriddedTile, CoverageDataImage, long, long, long)}.
+	 * 
+	 * @param tileMatrix
+	 *            tile matrix
+	 * @param tileColumn
+	 *            tile column
+	 * @param tileRow
+	 *            tile row
+	 * @return decoded coverage data tile or null if no tile exists
+	 */
+	public CoverageDataTile readTile(TileMatrix tileMatrix, long tileColumn,
+			long tileRow);
+
+}
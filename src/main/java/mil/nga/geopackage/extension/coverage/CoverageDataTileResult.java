@@ -0,0 +1,105 @@
+package mil.nga.geopackage.extension.coverage;
+
+/**
+ * Coverage data values computed from a single coverage data tile and the
+ * location of those values within the combined request results
+ * 
+ * @author osbornb
+ * @since 3.0.3
+ */
+public class CoverageDataTileResult {
+
+	/**
+	 * Tile row
+	 */
+	private final long tileRow;
+
+	/**
+	 * Tile column
+	 */
+	private final long tileColumn;
+
+	/**
+	 * Row within the combined results where the values start
+	 */
+	private final int baseRow;
+
+	/**
+	 * Column within the combined results where the values start
+	 */
+	private final int baseColumn;
+
+	/**
+	 * Coverage data values from the tile
+	 */
+	private final CoverageDataGrid grid;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param tileRow
+	 *            tile row
+	 * @param tileColumn
+	 *            tile column
+	 * @param baseRow
+	 *            row within the combined results where the values start
+	 * @param baseColumn
+	 *            column within the combined results where the values start
+	 * @param grid
+	 *            coverage data values from the tile
+	 */
+	public CoverageDataTileResult(long tileRow, long tileColumn, int baseRow,
+			int baseColumn, CoverageDataGrid grid) {
+		this.tileRow = tileRow;
+		this.tileColumn = tileColumn;
+		this.baseRow = baseRow;
+		this.baseColumn = baseColumn;
+		this.grid = grid;
+	}
+
+	/**
+	 * Get the tile row
+	 * 
+	 * @return tile row
+	 */
+	public long getTileRow() {
+		return tileRow;
+	}
+
+	/**
+	 * Get the tile column
+	 * 
+	 * @return tile column
+	 */
+	public long getTileColumn() {
+		return tileColumn;
+	}
+
+	/**
+	 * Get the row within the combined results where the values start
+	 * 
+	 * @return base row
+	 */
+	public int getBaseRow() {
+		return baseRow;
+	}
+
+	/**
+	 * Get the column within the combined results where the values start
+	 * 
+	 * @return base column
+	 */
+	public int getBaseColumn() {
+		return baseColumn;
+	}
+
+	/**
+	 * Get the coverage data values from the tile
+	 * 
+	 * @return coverage data grid
+	 */
+	public CoverageDataGrid getGrid() {
+		return grid;
+	}
+
+}
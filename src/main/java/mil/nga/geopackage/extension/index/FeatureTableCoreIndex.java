@@ -1,26 +1,40 @@
 package mil.nga.geopackage.extension.index;
 
+import java.io.IOException;
 import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import mil.nga.geopackage.BoundingBox;
 import mil.nga.geopackage.GeoPackageCore;
 import mil.nga.geopackage.GeoPackageException;
 import mil.nga.geopackage.core.contents.Contents;
 import mil.nga.geopackage.core.contents.ContentsDao;
+import mil.nga.geopackage.db.CoreSQLUtils;
 import mil.nga.geopackage.extension.BaseExtension;
 import mil.nga.geopackage.extension.ExtensionScopeType;
 import mil.nga.geopackage.extension.Extensions;
 import mil.nga.geopackage.extension.ExtensionsDao;
 import mil.nga.geopackage.geom.GeoPackageGeometryData;
+import mil.nga.geopackage.geom.GeometryEnvelopeScanner;
 import mil.nga.geopackage.io.GeoPackageProgress;
 import mil.nga.geopackage.property.GeoPackageProperties;
 import mil.nga.geopackage.property.PropertyConstants;
-import mil.nga.sf.Geometry;
+import mil.nga.geopackage.user.UserCoreConnection;
+import mil.nga.geopackage.user.UserCoreResult;
 import mil.nga.sf.GeometryEnvelope;
-import mil.nga.sf.util.GeometryEnvelopeBuilder;
 
 import com.j256.ormlite.dao.CloseableIterator;
+import com.j256.ormlite.dao.GenericRawResults;
+import com.j256.ormlite.field.DataType;
+import com.j256.ormlite.misc.TransactionManager;
 import com.j256.ormlite.stmt.DeleteBuilder;
 import com.j256.ormlite.stmt.PreparedDelete;
 import com.j256.ormlite.stmt.QueryBuilder;
@@ -60,6 +74,21 @@ public abstract class FeatureTableCoreIndex extends BaseExtension {
 	public static final String EXTENSION_DEFINITION = GeoPackageProperties
 			.getProperty(PropertyConstants.EXTENSIONS, EXTENSION_NAME_NO_AUTHOR);
 
+	/**
+	 * Default number of geometry indices inserted per batch when indexing the
+	 * feature table
+	 * 
+	 * @since 3.0.3
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 1000;
+
+	/**
+	 * Default maximum number of geometry indices held by the in memory index
+	 * 
+	 * @since 3.0.3
+	 */
+	public static final int DEFAULT_MEMORY_INDEX_MAX_ENTRIES = 1000000;
+
 	/**
 	 * Table name
 	 */
@@ -85,6 +114,56 @@ public abstract class FeatureTableCoreIndex extends BaseExtension {
 	 */
 	protected GeoPackageProgress progress;
 
+	/**
+	 * Number of geometry indices inserted per batch when indexing the feature
+	 * table
+	 */
+	private int batchSize = DEFAULT_BATCH_SIZE;
+
+	/**
+	 * Geometry indices pending insertion, only non null while indexing the
+	 * feature table
+	 */
+	private List<GeometryIndex> batch;
+
+	/**
+	 * Number of geometry indices added to insert batches while indexing the
+	 * feature table
+	 */
+	private int batchCount;
+
+	/**
+	 * Executor used to build geometry envelopes in parallel
+	 */
+	private ExecutorService executor;
+
+	/**
+	 * Geometry indices being built on the executor in read order, only non
+	 * null while indexing the feature table with an executor
+	 */
+	private Queue<Future<GeometryIndex>> pending;
+
+	/**
+	 * Use an in memory index for bounding box queries and counts
+	 */
+	private boolean memoryIndexEnabled = false;
+
+	/**
+	 * Maximum number of geometry indices held by the in memory index
+	 */
+	private int memoryIndexMaxEntries = DEFAULT_MEMORY_INDEX_MAX_ENTRIES;
+
+	/**
+	 * In memory index, built on first use
+	 */
+	private PackedRTree memoryIndex;
+
+	/**
+	 * True when the table has more geometry indices than the in memory index
+	 * maximum
+	 */
+	private boolean memoryIndexExceeded = false;
+
 	/**
 	 * Constructor
 	 * 
@@ -141,6 +220,160 @@ public abstract class FeatureTableCoreIndex extends BaseExtension {
 		this.progress = progress;
 	}
 
+	/**
+	 * Get the number of geometry indices inserted per batch when indexing the
+	 * feature table
+	 * 
+	 * @return batch size
+	 * @since 3.0.3
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Set the number of geometry indices inserted per batch when indexing the
+	 * feature table
+	 * 
+	 * @param batchSize
+	 *            batch size, must be at least 1
+	 * @since 3.0.3
+	 */
+	public void setBatchSize(int batchSize) {
+		if (batchSize < 1) {
+			throw new GeoPackageException(
+					"Batch size must be at least 1, size: " + batchSize);
+		}
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Is the in memory index enabled for bounding box queries and counts
+	 * 
+	 * @return true if enabled
+	 * @since 3.0.3
+	 */
+	public boolean isMemoryIndex() {
+		return memoryIndexEnabled;
+	}
+
+	/**
+	 * Set whether a read only, in memory {@link PackedRTree} is built from the
+	 * table geometry indices on first use and used for x and y bounding box
+	 * geometry id queries and counts. The in memory index reflects the
+	 * geometry indices when built and is discarded when indexed or deleted
+	 * through this feature table index.
+	 * 
+	 * @param memoryIndex
+	 *            true to enable
+	 * @since 3.0.3
+	 */
+	public void setMemoryIndex(boolean memoryIndex) {
+		this.memoryIndexEnabled = memoryIndex;
+		if (!memoryIndex) {
+			invalidateMemoryIndex();
+		}
+	}
+
+	/**
+	 * Get the maximum number of geometry indices held by the in memory index
+	 * 
+	 * @return max entries
+	 * @since 3.0.3
+	 */
+	public int getMemoryIndexMaxEntries() {
+		return memoryIndexMaxEntries;
+	}
+
+	/**
+	 * Set the maximum number of geometry indices held by the in memory index.
+	 * Tables with more geometry indices are queried from the database.
+	 * 
+	 * @param memoryIndexMaxEntries
+	 *            max entries
+	 * @since 3.0.3
+	 */
+	public void setMemoryIndexMaxEntries(int memoryIndexMaxEntries) {
+		this.memoryIndexMaxEntries = memoryIndexMaxEntries;
+		invalidateMemoryIndex();
+	}
+
+	/**
+	 * Get the in memory index, building it if enabled and not yet built
+	 * 
+	 * @return in memory index or null if disabled or the table exceeds the max
+	 *         entries
+	 * @since 3.0.3
+	 */
+	public PackedRTree getMemoryIndex() {
+		if (memoryIndexEnabled && memoryIndex == null && !memoryIndexExceeded) {
+			memoryIndex = buildMemoryIndex();
+			memoryIndexExceeded = memoryIndex == null;
+		}
+		return memoryIndex;
+	}
+
+	/**
+	 * Discard the in memory index so it is rebuilt on next use
+	 * 
+	 * @since 3.0.3
+	 */
+	public void invalidateMemoryIndex() {
+		memoryIndex = null;
+		memoryIndexExceeded = false;
+	}
+
+	/**
+	 * Build the in memory index from the table geometry indices
+	 * 
+	 * @return in memory index or null if the table exceeds the max entries
+	 */
+	private PackedRTree buildMemoryIndex() {
+
+		PackedRTree rTree = null;
+
+		try {
+			if (!geometryIndexDao.isTableExists()) {
+				rTree = new PackedRTree.Builder(0).build();
+			} else {
+				long count = count();
+				if (count <= memoryIndexMaxEntries) {
+					PackedRTree.Builder builder = new PackedRTree.Builder(
+							(int) count);
+					String sql = "SELECT " + GeometryIndex.COLUMN_GEOM_ID
+							+ ", " + GeometryIndex.COLUMN_MIN_X + ", "
+							+ GeometryIndex.COLUMN_MIN_Y + ", "
+							+ GeometryIndex.COLUMN_MAX_X + ", "
+							+ GeometryIndex.COLUMN_MAX_Y + " FROM "
+							+ GeometryIndex.TABLE_NAME + " WHERE "
+							+ GeometryIndex.COLUMN_TABLE_NAME + " = ?";
+					GenericRawResults<Object[]> results = geometryIndexDao
+							.queryRaw(sql, new DataType[] { DataType.LONG,
+									DataType.DOUBLE, DataType.DOUBLE,
+									DataType.DOUBLE, DataType.DOUBLE },
+									tableName);
+					try {
+						for (Object[] result : results) {
+							builder.add((Long) result[0], (Double) result[1],
+									(Double) result[2], (Double) result[3],
+									(Double) result[4]);
+						}
+					} finally {
+						results.close();
+					}
+					rTree = builder.build();
+				}
+			}
+		} catch (SQLException | IOException e) {
+			throw new GeoPackageException(
+					"Failed to build in memory Geometry Index. GeoPackage: "
+							+ geoPackage.getName() + ", Table Name: "
+							+ tableName + ", Column Name: " + columnName, e);
+		}
+
+		return rTree;
+	}
+
 	/**
 	 * Index the feature table if needed
 	 *
@@ -151,7 +384,50 @@ public abstract class FeatureTableCoreIndex extends BaseExtension {
 	}
 
 	/**
-	 * Index the feature table
+	 * Get the executor used to build geometry envelopes in parallel when
+	 * indexing the feature table
+	 * 
+	 * @return executor or null if envelopes are built serially
+	 * @since 3.0.3
+	 */
+	public ExecutorService getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Set the executor used to parse geometry data and build missing geometry
+	 * envelopes in parallel when indexing the feature table. Rows read through
+	 * {@link #indexTable(TableIndex, UserCoreConnection, String)} or
+	 * {@link #index(TableIndex, long, byte[])} are parsed on the executor.
+	 * Geometry indices are still inserted in batches by the indexing thread.
+	 * The executor is not shut down by the feature table index.
+	 * 
+	 * @param executor
+	 *            executor or null to build envelopes serially
+	 * @since 3.0.3
+	 */
+	public void setExecutor(ExecutorService executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Is parallel envelope building enabled
+	 * 
+	 * @return true if an executor is set
+	 * @since 3.0.3
+	 */
+	public boolean isParallel() {
+		return executor != null;
+	}
+
+	/**
+	 * Index the feature table. The table geometry indices are cleared once and
+	 * new indices are inserted in batches of {@link #getBatchSize()} without
+	 * checking for existing rows. When an executor is set, geometry envelopes
+	 * are built on the executor while the indexing thread continues reading
+	 * rows. The whole indexing run, from clearing the existing indices through
+	 * the last batch and the last indexed date, is a single transaction that
+	 * is rolled back on failure, leaving the previous index in place.
 	 *
 	 * @param force
 	 *            true to force re-indexing
@@ -160,10 +436,63 @@ public abstract class FeatureTableCoreIndex extends BaseExtension {
 	public int index(boolean force) {
 		int count = 0;
 		if (force || !isIndexed()) {
-			getOrCreateExtension();
-			TableIndex tableIndex = getOrCreateTableIndex();
-			createOrClearGeometryIndices();
+			invalidateMemoryIndex();
+			try {
+				count = TransactionManager.callInTransaction(geoPackage
+						.getDatabase().getConnectionSource(),
+						new Callable<Integer>() {
+							@Override
+							public Integer call() {
+								return indexInTransaction();
+							}
+						});
+			} catch (SQLException e) {
+				if (e.getCause() instanceof GeoPackageException) {
+					throw (GeoPackageException) e.getCause();
+				}
+				throw new GeoPackageException(
+						"Failed to index feature table. GeoPackage: "
+								+ geoPackage.getName() + ", Table Name: "
+								+ tableName, e);
+			} finally {
+				invalidateMemoryIndex();
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Index the feature table within the indexing transaction
+	 * 
+	 * @return count
+	 */
+	private int indexInTransaction() {
+		int count = 0;
+		getOrCreateExtension();
+		TableIndex tableIndex = getOrCreateTableIndex();
+		createOrClearGeometryIndices();
+		batch = new ArrayList<>(batchSize);
+		batchCount = 0;
+		if (executor != null) {
+			pending = new ArrayDeque<>(batchSize);
+		}
+		try {
 			count = indexTable(tableIndex);
+			if (progress == null || progress.isActive()
+					|| !progress.cleanupOnCancel()) {
+				flushBatch();
+				if (pending != null) {
+					count = batchCount;
+				}
+			}
+		} finally {
+			if (pending != null) {
+				for (Future<GeometryIndex> future : pending) {
+					future.cancel(true);
+				}
+				pending = null;
+			}
+			batch = null;
 		}
 		return count;
 	}
@@ -178,7 +507,79 @@ public abstract class FeatureTableCoreIndex extends BaseExtension {
 	protected abstract int indexTable(TableIndex tableIndex);
 
 	/**
-	 * Index the geometry id and geometry data
+	 * Index the feature table by querying the id and geometry columns and
+	 * indexing the results with
+	 * {@link #indexResults(TableIndex, UserCoreResult, int, int)}, then update
+	 * the last indexed date. Implementations of {@link #indexTable(TableIndex)}
+	 * may delegate to this method so geometry data is parsed and missing
+	 * envelopes built on the executor when set.
+	 * 
+	 * @param tableIndex
+	 *            table index
+	 * @param userDb
+	 *            feature table user connection
+	 * @param idColumn
+	 *            id column name
+	 * @return count
+	 * @since 3.0.3
+	 */
+	protected int indexTable(TableIndex tableIndex,
+			UserCoreConnection<?, ?, ?, ?> userDb, String idColumn) {
+		String sql = "SELECT " + CoreSQLUtils.quoteWrap(idColumn) + ", "
+				+ CoreSQLUtils.quoteWrap(columnName) + " FROM "
+				+ CoreSQLUtils.quoteWrap(tableName);
+		int count = indexResults(tableIndex, userDb.rawQuery(sql, null), 0,
+				1);
+		if (progress == null || progress.isActive()) {
+			updateLastIndexed();
+		}
+		return count;
+	}
+
+	/**
+	 * Index the query results of geometry ids and geometry data bytes through
+	 * {@link #index(TableIndex, long, byte[])}, reading rows until the
+	 * results are exhausted or the progress is cancelled. The results are
+	 * closed.
+	 * 
+	 * @param tableIndex
+	 *            table index
+	 * @param results
+	 *            query results
+	 * @param idIndex
+	 *            geometry id column index
+	 * @param geometryIndex
+	 *            geometry data column index
+	 * @return number of rows indexed, or queued for indexing when read on the
+	 *         executor
+	 * @since 3.0.3
+	 */
+	protected int indexResults(TableIndex tableIndex,
+			UserCoreResult<?, ?, ?> results, int idIndex, int geometryIndex) {
+		int count = 0;
+		try {
+			while ((progress == null || progress.isActive())
+					&& results.moveToNext()) {
+				long geomId = results.getLong(idIndex);
+				byte[] geometryBytes = results.getBlob(geometryIndex);
+				if (index(tableIndex, geomId, geometryBytes)) {
+					count++;
+				}
+				if (progress != null) {
+					progress.addProgress(1);
+				}
+			}
+		} finally {
+			results.close();
+		}
+		return count;
+	}
+
+	/**
+	 * Index the geometry id and geometry data. While indexing the feature
+	 * table, the geometry index is added to the current insert batch, with
+	 * missing envelopes built on the executor when set. Otherwise an existing
+	 * geometry index is created or updated.
 	 * 
 	 * @param tableIndex
 	 *            table index
@@ -187,7 +588,8 @@ public abstract class FeatureTableCoreIndex extends BaseExtension {
 	 * @param geomData
 	 *            geometry data
 	 * 
-	 * @return true if indexed
+	 * @return true if indexed, or queued for indexing when built on the
+	 *         executor
 	 */
 	protected boolean index(TableIndex tableIndex, long geomId,
 			GeoPackageGeometryData geomData) {
@@ -196,30 +598,67 @@ public abstract class FeatureTableCoreIndex extends BaseExtension {
 
 		if (geomData != null) {
 
-			// Get the envelope
-			GeometryEnvelope envelope = geomData.getEnvelope();
-
-			// If no envelope, build one from the geometry
-			if (envelope == null) {
-				Geometry geometry = geomData.getGeometry();
-				if (geometry != null) {
-					envelope = GeometryEnvelopeBuilder.buildEnvelope(geometry);
+			if (pending != null && geomData.getEnvelope() == null) {
+				queue(new GeometryIndexTask(tableIndex, geomId, geomData, null));
+				indexed = true;
+			} else {
+
+				// Create the new index row
+				GeometryIndex geometryIndex = createGeometryIndex(tableIndex,
+						geomId, geomData);
+				if (geometryIndex != null) {
+					if (batch != null) {
+						addToBatch(geometryIndex);
+						indexed = true;
+					} else {
+						invalidateMemoryIndex();
+						try {
+							geometryIndexDao.createOrUpdate(geometryIndex);
+							indexed = true;
+						} catch (SQLException e) {
+							throw new GeoPackageException(
+									"Failed to create or update Geometry Index. GeoPackage: "
+											+ geoPackage.getName()
+											+ ", Table Name: " + tableName
+											+ ", Geom Id: " + geomId, e);
+						}
+					}
 				}
 			}
+		}
 
-			// Create the new index row
-			if (envelope != null) {
-				GeometryIndex geometryIndex = geometryIndexDao.populate(
-						tableIndex, geomId, envelope);
-				try {
-					geometryIndexDao.createOrUpdate(geometryIndex);
-					indexed = true;
-				} catch (SQLException e) {
-					throw new GeoPackageException(
-							"Failed to create or update Geometry Index. GeoPackage: "
-									+ geoPackage.getName() + ", Table Name: "
-									+ tableName + ", Geom Id: " + geomId, e);
-				}
+		return indexed;
+	}
+
+	/**
+	 * Index the geometry id and geometry data bytes. The geometry header is
+	 * read without decoding the geometry unless an envelope must be built.
+	 * While indexing the feature table with an executor set, the bytes are
+	 * read on the executor.
+	 * 
+	 * @param tableIndex
+	 *            table index
+	 * @param geomId
+	 *            geometry id
+	 * @param geometryBytes
+	 *            geometry data bytes
+	 * @return true if indexed, or queued for indexing when read on the
+	 *         executor
+	 * @since 3.0.3
+	 */
+	protected boolean index(TableIndex tableIndex, long geomId,
+			byte[] geometryBytes) {
+
+		boolean indexed = false;
+
+		if (geometryBytes != null) {
+			if (pending != null) {
+				queue(new GeometryIndexTask(tableIndex, geomId, null,
+						geometryBytes));
+				indexed = true;
+			} else {
+				indexed = index(tableIndex, geomId, new GeoPackageGeometryData(
+						geometryBytes, true));
 			}
 		}
 
@@ -227,10 +666,209 @@ public abstract class FeatureTableCoreIndex extends BaseExtension {
 	}
 
 	/**
-	 * Update the last indexed time
+	 * Create a geometry index from the geometry data envelope, building the
+	 * envelope from the geometry when needed
+	 * 
+	 * @param tableIndex
+	 *            table index
+	 * @param geomId
+	 *            geometry id
+	 * @param geomData
+	 *            geometry data
+	 * @return geometry index or null if the geometry has no envelope
+	 */
+	private GeometryIndex createGeometryIndex(TableIndex tableIndex,
+			long geomId, GeoPackageGeometryData geomData) {
+
+		GeometryIndex geometryIndex = null;
+
+		// Get the envelope, scanning the geometry bytes when not in the header
+		GeometryEnvelope envelope = GeometryEnvelopeScanner
+				.getEnvelope(geomData);
+
+		if (envelope != null) {
+			geometryIndex = geometryIndexDao.populate(tableIndex, geomId,
+					envelope);
+		}
+
+		return geometryIndex;
+	}
+
+	/**
+	 * Task creating a geometry index from geometry data or geometry data bytes
+	 */
+	private class GeometryIndexTask implements Callable<GeometryIndex> {
+
+		/**
+		 * Table index
+		 */
+		private final TableIndex tableIndex;
+
+		/**
+		 * Geometry id
+		 */
+		private final long geomId;
+
+		/**
+		 * Geometry data
+		 */
+		private final GeoPackageGeometryData geomData;
+
+		/**
+		 * Geometry data bytes, read when no geometry data is provided
+		 */
+		private final byte[] geometryBytes;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param tableIndex
+		 *            table index
+		 * @param geomId
+		 *            geometry id
+		 * @param geomData
+		 *            geometry data
+		 * @param geometryBytes
+		 *            geometry data bytes
+		 */
+		public GeometryIndexTask(TableIndex tableIndex, long geomId,
+				GeoPackageGeometryData geomData, byte[] geometryBytes) {
+			this.tableIndex = tableIndex;
+			this.geomId = geomId;
+			this.geomData = geomData;
+			this.geometryBytes = geometryBytes;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public GeometryIndex call() {
+			GeoPackageGeometryData data = geomData;
+			if (data == null) {
+				data = new GeoPackageGeometryData(geometryBytes, true);
+			}
+			return createGeometryIndex(tableIndex, geomId, data);
+		}
+
+	}
+
+	/**
+	 * Queue the geometry index task on the executor. When the number of
+	 * pending tasks reaches the batch size, the oldest task results are added
+	 * to the insert batch, bounding the geometries held in memory.
+	 * 
+	 * @param task
+	 *            geometry index task
+	 */
+	private void queue(GeometryIndexTask task) {
+		pending.add(executor.submit(task));
+		while (pending.size() >= batchSize) {
+			addToBatch(pending.poll());
+		}
+	}
+
+	/**
+	 * Wait for the pending geometry index task and add the result to the
+	 * insert batch
+	 * 
+	 * @param future
+	 *            pending geometry index
+	 * @return number of geometry indices inserted
+	 */
+	private int addToBatch(Future<GeometryIndex> future) {
+		int inserted = 0;
+		GeometryIndex geometryIndex = null;
+		try {
+			geometryIndex = future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new GeoPackageException(
+					"Interrupted while building Geometry Index. GeoPackage: "
+							+ geoPackage.getName() + ", Table Name: "
+							+ tableName, e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof GeoPackageException) {
+				throw (GeoPackageException) cause;
+			}
+			throw new GeoPackageException(
+					"Failed to build Geometry Index. GeoPackage: "
+							+ geoPackage.getName() + ", Table Name: "
+							+ tableName, cause);
+		}
+		if (geometryIndex != null) {
+			inserted = addToBatch(geometryIndex);
+		}
+		return inserted;
+	}
+
+	/**
+	 * Add the geometry index to the insert batch, inserting the batch when
+	 * full
+	 * 
+	 * @param geometryIndex
+	 *            geometry index
+	 * @return number of geometry indices inserted
+	 */
+	private int addToBatch(GeometryIndex geometryIndex) {
+		int inserted = 0;
+		batch.add(geometryIndex);
+		batchCount++;
+		if (batch.size() >= batchSize) {
+			inserted = insertBatch();
+		}
+		return inserted;
+	}
+
+	/**
+	 * Insert the geometry indices pending in the current batch, first waiting
+	 * for geometry envelopes still being built on the executor
+	 * 
+	 * @return number of geometry indices inserted
+	 * @since 3.0.3
+	 */
+	protected int flushBatch() {
+		int inserted = 0;
+		if (pending != null) {
+			while (!pending.isEmpty()) {
+				inserted += addToBatch(pending.poll());
+			}
+		}
+		inserted += insertBatch();
+		return inserted;
+	}
+
+	/**
+	 * Insert the geometry indices in the current batch
+	 * 
+	 * @return number of geometry indices inserted
+	 */
+	private int insertBatch() {
+		int inserted = 0;
+		if (batch != null && !batch.isEmpty()) {
+			try {
+				inserted = geometryIndexDao.create(batch);
+			} catch (SQLException e) {
+				throw new GeoPackageException(
+						"Failed to insert Geometry Index batch. GeoPackage: "
+								+ geoPackage.getName() + ", Table Name: "
+								+ tableName + ", Batch Size: " + batch.size(),
+						e);
+			}
+			batch.clear();
+		}
+		return inserted;
+	}
+
+	/**
+	 * Update the last indexed time, inserting any geometry indices pending in
+	 * the current batch first
 	 */
 	protected void updateLastIndexed() {
 
+		flushBatch();
+
 		TableIndex tableIndex = new TableIndex();
 		tableIndex.setTableName(tableName);
 		tableIndex.setLastIndexed(new Date());
@@ -254,6 +892,8 @@ public abstract class FeatureTableCoreIndex extends BaseExtension {
 
 		boolean deleted = false;
 
+		invalidateMemoryIndex();
+
 		ExtensionsDao extensionsDao = geoPackage.getExtensionsDao();
 		TableIndexDao tableIndexDao = geoPackage.getTableIndexDao();
 		try {
@@ -282,6 +922,7 @@ public abstract class FeatureTableCoreIndex extends BaseExtension {
 	 */
 	public int deleteIndex(long geomId) {
 		int deleted = 0;
+		invalidateMemoryIndex();
 		GeometryIndexKey key = new GeometryIndexKey(tableName, geomId);
 		try {
 			deleted = geometryIndexDao.deleteById(key);
@@ -509,14 +1150,19 @@ public abstract class FeatureTableCoreIndex extends BaseExtension {
 	public long count() {
 		long count = 0;
 
-		QueryBuilder<GeometryIndex, GeometryIndexKey> qb = queryBuilder();
-		try {
-			count = qb.countOf();
-		} catch (SQLException e) {
-			throw new GeoPackageException(
-					"Failed to query for Geometry Index count. GeoPackage: "
-							+ geoPackage.getName() + ", Table Name: "
-							+ tableName + ", Column Name: " + columnName, e);
+		if (memoryIndex != null) {
+			count = memoryIndex.size();
+		} else {
+			QueryBuilder<GeometryIndex, GeometryIndexKey> qb = queryBuilder();
+			try {
+				count = qb.countOf();
+			} catch (SQLException e) {
+				throw new GeoPackageException(
+						"Failed to query for Geometry Index count. GeoPackage: "
+								+ geoPackage.getName() + ", Table Name: "
+								+ tableName + ", Column Name: " + columnName,
+						e);
+			}
 		}
 
 		return count;
@@ -606,19 +1252,202 @@ public abstract class FeatureTableCoreIndex extends BaseExtension {
 	public long count(GeometryEnvelope envelope) {
 		long count = 0;
 
-		QueryBuilder<GeometryIndex, GeometryIndexKey> qb = queryBuilder(envelope);
-		try {
-			count = qb.countOf();
-		} catch (SQLException e) {
-			throw new GeoPackageException(
-					"Failed to query for Geometry Index count. GeoPackage: "
-							+ geoPackage.getName() + ", Table Name: "
-							+ tableName + ", Column Name: " + columnName, e);
+		PackedRTree rTree = getMemoryIndex(envelope);
+		if (rTree != null) {
+			count = rTree.count(envelope);
+		} else {
+			QueryBuilder<GeometryIndex, GeometryIndexKey> qb = queryBuilder(envelope);
+			try {
+				count = qb.countOf();
+			} catch (SQLException e) {
+				throw new GeoPackageException(
+						"Failed to query for Geometry Index count. GeoPackage: "
+								+ geoPackage.getName() + ", Table Name: "
+								+ tableName + ", Column Name: " + columnName,
+						e);
+			}
 		}
 
 		return count;
 	}
 
+	/**
+	 * Query for geometry ids within the bounding box. The bounding box must be
+	 * in the feature table projection, as it is not projected. Uses the in
+	 * memory index when enabled.
+	 * 
+	 * @param boundingBox
+	 *            bounding box
+	 * @return geometry ids
+	 * @since 3.0.3
+	 */
+	public long[] queryIds(BoundingBox boundingBox) {
+		GeometryEnvelope envelope = boundingBox.buildEnvelope();
+		long[] ids = queryIds(envelope);
+		return ids;
+	}
+
+	/**
+	 * Query for geometry ids within the Geometry Envelope. Uses the in memory
+	 * index when enabled and the envelope has no z or m bounds.
+	 * 
+	 * @param envelope
+	 *            geometry envelope
+	 * @return geometry ids
+	 * @since 3.0.3
+	 */
+	public long[] queryIds(GeometryEnvelope envelope) {
+
+		long[] ids = null;
+
+		PackedRTree rTree = getMemoryIndex(envelope);
+		if (rTree != null) {
+			ids = rTree.query(envelope);
+		} else {
+			List<Long> results = new ArrayList<>();
+			CloseableIterator<GeometryIndex> geometryIndices = query(envelope);
+			try {
+				while (geometryIndices.hasNext()) {
+					results.add(geometryIndices.next().getGeomId());
+				}
+			} finally {
+				geometryIndices.closeQuietly();
+			}
+			ids = new long[results.size()];
+			for (int i = 0; i < ids.length; i++) {
+				ids[i] = results.get(i);
+			}
+		}
+
+		return ids;
+	}
+
+	/**
+	 * Build a where clause matching feature rows whose geometries are indexed
+	 * within the bounding box in the feature table projection, as it is not
+	 * projected. Combine with other where clauses, such as keyset pagination,
+	 * using {@link #buildWhereArgs(BoundingBox)} for the arguments.
+	 * 
+	 * @param idColumn
+	 *            feature table id column name
+	 * @param boundingBox
+	 *            bounding box
+	 * @return where clause
+	 * @since 3.0.3
+	 */
+	public String buildWhere(String idColumn, BoundingBox boundingBox) {
+		return buildWhere(idColumn, boundingBox.buildEnvelope());
+	}
+
+	/**
+	 * Build the where arguments for {@link #buildWhere(String, BoundingBox)}
+	 * 
+	 * @param boundingBox
+	 *            bounding box
+	 * @return where arguments
+	 * @since 3.0.3
+	 */
+	public String[] buildWhereArgs(BoundingBox boundingBox) {
+		return buildWhereArgs(boundingBox.buildEnvelope());
+	}
+
+	/**
+	 * Build a where clause matching feature rows whose geometries are indexed
+	 * within the Geometry Envelope. Combine with other where clauses, such as
+	 * keyset pagination, using {@link #buildWhereArgs(GeometryEnvelope)} for
+	 * the arguments.
+	 * 
+	 * @param idColumn
+	 *            feature table id column name
+	 * @param envelope
+	 *            geometry envelope
+	 * @return where clause
+	 * @since 3.0.3
+	 */
+	public String buildWhere(String idColumn, GeometryEnvelope envelope) {
+		StringBuilder where = new StringBuilder();
+		where.append(CoreSQLUtils.quoteWrap(idColumn)).append(" IN (SELECT ")
+				.append(CoreSQLUtils.quoteWrap(GeometryIndex.COLUMN_GEOM_ID))
+				.append(" FROM ")
+				.append(CoreSQLUtils.quoteWrap(GeometryIndex.TABLE_NAME))
+				.append(" WHERE ")
+				.append(CoreSQLUtils.quoteWrap(GeometryIndex.COLUMN_TABLE_NAME))
+				.append(" = ?");
+		appendRangeWhere(where, GeometryIndex.COLUMN_MIN_X,
+				GeometryIndex.COLUMN_MAX_X);
+		appendRangeWhere(where, GeometryIndex.COLUMN_MIN_Y,
+				GeometryIndex.COLUMN_MAX_Y);
+		if (envelope.hasZ()) {
+			appendRangeWhere(where, GeometryIndex.COLUMN_MIN_Z,
+					GeometryIndex.COLUMN_MAX_Z);
+		}
+		if (envelope.hasM()) {
+			appendRangeWhere(where, GeometryIndex.COLUMN_MIN_M,
+					GeometryIndex.COLUMN_MAX_M);
+		}
+		where.append(")");
+		return where.toString();
+	}
+
+	/**
+	 * Build the where arguments for
+	 * {@link #buildWhere(String, GeometryEnvelope)}
+	 * 
+	 * @param envelope
+	 *            geometry envelope
+	 * @return where arguments
+	 * @since 3.0.3
+	 */
+	public String[] buildWhereArgs(GeometryEnvelope envelope) {
+		List<String> args = new ArrayList<>();
+		args.add(tableName);
+		args.add(String.valueOf(envelope.getMaxX()));
+		args.add(String.valueOf(envelope.getMinX()));
+		args.add(String.valueOf(envelope.getMaxY()));
+		args.add(String.valueOf(envelope.getMinY()));
+		if (envelope.hasZ()) {
+			args.add(String.valueOf(envelope.getMaxZ()));
+			args.add(String.valueOf(envelope.getMinZ()));
+		}
+		if (envelope.hasM()) {
+			args.add(String.valueOf(envelope.getMaxM()));
+			args.add(String.valueOf(envelope.getMinM()));
+		}
+		return args.toArray(new String[args.size()]);
+	}
+
+	/**
+	 * Append an overlapping range condition to the where clause
+	 * 
+	 * @param where
+	 *            where clause
+	 * @param minColumn
+	 *            min column
+	 * @param maxColumn
+	 *            max column
+	 */
+	private static void appendRangeWhere(StringBuilder where, String minColumn,
+			String maxColumn) {
+		where.append(" AND ").append(CoreSQLUtils.quoteWrap(minColumn))
+				.append(" <= ? AND ").append(CoreSQLUtils.quoteWrap(maxColumn))
+				.append(" >= ?");
+	}
+
+	/**
+	 * Get the in memory index if it can answer queries for the envelope
+	 * 
+	 * @param envelope
+	 *            geometry envelope
+	 * @return in memory index or null
+	 */
+	private PackedRTree getMemoryIndex(GeometryEnvelope envelope) {
+		PackedRTree rTree = null;
+		if (!envelope.hasZ() && !envelope.hasM()) {
+			rTree = getMemoryIndex();
+		}
+		return rTree;
+	}
+
 	/**
 	 * Build a query builder to query for Geometry Index objects within the
 	 * Geometry Envelope
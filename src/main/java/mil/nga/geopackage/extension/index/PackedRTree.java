@@ -0,0 +1,595 @@
+package mil.nga.geopackage.extension.index;
+
+import java.util.Arrays;
+
+import mil.nga.geopackage.BoundingBox;
+import mil.nga.geopackage.GeoPackageException;
+import mil.nga.sf.GeometryEnvelope;
+
+/**
+ * Read only, in memory packed R-tree of geometry ids and their bounding boxes.
+ * Built with Sort-Tile-Recursive (STR) bulk loading into flat primitive
+ * arrays. Level 0 holds the geometry entries, each following level holds the
+ * nodes bounding groups of up to {@link #getNodeSize()} entries of the level
+ * below, ending with a single root node.
+ * 
+ * @author osbornb
+ * @since 3.0.3
+ */
+public class PackedRTree {
+
+	/**
+	 * Default maximum number of children per node
+	 */
+	public static final int DEFAULT_NODE_SIZE = 16;
+
+	/**
+	 * Maximum number of children per node
+	 */
+	private final int nodeSize;
+
+	/**
+	 * Number of geometry entries
+	 */
+	private final int size;
+
+	/**
+	 * Geometry ids of the level 0 entries
+	 */
+	private final long[] ids;
+
+	/**
+	 * Bounding boxes of all entries and nodes as min x, min y, max x, max y
+	 */
+	private final double[] boxes;
+
+	/**
+	 * First child position of each node, unused for level 0 entries
+	 */
+	private final int[] children;
+
+	/**
+	 * Start position of each level, with a final value of the total number of
+	 * entries and nodes
+	 */
+	private final int[] levelBounds;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param ids
+	 *            geometry ids
+	 * @param minX
+	 *            min x values
+	 * @param minY
+	 *            min y values
+	 * @param maxX
+	 *            max x values
+	 * @param maxY
+	 *            max y values
+	 * @param size
+	 *            number of geometry entries in the arrays
+	 * @param nodeSize
+	 *            maximum number of children per node, at least 2
+	 */
+	public PackedRTree(long[] ids, double[] minX, double[] minY,
+			double[] maxX, double[] maxY, int size, int nodeSize) {
+
+		if (nodeSize < 2) {
+			throw new GeoPackageException(
+					"Node size must be at least 2, size: " + nodeSize);
+		}
+
+		this.nodeSize = nodeSize;
+		this.size = size;
+
+		// Determine the number of levels and total entries and nodes
+		int levels = 1;
+		int total = size;
+		int count = size;
+		while (count > 1) {
+			count = (count + nodeSize - 1) / nodeSize;
+			total += count;
+			levels++;
+		}
+		levelBounds = new int[levels + 1];
+		this.ids = new long[size];
+		boxes = new double[total * 4];
+		children = new int[total];
+
+		// Level 0 geometry entries
+		for (int i = 0; i < size; i++) {
+			this.ids[i] = ids[i];
+			int box = i * 4;
+			boxes[box] = minX[i];
+			boxes[box + 1] = minY[i];
+			boxes[box + 2] = maxX[i];
+			boxes[box + 3] = maxY[i];
+		}
+		sortTileRecursive(0, size);
+		levelBounds[1] = size;
+
+		// Each level bounds groups of the sorted level below
+		for (int level = 1; level < levels; level++) {
+			int childStart = levelBounds[level - 1];
+			int childEnd = levelBounds[level];
+			int position = childEnd;
+			for (int child = childStart; child < childEnd; child += nodeSize) {
+				int lastChild = Math.min(child + nodeSize, childEnd);
+				double nodeMinX = Double.POSITIVE_INFINITY;
+				double nodeMinY = Double.POSITIVE_INFINITY;
+				double nodeMaxX = Double.NEGATIVE_INFINITY;
+				double nodeMaxY = Double.NEGATIVE_INFINITY;
+				for (int i = child; i < lastChild; i++) {
+					int box = i * 4;
+					nodeMinX = Math.min(nodeMinX, boxes[box]);
+					nodeMinY = Math.min(nodeMinY, boxes[box + 1]);
+					nodeMaxX = Math.max(nodeMaxX, boxes[box + 2]);
+					nodeMaxY = Math.max(nodeMaxY, boxes[box + 3]);
+				}
+				int box = position * 4;
+				boxes[box] = nodeMinX;
+				boxes[box + 1] = nodeMinY;
+				boxes[box + 2] = nodeMaxX;
+				boxes[box + 3] = nodeMaxY;
+				children[position] = child;
+				position++;
+			}
+			levelBounds[level + 1] = position;
+			sortTileRecursive(childEnd, position - childEnd);
+		}
+	}
+
+	/**
+	 * Constructor with the default node size
+	 * 
+	 * @param ids
+	 *            geometry ids
+	 * @param minX
+	 *            min x values
+	 * @param minY
+	 *            min y values
+	 * @param maxX
+	 *            max x values
+	 * @param maxY
+	 *            max y values
+	 * @param size
+	 *            number of geometry entries in the arrays
+	 */
+	public PackedRTree(long[] ids, double[] minX, double[] minY,
+			double[] maxX, double[] maxY, int size) {
+		this(ids, minX, minY, maxX, maxY, size, DEFAULT_NODE_SIZE);
+	}
+
+	/**
+	 * Get the maximum number of children per node
+	 * 
+	 * @return node size
+	 */
+	public int getNodeSize() {
+		return nodeSize;
+	}
+
+	/**
+	 * Get the number of geometry entries
+	 * 
+	 * @return size
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Get the approximate size of the tree arrays in bytes
+	 * 
+	 * @return size in bytes
+	 */
+	public long getSizeInBytes() {
+		return (ids.length * 8L) + (boxes.length * 8L)
+				+ (children.length * 4L) + (levelBounds.length * 4L);
+	}
+
+	/**
+	 * Query for the geometry ids with bounding boxes intersecting the bounding
+	 * box
+	 * 
+	 * @param boundingBox
+	 *            bounding box
+	 * @return geometry ids
+	 */
+	public long[] query(BoundingBox boundingBox) {
+		return query(boundingBox.getMinLongitude(),
+				boundingBox.getMinLatitude(), boundingBox.getMaxLongitude(),
+				boundingBox.getMaxLatitude());
+	}
+
+	/**
+	 * Query for the geometry ids with bounding boxes intersecting the envelope
+	 * x and y bounds
+	 * 
+	 * @param envelope
+	 *            geometry envelope
+	 * @return geometry ids
+	 */
+	public long[] query(GeometryEnvelope envelope) {
+		return query(envelope.getMinX(), envelope.getMinY(),
+				envelope.getMaxX(), envelope.getMaxY());
+	}
+
+	/**
+	 * Query for the geometry ids with bounding boxes intersecting the bounds
+	 * 
+	 * @param minX
+	 *            min x
+	 * @param minY
+	 *            min y
+	 * @param maxX
+	 *            max x
+	 * @param maxY
+	 *            max y
+	 * @return geometry ids
+	 */
+	public long[] query(double minX, double minY, double maxX, double maxY) {
+		long[] results = new long[16];
+		int count = 0;
+		if (size > 0) {
+			int[] stack = new int[16];
+			int stackSize = 0;
+			stack[stackSize++] = levelBounds[levelBounds.length - 2];
+			while (stackSize > 0) {
+				int position = stack[--stackSize];
+				if (intersects(position, minX, minY, maxX, maxY)) {
+					if (position < size) {
+						if (count == results.length) {
+							results = Arrays.copyOf(results, count * 2);
+						}
+						results[count++] = ids[position];
+					} else {
+						int childStart = children[position];
+						int childEnd = Math.min(childStart + nodeSize,
+								getLevelEnd(childStart));
+						int needed = stackSize + childEnd - childStart;
+						if (needed > stack.length) {
+							stack = Arrays.copyOf(stack,
+									Math.max(needed, stack.length * 2));
+						}
+						for (int child = childEnd - 1; child >= childStart; child--) {
+							stack[stackSize++] = child;
+						}
+					}
+				}
+			}
+		}
+		return Arrays.copyOf(results, count);
+	}
+
+	/**
+	 * Count the geometry entries with bounding boxes intersecting the bounding
+	 * box
+	 * 
+	 * @param boundingBox
+	 *            bounding box
+	 * @return count
+	 */
+	public long count(BoundingBox boundingBox) {
+		return count(boundingBox.getMinLongitude(),
+				boundingBox.getMinLatitude(), boundingBox.getMaxLongitude(),
+				boundingBox.getMaxLatitude());
+	}
+
+	/**
+	 * Count the geometry entries with bounding boxes intersecting the envelope
+	 * x and y bounds
+	 * 
+	 * @param envelope
+	 *            geometry envelope
+	 * @return count
+	 */
+	public long count(GeometryEnvelope envelope) {
+		return count(envelope.getMinX(), envelope.getMinY(),
+				envelope.getMaxX(), envelope.getMaxY());
+	}
+
+	/**
+	 * Count the geometry entries with bounding boxes intersecting the bounds
+	 * 
+	 * @param minX
+	 *            min x
+	 * @param minY
+	 *            min y
+	 * @param maxX
+	 *            max x
+	 * @param maxY
+	 *            max y
+	 * @return count
+	 */
+	public long count(double minX, double minY, double maxX, double maxY) {
+		long count = 0;
+		if (size > 0) {
+			int[] stack = new int[16];
+			int stackSize = 0;
+			stack[stackSize++] = levelBounds[levelBounds.length - 2];
+			while (stackSize > 0) {
+				int position = stack[--stackSize];
+				if (intersects(position, minX, minY, maxX, maxY)) {
+					if (position < size) {
+						count++;
+					} else {
+						int childStart = children[position];
+						int childEnd = Math.min(childStart + nodeSize,
+								getLevelEnd(childStart));
+						int needed = stackSize + childEnd - childStart;
+						if (needed > stack.length) {
+							stack = Arrays.copyOf(stack,
+									Math.max(needed, stack.length * 2));
+						}
+						for (int child = childStart; child < childEnd; child++) {
+							stack[stackSize++] = child;
+						}
+					}
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Determine if the entry or node bounding box at the position intersects
+	 * the bounds, including touching edges
+	 * 
+	 * @param position
+	 *            entry or node position
+	 * @param minX
+	 *            min x
+	 * @param minY
+	 *            min y
+	 * @param maxX
+	 *            max x
+	 * @param maxY
+	 *            max y
+	 * @return true if intersects
+	 */
+	private boolean intersects(int position, double minX, double minY,
+			double maxX, double maxY) {
+		int box = position * 4;
+		return boxes[box] <= maxX && boxes[box + 1] <= maxY
+				&& boxes[box + 2] >= minX && boxes[box + 3] >= minY;
+	}
+
+	/**
+	 * Get the end position of the level containing the position
+	 * 
+	 * @param position
+	 *            entry or node position
+	 * @return level end position
+	 */
+	private int getLevelEnd(int position) {
+		int level = 1;
+		while (levelBounds[level] <= position) {
+			level++;
+		}
+		return levelBounds[level];
+	}
+
+	/**
+	 * Sort the entries or nodes in the range using Sort-Tile-Recursive
+	 * ordering: sorted by center x, split into vertical slices, and each slice
+	 * sorted by center y
+	 * 
+	 * @param start
+	 *            range start position
+	 * @param count
+	 *            number of entries or nodes in the range
+	 */
+	private void sortTileRecursive(int start, int count) {
+
+		if (count <= nodeSize) {
+			return;
+		}
+
+		int[] order = new int[count];
+		double[] centersX = new double[count];
+		double[] centersY = new double[count];
+		for (int i = 0; i < count; i++) {
+			int box = (start + i) * 4;
+			order[i] = i;
+			centersX[i] = (boxes[box] + boxes[box + 2]) / 2.0;
+			centersY[i] = (boxes[box + 1] + boxes[box + 3]) / 2.0;
+		}
+
+		sort(order, centersX, 0, count - 1);
+
+		int nodes = (count + nodeSize - 1) / nodeSize;
+		int slices = (int) Math.ceil(Math.sqrt(nodes));
+		int sliceSize = slices * nodeSize;
+		for (int sliceStart = 0; sliceStart < count; sliceStart += sliceSize) {
+			int sliceEnd = Math.min(sliceStart + sliceSize, count);
+			sort(order, centersY, sliceStart, sliceEnd - 1);
+		}
+
+		// Reorder the boxes, ids, and child positions
+		double[] sortedBoxes = new double[count * 4];
+		long[] sortedIds = start < size ? new long[count] : null;
+		int[] sortedChildren = new int[count];
+		for (int i = 0; i < count; i++) {
+			int from = start + order[i];
+			System.arraycopy(boxes, from * 4, sortedBoxes, i * 4, 4);
+			if (sortedIds != null) {
+				sortedIds[i] = ids[from];
+			}
+			sortedChildren[i] = children[from];
+		}
+		System.arraycopy(sortedBoxes, 0, boxes, start * 4, count * 4);
+		if (sortedIds != null) {
+			System.arraycopy(sortedIds, 0, ids, start, count);
+		}
+		System.arraycopy(sortedChildren, 0, children, start, count);
+	}
+
+	/**
+	 * Sort the order indices within the inclusive range by their key values
+	 * 
+	 * @param order
+	 *            order indices
+	 * @param keys
+	 *            key values by index
+	 * @param low
+	 *            low range position
+	 * @param high
+	 *            high range position
+	 */
+	private static void sort(int[] order, double[] keys, int low, int high) {
+		while (high - low > 16) {
+			double pivot = keys[order[(low + high) >>> 1]];
+			int i = low;
+			int j = high;
+			while (i <= j) {
+				while (keys[order[i]] < pivot) {
+					i++;
+				}
+				while (keys[order[j]] > pivot) {
+					j--;
+				}
+				if (i <= j) {
+					int temp = order[i];
+					order[i] = order[j];
+					order[j] = temp;
+					i++;
+					j--;
+				}
+			}
+			// Recurse into the smaller side to bound the stack depth
+			if (j - low < high - i) {
+				sort(order, keys, low, j);
+				low = i;
+			} else {
+				sort(order, keys, i, high);
+				high = j;
+			}
+		}
+		for (int i = low + 1; i <= high; i++) {
+			int value = order[i];
+			double key = keys[value];
+			int j = i - 1;
+			while (j >= low && keys[order[j]] > key) {
+				order[j + 1] = order[j];
+				j--;
+			}
+			order[j + 1] = value;
+		}
+	}
+
+	/**
+	 * Packed R-tree builder collecting geometry entries
+	 */
+	public static class Builder {
+
+		/**
+		 * Geometry ids
+		 */
+		private long[] ids;
+
+		/**
+		 * Min x values
+		 */
+		private double[] minX;
+
+		/**
+		 * Min y values
+		 */
+		private double[] minY;
+
+		/**
+		 * Max x values
+		 */
+		private double[] maxX;
+
+		/**
+		 * Max y values
+		 */
+		private double[] maxY;
+
+		/**
+		 * Number of geometry entries added
+		 */
+		private int size;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param capacity
+		 *            initial capacity
+		 */
+		public Builder(int capacity) {
+			capacity = Math.max(capacity, 16);
+			ids = new long[capacity];
+			minX = new double[capacity];
+			minY = new double[capacity];
+			maxX = new double[capacity];
+			maxY = new double[capacity];
+		}
+
+		/**
+		 * Add a geometry entry
+		 * 
+		 * @param id
+		 *            geometry id
+		 * @param minX
+		 *            min x
+		 * @param minY
+		 *            min y
+		 * @param maxX
+		 *            max x
+		 * @param maxY
+		 *            max y
+		 */
+		public void add(long id, double minX, double minY, double maxX,
+				double maxY) {
+			if (size == ids.length) {
+				int capacity = size * 2;
+				ids = Arrays.copyOf(ids, capacity);
+				this.minX = Arrays.copyOf(this.minX, capacity);
+				this.minY = Arrays.copyOf(this.minY, capacity);
+				this.maxX = Arrays.copyOf(this.maxX, capacity);
+				this.maxY = Arrays.copyOf(this.maxY, capacity);
+			}
+			ids[size] = id;
+			this.minX[size] = minX;
+			this.minY[size] = minY;
+			this.maxX[size] = maxX;
+			this.maxY[size] = maxY;
+			size++;
+		}
+
+		/**
+		 * Get the number of geometry entries added
+		 * 
+		 * @return size
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * Build the packed R-tree
+		 * 
+		 * @param nodeSize
+		 *            maximum number of children per node
+		 * @return packed R-tree
+		 */
+		public PackedRTree build(int nodeSize) {
+			return new PackedRTree(ids, minX, minY, maxX, maxY, size, nodeSize);
+		}
+
+		/**
+		 * Build the packed R-tree with the default node size
+		 * 
+		 * @return packed R-tree
+		 */
+		public PackedRTree build() {
+			return build(DEFAULT_NODE_SIZE);
+		}
+
+	}
+
+}
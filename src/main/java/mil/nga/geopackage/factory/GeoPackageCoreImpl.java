@@ -2,13 +2,17 @@ package mil.nga.geopackage.factory;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import mil.nga.geopackage.BoundingBox;
 import mil.nga.geopackage.GeoPackageCore;
 import mil.nga.geopackage.GeoPackageException;
+import mil.nga.geopackage.core.GeoPackageCatalog;
 import mil.nga.geopackage.attributes.AttributesColumn;
 import mil.nga.geopackage.attributes.AttributesTable;
 import mil.nga.geopackage.core.contents.Contents;
@@ -21,7 +25,9 @@ import mil.nga.geopackage.core.srs.SpatialReferenceSystemSfSqlDao;
 import mil.nga.geopackage.core.srs.SpatialReferenceSystemSqlMm;
 import mil.nga.geopackage.core.srs.SpatialReferenceSystemSqlMmDao;
 import mil.nga.geopackage.db.GeoPackageCoreConnection;
+import mil.nga.geopackage.db.GeoPackageCoreConnectionFactory;
 import mil.nga.geopackage.db.GeoPackageTableCreator;
+import mil.nga.geopackage.db.PooledGeoPackageCoreConnection;
 import mil.nga.geopackage.extension.CrsWktExtension;
 import mil.nga.geopackage.extension.Extensions;
 import mil.nga.geopackage.extension.ExtensionsDao;
@@ -69,6 +75,7 @@ import mil.nga.geopackage.user.UserTable;
 import mil.nga.geopackage.user.UserUniqueConstraint;
 
 import com.j256.ormlite.dao.BaseDaoImpl;
+import com.j256.ormlite.dao.Dao;
 import com.j256.ormlite.dao.DaoManager;
 
 /**
@@ -103,6 +110,33 @@ public abstract class GeoPackageCoreImpl implements GeoPackageCore {
 	 */
 	protected final boolean writable;
 
+	/**
+	 * Schema catalog snapshot stamped with the invalidation generation it was
+	 * loaded at, null when not loaded or invalidated
+	 */
+	private final AtomicReference<CatalogSnapshot> catalog = new AtomicReference<>();
+
+	/**
+	 * Schema catalog invalidation generation
+	 */
+	private final AtomicLong catalogGeneration = new AtomicLong();
+
+	/**
+	 * Core table DAO observer invalidating the schema catalog on writes
+	 */
+	private final Dao.DaoObserver catalogObserver = new Dao.DaoObserver() {
+		@Override
+		public void onChange() {
+			invalidateCatalog();
+		}
+	};
+
+	/**
+	 * Core table DAOs observed by the catalog observer
+	 */
+	private final Set<Dao<?, ?>> catalogDaos = Collections
+			.newSetFromMap(new ConcurrentHashMap<Dao<?, ?>, Boolean>());
+
 	/**
 	 * Constructor
 	 *
@@ -127,11 +161,48 @@ public abstract class GeoPackageCoreImpl implements GeoPackageCore {
 		this.writable = writable;
 	}
 
+	/**
+	 * Constructor with the database as the writer of a pooled connection,
+	 * reading through up to the max number of read only connections opened by
+	 * the reader factory. The database should use write ahead logging (PRAGMA
+	 * journal_mode=WAL) for reads to run concurrently with writes.
+	 *
+	 * @param name
+	 *            name
+	 * @param path
+	 *            path
+	 * @param database
+	 *            writer database
+	 * @param readerFactory
+	 *            read only connection factory
+	 * @param maxReaders
+	 *            max read only connections
+	 * @param tableCreator
+	 *            table creator
+	 * @param writable
+	 *            true if writable
+	 * @param <C>
+	 *            connection type
+	 * @since 3.0.3
+	 */
+	protected <C extends GeoPackageCoreConnection> GeoPackageCoreImpl(
+			String name, String path, C database,
+			GeoPackageCoreConnectionFactory<C> readerFactory, int maxReaders,
+			GeoPackageTableCreator tableCreator, boolean writable) {
+		this(name, path, new PooledGeoPackageCoreConnection<C>(database,
+				readerFactory, maxReaders), tableCreator, writable);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public void close() {
+		for (Dao<?, ?> dao : catalogDaos) {
+			dao.unregisterObserver(catalogObserver);
+		}
+		catalogDaos.clear();
+		catalog.set(null);
 		database.close();
 	}
 
@@ -247,13 +318,18 @@ public abstract class GeoPackageCoreImpl implements GeoPackageCore {
 	 */
 	@Override
 	public List<String> getTables(String type) {
-		ContentsDao contentDao = getContentsDao();
+		GeoPackageCatalog catalog = getCatalog();
 		List<String> tableNames;
-		try {
-			tableNames = contentDao.getTables(type);
-		} catch (SQLException e) {
-			throw new GeoPackageException("Failed to retrieve " + type
-					+ " tables", e);
+		if (catalog.isContentsExists()) {
+			tableNames = new ArrayList<String>(catalog.getTables(type));
+		} else {
+			ContentsDao contentDao = getContentsDao();
+			try {
+				tableNames = contentDao.getTables(type);
+			} catch (SQLException e) {
+				throw new GeoPackageException("Failed to retrieve " + type
+						+ " tables", e);
+			}
 		}
 		return tableNames;
 	}
@@ -274,12 +350,17 @@ public abstract class GeoPackageCoreImpl implements GeoPackageCore {
 	 */
 	@Override
 	public List<String> getTables() {
-		ContentsDao contentDao = getContentsDao();
+		GeoPackageCatalog catalog = getCatalog();
 		List<String> tables;
-		try {
-			tables = contentDao.getTables();
-		} catch (SQLException e) {
-			throw new GeoPackageException("Failed to retrieve tables", e);
+		if (catalog.isContentsExists()) {
+			tables = new ArrayList<String>(catalog.getTables());
+		} else {
+			ContentsDao contentDao = getContentsDao();
+			try {
+				tables = contentDao.getTables();
+			} catch (SQLException e) {
+				throw new GeoPackageException("Failed to retrieve tables", e);
+			}
 		}
 		return tables;
 	}
@@ -289,8 +370,7 @@ public abstract class GeoPackageCoreImpl implements GeoPackageCore {
 	 */
 	@Override
 	public boolean isFeatureTable(String table) {
-		Set<String> featureTables = new HashSet<String>(getFeatureTables());
-		return featureTables.contains(table);
+		return isTableType(ContentsDataType.FEATURES, table);
 	}
 
 	/**
@@ -298,8 +378,7 @@ public abstract class GeoPackageCoreImpl implements GeoPackageCore {
 	 */
 	@Override
 	public boolean isTileTable(String table) {
-		Set<String> tileTables = new HashSet<String>(getTileTables());
-		return tileTables.contains(table);
+		return isTableType(ContentsDataType.TILES, table);
 	}
 
 	/**
@@ -323,8 +402,9 @@ public abstract class GeoPackageCoreImpl implements GeoPackageCore {
 	 */
 	@Override
 	public boolean isFeatureOrTileTable(String table) {
-		Set<String> tables = new HashSet<String>(getFeatureAndTileTables());
-		return tables.contains(table);
+		String tableType = getTableType(table);
+		return ContentsDataType.FEATURES.getName().equals(tableType)
+				|| ContentsDataType.TILES.getName().equals(tableType);
 	}
 
 	/**
@@ -332,8 +412,14 @@ public abstract class GeoPackageCoreImpl implements GeoPackageCore {
 	 */
 	@Override
 	public boolean isTable(String table) {
-		Set<String> tables = new HashSet<String>(getTables());
-		return tables.contains(table);
+		GeoPackageCatalog catalog = getCatalog();
+		boolean isTable;
+		if (catalog.isContentsExists()) {
+			isTable = catalog.isTable(table);
+		} else {
+			isTable = getTableContents(table) != null;
+		}
+		return isTable;
 	}
 
 	/**
@@ -341,13 +427,18 @@ public abstract class GeoPackageCoreImpl implements GeoPackageCore {
 	 */
 	@Override
 	public Contents getTableContents(String table) {
-		ContentsDao contentDao = getContentsDao();
+		GeoPackageCatalog catalog = getCatalog();
 		Contents contents = null;
-		try {
-			contents = contentDao.queryForId(table);
-		} catch (SQLException e) {
-			throw new GeoPackageException("Failed to retrieve table contents: "
-					+ table, e);
+		if (catalog.isContentsExists()) {
+			contents = catalog.getContents(table);
+		} else {
+			ContentsDao contentDao = getContentsDao();
+			try {
+				contents = contentDao.queryForId(table);
+			} catch (SQLException e) {
+				throw new GeoPackageException(
+						"Failed to retrieve table contents: " + table, e);
+			}
 		}
 		return contents;
 	}
@@ -357,10 +448,15 @@ public abstract class GeoPackageCoreImpl implements GeoPackageCore {
 	 */
 	@Override
 	public String getTableType(String table) {
+		GeoPackageCatalog catalog = getCatalog();
 		String tableType = null;
-		Contents contents = getTableContents(table);
-		if (contents != null) {
-			tableType = contents.getDataTypeString();
+		if (catalog.isContentsExists()) {
+			tableType = catalog.getTableType(table);
+		} else {
+			Contents contents = getTableContents(table);
+			if (contents != null) {
+				tableType = contents.getDataTypeString();
+			}
 		}
 		return tableType;
 	}
@@ -453,6 +549,9 @@ public abstract class GeoPackageCoreImpl implements GeoPackageCore {
 		try {
 			if (!dao.isTableExists()) {
 				created = tableCreator.createGeometryColumns() > 0;
+				if (created) {
+					invalidateCatalog();
+				}
 			}
 		} catch (SQLException e) {
 			throw new GeoPackageException("Failed to check if "
@@ -601,6 +700,9 @@ public abstract class GeoPackageCoreImpl implements GeoPackageCore {
 		try {
 			if (!dao.isTableExists()) {
 				created = tableCreator.createTileMatrixSet() > 0;
+				if (created) {
+					invalidateCatalog();
+				}
 			}
 		} catch (SQLException e) {
 			throw new GeoPackageException("Failed to check if "
@@ -630,6 +732,9 @@ public abstract class GeoPackageCoreImpl implements GeoPackageCore {
 		try {
 			if (!dao.isTableExists()) {
 				created = tableCreator.createTileMatrix() > 0;
+				if (created) {
+					invalidateCatalog();
+				}
 			}
 		} catch (SQLException e) {
 			throw new GeoPackageException("Failed to check if "
@@ -889,6 +994,9 @@ public abstract class GeoPackageCoreImpl implements GeoPackageCore {
 		try {
 			if (!dao.isTableExists()) {
 				created = tableCreator.createExtensions() > 0;
+				if (created) {
+					invalidateCatalog();
+				}
 			}
 		} catch (SQLException e) {
 			throw new GeoPackageException("Failed to check if "
@@ -977,6 +1085,81 @@ public abstract class GeoPackageCoreImpl implements GeoPackageCore {
 	@Override
 	public void dropTable(String table) {
 		tableCreator.dropTable(table);
+		invalidateCatalog();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public GeoPackageCatalog getCatalog() {
+		long generation = catalogGeneration.get();
+		CatalogSnapshot current = catalog.get();
+		GeoPackageCatalog result;
+		if (current != null && current.generation == generation) {
+			result = current.catalog;
+		} else {
+			// A snapshot installed after a concurrent invalidation keeps its
+			// older generation and is reloaded on next use
+			result = loadCatalog();
+			catalog.compareAndSet(current, new CatalogSnapshot(result,
+					generation));
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void invalidateCatalog() {
+		catalogGeneration.incrementAndGet();
+		catalog.set(null);
+	}
+
+	/**
+	 * Load a schema catalog snapshot, observing the core table DAOs for
+	 * writes before querying them
+	 * 
+	 * @return catalog snapshot
+	 * @since 3.0.3
+	 */
+	protected GeoPackageCatalog loadCatalog() {
+
+		ContentsDao contentsDao = getContentsDao();
+		GeometryColumnsDao geometryColumnsDao = getGeometryColumnsDao();
+		TileMatrixSetDao tileMatrixSetDao = getTileMatrixSetDao();
+		TileMatrixDao tileMatrixDao = getTileMatrixDao();
+		ExtensionsDao extensionsDao = getExtensionsDao();
+		SpatialReferenceSystemDao srsDao = getSpatialReferenceSystemDao();
+
+		observeCatalogDao(contentsDao);
+		observeCatalogDao(geometryColumnsDao);
+		observeCatalogDao(tileMatrixSetDao);
+		observeCatalogDao(tileMatrixDao);
+		observeCatalogDao(extensionsDao);
+		observeCatalogDao(srsDao);
+
+		GeoPackageCatalog loaded;
+		try {
+			loaded = GeoPackageCatalog.load(contentsDao, geometryColumnsDao,
+					tileMatrixSetDao, tileMatrixDao, extensionsDao, srsDao);
+		} catch (SQLException e) {
+			throw new GeoPackageException(
+					"Failed to load the schema catalog. GeoPackage: " + name, e);
+		}
+		return loaded;
+	}
+
+	/**
+	 * Register the catalog observer with the core table DAO
+	 * 
+	 * @param dao
+	 *            core table dao
+	 */
+	private void observeCatalogDao(Dao<?, ?> dao) {
+		dao.registerObserver(catalogObserver);
+		catalogDaos.add(dao);
 	}
 
 	/**
@@ -1303,4 +1486,34 @@ public abstract class GeoPackageCoreImpl implements GeoPackageCore {
 		tableCreator.createTable(table);
 	}
 
+	/**
+	 * Schema catalog snapshot and the invalidation generation it was loaded at
+	 */
+	private static class CatalogSnapshot {
+
+		/**
+		 * Catalog snapshot
+		 */
+		private final GeoPackageCatalog catalog;
+
+		/**
+		 * Invalidation generation read before loading
+		 */
+		private final long generation;
+
+		/**
+		 * Constructor
+		 *
+		 * @param catalog
+		 *            catalog snapshot
+		 * @param generation
+		 *            invalidation generation read before loading
+		 */
+		private CatalogSnapshot(GeoPackageCatalog catalog, long generation) {
+			this.catalog = catalog;
+			this.generation = generation;
+		}
+
+	}
+
 }
@@ -11,9 +11,7 @@ import mil.nga.geopackage.extension.GeometryExtensions;
 import mil.nga.sf.Geometry;
 import mil.nga.sf.GeometryEnvelope;
 import mil.nga.sf.util.ByteReader;
-import mil.nga.sf.util.ByteWriter;
 import mil.nga.sf.wkb.GeometryReader;
-import mil.nga.sf.wkb.GeometryWriter;
 
 /**
  * GeoPackage Geometry Data
@@ -63,6 +61,14 @@ public class GeoPackageGeometryData {
 	 */
 	private Geometry geometry;
 
+	/**
+	 * True when the Well-Known Binary geometry bytes have not yet been read
+	 * into the geometry
+	 * 
+	 * @since 3.0.3
+	 */
+	private boolean geometryPending = false;
+
 	/**
 	 * Constructor
 	 * 
@@ -85,6 +91,20 @@ public class GeoPackageGeometryData {
 		fromBytes(bytes);
 	}
 
+	/**
+	 * Constructor
+	 * 
+	 * @param bytes
+	 *            geometry bytes
+	 * @param lazy
+	 *            true to only read the header and envelope, deferring the
+	 *            Well-Known Binary geometry read until {@link #getGeometry()}
+	 * @since 3.0.3
+	 */
+	public GeoPackageGeometryData(byte[] bytes, boolean lazy) {
+		fromBytes(bytes, lazy);
+	}
+
 	/**
 	 * Populate the geometry data from the bytes
 	 * 
@@ -92,7 +112,24 @@ public class GeoPackageGeometryData {
 	 *            geometry bytes
 	 */
 	public void fromBytes(byte[] bytes) {
+		fromBytes(bytes, false);
+	}
+
+	/**
+	 * Populate the geometry data from the bytes. When lazy, only the header
+	 * and envelope are read and the geometry is read from the Well-Known
+	 * Binary bytes on the first call to {@link #getGeometry()}.
+	 * 
+	 * @param bytes
+	 *            geometry bytes
+	 * @param lazy
+	 *            true to defer reading the geometry
+	 * @since 3.0.3
+	 */
+	public void fromBytes(byte[] bytes, boolean lazy) {
 		this.bytes = bytes;
+		this.geometry = null;
+		this.geometryPending = false;
 
 		ByteReader reader = new ByteReader(bytes);
 
@@ -140,11 +177,31 @@ public class GeoPackageGeometryData {
 
 		// Read the Well-Known Binary Geometry if not marked as empty
 		if (!empty) {
-			geometry = GeometryReader.readGeometry(reader);
+			if (lazy) {
+				geometryPending = true;
+			} else {
+				geometry = GeometryReader.readGeometry(reader);
+			}
 		}
 
 	}
 
+	/**
+	 * Read the pending geometry from the Well-Known Binary bytes
+	 */
+	private void readPendingGeometry() {
+
+		ByteReader reader = new ByteReader(bytes);
+
+		// Skip over the already read header and envelope bytes
+		for (int i = 0; i < wkbGeometryIndex; i++) {
+			reader.readByte();
+		}
+
+		geometry = GeometryReader.readGeometry(reader);
+		geometryPending = false;
+	}
+
 	/**
 	 * Write the geometry to bytes
 	 * 
@@ -154,42 +211,29 @@ public class GeoPackageGeometryData {
 	 */
 	public byte[] toBytes() throws IOException {
 
-		ByteWriter writer = new ByteWriter();
-
-		// Write GP as the 2 byte magic number
-		writer.writeString(GeoPackageConstants.GEO_PACKAGE_GEOMETRY_MAGIC_NUMBER);
-
-		// Write a byte as the version, value of 0 = version 1
-		writer.writeByte(GeoPackageConstants.GEO_PACKAGE_GEOMETRY_VERSION_1);
-
-		// Build and write a flags byte
-		byte flags = buildFlagsByte();
-		writer.writeByte(flags);
-		writer.setByteOrder(byteOrder);
-
-		// Write the 4 byte srs id int
-		writer.writeInt(srsId);
-
-		// Write the envelope
-		writeEnvelope(writer);
+		// Write into an exactly sized array
+		bytes = new byte[GeoPackageGeometryWriter.size(this)];
+		new GeoPackageGeometryWriter().write(this, ByteBuffer.wrap(bytes));
 
 		// Save off where the WKB bytes start
-		wkbGeometryIndex = writer.size();
-
-		// Write the Well-Known Binary Geometry if not marked as empty
-		if (!empty) {
-			GeometryWriter.writeGeometry(writer, geometry);
-		}
-
-		// Get the bytes
-		bytes = writer.getBytes();
-
-		// Close the writer
-		writer.close();
+		wkbGeometryIndex = GeoPackageGeometryWriter.headerSize(this);
 
 		return bytes;
 	}
 
+	/**
+	 * Write the geometry into the buffer at its current position without
+	 * creating or caching a byte array, see {@link GeoPackageGeometryWriter}
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @return bytes written
+	 * @since 3.0.3
+	 */
+	public int toBytes(ByteBuffer buffer) {
+		return new GeoPackageGeometryWriter().write(this, buffer);
+	}
+
 	/**
 	 * Read the flags from the flag byte and return the envelope indicator
 	 * 
@@ -235,37 +279,6 @@ public class GeoPackageGeometryData {
 		return envelopeIndicator;
 	}
 
-	/**
-	 * Build the flags byte from the flag values
-	 * 
-	 * @return envelope indicator
-	 */
-	private byte buildFlagsByte() {
-
-		byte flag = 0;
-
-		// Add the binary type to bit 5, 0 for standard and 1 for extended
-		int binaryType = extended ? 1 : 0;
-		flag += (binaryType << 5);
-
-		// Add the empty geometry flag to bit 4, 0 for non-empty and 1 for
-		// empty
-		int emptyValue = empty ? 1 : 0;
-		flag += (emptyValue << 4);
-
-		// Add the envelope contents indicator code (3-bit unsigned integer to
-		// bits 3, 2, and 1)
-		int envelopeIndicator = envelope == null ? 0 : getIndicator(envelope);
-		flag += (envelopeIndicator << 1);
-
-		// Add the byte order to bit 0, 0 for Big Endian and 1 for Little
-		// Endian
-		int byteOrderValue = (byteOrder == ByteOrder.BIG_ENDIAN) ? 0 : 1;
-		flag += byteOrderValue;
-
-		return flag;
-	}
-
 	/**
 	 * Read the envelope based upon the indicator value
 	 * 
@@ -331,37 +344,6 @@ public class GeoPackageGeometryData {
 		return envelope;
 	}
 
-	/**
-	 * Write the envelope bytes
-	 * 
-	 * @param writer
-	 *            byte writer
-	 * @throws IOException
-	 */
-	private void writeEnvelope(ByteWriter writer) throws IOException {
-
-		if (envelope != null) {
-
-			// Write x and y values
-			writer.writeDouble(envelope.getMinX());
-			writer.writeDouble(envelope.getMaxX());
-			writer.writeDouble(envelope.getMinY());
-			writer.writeDouble(envelope.getMaxY());
-
-			// Write z values
-			if (envelope.hasZ()) {
-				writer.writeDouble(envelope.getMinZ());
-				writer.writeDouble(envelope.getMaxZ());
-			}
-
-			// Write m values
-			if (envelope.hasM()) {
-				writer.writeDouble(envelope.getMinM());
-				writer.writeDouble(envelope.getMaxM());
-			}
-		}
-	}
-
 	/**
 	 * Is the geometry extended
 	 * 
@@ -408,14 +390,30 @@ public class GeoPackageGeometryData {
 	}
 
 	/**
-	 * Get the geometry
+	 * Get the geometry, reading it from the Well-Known Binary bytes first if
+	 * lazily populated
 	 * 
 	 * @return geometry
 	 */
 	public Geometry getGeometry() {
+		if (geometryPending) {
+			readPendingGeometry();
+		}
 		return geometry;
 	}
 
+	/**
+	 * Determine if the geometry has been read, or was never required to be
+	 * read. Returns false when lazily populated and {@link #getGeometry()} has
+	 * not yet been called.
+	 * 
+	 * @return true if the geometry is available without reading bytes
+	 * @since 3.0.3
+	 */
+	public boolean isGeometryRead() {
+		return !geometryPending;
+	}
+
 	/**
 	 * Set the extended flag
 	 * 
@@ -475,6 +473,7 @@ public class GeoPackageGeometryData {
 	 */
 	public void setGeometry(Geometry geometry) {
 		this.geometry = geometry;
+		geometryPending = false;
 		empty = geometry == null;
 		if (geometry != null) {
 			extended = GeometryExtensions.isNonStandard(geometry
@@ -525,7 +524,9 @@ public class GeoPackageGeometryData {
 	}
 
 	/**
-	 * Get the Well-Known Binary Geometry bytes already ordered in a Byte Buffer
+	 * Get the Well-Known Binary Geometry bytes already ordered in a Byte
+	 * Buffer. The buffer is backed by the geometry bytes without copying,
+	 * positioned at the {@link #getWkbGeometryIndex()}.
 	 * 
 	 * @return byte buffer
 	 */
@@ -534,6 +535,34 @@ public class GeoPackageGeometryData {
 				bytes.length - wkbGeometryIndex).order(byteOrder);
 	}
 
+	/**
+	 * Read the Well-Known Binary geometry bytes into a packed coordinate
+	 * geometry without building the geometry object model. Combine with the
+	 * lazy constructor to read only the header and the packed geometry. When
+	 * the geometry has not been written to bytes, it is packed from the
+	 * geometry.
+	 * 
+	 * @return packed geometry, null if empty
+	 * @since 3.0.3
+	 */
+	public PackedGeometry getPackedGeometry() {
+		PackedGeometry packedGeometry = null;
+		if (!empty) {
+			if (bytes != null) {
+				packedGeometry = PackedGeometry.read(getWkbByteBuffer());
+			} else {
+				ByteBuffer buffer = ByteBuffer.allocate(
+						GeoPackageGeometryWriter.size(geometry)).order(
+						byteOrder);
+				new GeoPackageGeometryWriter().write(geometry, srsId, buffer);
+				buffer.position(buffer.capacity()
+						- GeoPackageGeometryWriter.wkbSize(geometry));
+				packedGeometry = PackedGeometry.read(buffer);
+			}
+		}
+		return packedGeometry;
+	}
+
 	/**
 	 * Return the byte index where the Well-Known Binary bytes start
 	 * 
@@ -0,0 +1,742 @@
+package mil.nga.geopackage.geom;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+
+import mil.nga.geopackage.GeoPackageConstants;
+import mil.nga.geopackage.GeoPackageException;
+import mil.nga.sf.CompoundCurve;
+import mil.nga.sf.CurvePolygon;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryCollection;
+import mil.nga.sf.GeometryEnvelope;
+import mil.nga.sf.LineString;
+import mil.nga.sf.Point;
+import mil.nga.sf.Polygon;
+import mil.nga.sf.PolyhedralSurface;
+import mil.nga.sf.wkb.GeometryCodes;
+
+/**
+ * GeoPackage Geometry Data writer that encodes directly into a caller supplied
+ * heap or direct {@link ByteBuffer}. The exact encoded size is computed from
+ * the geometry up front, no intermediate byte arrays are created, and when
+ * writing a geometry the envelope is computed while the Well-Known Binary is
+ * written and back filled into the header. A writer instance holds only the
+ * envelope bounds of the current write and may be reused, but is not thread
+ * safe.
+ * 
+ * @author osbornb
+ * @since 3.0.3
+ */
+public class GeoPackageGeometryWriter {
+
+	/**
+	 * Magic number, version, and flags byte count
+	 */
+	private static final int HEADER_PREFIX_BYTES = 4;
+
+	/**
+	 * Header byte count without an envelope
+	 */
+	private static final int HEADER_BYTES = HEADER_PREFIX_BYTES + 4;
+
+	/**
+	 * Well-Known Binary byte order and geometry type byte count
+	 */
+	private static final int WKB_HEADER_BYTES = 5;
+
+	/**
+	 * Min x of the written points
+	 */
+	private double minX;
+
+	/**
+	 * Max x of the written points
+	 */
+	private double maxX;
+
+	/**
+	 * Min y of the written points
+	 */
+	private double minY;
+
+	/**
+	 * Max y of the written points
+	 */
+	private double maxY;
+
+	/**
+	 * Min z of the written points
+	 */
+	private double minZ;
+
+	/**
+	 * Max z of the written points
+	 */
+	private double maxZ;
+
+	/**
+	 * Min m of the written points
+	 */
+	private double minM;
+
+	/**
+	 * Max m of the written points
+	 */
+	private double maxM;
+
+	/**
+	 * Get the exact encoded size of the geometry data, matching
+	 * {@link GeoPackageGeometryData#toBytes()}
+	 * 
+	 * @param geometryData
+	 *            geometry data
+	 * @return byte count
+	 */
+	public static int size(GeoPackageGeometryData geometryData) {
+		int size = headerSize(geometryData);
+		if (!geometryData.isEmpty()) {
+			size += wkbSize(geometryData.getGeometry());
+		}
+		return size;
+	}
+
+	/**
+	 * Get the header size of the geometry data, which is the index where the
+	 * Well-Known Binary geometry starts
+	 * 
+	 * @param geometryData
+	 *            geometry data
+	 * @return byte count
+	 */
+	public static int headerSize(GeoPackageGeometryData geometryData) {
+		return HEADER_BYTES + envelopeSize(geometryData.getEnvelope());
+	}
+
+	/**
+	 * Get the exact encoded size of the geometry written with a computed
+	 * envelope by {@link #write(Geometry, int, ByteBuffer)}
+	 * 
+	 * @param geometry
+	 *            geometry, null for an empty geometry
+	 * @return byte count
+	 */
+	public static int size(Geometry geometry) {
+		int size = HEADER_BYTES;
+		if (geometry != null) {
+			if (hasPoints(geometry)) {
+				size += envelopeSize(geometry.hasZ(), geometry.hasM());
+			}
+			size += wkbSize(geometry);
+		}
+		return size;
+	}
+
+	/**
+	 * Get the exact encoded size of the packed geometry written by
+	 * {@link #write(PackedGeometry, int, ByteBuffer)}
+	 * 
+	 * @param packedGeometry
+	 *            packed geometry, null for an empty geometry
+	 * @return byte count
+	 */
+	public static int size(PackedGeometry packedGeometry) {
+		int size = HEADER_BYTES;
+		if (packedGeometry != null) {
+			if (packedGeometry.numVertices() > 0) {
+				size += envelopeSize(packedGeometry.hasZ(),
+						packedGeometry.hasM());
+			}
+			size += packedGeometry.wkbSize();
+		}
+		return size;
+	}
+
+	/**
+	 * Get the exact Well-Known Binary size of the geometry
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @return byte count
+	 */
+	public static int wkbSize(Geometry geometry) {
+
+		int size = WKB_HEADER_BYTES;
+
+		switch (geometry.getGeometryType()) {
+		case POINT:
+			size += pointSize(geometry);
+			break;
+		case LINESTRING:
+		case CIRCULARSTRING:
+			size += lineStringSize((LineString) geometry);
+			break;
+		case POLYGON:
+		case TRIANGLE:
+			size += 4;
+			for (LineString ring : ((Polygon) geometry).getRings()) {
+				size += lineStringSize(ring);
+			}
+			break;
+		case MULTIPOINT:
+		case MULTILINESTRING:
+		case MULTIPOLYGON:
+		case GEOMETRYCOLLECTION:
+		case MULTICURVE:
+		case MULTISURFACE:
+			size += geometriesSize(((GeometryCollection<?>) geometry)
+					.getGeometries());
+			break;
+		case COMPOUNDCURVE:
+			size += geometriesSize(((CompoundCurve) geometry).getLineStrings());
+			break;
+		case CURVEPOLYGON:
+			size += geometriesSize(((CurvePolygon<?>) geometry).getRings());
+			break;
+		case POLYHEDRALSURFACE:
+		case TIN:
+			size += geometriesSize(((PolyhedralSurface) geometry)
+					.getPolygons());
+			break;
+		default:
+			throw new GeoPackageException("Unsupported Geometry Type: "
+					+ geometry.getGeometryType());
+		}
+
+		return size;
+	}
+
+	/**
+	 * Write the geometry data into the buffer at its current position,
+	 * producing the same bytes as {@link GeoPackageGeometryData#toBytes()}
+	 * without caching them on the geometry data. The buffer position is
+	 * advanced and its byte order is restored.
+	 * 
+	 * @param geometryData
+	 *            geometry data
+	 * @param buffer
+	 *            byte buffer
+	 * @return bytes written
+	 */
+	public int write(GeoPackageGeometryData geometryData, ByteBuffer buffer) {
+
+		int size = size(geometryData);
+		verifyRemaining(buffer, size);
+
+		ByteOrder bufferOrder = buffer.order();
+		buffer.order(geometryData.getByteOrder());
+		try {
+
+			GeometryEnvelope envelope = geometryData.getEnvelope();
+			writeHeader(buffer, geometryData.isExtended(),
+					geometryData.isEmpty(),
+					envelope == null ? 0 : GeoPackageGeometryData
+							.getIndicator(envelope), geometryData.getSrsId());
+
+			if (envelope != null) {
+				writeEnvelope(buffer, envelope);
+			}
+
+			if (!geometryData.isEmpty()) {
+				resetBounds();
+				writeGeometry(buffer, geometryData.getGeometry());
+			}
+
+		} finally {
+			buffer.order(bufferOrder);
+		}
+
+		return size;
+	}
+
+	/**
+	 * Write the geometry as standard GeoPackage Geometry Data into the buffer
+	 * at its current position using the byte order of the buffer. The
+	 * envelope, including z and m values when the geometry has them, is
+	 * computed while writing. Geometries without points are written without
+	 * an envelope and a null geometry is written as empty. The buffer position
+	 * is advanced.
+	 * 
+	 * @param geometry
+	 *            geometry, null for an empty geometry
+	 * @param srsId
+	 *            spatial reference system id
+	 * @param buffer
+	 *            byte buffer
+	 * @return bytes written
+	 */
+	public int write(Geometry geometry, int srsId, ByteBuffer buffer) {
+
+		int size = size(geometry);
+		verifyRemaining(buffer, size);
+
+		boolean envelope = geometry != null && hasPoints(geometry);
+		boolean hasZ = envelope && geometry.hasZ();
+		boolean hasM = envelope && geometry.hasM();
+		int indicator = 0;
+		if (envelope) {
+			indicator = 1 + (hasZ ? 1 : 0) + (hasM ? 2 : 0);
+		}
+
+		writeHeader(buffer, false, geometry == null, indicator, srsId);
+
+		if (geometry != null) {
+
+			// Reserve the envelope, back filled once the points are written
+			int envelopeIndex = buffer.position();
+			if (envelope) {
+				buffer.position(envelopeIndex + envelopeSize(hasZ, hasM));
+			}
+
+			resetBounds();
+			writeGeometry(buffer, geometry);
+
+			if (envelope) {
+				int index = writeBounds(buffer, envelopeIndex, minX, maxX);
+				index = writeBounds(buffer, index, minY, maxY);
+				if (hasZ) {
+					index = writeBounds(buffer, index, minZ, maxZ);
+				}
+				if (hasM) {
+					writeBounds(buffer, index, minM, maxM);
+				}
+			}
+		}
+
+		return size;
+	}
+
+	/**
+	 * Write the packed geometry as standard GeoPackage Geometry Data with its
+	 * envelope into the buffer at its current position using the byte order
+	 * of the buffer. The buffer position is advanced.
+	 * 
+	 * @param packedGeometry
+	 *            packed geometry, null for an empty geometry
+	 * @param srsId
+	 *            spatial reference system id
+	 * @param buffer
+	 *            byte buffer
+	 * @return bytes written
+	 */
+	public int write(PackedGeometry packedGeometry, int srsId,
+			ByteBuffer buffer) {
+
+		int size = size(packedGeometry);
+		verifyRemaining(buffer, size);
+
+		GeometryEnvelope envelope = null;
+		if (packedGeometry != null) {
+			envelope = packedGeometry.getEnvelope();
+		}
+
+		writeHeader(buffer, false, packedGeometry == null,
+				envelope == null ? 0 : GeoPackageGeometryData
+						.getIndicator(envelope), srsId);
+
+		if (envelope != null) {
+			writeEnvelope(buffer, envelope);
+		}
+
+		if (packedGeometry != null) {
+			packedGeometry.writeWkb(buffer);
+		}
+
+		return size;
+	}
+
+	/**
+	 * Verify the buffer has room for the encoded bytes
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @param size
+	 *            encoded byte count
+	 */
+	private static void verifyRemaining(ByteBuffer buffer, int size) {
+		if (buffer.remaining() < size) {
+			throw new GeoPackageException(
+					"Insufficient buffer space for GeoPackage Geometry Data. Required: "
+							+ size + ", Remaining: " + buffer.remaining());
+		}
+	}
+
+	/**
+	 * Write the magic number, version, flags, and srs id
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @param extended
+	 *            extended geometry
+	 * @param empty
+	 *            empty geometry
+	 * @param envelopeIndicator
+	 *            envelope indicator
+	 * @param srsId
+	 *            srs id
+	 */
+	private static void writeHeader(ByteBuffer buffer, boolean extended,
+			boolean empty, int envelopeIndicator, int srsId) {
+
+		String magic = GeoPackageConstants.GEO_PACKAGE_GEOMETRY_MAGIC_NUMBER;
+		buffer.put((byte) magic.charAt(0));
+		buffer.put((byte) magic.charAt(1));
+		buffer.put(GeoPackageConstants.GEO_PACKAGE_GEOMETRY_VERSION_1);
+
+		int flags = 0;
+		if (extended) {
+			flags |= 1 << 5;
+		}
+		if (empty) {
+			flags |= 1 << 4;
+		}
+		flags |= envelopeIndicator << 1;
+		if (buffer.order() == ByteOrder.LITTLE_ENDIAN) {
+			flags |= 1;
+		}
+		buffer.put((byte) flags);
+
+		buffer.putInt(srsId);
+	}
+
+	/**
+	 * Write the envelope values
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @param envelope
+	 *            envelope
+	 */
+	private static void writeEnvelope(ByteBuffer buffer,
+			GeometryEnvelope envelope) {
+		buffer.putDouble(envelope.getMinX());
+		buffer.putDouble(envelope.getMaxX());
+		buffer.putDouble(envelope.getMinY());
+		buffer.putDouble(envelope.getMaxY());
+		if (envelope.hasZ()) {
+			buffer.putDouble(envelope.getMinZ());
+			buffer.putDouble(envelope.getMaxZ());
+		}
+		if (envelope.hasM()) {
+			buffer.putDouble(envelope.getMinM());
+			buffer.putDouble(envelope.getMaxM());
+		}
+	}
+
+	/**
+	 * Write the Well-Known Binary geometry, updating the envelope bounds
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @param geometry
+	 *            geometry
+	 */
+	private void writeGeometry(ByteBuffer buffer, Geometry geometry) {
+
+		buffer.put((byte) (buffer.order() == ByteOrder.BIG_ENDIAN ? 0 : 1));
+		buffer.putInt(GeometryCodes.getCode(geometry));
+
+		switch (geometry.getGeometryType()) {
+		case POINT:
+			writePoint(buffer, (Point) geometry);
+			break;
+		case LINESTRING:
+		case CIRCULARSTRING:
+			writeLineString(buffer, (LineString) geometry);
+			break;
+		case POLYGON:
+		case TRIANGLE:
+			List<LineString> rings = ((Polygon) geometry).getRings();
+			buffer.putInt(rings.size());
+			for (int i = 0; i < rings.size(); i++) {
+				writeLineString(buffer, rings.get(i));
+			}
+			break;
+		case MULTIPOINT:
+		case MULTILINESTRING:
+		case MULTIPOLYGON:
+		case GEOMETRYCOLLECTION:
+		case MULTICURVE:
+		case MULTISURFACE:
+			writeGeometries(buffer,
+					((GeometryCollection<?>) geometry).getGeometries());
+			break;
+		case COMPOUNDCURVE:
+			writeGeometries(buffer, ((CompoundCurve) geometry).getLineStrings());
+			break;
+		case CURVEPOLYGON:
+			writeGeometries(buffer, ((CurvePolygon<?>) geometry).getRings());
+			break;
+		case POLYHEDRALSURFACE:
+		case TIN:
+			writeGeometries(buffer,
+					((PolyhedralSurface) geometry).getPolygons());
+			break;
+		default:
+			throw new GeoPackageException("Unsupported Geometry Type: "
+					+ geometry.getGeometryType());
+		}
+	}
+
+	/**
+	 * Write the geometry count followed by each geometry
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @param geometries
+	 *            geometries
+	 */
+	private void writeGeometries(ByteBuffer buffer,
+			List<? extends Geometry> geometries) {
+		buffer.putInt(geometries.size());
+		for (int i = 0; i < geometries.size(); i++) {
+			writeGeometry(buffer, geometries.get(i));
+		}
+	}
+
+	/**
+	 * Write the point count followed by the point coordinates
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @param lineString
+	 *            line string
+	 */
+	private void writeLineString(ByteBuffer buffer, LineString lineString) {
+		List<Point> points = lineString.getPoints();
+		buffer.putInt(points.size());
+		for (int i = 0; i < points.size(); i++) {
+			writePoint(buffer, points.get(i));
+		}
+	}
+
+	/**
+	 * Write the point coordinates, updating the envelope bounds. NaN
+	 * coordinates, as used for empty points, are ignored by the bounds.
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @param point
+	 *            point
+	 */
+	private void writePoint(ByteBuffer buffer, Point point) {
+
+		double x = point.getX();
+		double y = point.getY();
+		buffer.putDouble(x);
+		buffer.putDouble(y);
+		if (x < minX) {
+			minX = x;
+		}
+		if (x > maxX) {
+			maxX = x;
+		}
+		if (y < minY) {
+			minY = y;
+		}
+		if (y > maxY) {
+			maxY = y;
+		}
+
+		if (point.hasZ()) {
+			double z = point.getZ();
+			buffer.putDouble(z);
+			if (z < minZ) {
+				minZ = z;
+			}
+			if (z > maxZ) {
+				maxZ = z;
+			}
+		}
+
+		if (point.hasM()) {
+			double m = point.getM();
+			buffer.putDouble(m);
+			if (m < minM) {
+				minM = m;
+			}
+			if (m > maxM) {
+				maxM = m;
+			}
+		}
+	}
+
+	/**
+	 * Write the min and max bounds of a dimension at the buffer index, as NaN
+	 * when every coordinate of the dimension was NaN
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @param index
+	 *            buffer index
+	 * @param min
+	 *            min bound
+	 * @param max
+	 *            max bound
+	 * @return buffer index after the bounds
+	 */
+	private static int writeBounds(ByteBuffer buffer, int index, double min,
+			double max) {
+		if (min > max) {
+			min = Double.NaN;
+			max = Double.NaN;
+		}
+		buffer.putDouble(index, min);
+		buffer.putDouble(index + 8, max);
+		return index + 16;
+	}
+
+	/**
+	 * Reset the envelope bounds
+	 */
+	private void resetBounds() {
+		minX = Double.POSITIVE_INFINITY;
+		maxX = Double.NEGATIVE_INFINITY;
+		minY = Double.POSITIVE_INFINITY;
+		maxY = Double.NEGATIVE_INFINITY;
+		minZ = Double.POSITIVE_INFINITY;
+		maxZ = Double.NEGATIVE_INFINITY;
+		minM = Double.POSITIVE_INFINITY;
+		maxM = Double.NEGATIVE_INFINITY;
+	}
+
+	/**
+	 * Get the envelope byte count
+	 * 
+	 * @param envelope
+	 *            envelope or null
+	 * @return byte count
+	 */
+	private static int envelopeSize(GeometryEnvelope envelope) {
+		int size = 0;
+		if (envelope != null) {
+			size = envelopeSize(envelope.hasZ(), envelope.hasM());
+		}
+		return size;
+	}
+
+	/**
+	 * Get the envelope byte count
+	 * 
+	 * @param hasZ
+	 *            has z values
+	 * @param hasM
+	 *            has m values
+	 * @return byte count
+	 */
+	private static int envelopeSize(boolean hasZ, boolean hasM) {
+		return 32 + (hasZ ? 16 : 0) + (hasM ? 16 : 0);
+	}
+
+	/**
+	 * Get the point coordinates byte count
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @return byte count
+	 */
+	private static int pointSize(Geometry geometry) {
+		return 16 + (geometry.hasZ() ? 8 : 0) + (geometry.hasM() ? 8 : 0);
+	}
+
+	/**
+	 * Get the line string point count and coordinates byte count. Each point
+	 * is sized by its own z and m flags, as it is written.
+	 * 
+	 * @param lineString
+	 *            line string
+	 * @return byte count
+	 */
+	private static int lineStringSize(LineString lineString) {
+		List<Point> points = lineString.getPoints();
+		int size = 4;
+		for (int i = 0; i < points.size(); i++) {
+			size += pointSize(points.get(i));
+		}
+		return size;
+	}
+
+	/**
+	 * Get the geometry count and geometries byte count
+	 * 
+	 * @param geometries
+	 *            geometries
+	 * @return byte count
+	 */
+	private static int geometriesSize(List<? extends Geometry> geometries) {
+		int size = 4;
+		for (int i = 0; i < geometries.size(); i++) {
+			size += wkbSize(geometries.get(i));
+		}
+		return size;
+	}
+
+	/**
+	 * Determine if the geometry contains at least one point
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @return true if has points
+	 */
+	private static boolean hasPoints(Geometry geometry) {
+
+		boolean hasPoints = false;
+
+		switch (geometry.getGeometryType()) {
+		case POINT:
+			hasPoints = true;
+			break;
+		case LINESTRING:
+		case CIRCULARSTRING:
+			hasPoints = !((LineString) geometry).getPoints().isEmpty();
+			break;
+		case POLYGON:
+		case TRIANGLE:
+			hasPoints = anyHasPoints(((Polygon) geometry).getRings());
+			break;
+		case MULTIPOINT:
+		case MULTILINESTRING:
+		case MULTIPOLYGON:
+		case GEOMETRYCOLLECTION:
+		case MULTICURVE:
+		case MULTISURFACE:
+			hasPoints = anyHasPoints(((GeometryCollection<?>) geometry)
+					.getGeometries());
+			break;
+		case COMPOUNDCURVE:
+			hasPoints = anyHasPoints(((CompoundCurve) geometry)
+					.getLineStrings());
+			break;
+		case CURVEPOLYGON:
+			hasPoints = anyHasPoints(((CurvePolygon<?>) geometry).getRings());
+			break;
+		case POLYHEDRALSURFACE:
+		case TIN:
+			hasPoints = anyHasPoints(((PolyhedralSurface) geometry)
+					.getPolygons());
+			break;
+		default:
+			throw new GeoPackageException("Unsupported Geometry Type: "
+					+ geometry.getGeometryType());
+		}
+
+		return hasPoints;
+	}
+
+	/**
+	 * Determine if any of the geometries contain at least one point
+	 * 
+	 * @param geometries
+	 *            geometries
+	 * @return true if has points
+	 */
+	private static boolean anyHasPoints(List<? extends Geometry> geometries) {
+		boolean hasPoints = false;
+		for (int i = 0; !hasPoints && i < geometries.size(); i++) {
+			hasPoints = hasPoints(geometries.get(i));
+		}
+		return hasPoints;
+	}
+
+}
@@ -0,0 +1,204 @@
+package mil.nga.geopackage.geom;
+
+import mil.nga.geopackage.GeoPackageConstants;
+import mil.nga.geopackage.GeoPackageException;
+import mil.nga.geopackage.features.columns.GeometryColumns;
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.wkb.GeometryCodes;
+
+/**
+ * Reads point coordinates straight from GeoPackage Geometry Data bytes. The
+ * header is validated and the x, y, z, and m doubles are decoded at their
+ * fixed offsets following the envelope, without creating geometry data or
+ * geometry objects. Intended for feature tables whose geometry columns are
+ * of the {@link GeometryType#POINT} type.
+ * 
+ * @author osbornb
+ * @since 3.0.3
+ */
+public class GeoPackagePointReader {
+
+	/**
+	 * Header byte count without an envelope
+	 */
+	private static final int HEADER_BYTES = 8;
+
+	/**
+	 * Determine if the geometry columns are of the point type and can be read
+	 * by this reader
+	 * 
+	 * @param geometryColumns
+	 *            geometry columns
+	 * @return true if point geometries
+	 */
+	public static boolean isSupported(GeometryColumns geometryColumns) {
+		return geometryColumns.getGeometryType() == GeometryType.POINT;
+	}
+
+	/**
+	 * Read the point coordinates from the geometry data bytes
+	 * 
+	 * @param bytes
+	 *            GeoPackage Geometry Data bytes
+	 * @param coordinates
+	 *            array of at least 4 values populated with x, y, z, and m,
+	 *            with NaN for a missing z or m
+	 * @return true if read, false if the geometry is null or empty
+	 * @throws GeoPackageException
+	 *             upon an invalid header or bytes too short for the header,
+	 *             envelope, and point
+	 */
+	public static boolean read(byte[] bytes, double[] coordinates) {
+
+		boolean read = false;
+
+		if (bytes != null) {
+
+			if (bytes.length < HEADER_BYTES
+					|| bytes[0] != GeoPackageConstants.GEO_PACKAGE_GEOMETRY_MAGIC_NUMBER
+							.charAt(0)
+					|| bytes[1] != GeoPackageConstants.GEO_PACKAGE_GEOMETRY_MAGIC_NUMBER
+							.charAt(1)
+					|| bytes[2] != GeoPackageConstants.GEO_PACKAGE_GEOMETRY_VERSION_1) {
+				throw new GeoPackageException(
+						"Unexpected GeoPackage Geometry header");
+			}
+
+			int flags = bytes[3];
+			if ((flags & 0xC0) != 0) {
+				throw new GeoPackageException(
+						"Unexpected GeoPackage Geometry flags. Flag bit 7 and 6 should both be 0");
+			}
+
+			boolean empty = ((flags >> 4) & 1) == 1;
+			if (!empty) {
+
+				int envelopeIndicator = (flags >> 1) & 7;
+				int index = HEADER_BYTES + envelopeSize(envelopeIndicator);
+				verifyLength(bytes, index + 5);
+
+				boolean bigEndian = bytes[index] == 0;
+				int code = (int) readBits(bytes, index + 1, 4, bigEndian);
+				if (GeometryCodes.getGeometryType(code) != GeometryType.POINT) {
+					throw new GeoPackageException(
+							"Unexpected geometry type for point reader: "
+									+ GeometryCodes.getGeometryType(code));
+				}
+				index += 5;
+				verifyLength(bytes, index + 16
+						+ (GeometryCodes.hasZ(code) ? 8 : 0)
+						+ (GeometryCodes.hasM(code) ? 8 : 0));
+
+				coordinates[0] = readDouble(bytes, index, bigEndian);
+				coordinates[1] = readDouble(bytes, index + 8, bigEndian);
+				index += 16;
+				if (GeometryCodes.hasZ(code)) {
+					coordinates[2] = readDouble(bytes, index, bigEndian);
+					index += 8;
+				} else {
+					coordinates[2] = Double.NaN;
+				}
+				if (GeometryCodes.hasM(code)) {
+					coordinates[3] = readDouble(bytes, index, bigEndian);
+				} else {
+					coordinates[3] = Double.NaN;
+				}
+
+				read = true;
+			}
+		}
+
+		return read;
+	}
+
+	/**
+	 * Verify the bytes contain at least the required byte count
+	 * 
+	 * @param bytes
+	 *            bytes
+	 * @param required
+	 *            required byte count
+	 */
+	private static void verifyLength(byte[] bytes, int required) {
+		if (bytes.length < required) {
+			throw new GeoPackageException(
+					"Truncated GeoPackage Geometry point. Expected at least "
+							+ required + " bytes, Actual: " + bytes.length);
+		}
+	}
+
+	/**
+	 * Get the envelope byte count for the indicator
+	 * 
+	 * @param envelopeIndicator
+	 *            envelope indicator
+	 * @return byte count
+	 */
+	private static int envelopeSize(int envelopeIndicator) {
+		int size;
+		switch (envelopeIndicator) {
+		case 0:
+			size = 0;
+			break;
+		case 1:
+			size = 32;
+			break;
+		case 2:
+		case 3:
+			size = 48;
+			break;
+		case 4:
+			size = 64;
+			break;
+		default:
+			throw new GeoPackageException(
+					"Unexpected GeoPackage Geometry flags. Envelope contents indicator must be between 0 and 4. Actual: "
+							+ envelopeIndicator);
+		}
+		return size;
+	}
+
+	/**
+	 * Read a double
+	 * 
+	 * @param bytes
+	 *            bytes
+	 * @param index
+	 *            start index
+	 * @param bigEndian
+	 *            true if big endian
+	 * @return double value
+	 */
+	private static double readDouble(byte[] bytes, int index, boolean bigEndian) {
+		return Double.longBitsToDouble(readBits(bytes, index, 8, bigEndian));
+	}
+
+	/**
+	 * Read the bits of a multi byte value
+	 * 
+	 * @param bytes
+	 *            bytes
+	 * @param index
+	 *            start index
+	 * @param count
+	 *            byte count
+	 * @param bigEndian
+	 *            true if big endian
+	 * @return bits
+	 */
+	private static long readBits(byte[] bytes, int index, int count,
+			boolean bigEndian) {
+		long bits = 0;
+		if (bigEndian) {
+			for (int i = 0; i < count; i++) {
+				bits = (bits << 8) | (bytes[index + i] & 0xFF);
+			}
+		} else {
+			for (int i = count - 1; i >= 0; i--) {
+				bits = (bits << 8) | (bytes[index + i] & 0xFF);
+			}
+		}
+		return bits;
+	}
+
+}
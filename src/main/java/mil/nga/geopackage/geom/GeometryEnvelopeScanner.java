@@ -0,0 +1,292 @@
+package mil.nga.geopackage.geom;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import mil.nga.geopackage.GeoPackageException;
+import mil.nga.sf.GeometryEnvelope;
+import mil.nga.sf.util.GeometryEnvelopeBuilder;
+import mil.nga.sf.wkb.GeometryCodes;
+
+/**
+ * Computes geometry envelopes by scanning Well-Known Binary coordinates
+ * without building geometries. Min and max values are accumulated directly
+ * from the bytes, so the only allocation per scan is the resulting envelope.
+ * NaN coordinates, as used for empty points, are ignored. A scanner instance
+ * may be reused but is not thread safe.
+ * 
+ * @author osbornb
+ * @since 3.0.3
+ */
+public class GeometryEnvelopeScanner {
+
+	/**
+	 * Min x
+	 */
+	private double minX;
+
+	/**
+	 * Max x
+	 */
+	private double maxX;
+
+	/**
+	 * Min y
+	 */
+	private double minY;
+
+	/**
+	 * Max y
+	 */
+	private double maxY;
+
+	/**
+	 * Min z
+	 */
+	private double minZ;
+
+	/**
+	 * Max z
+	 */
+	private double maxZ;
+
+	/**
+	 * Min m
+	 */
+	private double minM;
+
+	/**
+	 * Max m
+	 */
+	private double maxM;
+
+	/**
+	 * Z values were found
+	 */
+	private boolean hasZ;
+
+	/**
+	 * M values were found
+	 */
+	private boolean hasM;
+
+	/**
+	 * Get the envelope of the geometry data. The header envelope is returned
+	 * when present. Otherwise the envelope is scanned from the Well-Known
+	 * Binary bytes when the geometry has not been read from them, or built
+	 * from the geometry.
+	 * 
+	 * @param geometryData
+	 *            geometry data
+	 * @return envelope, null if empty or without coordinates
+	 */
+	public static GeometryEnvelope getEnvelope(
+			GeoPackageGeometryData geometryData) {
+		return new GeometryEnvelopeScanner().envelope(geometryData);
+	}
+
+	/**
+	 * Scan the Well-Known Binary bytes for the envelope
+	 * 
+	 * @param wkbBytes
+	 *            Well-Known Binary bytes
+	 * @return envelope, null without coordinates
+	 */
+	public static GeometryEnvelope scan(byte[] wkbBytes) {
+		return new GeometryEnvelopeScanner().scan(ByteBuffer.wrap(wkbBytes));
+	}
+
+	/**
+	 * Get the envelope of the geometry data. The header envelope is returned
+	 * when present. Otherwise the envelope is scanned from the Well-Known
+	 * Binary bytes when the geometry has not been read from them, or built
+	 * from the geometry.
+	 * 
+	 * @param geometryData
+	 *            geometry data
+	 * @return envelope, null if empty or without coordinates
+	 */
+	public GeometryEnvelope envelope(GeoPackageGeometryData geometryData) {
+
+		GeometryEnvelope envelope = geometryData.getEnvelope();
+
+		if (envelope == null && !geometryData.isEmpty()) {
+			if (!geometryData.isGeometryRead()) {
+				envelope = scan(geometryData.getWkbByteBuffer());
+			} else if (geometryData.getGeometry() != null) {
+				envelope = GeometryEnvelopeBuilder.buildEnvelope(geometryData
+						.getGeometry());
+			}
+		}
+
+		return envelope;
+	}
+
+	/**
+	 * Scan the Well-Known Binary geometry starting at the buffer position for
+	 * the envelope. The buffer position is advanced past the geometry and its
+	 * byte order is restored.
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @return envelope, null without coordinates
+	 */
+	public GeometryEnvelope scan(ByteBuffer buffer) {
+
+		minX = Double.POSITIVE_INFINITY;
+		maxX = Double.NEGATIVE_INFINITY;
+		minY = Double.POSITIVE_INFINITY;
+		maxY = Double.NEGATIVE_INFINITY;
+		minZ = Double.POSITIVE_INFINITY;
+		maxZ = Double.NEGATIVE_INFINITY;
+		minM = Double.POSITIVE_INFINITY;
+		maxM = Double.NEGATIVE_INFINITY;
+		hasZ = false;
+		hasM = false;
+
+		ByteOrder bufferOrder = buffer.order();
+		try {
+			scanGeometry(buffer);
+		} catch (RuntimeException e) {
+			throw new GeoPackageException(
+					"Failed to scan Well-Known Binary for the envelope", e);
+		} finally {
+			buffer.order(bufferOrder);
+		}
+
+		GeometryEnvelope envelope = null;
+
+		if (minX <= maxX) {
+			envelope = new GeometryEnvelope(hasZ, hasM);
+			envelope.setMinX(minX);
+			envelope.setMaxX(maxX);
+			envelope.setMinY(minY);
+			envelope.setMaxY(maxY);
+			if (hasZ) {
+				envelope.setMinZ(minZ);
+				envelope.setMaxZ(maxZ);
+			}
+			if (hasM) {
+				envelope.setMinM(minM);
+				envelope.setMaxM(maxM);
+			}
+		}
+
+		return envelope;
+	}
+
+	/**
+	 * Scan a geometry
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 */
+	private void scanGeometry(ByteBuffer buffer) {
+
+		buffer.order(buffer.get() == 0 ? ByteOrder.BIG_ENDIAN
+				: ByteOrder.LITTLE_ENDIAN);
+		int code = buffer.getInt();
+		boolean codeZ = GeometryCodes.hasZ(code);
+		boolean codeM = GeometryCodes.hasM(code);
+
+		switch (GeometryCodes.getGeometryType(code)) {
+		case POINT:
+			scanPoint(buffer, codeZ, codeM);
+			break;
+		case LINESTRING:
+		case CIRCULARSTRING:
+			scanPoints(buffer, codeZ, codeM);
+			break;
+		case POLYGON:
+		case TRIANGLE:
+			for (int rings = buffer.getInt(); rings > 0; rings--) {
+				scanPoints(buffer, codeZ, codeM);
+			}
+			break;
+		case MULTIPOINT:
+		case MULTILINESTRING:
+		case MULTIPOLYGON:
+		case GEOMETRYCOLLECTION:
+		case MULTICURVE:
+		case MULTISURFACE:
+		case COMPOUNDCURVE:
+		case CURVEPOLYGON:
+		case POLYHEDRALSURFACE:
+		case TIN:
+			for (int children = buffer.getInt(); children > 0; children--) {
+				scanGeometry(buffer);
+			}
+			break;
+		default:
+			throw new GeoPackageException("Unsupported Geometry Type Code: "
+					+ code);
+		}
+	}
+
+	/**
+	 * Scan a point count followed by the points
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @param codeZ
+	 *            points have z
+	 * @param codeM
+	 *            points have m
+	 */
+	private void scanPoints(ByteBuffer buffer, boolean codeZ, boolean codeM) {
+		for (int points = buffer.getInt(); points > 0; points--) {
+			scanPoint(buffer, codeZ, codeM);
+		}
+	}
+
+	/**
+	 * Scan the point coordinates
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @param codeZ
+	 *            point has z
+	 * @param codeM
+	 *            point has m
+	 */
+	private void scanPoint(ByteBuffer buffer, boolean codeZ, boolean codeM) {
+
+		double x = buffer.getDouble();
+		double y = buffer.getDouble();
+		if (x < minX) {
+			minX = x;
+		}
+		if (x > maxX) {
+			maxX = x;
+		}
+		if (y < minY) {
+			minY = y;
+		}
+		if (y > maxY) {
+			maxY = y;
+		}
+
+		if (codeZ) {
+			double z = buffer.getDouble();
+			if (z < minZ) {
+				minZ = z;
+			}
+			if (z > maxZ) {
+				maxZ = z;
+			}
+			hasZ = true;
+		}
+
+		if (codeM) {
+			double m = buffer.getDouble();
+			if (m < minM) {
+				minM = m;
+			}
+			if (m > maxM) {
+				maxM = m;
+			}
+			hasM = true;
+		}
+	}
+
+}
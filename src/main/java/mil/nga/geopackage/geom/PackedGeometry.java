@@ -0,0 +1,988 @@
+package mil.nga.geopackage.geom;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import mil.nga.geopackage.GeoPackageException;
+import mil.nga.sf.CircularString;
+import mil.nga.sf.CompoundCurve;
+import mil.nga.sf.Curve;
+import mil.nga.sf.CurvePolygon;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryCollection;
+import mil.nga.sf.GeometryEnvelope;
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.LineString;
+import mil.nga.sf.MultiLineString;
+import mil.nga.sf.MultiPoint;
+import mil.nga.sf.MultiPolygon;
+import mil.nga.sf.Point;
+import mil.nga.sf.Polygon;
+import mil.nga.sf.PolyhedralSurface;
+import mil.nga.sf.TIN;
+import mil.nga.sf.Triangle;
+import mil.nga.sf.wkb.GeometryCodes;
+
+/**
+ * Immutable packed coordinate geometry read directly from Well-Known Binary.
+ * All vertices are stored in a single interleaved coordinate array (x, y,
+ * then z and m when any part of the geometry has them, NaN where a part does
+ * not) instead of one {@link Point} object per vertex. Point sequences (line
+ * strings, rings, and points) are located by an offset array, and the
+ * geometry nesting is kept in a compact structure array mirroring the
+ * Well-Known Binary type codes and counts. The object model is only built on
+ * request by {@link #toGeometry()}.
+ * 
+ * @author osbornb
+ * @since 3.0.3
+ */
+public class PackedGeometry {
+
+	/**
+	 * Geometry nesting in Well-Known Binary order: each geometry type code is
+	 * followed by its point count (line strings), ring count and ring point
+	 * counts (polygons), child count followed by the children (collections),
+	 * or nothing (points)
+	 */
+	private final int[] structure;
+
+	/**
+	 * Interleaved vertex coordinates
+	 */
+	private final double[] coordinates;
+
+	/**
+	 * Start vertex of each point sequence, followed by the vertex count
+	 */
+	private final int[] sequenceOffsets;
+
+	/**
+	 * Has z coordinates
+	 */
+	private final boolean hasZ;
+
+	/**
+	 * Has m coordinates
+	 */
+	private final boolean hasM;
+
+	/**
+	 * Coordinate values per vertex
+	 */
+	private final int dimension;
+
+	/**
+	 * Well-Known Binary byte count
+	 */
+	private final int wkbSize;
+
+	/**
+	 * Lazily computed envelope values
+	 */
+	private double[] bounds;
+
+	/**
+	 * Read Well-Known Binary bytes into a packed geometry
+	 * 
+	 * @param bytes
+	 *            Well-Known Binary bytes
+	 * @return packed geometry
+	 */
+	public static PackedGeometry read(byte[] bytes) {
+		return read(ByteBuffer.wrap(bytes));
+	}
+
+	/**
+	 * Read the Well-Known Binary geometry starting at the buffer position into
+	 * a packed geometry. The buffer position is advanced past the geometry
+	 * and its byte order is restored.
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @return packed geometry
+	 */
+	public static PackedGeometry read(ByteBuffer buffer) {
+
+		ByteOrder bufferOrder = buffer.order();
+		int start = buffer.position();
+		try {
+
+			// Size the arrays exactly without reading coordinates
+			Counts counts = new Counts();
+			scan(buffer, counts);
+			int wkbSize = buffer.position() - start;
+			buffer.position(start);
+
+			// Read the structure and coordinates
+			int dimension = 2 + (counts.hasZ ? 1 : 0) + (counts.hasM ? 1 : 0);
+			Reader reader = new Reader(new int[counts.structure],
+					new double[counts.vertices * dimension],
+					new int[counts.sequences + 1], counts.hasZ, counts.hasM);
+			reader.read(buffer);
+			reader.sequenceOffsets[counts.sequences] = counts.vertices;
+
+			return new PackedGeometry(reader.structure, reader.coordinates,
+					reader.sequenceOffsets, counts.hasZ, counts.hasM, wkbSize);
+
+		} catch (RuntimeException e) {
+			throw new GeoPackageException(
+					"Failed to read packed geometry from Well-Known Binary", e);
+		} finally {
+			buffer.order(bufferOrder);
+		}
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param structure
+	 *            geometry structure
+	 * @param coordinates
+	 *            interleaved coordinates
+	 * @param sequenceOffsets
+	 *            point sequence offsets
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @param wkbSize
+	 *            Well-Known Binary byte count
+	 */
+	private PackedGeometry(int[] structure, double[] coordinates,
+			int[] sequenceOffsets, boolean hasZ, boolean hasM, int wkbSize) {
+		this.structure = structure;
+		this.coordinates = coordinates;
+		this.sequenceOffsets = sequenceOffsets;
+		this.hasZ = hasZ;
+		this.hasM = hasM;
+		this.dimension = 2 + (hasZ ? 1 : 0) + (hasM ? 1 : 0);
+		this.wkbSize = wkbSize;
+	}
+
+	/**
+	 * Get the geometry type
+	 * 
+	 * @return geometry type
+	 */
+	public GeometryType getGeometryType() {
+		return GeometryCodes.getGeometryType(structure[0]);
+	}
+
+	/**
+	 * Has z coordinates
+	 * 
+	 * @return true if has z
+	 */
+	public boolean hasZ() {
+		return hasZ;
+	}
+
+	/**
+	 * Has m coordinates
+	 * 
+	 * @return true if has m
+	 */
+	public boolean hasM() {
+		return hasM;
+	}
+
+	/**
+	 * Get the number of coordinate values per vertex
+	 * 
+	 * @return 2 for xy, 3 for xyz or xym, 4 for xyzm
+	 */
+	public int getDimension() {
+		return dimension;
+	}
+
+	/**
+	 * Get the number of vertices
+	 * 
+	 * @return vertex count
+	 */
+	public int numVertices() {
+		return coordinates.length / dimension;
+	}
+
+	/**
+	 * Get the number of point sequences (line strings, rings, and points)
+	 * 
+	 * @return sequence count
+	 */
+	public int numSequences() {
+		return sequenceOffsets.length - 1;
+	}
+
+	/**
+	 * Get the start vertex of the point sequence. The index equal to
+	 * {@link #numSequences()} returns the vertex count, so sequence i spans
+	 * vertices getSequenceOffset(i) up to getSequenceOffset(i + 1).
+	 * 
+	 * @param index
+	 *            sequence index
+	 * @return vertex index
+	 */
+	public int getSequenceOffset(int index) {
+		return sequenceOffsets[index];
+	}
+
+	/**
+	 * Get the x coordinate of the vertex
+	 * 
+	 * @param vertex
+	 *            vertex index
+	 * @return x
+	 */
+	public double getX(int vertex) {
+		return coordinates[vertex * dimension];
+	}
+
+	/**
+	 * Get the y coordinate of the vertex
+	 * 
+	 * @param vertex
+	 *            vertex index
+	 * @return y
+	 */
+	public double getY(int vertex) {
+		return coordinates[vertex * dimension + 1];
+	}
+
+	/**
+	 * Get the z coordinate of the vertex
+	 * 
+	 * @param vertex
+	 *            vertex index
+	 * @return z, NaN when not present
+	 */
+	public double getZ(int vertex) {
+		return hasZ ? coordinates[vertex * dimension + 2] : Double.NaN;
+	}
+
+	/**
+	 * Get the m coordinate of the vertex
+	 * 
+	 * @param vertex
+	 *            vertex index
+	 * @return m, NaN when not present
+	 */
+	public double getM(int vertex) {
+		return hasM ? coordinates[vertex * dimension + dimension - 1]
+				: Double.NaN;
+	}
+
+	/**
+	 * Copy the interleaved coordinates
+	 * 
+	 * @return coordinates, {@link #getDimension()} values per vertex
+	 */
+	public double[] getCoordinates() {
+		return coordinates.clone();
+	}
+
+	/**
+	 * Get the envelope, including z and m ranges when present
+	 * 
+	 * @return envelope, null when there are no vertices
+	 */
+	public GeometryEnvelope getEnvelope() {
+
+		GeometryEnvelope envelope = null;
+
+		if (coordinates.length > 0) {
+
+			double[] values = getBounds();
+
+			envelope = new GeometryEnvelope(hasZ, hasM);
+			envelope.setMinX(values[0]);
+			envelope.setMaxX(values[1]);
+			envelope.setMinY(values[2]);
+			envelope.setMaxY(values[3]);
+			if (hasZ) {
+				envelope.setMinZ(values[4]);
+				envelope.setMaxZ(values[5]);
+			}
+			if (hasM) {
+				envelope.setMinM(values[6]);
+				envelope.setMaxM(values[7]);
+			}
+		}
+
+		return envelope;
+	}
+
+	/**
+	 * Get the Well-Known Binary byte count
+	 * 
+	 * @return byte count
+	 */
+	public int wkbSize() {
+		return wkbSize;
+	}
+
+	/**
+	 * Write the geometry as Well-Known Binary
+	 * 
+	 * @return Well-Known Binary bytes
+	 */
+	public byte[] toWkbBytes() {
+		byte[] bytes = new byte[wkbSize];
+		writeWkb(ByteBuffer.wrap(bytes));
+		return bytes;
+	}
+
+	/**
+	 * Write the geometry as Well-Known Binary into the buffer at its current
+	 * position using the byte order of the buffer
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @return bytes written
+	 */
+	public int writeWkb(ByteBuffer buffer) {
+		if (buffer.remaining() < wkbSize) {
+			throw new GeoPackageException(
+					"Insufficient buffer space for Well-Known Binary. Required: "
+							+ wkbSize + ", Remaining: " + buffer.remaining());
+		}
+		new Writer(buffer).write();
+		return wkbSize;
+	}
+
+	/**
+	 * Build the simple features object model geometry
+	 * 
+	 * @return geometry
+	 */
+	public Geometry toGeometry() {
+		return new Builder().build();
+	}
+
+	/**
+	 * Get the lazily computed envelope values
+	 * 
+	 * @return min x, max x, min y, max y, min z, max z, min m, max m
+	 */
+	private double[] getBounds() {
+		double[] values = bounds;
+		if (values == null) {
+			values = new double[] { Double.POSITIVE_INFINITY,
+					Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+					Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+					Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+					Double.NEGATIVE_INFINITY };
+			for (int i = 0; i < coordinates.length; i += dimension) {
+				expand(values, 0, coordinates[i]);
+				expand(values, 2, coordinates[i + 1]);
+				if (hasZ) {
+					expand(values, 4, coordinates[i + 2]);
+				}
+				if (hasM) {
+					expand(values, 6, coordinates[i + dimension - 1]);
+				}
+			}
+			bounds = values;
+		}
+		return values;
+	}
+
+	/**
+	 * Expand the min and max bounds at the index to include the value,
+	 * ignoring NaN values
+	 * 
+	 * @param values
+	 *            bounds
+	 * @param index
+	 *            min index, followed by the max
+	 * @param value
+	 *            value
+	 */
+	private static void expand(double[] values, int index, double value) {
+		if (value < values[index]) {
+			values[index] = value;
+		}
+		if (value > values[index + 1]) {
+			values[index + 1] = value;
+		}
+	}
+
+	/**
+	 * Read the geometry type code, setting the buffer byte order
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @return geometry type code
+	 */
+	private static int readCode(ByteBuffer buffer) {
+		buffer.order(buffer.get() == 0 ? ByteOrder.BIG_ENDIAN
+				: ByteOrder.LITTLE_ENDIAN);
+		return buffer.getInt();
+	}
+
+	/**
+	 * Get the number of coordinate values per vertex for the geometry code
+	 * 
+	 * @param code
+	 *            geometry type code
+	 * @return coordinate values per vertex
+	 */
+	private static int codeDimension(int code) {
+		return 2 + (GeometryCodes.hasZ(code) ? 1 : 0)
+				+ (GeometryCodes.hasM(code) ? 1 : 0);
+	}
+
+	/**
+	 * Count the structure, vertices, and sequences of the geometry, skipping
+	 * over the coordinates
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @param counts
+	 *            counts
+	 */
+	private static void scan(ByteBuffer buffer, Counts counts) {
+
+		int code = readCode(buffer);
+		counts.structure++;
+		counts.hasZ |= GeometryCodes.hasZ(code);
+		counts.hasM |= GeometryCodes.hasM(code);
+		int vertexBytes = 8 * codeDimension(code);
+
+		switch (GeometryCodes.getGeometryType(code)) {
+		case POINT:
+			counts.vertices++;
+			counts.sequences++;
+			skip(buffer, vertexBytes);
+			break;
+		case LINESTRING:
+		case CIRCULARSTRING:
+			scanSequence(buffer, counts, vertexBytes);
+			break;
+		case POLYGON:
+		case TRIANGLE:
+			int rings = buffer.getInt();
+			counts.structure++;
+			for (int i = 0; i < rings; i++) {
+				scanSequence(buffer, counts, vertexBytes);
+			}
+			break;
+		case MULTIPOINT:
+		case MULTILINESTRING:
+		case MULTIPOLYGON:
+		case GEOMETRYCOLLECTION:
+		case MULTICURVE:
+		case MULTISURFACE:
+		case COMPOUNDCURVE:
+		case CURVEPOLYGON:
+		case POLYHEDRALSURFACE:
+		case TIN:
+			int children = buffer.getInt();
+			counts.structure++;
+			for (int i = 0; i < children; i++) {
+				scan(buffer, counts);
+			}
+			break;
+		default:
+			throw new GeoPackageException("Unsupported Geometry Type Code: "
+					+ code);
+		}
+	}
+
+	/**
+	 * Count a point sequence, skipping over the coordinates
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @param counts
+	 *            counts
+	 * @param vertexBytes
+	 *            bytes per vertex
+	 */
+	private static void scanSequence(ByteBuffer buffer, Counts counts,
+			int vertexBytes) {
+		int points = buffer.getInt();
+		counts.structure++;
+		counts.vertices += points;
+		counts.sequences++;
+		skip(buffer, points * vertexBytes);
+	}
+
+	/**
+	 * Skip bytes in the buffer
+	 * 
+	 * @param buffer
+	 *            byte buffer
+	 * @param bytes
+	 *            byte count
+	 */
+	private static void skip(ByteBuffer buffer, int bytes) {
+		buffer.position(buffer.position() + bytes);
+	}
+
+	/**
+	 * Geometry element counts gathered before reading
+	 */
+	private static class Counts {
+
+		/**
+		 * Structure values
+		 */
+		private int structure;
+
+		/**
+		 * Vertices
+		 */
+		private int vertices;
+
+		/**
+		 * Point sequences
+		 */
+		private int sequences;
+
+		/**
+		 * Has z
+		 */
+		private boolean hasZ;
+
+		/**
+		 * Has m
+		 */
+		private boolean hasM;
+
+	}
+
+	/**
+	 * Reads Well-Known Binary into presized packed arrays
+	 */
+	private static class Reader {
+
+		/**
+		 * Structure
+		 */
+		private final int[] structure;
+
+		/**
+		 * Coordinates
+		 */
+		private final double[] coordinates;
+
+		/**
+		 * Sequence offsets
+		 */
+		private final int[] sequenceOffsets;
+
+		/**
+		 * Packed geometry has z
+		 */
+		private final boolean hasZ;
+
+		/**
+		 * Packed geometry has m
+		 */
+		private final boolean hasM;
+
+		/**
+		 * Packed coordinate values per vertex
+		 */
+		private final int dimension;
+
+		/**
+		 * Next structure index
+		 */
+		private int structureIndex = 0;
+
+		/**
+		 * Next vertex
+		 */
+		private int vertex = 0;
+
+		/**
+		 * Next sequence
+		 */
+		private int sequence = 0;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param structure
+		 *            structure
+		 * @param coordinates
+		 *            coordinates
+		 * @param sequenceOffsets
+		 *            sequence offsets
+		 * @param hasZ
+		 *            packed geometry has z
+		 * @param hasM
+		 *            packed geometry has m
+		 */
+		Reader(int[] structure, double[] coordinates, int[] sequenceOffsets,
+				boolean hasZ, boolean hasM) {
+			this.structure = structure;
+			this.coordinates = coordinates;
+			this.sequenceOffsets = sequenceOffsets;
+			this.hasZ = hasZ;
+			this.hasM = hasM;
+			this.dimension = 2 + (hasZ ? 1 : 0) + (hasM ? 1 : 0);
+		}
+
+		/**
+		 * Read the geometry
+		 * 
+		 * @param buffer
+		 *            byte buffer
+		 */
+		void read(ByteBuffer buffer) {
+
+			int code = readCode(buffer);
+			structure[structureIndex++] = code;
+			boolean codeZ = GeometryCodes.hasZ(code);
+			boolean codeM = GeometryCodes.hasM(code);
+
+			switch (GeometryCodes.getGeometryType(code)) {
+			case POINT:
+				sequenceOffsets[sequence++] = vertex;
+				readVertex(buffer, codeZ, codeM);
+				break;
+			case LINESTRING:
+			case CIRCULARSTRING:
+				readSequence(buffer, codeZ, codeM);
+				break;
+			case POLYGON:
+			case TRIANGLE:
+				int rings = buffer.getInt();
+				structure[structureIndex++] = rings;
+				for (int i = 0; i < rings; i++) {
+					readSequence(buffer, codeZ, codeM);
+				}
+				break;
+			default:
+				int children = buffer.getInt();
+				structure[structureIndex++] = children;
+				for (int i = 0; i < children; i++) {
+					read(buffer);
+				}
+			}
+		}
+
+		/**
+		 * Read a point sequence
+		 * 
+		 * @param buffer
+		 *            byte buffer
+		 * @param codeZ
+		 *            sequence has z
+		 * @param codeM
+		 *            sequence has m
+		 */
+		private void readSequence(ByteBuffer buffer, boolean codeZ,
+				boolean codeM) {
+			int points = buffer.getInt();
+			structure[structureIndex++] = points;
+			sequenceOffsets[sequence++] = vertex;
+			for (int i = 0; i < points; i++) {
+				readVertex(buffer, codeZ, codeM);
+			}
+		}
+
+		/**
+		 * Read a vertex
+		 * 
+		 * @param buffer
+		 *            byte buffer
+		 * @param codeZ
+		 *            vertex has z
+		 * @param codeM
+		 *            vertex has m
+		 */
+		private void readVertex(ByteBuffer buffer, boolean codeZ, boolean codeM) {
+			int index = vertex++ * dimension;
+			coordinates[index] = buffer.getDouble();
+			coordinates[index + 1] = buffer.getDouble();
+			if (hasZ) {
+				coordinates[index + 2] = codeZ ? buffer.getDouble()
+						: Double.NaN;
+			}
+			if (hasM) {
+				coordinates[index + dimension - 1] = codeM ? buffer
+						.getDouble() : Double.NaN;
+			}
+		}
+
+	}
+
+	/**
+	 * Writes the packed geometry as Well-Known Binary
+	 */
+	private class Writer {
+
+		/**
+		 * Byte buffer
+		 */
+		private final ByteBuffer buffer;
+
+		/**
+		 * Byte order value
+		 */
+		private final byte byteOrder;
+
+		/**
+		 * Next structure index
+		 */
+		private int structureIndex = 0;
+
+		/**
+		 * Next vertex
+		 */
+		private int vertex = 0;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param buffer
+		 *            byte buffer
+		 */
+		Writer(ByteBuffer buffer) {
+			this.buffer = buffer;
+			this.byteOrder = (byte) (buffer.order() == ByteOrder.BIG_ENDIAN ? 0
+					: 1);
+		}
+
+		/**
+		 * Write the geometry
+		 */
+		void write() {
+
+			int code = structure[structureIndex++];
+			buffer.put(byteOrder);
+			buffer.putInt(code);
+			boolean codeZ = GeometryCodes.hasZ(code);
+			boolean codeM = GeometryCodes.hasM(code);
+
+			switch (GeometryCodes.getGeometryType(code)) {
+			case POINT:
+				writeVertex(codeZ, codeM);
+				break;
+			case LINESTRING:
+			case CIRCULARSTRING:
+				writeSequence(codeZ, codeM);
+				break;
+			case POLYGON:
+			case TRIANGLE:
+				int rings = structure[structureIndex++];
+				buffer.putInt(rings);
+				for (int i = 0; i < rings; i++) {
+					writeSequence(codeZ, codeM);
+				}
+				break;
+			default:
+				int children = structure[structureIndex++];
+				buffer.putInt(children);
+				for (int i = 0; i < children; i++) {
+					write();
+				}
+			}
+		}
+
+		/**
+		 * Write a point sequence
+		 * 
+		 * @param codeZ
+		 *            sequence has z
+		 * @param codeM
+		 *            sequence has m
+		 */
+		private void writeSequence(boolean codeZ, boolean codeM) {
+			int points = structure[structureIndex++];
+			buffer.putInt(points);
+			for (int i = 0; i < points; i++) {
+				writeVertex(codeZ, codeM);
+			}
+		}
+
+		/**
+		 * Write a vertex
+		 * 
+		 * @param codeZ
+		 *            vertex has z
+		 * @param codeM
+		 *            vertex has m
+		 */
+		private void writeVertex(boolean codeZ, boolean codeM) {
+			int index = vertex++ * dimension;
+			buffer.putDouble(coordinates[index]);
+			buffer.putDouble(coordinates[index + 1]);
+			if (codeZ) {
+				buffer.putDouble(coordinates[index + 2]);
+			}
+			if (codeM) {
+				buffer.putDouble(coordinates[index + dimension - 1]);
+			}
+		}
+
+	}
+
+	/**
+	 * Builds the simple features object model geometry
+	 */
+	private class Builder {
+
+		/**
+		 * Next structure index
+		 */
+		private int structureIndex = 0;
+
+		/**
+		 * Next vertex
+		 */
+		private int vertex = 0;
+
+		/**
+		 * Build the geometry
+		 * 
+		 * @return geometry
+		 */
+		Geometry build() {
+
+			int code = structure[structureIndex++];
+			boolean codeZ = GeometryCodes.hasZ(code);
+			boolean codeM = GeometryCodes.hasM(code);
+
+			Geometry geometry = null;
+
+			switch (GeometryCodes.getGeometryType(code)) {
+			case POINT:
+				geometry = buildPoint(codeZ, codeM);
+				break;
+			case LINESTRING:
+				geometry = buildSequence(new LineString(codeZ, codeM));
+				break;
+			case CIRCULARSTRING:
+				geometry = buildSequence(new CircularString(codeZ, codeM));
+				break;
+			case POLYGON:
+				geometry = buildRings(new Polygon(codeZ, codeM));
+				break;
+			case TRIANGLE:
+				geometry = buildRings(new Triangle(codeZ, codeM));
+				break;
+			case MULTIPOINT:
+				MultiPoint multiPoint = new MultiPoint(codeZ, codeM);
+				for (int i = structure[structureIndex++]; i > 0; i--) {
+					multiPoint.addPoint((Point) build());
+				}
+				geometry = multiPoint;
+				break;
+			case MULTILINESTRING:
+				MultiLineString multiLineString = new MultiLineString(codeZ,
+						codeM);
+				for (int i = structure[structureIndex++]; i > 0; i--) {
+					multiLineString.addLineString((LineString) build());
+				}
+				geometry = multiLineString;
+				break;
+			case MULTIPOLYGON:
+				MultiPolygon multiPolygon = new MultiPolygon(codeZ, codeM);
+				for (int i = structure[structureIndex++]; i > 0; i--) {
+					multiPolygon.addPolygon((Polygon) build());
+				}
+				geometry = multiPolygon;
+				break;
+			case COMPOUNDCURVE:
+				CompoundCurve compoundCurve = new CompoundCurve(codeZ, codeM);
+				for (int i = structure[structureIndex++]; i > 0; i--) {
+					compoundCurve.addLineString((LineString) build());
+				}
+				geometry = compoundCurve;
+				break;
+			case CURVEPOLYGON:
+				CurvePolygon<Curve> curvePolygon = new CurvePolygon<>(codeZ,
+						codeM);
+				for (int i = structure[structureIndex++]; i > 0; i--) {
+					curvePolygon.addRing((Curve) build());
+				}
+				geometry = curvePolygon;
+				break;
+			case POLYHEDRALSURFACE:
+				PolyhedralSurface polyhedralSurface = new PolyhedralSurface(
+						codeZ, codeM);
+				for (int i = structure[structureIndex++]; i > 0; i--) {
+					polyhedralSurface.addPolygon((Polygon) build());
+				}
+				geometry = polyhedralSurface;
+				break;
+			case TIN:
+				TIN tin = new TIN(codeZ, codeM);
+				for (int i = structure[structureIndex++]; i > 0; i--) {
+					tin.addPolygon((Polygon) build());
+				}
+				geometry = tin;
+				break;
+			default:
+				GeometryCollection<Geometry> geometryCollection = new GeometryCollection<>(
+						codeZ, codeM);
+				for (int i = structure[structureIndex++]; i > 0; i--) {
+					geometryCollection.addGeometry(build());
+				}
+				geometry = geometryCollection;
+			}
+
+			return geometry;
+		}
+
+		/**
+		 * Add the rings of the polygon
+		 * 
+		 * @param polygon
+		 *            polygon
+		 * @return polygon
+		 */
+		private Polygon buildRings(Polygon polygon) {
+			boolean codeZ = polygon.hasZ();
+			boolean codeM = polygon.hasM();
+			for (int i = structure[structureIndex++]; i > 0; i--) {
+				polygon.addRing(buildSequence(new LineString(codeZ, codeM)));
+			}
+			return polygon;
+		}
+
+		/**
+		 * Add the points of the sequence to the line string
+		 * 
+		 * @param lineString
+		 *            line string
+		 * @return line string
+		 */
+		private LineString buildSequence(LineString lineString) {
+			boolean codeZ = lineString.hasZ();
+			boolean codeM = lineString.hasM();
+			for (int i = structure[structureIndex++]; i > 0; i--) {
+				lineString.addPoint(buildPoint(codeZ, codeM));
+			}
+			return lineString;
+		}
+
+		/**
+		 * Build the next vertex point
+		 * 
+		 * @param codeZ
+		 *            point has z
+		 * @param codeM
+		 *            point has m
+		 * @return point
+		 */
+		private Point buildPoint(boolean codeZ, boolean codeM) {
+			int index = vertex++ * dimension;
+			Point point = new Point(codeZ, codeM, coordinates[index],
+					coordinates[index + 1]);
+			if (codeZ) {
+				point.setZ(coordinates[index + 2]);
+			}
+			if (codeM) {
+				point.setM(coordinates[index + dimension - 1]);
+			}
+			return point;
+		}
+
+	}
+
+}
@@ -0,0 +1,346 @@
+package mil.nga.geopackage.geom;
+
+import java.util.Arrays;
+
+import mil.nga.geopackage.BoundingBox;
+import mil.nga.geopackage.user.UserCoreResult;
+
+/**
+ * Columnar point coordinates and feature ids read from a point feature table
+ * result with {@link GeoPackagePointReader}. Coordinates are held in
+ * primitive arrays so point scans and bounding box filters run over
+ * contiguous memory. Z and m arrays are only allocated once a point with
+ * those values is added, with NaN for points without them.
+ * 
+ * @author osbornb
+ * @since 3.0.3
+ */
+public class PackedPoints {
+
+	/**
+	 * Default initial capacity
+	 */
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	/**
+	 * Feature ids
+	 */
+	private long[] ids;
+
+	/**
+	 * X values
+	 */
+	private double[] x;
+
+	/**
+	 * Y values
+	 */
+	private double[] y;
+
+	/**
+	 * Z values, null until a point with z is added
+	 */
+	private double[] z;
+
+	/**
+	 * M values, null until a point with m is added
+	 */
+	private double[] m;
+
+	/**
+	 * Number of points
+	 */
+	private int size = 0;
+
+	/**
+	 * Reusable coordinate values
+	 */
+	private final double[] coordinates = new double[4];
+
+	/**
+	 * Read the points of the result, closing it when done
+	 * 
+	 * @param result
+	 *            feature result
+	 * @param idColumnIndex
+	 *            feature id column index
+	 * @param geometryColumnIndex
+	 *            geometry column index
+	 * @return packed points
+	 */
+	public static PackedPoints read(UserCoreResult<?, ?, ?> result,
+			int idColumnIndex, int geometryColumnIndex) {
+		PackedPoints points = new PackedPoints(Math.max(1, result.getCount()));
+		try {
+			while (result.moveToNext()) {
+				points.add(result.getLong(idColumnIndex),
+						result.getBlob(geometryColumnIndex));
+			}
+		} finally {
+			result.close();
+		}
+		return points;
+	}
+
+	/**
+	 * Constructor
+	 */
+	public PackedPoints() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param capacity
+	 *            initial capacity
+	 */
+	public PackedPoints(int capacity) {
+		ids = new long[capacity];
+		x = new double[capacity];
+		y = new double[capacity];
+	}
+
+	/**
+	 * Add the point read from the geometry data bytes
+	 * 
+	 * @param id
+	 *            feature id
+	 * @param bytes
+	 *            GeoPackage Geometry Data bytes
+	 * @return true if added, false if the geometry is null or empty
+	 */
+	public boolean add(long id, byte[] bytes) {
+		boolean added = GeoPackagePointReader.read(bytes, coordinates);
+		if (added) {
+			add(id, coordinates[0], coordinates[1], coordinates[2],
+					coordinates[3]);
+		}
+		return added;
+	}
+
+	/**
+	 * Add a point
+	 * 
+	 * @param id
+	 *            feature id
+	 * @param xValue
+	 *            x
+	 * @param yValue
+	 *            y
+	 * @param zValue
+	 *            z or NaN
+	 * @param mValue
+	 *            m or NaN
+	 */
+	public void add(long id, double xValue, double yValue, double zValue,
+			double mValue) {
+		if (size == ids.length) {
+			int capacity = size + (size >> 1) + 1;
+			ids = Arrays.copyOf(ids, capacity);
+			x = Arrays.copyOf(x, capacity);
+			y = Arrays.copyOf(y, capacity);
+			if (z != null) {
+				z = Arrays.copyOf(z, capacity);
+			}
+			if (m != null) {
+				m = Arrays.copyOf(m, capacity);
+			}
+		}
+		ids[size] = id;
+		x[size] = xValue;
+		y[size] = yValue;
+		if (z != null || !Double.isNaN(zValue)) {
+			if (z == null) {
+				z = newNaNArray();
+			}
+			z[size] = zValue;
+		}
+		if (m != null || !Double.isNaN(mValue)) {
+			if (m == null) {
+				m = newNaNArray();
+			}
+			m[size] = mValue;
+		}
+		size++;
+	}
+
+	/**
+	 * Get the number of points
+	 * 
+	 * @return point count
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Has z values
+	 * 
+	 * @return true if any point has z
+	 */
+	public boolean hasZ() {
+		return z != null;
+	}
+
+	/**
+	 * Has m values
+	 * 
+	 * @return true if any point has m
+	 */
+	public boolean hasM() {
+		return m != null;
+	}
+
+	/**
+	 * Get the feature id
+	 * 
+	 * @param index
+	 *            point index
+	 * @return feature id
+	 */
+	public long getId(int index) {
+		return ids[index];
+	}
+
+	/**
+	 * Get the x value
+	 * 
+	 * @param index
+	 *            point index
+	 * @return x
+	 */
+	public double getX(int index) {
+		return x[index];
+	}
+
+	/**
+	 * Get the y value
+	 * 
+	 * @param index
+	 *            point index
+	 * @return y
+	 */
+	public double getY(int index) {
+		return y[index];
+	}
+
+	/**
+	 * Get the z value
+	 * 
+	 * @param index
+	 *            point index
+	 * @return z or NaN
+	 */
+	public double getZ(int index) {
+		return z != null ? z[index] : Double.NaN;
+	}
+
+	/**
+	 * Get the m value
+	 * 
+	 * @param index
+	 *            point index
+	 * @return m or NaN
+	 */
+	public double getM(int index) {
+		return m != null ? m[index] : Double.NaN;
+	}
+
+	/**
+	 * Count the points within the bounding box, inclusive of its edges
+	 * 
+	 * @param boundingBox
+	 *            bounding box
+	 * @return count
+	 */
+	public int count(BoundingBox boundingBox) {
+		double minX = boundingBox.getMinLongitude();
+		double maxX = boundingBox.getMaxLongitude();
+		double minY = boundingBox.getMinLatitude();
+		double maxY = boundingBox.getMaxLatitude();
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			double xValue = x[i];
+			double yValue = y[i];
+			if (xValue >= minX && xValue <= maxX && yValue >= minY
+					&& yValue <= maxY) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Query for the feature ids of the points within the bounding box,
+	 * inclusive of its edges
+	 * 
+	 * @param boundingBox
+	 *            bounding box
+	 * @return feature ids in point order
+	 */
+	public long[] query(BoundingBox boundingBox) {
+		double minX = boundingBox.getMinLongitude();
+		double maxX = boundingBox.getMaxLongitude();
+		double minY = boundingBox.getMinLatitude();
+		double maxY = boundingBox.getMaxLatitude();
+		long[] matches = new long[count(boundingBox)];
+		int count = 0;
+		for (int i = 0; count < matches.length; i++) {
+			double xValue = x[i];
+			double yValue = y[i];
+			if (xValue >= minX && xValue <= maxX && yValue >= minY
+					&& yValue <= maxY) {
+				matches[count++] = ids[i];
+			}
+		}
+		return matches;
+	}
+
+	/**
+	 * Get the bounding box of the points
+	 * 
+	 * @return bounding box, null if no points with coordinates
+	 */
+	public BoundingBox getBoundingBox() {
+		BoundingBox boundingBox = null;
+		if (size > 0) {
+			double minX = Double.POSITIVE_INFINITY;
+			double maxX = Double.NEGATIVE_INFINITY;
+			double minY = Double.POSITIVE_INFINITY;
+			double maxY = Double.NEGATIVE_INFINITY;
+			for (int i = 0; i < size; i++) {
+				double xValue = x[i];
+				double yValue = y[i];
+				if (xValue < minX) {
+					minX = xValue;
+				}
+				if (xValue > maxX) {
+					maxX = xValue;
+				}
+				if (yValue < minY) {
+					minY = yValue;
+				}
+				if (yValue > maxY) {
+					maxY = yValue;
+				}
+			}
+			if (minX <= maxX) {
+				boundingBox = new BoundingBox(minX, minY, maxX, maxY);
+			}
+		}
+		return boundingBox;
+	}
+
+	/**
+	 * Create a value array of the current capacity filled with NaN
+	 * 
+	 * @return array
+	 */
+	private double[] newNaNArray() {
+		double[] values = new double[ids.length];
+		Arrays.fill(values, Double.NaN);
+		return values;
+	}
+
+}
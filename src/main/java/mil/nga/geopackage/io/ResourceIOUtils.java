@@ -2,8 +2,11 @@ package mil.nga.geopackage.io;
 
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Pattern;
 
 import mil.nga.geopackage.GeoPackageException;
@@ -16,6 +19,11 @@ import mil.nga.geopackage.GeoPackageException;
  */
 public class ResourceIOUtils {
 
+	/**
+	 * Parsed SQL statement templates by resource name
+	 */
+	private static final ConcurrentMap<String, List<SQLTemplate>> templates = new ConcurrentHashMap<>();
+
 	/**
 	 * Parse the SQL statements for the base resource path and sql file name
 	 * 
@@ -74,4 +82,57 @@ public class ResourceIOUtils {
 		return statements;
 	}
 
+	/**
+	 * Get the precompiled SQL statement templates for the base resource path
+	 * and sql file name. The resource is read and parsed once and the
+	 * templates are shared by all callers.
+	 * 
+	 * @param path
+	 *            base resource path
+	 * @param name
+	 *            sql file name
+	 * @return unmodifiable list of sql statement templates
+	 * @since 3.0.3
+	 */
+	public static List<SQLTemplate> getSQLTemplates(String path, String name) {
+		return getSQLTemplates("/" + path + "/" + name);
+	}
+
+	/**
+	 * Get the precompiled SQL statement templates for the resource name. The
+	 * resource is read and parsed once and the templates are shared by all
+	 * callers.
+	 * 
+	 * @param resourceName
+	 *            resource name
+	 * @return unmodifiable list of sql statement templates
+	 * @since 3.0.3
+	 */
+	public static List<SQLTemplate> getSQLTemplates(String resourceName) {
+		List<SQLTemplate> resourceTemplates = templates.get(resourceName);
+		if (resourceTemplates == null) {
+			List<String> statements = parseSQLStatements(resourceName);
+			List<SQLTemplate> parsed = new ArrayList<>(statements.size());
+			for (String statement : statements) {
+				parsed.add(new SQLTemplate(statement));
+			}
+			resourceTemplates = Collections.unmodifiableList(parsed);
+			List<SQLTemplate> existing = templates.putIfAbsent(resourceName,
+					resourceTemplates);
+			if (existing != null) {
+				resourceTemplates = existing;
+			}
+		}
+		return resourceTemplates;
+	}
+
+	/**
+	 * Clear the precompiled SQL statement templates
+	 * 
+	 * @since 3.0.3
+	 */
+	public static void clearSQLTemplates() {
+		templates.clear();
+	}
+
 }
@@ -0,0 +1,130 @@
+package mil.nga.geopackage.io;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Precompiled SQL statement template. The statement is split once into
+ * literal segments and {@code <name>} placeholders, and rendered by
+ * concatenating the literals with the substituted values.
+ * 
+ * @author osbornb
+ * @since 3.0.3
+ */
+public class SQLTemplate {
+
+	/**
+	 * Placeholder pattern, a name wrapped in angle brackets
+	 */
+	private static final Pattern PLACEHOLDER_PATTERN = Pattern
+			.compile("<[A-Za-z_][A-Za-z0-9_]*>");
+
+	/**
+	 * Original SQL statement
+	 */
+	private final String sql;
+
+	/**
+	 * Literal segments, one more than the number of placeholders
+	 */
+	private final String[] literals;
+
+	/**
+	 * Placeholders, each following the literal at the same index
+	 */
+	private final String[] placeholders;
+
+	/**
+	 * Literal character count, used to size rendered statements
+	 */
+	private final int literalLength;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param sql
+	 *            SQL statement
+	 */
+	public SQLTemplate(String sql) {
+		this.sql = sql;
+
+		List<String> literalList = new ArrayList<>();
+		List<String> placeholderList = new ArrayList<>();
+		int length = 0;
+		int start = 0;
+		Matcher matcher = PLACEHOLDER_PATTERN.matcher(sql);
+		while (matcher.find()) {
+			String literal = sql.substring(start, matcher.start());
+			literalList.add(literal);
+			length += literal.length();
+			placeholderList.add(matcher.group());
+			start = matcher.end();
+		}
+		String literal = sql.substring(start);
+		literalList.add(literal);
+		length += literal.length();
+
+		literals = literalList.toArray(new String[literalList.size()]);
+		placeholders = placeholderList.toArray(new String[placeholderList
+				.size()]);
+		literalLength = length;
+	}
+
+	/**
+	 * Get the original SQL statement
+	 * 
+	 * @return SQL statement
+	 */
+	public String getSql() {
+		return sql;
+	}
+
+	/**
+	 * Get the placeholders in statement order, including repeats
+	 * 
+	 * @return placeholders
+	 */
+	public List<String> getPlaceholders() {
+		List<String> list = new ArrayList<>();
+		Collections.addAll(list, placeholders);
+		return list;
+	}
+
+	/**
+	 * Render the statement, replacing each placeholder with its value.
+	 * Placeholders without a value are left as is.
+	 * 
+	 * @param values
+	 *            placeholder to value mapping
+	 * @return SQL statement
+	 */
+	public String render(Map<String, String> values) {
+		String rendered = sql;
+		if (placeholders.length > 0) {
+			StringBuilder builder = new StringBuilder(literalLength
+					+ placeholders.length * 16);
+			for (int i = 0; i < placeholders.length; i++) {
+				builder.append(literals[i]);
+				String placeholder = placeholders[i];
+				String value = values.get(placeholder);
+				builder.append(value != null ? value : placeholder);
+			}
+			builder.append(literals[placeholders.length]);
+			rendered = builder.toString();
+		}
+		return rendered;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return sql;
+	}
+
+}
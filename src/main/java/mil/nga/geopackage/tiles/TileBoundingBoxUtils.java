@@ -1,6 +1,7 @@
 package mil.nga.geopackage.tiles;
 
 import mil.nga.geopackage.BoundingBox;
+import mil.nga.geopackage.core.srs.ProjectionCache;
 import mil.nga.geopackage.tiles.matrix.TileMatrix;
 import mil.nga.sf.Point;
 import mil.nga.sf.proj.Projection;
@@ -431,8 +432,8 @@ public class TileBoundingBoxUtils {
 		BoundingBox boundingBox = getWebMercatorBoundingBox(x, y, zoom);
 
 		if (code != null) {
-			ProjectionTransform transform = webMercator.getTransformation(
-					authority, code);
+			ProjectionTransform transform = ProjectionCache.getTransformation(
+					webMercator, authority, code);
 			boundingBox = boundingBox.transform(transform);
 		}
 
@@ -459,8 +460,8 @@ public class TileBoundingBoxUtils {
 		BoundingBox boundingBox = getWebMercatorBoundingBox(x, y, zoom);
 
 		if (projection != null) {
-			ProjectionTransform transform = webMercator
-					.getTransformation(projection);
+			ProjectionTransform transform = ProjectionCache
+					.getTransformation(webMercator, projection);
 			boundingBox = boundingBox.transform(transform);
 		}
 
@@ -506,8 +507,8 @@ public class TileBoundingBoxUtils {
 		BoundingBox boundingBox = getWebMercatorBoundingBox(tileGrid, zoom);
 
 		if (code != null) {
-			ProjectionTransform transform = webMercator.getTransformation(
-					authority, code);
+			ProjectionTransform transform = ProjectionCache.getTransformation(
+					webMercator, authority, code);
 			boundingBox = boundingBox.transform(transform);
 		}
 
@@ -532,8 +533,8 @@ public class TileBoundingBoxUtils {
 		BoundingBox boundingBox = getWebMercatorBoundingBox(tileGrid, zoom);
 
 		if (projection != null) {
-			ProjectionTransform transform = webMercator
-					.getTransformation(projection);
+			ProjectionTransform transform = ProjectionCache
+					.getTransformation(webMercator, projection);
 			boundingBox = boundingBox.transform(transform);
 		}
 
@@ -570,8 +571,8 @@ public class TileBoundingBoxUtils {
 	 */
 	public static TileGrid getTileGrid(Point point, int zoom,
 			Projection projection) {
-		ProjectionTransform toWebMercator = projection
-				.getTransformation(ProjectionConstants.EPSG_WEB_MERCATOR);
+		ProjectionTransform toWebMercator = ProjectionCache.getTransformation(
+				projection, ProjectionConstants.EPSG_WEB_MERCATOR);
 		Point webMercatorPoint = toWebMercator.transform(point);
 		BoundingBox boundingBox = new BoundingBox(webMercatorPoint.getX(),
 				webMercatorPoint.getY(), webMercatorPoint.getX(),
@@ -630,9 +631,10 @@ public class TileBoundingBoxUtils {
 		Point upperRightPoint = new Point(false, false,
 				boundingBox.getMaxLongitude(), maxLatitude);
 
-		ProjectionTransform toWebMercator = ProjectionFactory.getProjection(
-				ProjectionConstants.EPSG_WORLD_GEODETIC_SYSTEM)
-				.getTransformation(ProjectionConstants.EPSG_WEB_MERCATOR);
+		ProjectionTransform toWebMercator = ProjectionCache.getTransformation(
+				ProjectionFactory
+						.getProjection(ProjectionConstants.EPSG_WORLD_GEODETIC_SYSTEM),
+				ProjectionConstants.EPSG_WEB_MERCATOR);
 		lowerLeftPoint = toWebMercator.transform(lowerLeftPoint);
 		upperRightPoint = toWebMercator.transform(upperRightPoint);
 
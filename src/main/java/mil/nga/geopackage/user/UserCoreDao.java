@@ -1,16 +1,31 @@
 package mil.nga.geopackage.user;
 
+import java.io.IOException;
+import java.math.BigInteger;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import mil.nga.geopackage.BoundingBox;
 import mil.nga.geopackage.GeoPackageException;
+import mil.nga.geopackage.core.srs.ProjectionCache;
 import mil.nga.geopackage.db.CoreSQLUtils;
+import mil.nga.geopackage.db.DateConverter;
+import mil.nga.geopackage.db.GeoPackageDataType;
 import mil.nga.geopackage.db.GeoPackageCoreConnection;
+import mil.nga.geopackage.geom.GeoPackageGeometryData;
 import mil.nga.geopackage.tiles.TileBoundingBoxUtils;
 import mil.nga.sf.proj.Projection;
 import mil.nga.sf.proj.ProjectionConstants;
@@ -18,6 +33,13 @@ import mil.nga.sf.proj.ProjectionTransform;
 
 import org.osgeo.proj4j.units.DegreeUnit;
 
+import com.j256.ormlite.field.SqlType;
+import com.j256.ormlite.stmt.StatementBuilder.StatementType;
+import com.j256.ormlite.support.CompiledStatement;
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.support.DatabaseConnection;
+import com.j256.ormlite.support.DatabaseResults;
+
 /**
  * Abstract User DAO for reading user tables
  * 
@@ -59,6 +81,38 @@ public abstract class UserCoreDao<TColumn extends UserColumn, TTable extends Use
 	 */
 	protected Projection projection;
 
+	/**
+	 * Default number of rows written per batch
+	 * 
+	 * @since 3.0.3
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 1000;
+
+	/**
+	 * Batch savepoint name
+	 */
+	private static final String BATCH_SAVEPOINT = "user_dao_batch";
+
+	/**
+	 * Number of rows written per batch
+	 */
+	private int batchSize = DEFAULT_BATCH_SIZE;
+
+	/**
+	 * Insert SQL for rows without an id
+	 */
+	private String insertSql;
+
+	/**
+	 * Insert SQL for rows with an id
+	 */
+	private String insertWithIdSql;
+
+	/**
+	 * Update SQL
+	 */
+	private String updateSql;
+
 	/**
 	 * Constructor
 	 * 
@@ -441,6 +495,408 @@ public abstract class UserCoreDao<TColumn extends UserColumn, TTable extends Use
 		return result;
 	}
 
+	/**
+	 * Iterate over all rows. Close the iterator, or use it within a try with
+	 * resources block, when stopping before the last row.
+	 * 
+	 * @return row iterator
+	 * @since 3.0.3
+	 */
+	public UserCoreRowIterator<TColumn, TTable, TRow> iterate() {
+		return iterate(null, null);
+	}
+
+	/**
+	 * Iterate over the rows matching the where clause. Close the iterator, or
+	 * use it within a try with resources block, when stopping before the last
+	 * row.
+	 * 
+	 * @param where
+	 *            where clause
+	 * @param whereArgs
+	 *            where arguments
+	 * @return row iterator
+	 * @since 3.0.3
+	 */
+	public UserCoreRowIterator<TColumn, TTable, TRow> iterate(String where,
+			String[] whereArgs) {
+		return new UserCoreRowIterator<TColumn, TTable, TRow>(query(where,
+				whereArgs));
+	}
+
+	/**
+	 * Process the rows matching the where clause in order until the processor
+	 * stops
+	 * 
+	 * @param where
+	 *            where clause
+	 * @param whereArgs
+	 *            where arguments
+	 * @param processor
+	 *            row processor
+	 * @return number of rows processed
+	 * @since 3.0.3
+	 */
+	public long process(String where, String[] whereArgs,
+			UserRowProcessor<TRow> processor) {
+		long processed = 0;
+		UserCoreRowIterator<TColumn, TTable, TRow> rows = iterate(where,
+				whereArgs);
+		try {
+			boolean proceed = true;
+			while (proceed && rows.hasNext()) {
+				proceed = processor.process(rows.next());
+				processed++;
+			}
+		} finally {
+			rows.close();
+		}
+		return processed;
+	}
+
+	/**
+	 * Process the rows matching the where clause in parallel. The primary key
+	 * range of the matching rows is split into the number of partitions, each
+	 * queried with an independent result and processed as a task on the
+	 * executor. The processor must be thread safe. When the processor stops
+	 * or a partition fails, all partitions stop after their current row. Every
+	 * partition task has finished before this method returns or throws.
+	 * 
+	 * @param where
+	 *            where clause
+	 * @param whereArgs
+	 *            where arguments
+	 * @param processor
+	 *            thread safe row processor
+	 * @param executor
+	 *            executor service
+	 * @param partitions
+	 *            number of primary key range partitions
+	 * @return number of rows processed
+	 * @since 3.0.3
+	 */
+	public long process(String where, String[] whereArgs,
+			final UserRowProcessor<TRow> processor, ExecutorService executor,
+			int partitions) {
+
+		if (partitions < 1) {
+			throw new GeoPackageException(
+					"Partitions must be at least 1, partitions: " + partitions);
+		}
+
+		final AtomicLong processed = new AtomicLong();
+		final AtomicBoolean stop = new AtomicBoolean();
+
+		String pk = CoreSQLUtils.quoteWrap(table.getPkColumn().getName());
+		String whereSql = where != null ? " WHERE " + where : "";
+		String minValue = db.querySingleStringResult("SELECT MIN(" + pk
+				+ ") FROM " + CoreSQLUtils.quoteWrap(getTableName())
+				+ whereSql, whereArgs);
+		String maxValue = db.querySingleStringResult("SELECT MAX(" + pk
+				+ ") FROM " + CoreSQLUtils.quoteWrap(getTableName())
+				+ whereSql, whereArgs);
+
+		if (minValue != null && maxValue != null) {
+
+			long[][] ranges = partitionRanges(Long.parseLong(minValue),
+					Long.parseLong(maxValue), partitions);
+
+			String rangeWhere = (where != null ? "(" + where + ") AND " : "")
+					+ pk + " >= ? AND " + pk + " <= ?";
+			int argCount = whereArgs != null ? whereArgs.length : 0;
+
+			List<Future<?>> futures = new ArrayList<>();
+			try {
+
+				for (long[] range : ranges) {
+
+					final String[] rangeArgs = new String[argCount + 2];
+					if (argCount > 0) {
+						System.arraycopy(whereArgs, 0, rangeArgs, 0, argCount);
+					}
+					rangeArgs[argCount] = String.valueOf(range[0]);
+					rangeArgs[argCount + 1] = String.valueOf(range[1]);
+					final String partitionWhere = rangeWhere;
+
+					futures.add(executor.submit(new Runnable() {
+						@Override
+						public void run() {
+							if (stop.get()) {
+								return;
+							}
+							UserCoreRowIterator<TColumn, TTable, TRow> rows = iterate(
+									partitionWhere, rangeArgs);
+							try {
+								while (!stop.get() && rows.hasNext()) {
+									if (!processor.process(rows.next())) {
+										stop.set(true);
+									}
+									processed.incrementAndGet();
+								}
+							} finally {
+								rows.close();
+							}
+						}
+					}));
+				}
+
+				for (Future<?> future : futures) {
+					future.get();
+				}
+
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new GeoPackageException(
+						"Interrupted while processing rows. Table: "
+								+ getTableName(), e);
+			} catch (ExecutionException e) {
+				throw new GeoPackageException(
+						"Failed to process rows. Table: " + getTableName(),
+						e.getCause());
+			} finally {
+				// Stop the remaining partitions and wait for every task to
+				// finish so none runs after returning or throwing
+				stop.set(true);
+				awaitAll(futures);
+			}
+		}
+
+		return processed.get();
+	}
+
+	/**
+	 * Split the inclusive primary key range into at most the number of
+	 * partitions of near equal width. The width is computed without
+	 * overflowing for ranges spanning more than {@link Long#MAX_VALUE} ids.
+	 * 
+	 * @param min
+	 *            min primary key
+	 * @param max
+	 *            max primary key
+	 * @param partitions
+	 *            number of partitions
+	 * @return inclusive start and end of each partition
+	 */
+	static long[][] partitionRanges(long min, long max, int partitions) {
+
+		BigInteger start = BigInteger.valueOf(min);
+		BigInteger count = BigInteger.valueOf(max).subtract(start)
+				.add(BigInteger.ONE);
+		int rangeCount = count.min(BigInteger.valueOf(partitions)).intValue();
+		BigInteger ranges = BigInteger.valueOf(rangeCount);
+
+		long[][] partitionRanges = new long[rangeCount][];
+		for (int i = 0; i < rangeCount; i++) {
+			BigInteger end = BigInteger.valueOf(min).add(
+					count.multiply(BigInteger.valueOf(i + 1)).divide(ranges));
+			partitionRanges[i] = new long[] { start.longValue(),
+					end.subtract(BigInteger.ONE).longValue() };
+			start = end;
+		}
+
+		return partitionRanges;
+	}
+
+	/**
+	 * Wait for every future to finish, ignoring task failures and
+	 * cancellations. An interrupt while waiting is restored once all futures
+	 * have finished.
+	 * 
+	 * @param futures
+	 *            futures
+	 */
+	private static void awaitAll(List<Future<?>> futures) {
+		boolean interrupted = false;
+		for (Future<?> future : futures) {
+			boolean done = false;
+			while (!done) {
+				try {
+					future.get();
+					done = true;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				} catch (ExecutionException | CancellationException e) {
+					done = true;
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Query for a page of rows ordered by the primary key using keyset
+	 * pagination
+	 * 
+	 * @param token
+	 *            continuation token from the previous page, null for the
+	 *            first page
+	 * @param limit
+	 *            maximum page rows
+	 * @return page
+	 * @since 3.0.3
+	 */
+	public UserKeysetPage<TRow> queryPage(String token, int limit) {
+		return queryPage(null, null, null, token, limit);
+	}
+
+	/**
+	 * Query for a page of rows matching the where clause ordered by the
+	 * primary key using keyset pagination
+	 * 
+	 * @param where
+	 *            where clause
+	 * @param whereArgs
+	 *            where arguments
+	 * @param token
+	 *            continuation token from the previous page, null for the
+	 *            first page
+	 * @param limit
+	 *            maximum page rows
+	 * @return page
+	 * @since 3.0.3
+	 */
+	public UserKeysetPage<TRow> queryPage(String where, String[] whereArgs,
+			String token, int limit) {
+		return queryPage(where, whereArgs, null, token, limit);
+	}
+
+	/**
+	 * Query for a page of rows matching the where clause ordered by the sort
+	 * column and then the primary key using keyset pagination. Each page
+	 * continues after the last row of the previous page by value rather than
+	 * by offset, so page cost does not grow with page depth when the sort
+	 * column is indexed. Sort column values may be integer, real, text,
+	 * boolean, or date values, with dates compared in the text format of the
+	 * column data type. Null sort values are ordered first, matching the
+	 * SQLite ascending order. The where clause may be combined with other
+	 * filters, such as
+	 * {@link mil.nga.geopackage.extension.index.FeatureTableCoreIndex#buildWhere(String, BoundingBox)}
+	 * .
+	 * 
+	 * @param where
+	 *            where clause
+	 * @param whereArgs
+	 *            where arguments
+	 * @param sortColumn
+	 *            sort column name, null to sort by the primary key
+	 * @param token
+	 *            continuation token from the previous page, null for the
+	 *            first page
+	 * @param limit
+	 *            maximum page rows
+	 * @return page
+	 * @since 3.0.3
+	 */
+	public UserKeysetPage<TRow> queryPage(String where, String[] whereArgs,
+			String sortColumn, String token, int limit) {
+
+		if (limit < 1) {
+			throw new GeoPackageException("Page limit must be at least 1, limit: "
+					+ limit);
+		}
+
+		String pkColumn = table.getPkColumn().getName();
+		String column = sortColumn != null ? sortColumn : pkColumn;
+		boolean pkSort = column.equals(pkColumn);
+		String pk = CoreSQLUtils.quoteWrap(pkColumn);
+		String sort = CoreSQLUtils.quoteWrap(column);
+
+		String pageWhere = where;
+		String[] pageWhereArgs = whereArgs;
+
+		if (token != null) {
+
+			UserKeysetToken keysetToken = UserKeysetToken.decode(token);
+			if (!column.equals(keysetToken.getColumn())) {
+				throw new GeoPackageException(
+						"Page token sort column does not match. Expected: "
+								+ column + ", Token: "
+								+ keysetToken.getColumn());
+			}
+
+			String id = String.valueOf(keysetToken.getId());
+			String keyWhere;
+			String[] keyArgs;
+			if (pkSort) {
+				keyWhere = pk + " > ?";
+				keyArgs = new String[] { id };
+			} else if (keysetToken.getValue() == null) {
+				keyWhere = "((" + sort + " IS NULL AND " + pk + " > ?) OR "
+						+ sort + " IS NOT NULL)";
+				keyArgs = new String[] { id };
+			} else {
+				keyWhere = "(" + sort + " > ? OR (" + sort + " = ? AND " + pk
+						+ " > ?))";
+				keyArgs = new String[] { keysetToken.getValue(),
+						keysetToken.getValue(), id };
+			}
+
+			int argCount = whereArgs != null ? whereArgs.length : 0;
+			pageWhere = where != null ? "(" + where + ") AND " + keyWhere
+					: keyWhere;
+			pageWhereArgs = new String[argCount + keyArgs.length];
+			if (argCount > 0) {
+				System.arraycopy(whereArgs, 0, pageWhereArgs, 0, argCount);
+			}
+			System.arraycopy(keyArgs, 0, pageWhereArgs, argCount,
+					keyArgs.length);
+		}
+
+		String orderBy = pkSort ? pk : sort + ", " + pk;
+
+		List<TRow> rows = new ArrayList<>(limit);
+		String nextToken = null;
+		TResult result = query(pageWhere, pageWhereArgs, null, null, orderBy,
+				String.valueOf(limit + 1L));
+		try {
+			while (result.moveToNext()) {
+				TRow row = result.getRow();
+				if (rows.size() < limit) {
+					rows.add(row);
+				} else {
+					TRow last = rows.get(limit - 1);
+					nextToken = new UserKeysetToken(column, pkSort ? null
+							: getKeysetValue(last, column), last.getId())
+							.encode();
+				}
+			}
+		} finally {
+			result.close();
+		}
+
+		return new UserKeysetPage<TRow>(rows, nextToken);
+	}
+
+	/**
+	 * Get the sort column value of the row as a keyset where argument. Dates,
+	 * including epoch millisecond date column values, are formatted in the
+	 * text format stored for the column data type.
+	 * 
+	 * @param row
+	 *            row
+	 * @param column
+	 *            sort column name
+	 * @return where argument, null for a null value
+	 */
+	private String getKeysetValue(TRow row, String column) {
+		Object value = getDateValue(row.getColumn(column),
+				row.getValue(column));
+		String argument = null;
+		if (value instanceof Number || value instanceof String) {
+			argument = value.toString();
+		} else if (value instanceof Boolean) {
+			argument = ((Boolean) value) ? "1" : "0";
+		} else if (value != null) {
+			throw new GeoPackageException(
+					"Unsupported keyset page sort value. Table: "
+							+ getTableName() + ", Column: " + column
+							+ ", Value: " + value);
+		}
+		return argument;
+	}
+
 	/**
 	 * Update the row
 	 * 
@@ -537,6 +993,625 @@ public abstract class UserCoreDao<TColumn extends UserColumn, TTable extends Use
 	 */
 	public abstract long insert(TRow row);
 
+	/**
+	 * Get the number of rows written per batch by {@link #insert(Iterable)}
+	 * and {@link #update(Iterable)}
+	 * 
+	 * @return batch size
+	 * @since 3.0.3
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Set the number of rows written per batch by {@link #insert(Iterable)}
+	 * and {@link #update(Iterable)}. Each batch is committed within its own
+	 * savepoint.
+	 * 
+	 * @param batchSize
+	 *            batch size
+	 * @since 3.0.3
+	 */
+	public void setBatchSize(int batchSize) {
+		if (batchSize < 1) {
+			throw new GeoPackageException(
+					"Batch size must be at least 1, batch size: " + batchSize);
+		}
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Insert the rows in batches of the batch size, committing each batch
+	 * within a savepoint. A failed batch is rolled back and previously
+	 * committed batches remain.
+	 * 
+	 * @param rows
+	 *            rows
+	 * @return row ids in row order
+	 * @since 3.0.3
+	 */
+	public long[] insert(Iterable<TRow> rows) {
+
+		long[] ids = new long[rows instanceof Collection ? ((Collection<?>) rows)
+				.size() : batchSize];
+		int count = 0;
+
+		List<TRow> batch = new ArrayList<>(batchSize);
+		for (TRow row : rows) {
+			batch.add(row);
+			if (batch.size() == batchSize) {
+				ids = appendIds(ids, count, executeInsertBatch(batch));
+				count += batch.size();
+				batch.clear();
+			}
+		}
+		if (!batch.isEmpty()) {
+			ids = appendIds(ids, count, executeInsertBatch(batch));
+			count += batch.size();
+		}
+
+		if (count < ids.length) {
+			ids = Arrays.copyOf(ids, count);
+		}
+
+		return ids;
+	}
+
+	/**
+	 * Update the rows in batches of the batch size, committing each batch
+	 * within a savepoint. A failed batch is rolled back and previously
+	 * committed batches remain.
+	 * 
+	 * @param rows
+	 *            rows
+	 * @return number of rows affected
+	 * @since 3.0.3
+	 */
+	public int update(Iterable<TRow> rows) {
+
+		int updated = 0;
+
+		List<TRow> batch = new ArrayList<>(batchSize);
+		for (TRow row : rows) {
+			batch.add(row);
+			if (batch.size() == batchSize) {
+				updated += executeUpdateBatch(batch);
+				batch.clear();
+			}
+		}
+		if (!batch.isEmpty()) {
+			updated += executeUpdateBatch(batch);
+		}
+
+		return updated;
+	}
+
+	/**
+	 * Insert a batch of rows. Called by {@link #insert(Iterable)} within a
+	 * savepoint on the batch connection, a read write connection of the
+	 * {@link GeoPackageCoreConnection#getConnectionSource()}. The
+	 * {@link #getInsertSql(boolean)} statements are compiled once per batch on
+	 * the connection and each row is bound from {@link UserCoreRow#getValues()}
+	 * and {@link UserCoreRow#getRowColumnTypes()}. Rows inserted without an id
+	 * are assigned the inserted row id.
+	 * 
+	 * @param connection
+	 *            batch connection
+	 * @param rows
+	 *            batch rows
+	 * @return row ids in row order
+	 * @since 3.0.3
+	 */
+	protected long[] insertBatch(DatabaseConnection connection, List<TRow> rows) {
+
+		long[] ids = new long[rows.size()];
+
+		CompiledStatement insert = null;
+		CompiledStatement insertWithId = null;
+		CompiledStatement lastId = null;
+		try {
+
+			for (int i = 0; i < ids.length; i++) {
+				TRow row = rows.get(i);
+				if (row.hasId()) {
+					if (insertWithId == null) {
+						insertWithId = compileStatement(connection,
+								getInsertSql(true), StatementType.UPDATE);
+					}
+					bindValues(insertWithId, row, true, false);
+					insertWithId.runUpdate();
+					ids[i] = row.getId();
+				} else {
+					if (insert == null) {
+						insert = compileStatement(connection,
+								getInsertSql(false), StatementType.UPDATE);
+						lastId = compileStatement(connection,
+								"SELECT last_insert_rowid()",
+								StatementType.SELECT_LONG);
+					}
+					bindValues(insert, row, false, false);
+					insert.runUpdate();
+					ids[i] = queryLong(lastId);
+					row.setId(ids[i]);
+				}
+			}
+
+		} catch (SQLException e) {
+			throw new GeoPackageException("Failed to insert batch rows. Table: "
+					+ getTableName(), e);
+		} finally {
+			closeStatement(insert);
+			closeStatement(insertWithId);
+			closeStatement(lastId);
+		}
+
+		return ids;
+	}
+
+	/**
+	 * Update a batch of rows. Called by {@link #update(Iterable)} within a
+	 * savepoint on the batch connection, a read write connection of the
+	 * {@link GeoPackageCoreConnection#getConnectionSource()}. The
+	 * {@link #getUpdateSql()} statement is compiled once per batch on the
+	 * connection and each row is bound from {@link UserCoreRow#getValues()}
+	 * and {@link UserCoreRow#getRowColumnTypes()}.
+	 * 
+	 * @param connection
+	 *            batch connection
+	 * @param rows
+	 *            batch rows
+	 * @return number of rows affected
+	 * @since 3.0.3
+	 */
+	protected int updateBatch(DatabaseConnection connection, List<TRow> rows) {
+
+		int updated = 0;
+
+		CompiledStatement update = null;
+		try {
+			update = compileStatement(connection, getUpdateSql(),
+					StatementType.UPDATE);
+			for (TRow row : rows) {
+				if (!row.hasId()) {
+					throw new GeoPackageException(
+							"Batch update row has no id. Table: "
+									+ getTableName());
+				}
+				bindValues(update, row, false, true);
+				updated += update.runUpdate();
+			}
+		} catch (SQLException e) {
+			throw new GeoPackageException("Failed to update batch rows. Table: "
+					+ getTableName(), e);
+		} finally {
+			closeStatement(update);
+		}
+
+		return updated;
+	}
+
+	/**
+	 * Get the parameterized insert SQL for the row column layout. Values are
+	 * bound in table column order, skipping the primary key column when the
+	 * row has no id.
+	 * 
+	 * @param withId
+	 *            true if the row has an id value
+	 * @return insert SQL
+	 * @since 3.0.3
+	 */
+	public String getInsertSql(boolean withId) {
+		String sql = withId ? insertWithIdSql : insertSql;
+		if (sql == null) {
+			StringBuilder columns = new StringBuilder();
+			StringBuilder values = new StringBuilder();
+			for (TColumn column : table.getColumns()) {
+				if (withId || !column.isPrimaryKey()) {
+					if (columns.length() > 0) {
+						columns.append(", ");
+						values.append(", ");
+					}
+					columns.append(CoreSQLUtils.quoteWrap(column.getName()));
+					values.append("?");
+				}
+			}
+			sql = "INSERT INTO " + CoreSQLUtils.quoteWrap(getTableName())
+					+ " (" + columns + ") VALUES (" + values + ")";
+			if (withId) {
+				insertWithIdSql = sql;
+			} else {
+				insertSql = sql;
+			}
+		}
+		return sql;
+	}
+
+	/**
+	 * Get the parameterized update SQL. Values are bound in table column
+	 * order skipping the primary key column, followed by the row id.
+	 * 
+	 * @return update SQL
+	 * @since 3.0.3
+	 */
+	public String getUpdateSql() {
+		String sql = updateSql;
+		if (sql == null) {
+			StringBuilder columns = new StringBuilder();
+			for (TColumn column : table.getColumns()) {
+				if (!column.isPrimaryKey()) {
+					if (columns.length() > 0) {
+						columns.append(", ");
+					}
+					columns.append(CoreSQLUtils.quoteWrap(column.getName()))
+							.append(" = ?");
+				}
+			}
+			sql = "UPDATE " + CoreSQLUtils.quoteWrap(getTableName()) + " SET "
+					+ columns + " WHERE "
+					+ CoreSQLUtils.quoteWrap(table.getPkColumn().getName())
+					+ " = ?";
+			updateSql = sql;
+		}
+		return sql;
+	}
+
+	/**
+	 * Insert a batch of rows within a savepoint
+	 * 
+	 * @param batch
+	 *            batch rows
+	 * @return row ids
+	 */
+	private long[] executeInsertBatch(List<TRow> batch) {
+		long[] ids = null;
+		ConnectionSource connectionSource = db.getConnectionSource();
+		DatabaseConnection connection = beginBatch(connectionSource);
+		try {
+			ids = insertBatch(connection, batch);
+			if (ids.length != batch.size()) {
+				throw new GeoPackageException("Inserted id count " + ids.length
+						+ " does not match the batch row count " + batch.size());
+			}
+			executeStatement(connection, "RELEASE " + BATCH_SAVEPOINT);
+		} catch (RuntimeException e) {
+			rollbackBatch(connection);
+			throw new GeoPackageException("Failed to insert batch of "
+					+ batch.size() + " rows. Table: " + getTableName(), e);
+		} finally {
+			endBatch(connectionSource, connection);
+		}
+		return ids;
+	}
+
+	/**
+	 * Update a batch of rows within a savepoint
+	 * 
+	 * @param batch
+	 *            batch rows
+	 * @return number of rows affected
+	 */
+	private int executeUpdateBatch(List<TRow> batch) {
+		int updated = 0;
+		ConnectionSource connectionSource = db.getConnectionSource();
+		DatabaseConnection connection = beginBatch(connectionSource);
+		try {
+			updated = updateBatch(connection, batch);
+			executeStatement(connection, "RELEASE " + BATCH_SAVEPOINT);
+		} catch (RuntimeException e) {
+			rollbackBatch(connection);
+			throw new GeoPackageException("Failed to update batch of "
+					+ batch.size() + " rows. Table: " + getTableName(), e);
+		} finally {
+			endBatch(connectionSource, connection);
+		}
+		return updated;
+	}
+
+	/**
+	 * Get a read write connection for the batch, saved as the special
+	 * connection of the connection source for the duration of the batch, and
+	 * begin the batch savepoint on it
+	 * 
+	 * @param connectionSource
+	 *            connection source
+	 * @return batch connection
+	 */
+	private DatabaseConnection beginBatch(ConnectionSource connectionSource) {
+		DatabaseConnection connection = null;
+		boolean begun = false;
+		try {
+			connection = connectionSource.getReadWriteConnection(getTableName());
+			connectionSource.saveSpecialConnection(connection);
+			executeStatement(connection, "SAVEPOINT " + BATCH_SAVEPOINT);
+			begun = true;
+		} catch (SQLException e) {
+			throw new GeoPackageException(
+					"Failed to get batch connection. Table: " + getTableName(),
+					e);
+		} finally {
+			if (!begun) {
+				endBatch(connectionSource, connection);
+			}
+		}
+		return connection;
+	}
+
+	/**
+	 * Roll back and release the batch savepoint on the batch connection
+	 * 
+	 * @param connection
+	 *            batch connection
+	 */
+	private void rollbackBatch(DatabaseConnection connection) {
+		executeStatement(connection, "ROLLBACK TO " + BATCH_SAVEPOINT);
+		executeStatement(connection, "RELEASE " + BATCH_SAVEPOINT);
+	}
+
+	/**
+	 * Clear the batch connection as the special connection and release it
+	 * 
+	 * @param connectionSource
+	 *            connection source
+	 * @param connection
+	 *            batch connection or null
+	 */
+	private static void endBatch(ConnectionSource connectionSource,
+			DatabaseConnection connection) {
+		if (connection != null) {
+			connectionSource.clearSpecialConnection(connection);
+			releaseConnection(connectionSource, connection);
+		}
+	}
+
+	/**
+	 * Execute the statement on the batch connection
+	 * 
+	 * @param connection
+	 *            batch connection
+	 * @param sql
+	 *            sql statement
+	 */
+	private static void executeStatement(DatabaseConnection connection,
+			String sql) {
+		try {
+			connection.executeStatement(sql,
+					DatabaseConnection.DEFAULT_RESULT_FLAGS);
+		} catch (SQLException e) {
+			throw new GeoPackageException("Failed to execute SQL: " + sql, e);
+		}
+	}
+
+	/**
+	 * Compile a statement for reuse across the batch rows
+	 * 
+	 * @param connection
+	 *            database connection
+	 * @param sql
+	 *            sql statement
+	 * @param type
+	 *            statement type
+	 * @return compiled statement
+	 * @throws SQLException
+	 *             upon failure
+	 */
+	private static CompiledStatement compileStatement(
+			DatabaseConnection connection, String sql, StatementType type)
+			throws SQLException {
+		return connection.compileStatement(sql, type, null,
+				DatabaseConnection.DEFAULT_RESULT_FLAGS, false);
+	}
+
+	/**
+	 * Bind the row values in table column order, optionally skipping the
+	 * primary key column and binding the row id last
+	 * 
+	 * @param statement
+	 *            compiled statement
+	 * @param row
+	 *            row
+	 * @param withId
+	 *            true to bind the primary key column value
+	 * @param idLast
+	 *            true to bind the row id after the column values
+	 * @throws SQLException
+	 *             upon failure
+	 */
+	private void bindValues(CompiledStatement statement, TRow row,
+			boolean withId, boolean idLast) throws SQLException {
+		Object[] values = row.getValues();
+		int[] columnTypes = row.getRowColumnTypes();
+		int index = 0;
+		for (TColumn column : table.getColumns()) {
+			if (withId || !column.isPrimaryKey()) {
+				int columnIndex = column.getIndex();
+				Object value = getBindValue(column, values[columnIndex]);
+				statement.setObject(index++, value,
+						getSqlType(value, columnTypes[columnIndex]));
+			}
+		}
+		if (idLast) {
+			statement.setObject(index, row.getId(), SqlType.LONG);
+		}
+	}
+
+	/**
+	 * Get the value to bind for the column, converting dates and epoch
+	 * millisecond date column values to the column date format and geometry
+	 * data to bytes
+	 * 
+	 * @param column
+	 *            column
+	 * @param value
+	 *            row value
+	 * @return bind value
+	 */
+	private static Object getBindValue(UserColumn column, Object value) {
+		Object bindValue = getDateValue(column, value);
+		if (value instanceof GeoPackageGeometryData) {
+			try {
+				bindValue = ((GeoPackageGeometryData) value).toBytes();
+			} catch (IOException e) {
+				throw new GeoPackageException(
+						"Failed to write geometry data bytes. Column: "
+								+ column.getName(), e);
+			}
+		}
+		return bindValue;
+	}
+
+	/**
+	 * Format date values, and the epoch millisecond values of date and date
+	 * time columns, in the text format stored for the column data type. See
+	 * {@link UserCoreResultUtils#getValue(UserCoreResult, int, GeoPackageDataType, boolean)}.
+	 * 
+	 * @param column
+	 *            column
+	 * @param value
+	 *            row value
+	 * @return formatted date or the unchanged value
+	 */
+	private static Object getDateValue(UserColumn column, Object value) {
+		Object dateValue = value;
+		GeoPackageDataType dataType = column.getDataType();
+		if (value instanceof Date) {
+			dateValue = DateConverter.converter(dataType).stringValue(
+					(Date) value);
+		} else if (value instanceof Long
+				&& (dataType == GeoPackageDataType.DATE || dataType == GeoPackageDataType.DATETIME)) {
+			dateValue = DateConverter.converter(dataType).stringValue(
+					(Long) value);
+		}
+		return dateValue;
+	}
+
+	/**
+	 * Get the ORMLite SQL type of the bind value, falling back to the row
+	 * column type for null values
+	 * 
+	 * @param value
+	 *            bind value
+	 * @param columnType
+	 *            row column type
+	 * @return SQL type
+	 */
+	private static SqlType getSqlType(Object value, int columnType) {
+		SqlType sqlType;
+		if (value instanceof String) {
+			sqlType = SqlType.STRING;
+		} else if (value instanceof Long) {
+			sqlType = SqlType.LONG;
+		} else if (value instanceof Integer) {
+			sqlType = SqlType.INTEGER;
+		} else if (value instanceof Short) {
+			sqlType = SqlType.SHORT;
+		} else if (value instanceof Byte) {
+			sqlType = SqlType.BYTE;
+		} else if (value instanceof Double) {
+			sqlType = SqlType.DOUBLE;
+		} else if (value instanceof Float) {
+			sqlType = SqlType.FLOAT;
+		} else if (value instanceof Boolean) {
+			sqlType = SqlType.BOOLEAN;
+		} else if (value instanceof byte[]) {
+			sqlType = SqlType.BYTE_ARRAY;
+		} else if (value != null) {
+			throw new GeoPackageException("Unsupported batch column value: "
+					+ value + ", type: " + value.getClass().getName());
+		} else {
+			switch (columnType) {
+			case UserCoreResultUtils.FIELD_TYPE_INTEGER:
+				sqlType = SqlType.LONG;
+				break;
+			case UserCoreResultUtils.FIELD_TYPE_FLOAT:
+				sqlType = SqlType.DOUBLE;
+				break;
+			case UserCoreResultUtils.FIELD_TYPE_BLOB:
+				sqlType = SqlType.BYTE_ARRAY;
+				break;
+			default:
+				sqlType = SqlType.STRING;
+			}
+		}
+		return sqlType;
+	}
+
+	/**
+	 * Query a single long value with the compiled statement
+	 * 
+	 * @param statement
+	 *            compiled statement
+	 * @return long value
+	 * @throws SQLException
+	 *             upon failure
+	 */
+	private static long queryLong(CompiledStatement statement)
+			throws SQLException {
+		DatabaseResults results = statement.runQuery(null);
+		try {
+			if (!results.first()) {
+				throw new GeoPackageException("No result for query");
+			}
+			return results.getLong(0);
+		} finally {
+			results.closeQuietly();
+		}
+	}
+
+	/**
+	 * Close the compiled statement if not null
+	 * 
+	 * @param statement
+	 *            compiled statement
+	 */
+	private static void closeStatement(CompiledStatement statement) {
+		if (statement != null) {
+			statement.closeQuietly();
+		}
+	}
+
+	/**
+	 * Release the database connection if not null
+	 * 
+	 * @param connectionSource
+	 *            connection source
+	 * @param connection
+	 *            database connection
+	 */
+	private static void releaseConnection(ConnectionSource connectionSource,
+			DatabaseConnection connection) {
+		if (connection != null) {
+			try {
+				connectionSource.releaseConnection(connection);
+			} catch (SQLException e) {
+				throw new GeoPackageException(
+						"Failed to release database connection", e);
+			}
+		}
+	}
+
+	/**
+	 * Append batch ids, growing the ids array as needed
+	 * 
+	 * @param ids
+	 *            ids
+	 * @param count
+	 *            current id count
+	 * @param batchIds
+	 *            batch ids
+	 * @return ids
+	 */
+	private static long[] appendIds(long[] ids, int count, long[] batchIds) {
+		long[] appended = ids;
+		int required = count + batchIds.length;
+		if (required > appended.length) {
+			appended = Arrays.copyOf(appended,
+					Math.max(required, appended.length + (appended.length >> 1)));
+		}
+		System.arraycopy(batchIds, 0, appended, count, batchIds.length);
+		return appended;
+	}
+
 	/**
 	 * Get the primary key where clause
 	 * 
@@ -902,8 +1977,9 @@ public abstract class UserCoreDao<TColumn extends UserColumn, TTable extends Use
 				boundingBox = TileBoundingBoxUtils
 						.boundDegreesBoundingBoxWithWebMercatorLimits(boundingBox);
 			}
-			ProjectionTransform webMercatorTransform = projection
-					.getTransformation(ProjectionConstants.EPSG_WEB_MERCATOR);
+			ProjectionTransform webMercatorTransform = ProjectionCache
+					.getTransformation(projection,
+							ProjectionConstants.EPSG_WEB_MERCATOR);
 			BoundingBox webMercatorBoundingBox = boundingBox
 					.transform(webMercatorTransform);
 			zoomLevel = TileBoundingBoxUtils
@@ -49,6 +49,30 @@ public class UserCoreResultUtils {
 	 */
 	public static Object getValue(UserCoreResult<?, ?, ?> result, int index,
 			GeoPackageDataType dataType) {
+		return getValue(result, index, dataType, false);
+	}
+
+	/**
+	 * Get the value from the cursor from the provided column, optionally
+	 * representing date and date time values as UTC epoch milliseconds to
+	 * avoid creating {@link java.util.Date} objects. Rows populated with epoch
+	 * millisecond values can be written back by the {@link UserCoreDao} batch
+	 * and keyset methods.
+	 * 
+	 * @param result
+	 *            result
+	 * @param index
+	 *            index
+	 * @param dataType
+	 *            data type
+	 * @param epochMillis
+	 *            true to return date values as {@link Long} UTC epoch
+	 *            milliseconds instead of {@link java.util.Date} objects
+	 * @return value value
+	 * @since 3.0.3
+	 */
+	public static Object getValue(UserCoreResult<?, ?, ?> result, int index,
+			GeoPackageDataType dataType, boolean epochMillis) {
 
 		Object value = null;
 
@@ -70,7 +94,12 @@ public class UserCoreResultUtils {
 			if (dataType == GeoPackageDataType.DATE
 					|| dataType == GeoPackageDataType.DATETIME) {
 				DateConverter converter = DateConverter.converter(dataType);
-				value = converter.dateValue(stringValue);
+				if (epochMillis) {
+					value = stringValue != null ? converter
+							.millisValue(stringValue) : null;
+				} else {
+					value = converter.dateValue(stringValue);
+				}
 			} else {
 				value = stringValue;
 			}
@@ -0,0 +1,114 @@
+package mil.nga.geopackage.user;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Single use, closeable row iterator over a user result. Usable in a for each
+ * loop within a try with resources block, closing the underlying result when
+ * the rows are exhausted, when closed early, or when the block exits.
+ * 
+ * @param <TColumn>
+ *            column type
+ * @param <TTable>
+ *            table type
+ * @param <TRow>
+ *            row type
+ * 
+ * @author osbornb
+ * @since 3.0.3
+ */
+public class UserCoreRowIterator<TColumn extends UserColumn, TTable extends UserTable<TColumn>, TRow extends UserCoreRow<TColumn, TTable>>
+		implements Iterator<TRow>, Iterable<TRow>, Closeable {
+
+	/**
+	 * Result
+	 */
+	private final UserCoreResult<TColumn, TTable, TRow> result;
+
+	/**
+	 * True when the result is positioned on a row not yet returned
+	 */
+	private boolean hasNext = false;
+
+	/**
+	 * True when closed
+	 */
+	private boolean closed = false;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param result
+	 *            result
+	 */
+	public UserCoreRowIterator(UserCoreResult<TColumn, TTable, TRow> result) {
+		this.result = result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Iterator<TRow> iterator() {
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean hasNext() {
+		if (!hasNext && !closed) {
+			hasNext = result.moveToNext();
+			if (!hasNext) {
+				close();
+			}
+		}
+		return hasNext;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public TRow next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		hasNext = false;
+		return result.getRow();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException(
+				"Remove is not supported by user row iterators");
+	}
+
+	/**
+	 * Is the iterator closed
+	 * 
+	 * @return true if closed
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * Close the underlying result
+	 */
+	@Override
+	public void close() {
+		if (!closed) {
+			closed = true;
+			hasNext = false;
+			result.close();
+		}
+	}
+
+}
@@ -0,0 +1,67 @@
+package mil.nga.geopackage.user;
+
+import java.util.List;
+
+/**
+ * Page of rows returned by keyset pagination, with the continuation token for
+ * querying the following page
+ * 
+ * @param <TRow>
+ *            row type
+ * 
+ * @author osbornb
+ * @since 3.0.3
+ */
+public class UserKeysetPage<TRow extends UserCoreRow<?, ?>> {
+
+	/**
+	 * Page rows
+	 */
+	private final List<TRow> rows;
+
+	/**
+	 * Continuation token, null on the last page
+	 */
+	private final String nextToken;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param rows
+	 *            page rows
+	 * @param nextToken
+	 *            continuation token, null on the last page
+	 */
+	public UserKeysetPage(List<TRow> rows, String nextToken) {
+		this.rows = rows;
+		this.nextToken = nextToken;
+	}
+
+	/**
+	 * Get the page rows
+	 * 
+	 * @return rows
+	 */
+	public List<TRow> getRows() {
+		return rows;
+	}
+
+	/**
+	 * Get the continuation token to pass when querying the next page
+	 * 
+	 * @return token, null on the last page
+	 */
+	public String getNextToken() {
+		return nextToken;
+	}
+
+	/**
+	 * Determine if there is a following page
+	 * 
+	 * @return true if more rows follow
+	 */
+	public boolean hasNext() {
+		return nextToken != null;
+	}
+
+}
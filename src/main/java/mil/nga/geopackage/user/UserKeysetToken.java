@@ -0,0 +1,158 @@
+package mil.nga.geopackage.user;
+
+import java.nio.charset.Charset;
+
+import mil.nga.geopackage.GeoPackageException;
+
+/**
+ * Keyset pagination continuation token identifying the last row of a page by
+ * its sort column value and primary key id. Encoded as an opaque hex string.
+ * 
+ * @author osbornb
+ * @since 3.0.3
+ */
+public class UserKeysetToken {
+
+	/**
+	 * Token charset
+	 */
+	private static final Charset CHARSET = Charset.forName("UTF-8");
+
+	/**
+	 * Encoded field separator
+	 */
+	private static final char SEPARATOR = '\u0000';
+
+	/**
+	 * Hex digits
+	 */
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	/**
+	 * Sort column name
+	 */
+	private final String column;
+
+	/**
+	 * Sort column value as a where argument, null when sorting by the primary
+	 * key or for a null sort value
+	 */
+	private final String value;
+
+	/**
+	 * Primary key id
+	 */
+	private final long id;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param column
+	 *            sort column name
+	 * @param value
+	 *            sort column value as a where argument, null when sorting by
+	 *            the primary key or for a null sort value
+	 * @param id
+	 *            primary key id
+	 */
+	public UserKeysetToken(String column, String value, long id) {
+		this.column = column;
+		this.value = value;
+		this.id = id;
+	}
+
+	/**
+	 * Get the sort column name
+	 * 
+	 * @return sort column name
+	 */
+	public String getColumn() {
+		return column;
+	}
+
+	/**
+	 * Get the sort column value as a where argument
+	 * 
+	 * @return sort column value, null when sorting by the primary key or for
+	 *         a null sort value
+	 */
+	public String getValue() {
+		return value;
+	}
+
+	/**
+	 * Get the primary key id
+	 * 
+	 * @return id
+	 */
+	public long getId() {
+		return id;
+	}
+
+	/**
+	 * Encode the token
+	 * 
+	 * @return opaque token string
+	 */
+	public String encode() {
+		StringBuilder fields = new StringBuilder();
+		fields.append(column).append(SEPARATOR);
+		if (value != null) {
+			fields.append(value);
+		}
+		fields.append(SEPARATOR).append(value != null ? 'v' : 'n')
+				.append(id);
+		byte[] bytes = fields.toString().getBytes(CHARSET);
+		char[] hex = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			hex[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+			hex[i * 2 + 1] = HEX[bytes[i] & 0xF];
+		}
+		return new String(hex);
+	}
+
+	/**
+	 * Decode a token
+	 * 
+	 * @param token
+	 *            opaque token string
+	 * @return token
+	 */
+	public static UserKeysetToken decode(String token) {
+
+		UserKeysetToken keysetToken = null;
+
+		try {
+			if (token.length() % 2 != 0) {
+				throw new IllegalArgumentException("Odd token length");
+			}
+			byte[] bytes = new byte[token.length() / 2];
+			for (int i = 0; i < bytes.length; i++) {
+				bytes[i] = (byte) Integer.parseInt(
+						token.substring(i * 2, i * 2 + 2), 16);
+			}
+			String fields = new String(bytes, CHARSET);
+			int valueStart = fields.indexOf(SEPARATOR) + 1;
+			int idStart = fields.lastIndexOf(SEPARATOR) + 1;
+			if (valueStart <= 0 || idStart <= valueStart) {
+				throw new IllegalArgumentException("Missing token fields");
+			}
+			String column = fields.substring(0, valueStart - 1);
+			String value = null;
+			char valueType = fields.charAt(idStart);
+			if (valueType == 'v') {
+				value = fields.substring(valueStart, idStart - 1);
+			} else if (valueType != 'n') {
+				throw new IllegalArgumentException("Invalid value type");
+			}
+			long id = Long.parseLong(fields.substring(idStart + 1));
+			keysetToken = new UserKeysetToken(column, value, id);
+		} catch (RuntimeException e) {
+			throw new GeoPackageException("Invalid keyset page token: "
+					+ token, e);
+		}
+
+		return keysetToken;
+	}
+
+}
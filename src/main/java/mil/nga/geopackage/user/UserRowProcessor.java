@@ -0,0 +1,25 @@
+package mil.nga.geopackage.user;
+
+/**
+ * User row processor called for each row of a user table scan, see
+ * {@link UserCoreDao#process(String, String[], UserRowProcessor)}
+ * 
+ * @param <TRow>
+ *            row type
+ * 
+ * @author osbornb
+ * @since 3.0.3
+ */
+public interface UserRowProcessor<TRow extends UserCoreRow<?, ?>> {
+
+	/**
+	 * Process the row. When processing in parallel, rows are processed
+	 * concurrently from multiple threads.
+	 * 
+	 * @param row
+	 *            row
+	 * @return true to continue, false to stop processing further rows
+	 */
+	public boolean process(TRow row);
+
+}
@@ -0,0 +1,247 @@
+package mil.nga.geopackage;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+/**
+ * GeoPackage Core Cache Test, leasing, removing, replacing, and closing stub
+ * GeoPackages
+ * 
+ * @author osbornb
+ */
+public class GeoPackageCoreCacheTest {
+
+	/**
+	 * Stub GeoPackage close counts
+	 */
+	private final Map<GeoPackageCore, Integer> closes = new HashMap<>();
+
+	/**
+	 * Test closing leased GeoPackages is deferred until released
+	 */
+	@Test
+	public void testClose() {
+
+		GeoPackageCoreCache<GeoPackageCore> cache = createCache();
+
+		GeoPackageCore geoPackage = cache.lease("a");
+		TestCase.assertSame(geoPackage, cache.lease("a"));
+		TestCase.assertEquals(2, cache.getLeases("a"));
+
+		TestCase.assertTrue(cache.close("a"));
+		TestCase.assertFalse(cache.exists("a"));
+		cache.release(geoPackage);
+		TestCase.assertEquals(0, closes(geoPackage));
+		cache.release(geoPackage);
+		TestCase.assertEquals(1, closes(geoPackage));
+
+		assertNotLeased(cache, geoPackage);
+
+	}
+
+	/**
+	 * Test removing a leased GeoPackage leaves it open and its leases
+	 * releasable
+	 */
+	@Test
+	public void testRemove() {
+
+		GeoPackageCoreCache<GeoPackageCore> cache = createCache();
+
+		GeoPackageCore geoPackage = cache.lease("a");
+		TestCase.assertSame(geoPackage, cache.remove("a"));
+		TestCase.assertFalse(cache.exists("a"));
+		TestCase.assertNull(cache.remove("a"));
+
+		cache.release(geoPackage);
+		TestCase.assertEquals(0, closes(geoPackage));
+		assertNotLeased(cache, geoPackage);
+
+		// Added back after removal while leased
+		GeoPackageCore leased = cache.lease("b");
+		cache.remove("b");
+		cache.add(leased);
+		TestCase.assertSame(leased, cache.lease("b"));
+		cache.release(leased);
+		cache.release(leased);
+		TestCase.assertEquals(0, closes(leased));
+		assertNotLeased(cache, leased);
+		TestCase.assertSame(leased, cache.get("b"));
+
+	}
+
+	/**
+	 * Test clearing leased GeoPackages leaves them open and their leases
+	 * releasable
+	 */
+	@Test
+	public void testClear() {
+
+		GeoPackageCoreCache<GeoPackageCore> cache = createCache();
+
+		GeoPackageCore leased = cache.lease("a");
+		GeoPackageCore unleased = cache.lease("b");
+		cache.release(unleased);
+
+		cache.clear();
+		TestCase.assertEquals(0, cache.size());
+
+		cache.release(leased);
+		TestCase.assertEquals(0, closes(leased));
+		TestCase.assertEquals(0, closes(unleased));
+		assertNotLeased(cache, leased);
+
+	}
+
+	/**
+	 * Test adding a GeoPackage with the name of a cached GeoPackage closes the
+	 * replaced GeoPackage
+	 */
+	@Test
+	public void testAddReplace() {
+
+		GeoPackageCoreCache<GeoPackageCore> cache = createCache();
+
+		GeoPackageCore first = createGeoPackage("a");
+		cache.add(first);
+		cache.add(first);
+		TestCase.assertEquals(0, closes(first));
+
+		GeoPackageCore second = createGeoPackage("a");
+		cache.add(second);
+		TestCase.assertEquals(1, closes(first));
+		TestCase.assertSame(second, cache.get("a"));
+
+		// Replaced while leased
+		TestCase.assertSame(second, cache.lease("a"));
+		GeoPackageCore third = createGeoPackage("a");
+		cache.add(third);
+		TestCase.assertEquals(0, closes(second));
+		TestCase.assertSame(third, cache.get("a"));
+		TestCase.assertEquals(0, cache.getLeases("a"));
+
+		cache.release(second);
+		TestCase.assertEquals(1, closes(second));
+		TestCase.assertEquals(0, closes(third));
+		assertNotLeased(cache, second);
+
+	}
+
+	/**
+	 * Test closing all GeoPackages
+	 */
+	@Test
+	public void testCloseAll() {
+
+		GeoPackageCoreCache<GeoPackageCore> cache = createCache();
+
+		GeoPackageCore leased = cache.lease("a");
+		GeoPackageCore unleased = cache.lease("b");
+		cache.release(unleased);
+
+		cache.closeAll();
+		TestCase.assertEquals(0, cache.size());
+		TestCase.assertEquals(1, closes(unleased));
+		TestCase.assertEquals(0, closes(leased));
+
+		cache.release(leased);
+		TestCase.assertEquals(1, closes(leased));
+
+	}
+
+	/**
+	 * Create a cache opening stub GeoPackages
+	 * 
+	 * @return cache
+	 */
+	private GeoPackageCoreCache<GeoPackageCore> createCache() {
+		return new GeoPackageCoreCache<GeoPackageCore>(
+				new GeoPackageCacheLoader<GeoPackageCore>() {
+					@Override
+					public GeoPackageCore open(String name) {
+						return createGeoPackage(name);
+					}
+				}) {
+		};
+	}
+
+	/**
+	 * Create a stub GeoPackage counting closes
+	 * 
+	 * @param name
+	 *            GeoPackage name
+	 * @return GeoPackage
+	 */
+	private GeoPackageCore createGeoPackage(final String name) {
+		return (GeoPackageCore) Proxy.newProxyInstance(getClass()
+				.getClassLoader(), new Class<?>[] { GeoPackageCore.class },
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method,
+							Object[] args) {
+						Object value = null;
+						switch (method.getName()) {
+						case "getName":
+							value = name;
+							break;
+						case "close":
+							closes.put((GeoPackageCore) proxy,
+									closes((GeoPackageCore) proxy) + 1);
+							break;
+						case "hashCode":
+							value = System.identityHashCode(proxy);
+							break;
+						case "equals":
+							value = proxy == args[0];
+							break;
+						case "toString":
+							value = name;
+							break;
+						default:
+							throw new UnsupportedOperationException(
+									method.getName());
+						}
+						return value;
+					}
+				});
+	}
+
+	/**
+	 * Get the number of times the stub GeoPackage was closed
+	 * 
+	 * @param geoPackage
+	 *            GeoPackage
+	 * @return close count
+	 */
+	private int closes(GeoPackageCore geoPackage) {
+		Integer count = closes.get(geoPackage);
+		return count != null ? count : 0;
+	}
+
+	/**
+	 * Assert releasing the GeoPackage fails as not leased
+	 * 
+	 * @param cache
+	 *            cache
+	 * @param geoPackage
+	 *            GeoPackage
+	 */
+	private static void assertNotLeased(
+			GeoPackageCoreCache<GeoPackageCore> cache,
+			GeoPackageCore geoPackage) {
+		try {
+			cache.release(geoPackage);
+			TestCase.fail("Expected release failure");
+		} catch (GeoPackageException e) {
+			// expected
+		}
+	}
+
+}
@@ -0,0 +1,302 @@
+package mil.nga.geopackage.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import junit.framework.TestCase;
+import mil.nga.geopackage.core.contents.Contents;
+import mil.nga.geopackage.core.contents.ContentsDataType;
+import mil.nga.geopackage.core.srs.SpatialReferenceSystem;
+import mil.nga.geopackage.extension.Extensions;
+import mil.nga.geopackage.features.columns.GeometryColumns;
+import mil.nga.geopackage.tiles.matrix.TileMatrix;
+import mil.nga.geopackage.tiles.matrixset.TileMatrixSet;
+
+import org.junit.Test;
+
+import com.j256.ormlite.dao.ForeignCollection;
+
+/**
+ * GeoPackage Catalog Test
+ * 
+ * @author osbornb
+ */
+public class GeoPackageCatalogTest {
+
+	/**
+	 * Test table lookups
+	 */
+	@Test
+	public void testLookups() {
+
+		GeoPackageCatalog catalog = createCatalog();
+
+		TestCase.assertTrue(catalog.isContentsExists());
+		TestCase.assertEquals(Arrays.asList("features1", "tiles", "features2",
+				"attributes"), catalog.getTables());
+		TestCase.assertEquals(Arrays.asList("features1", "features2"),
+				catalog.getTables(ContentsDataType.FEATURES.getName()));
+		TestCase.assertTrue(catalog.getTables("unknown").isEmpty());
+
+		TestCase.assertTrue(catalog.isTable("tiles"));
+		TestCase.assertFalse(catalog.isTable("missing"));
+		TestCase.assertEquals(ContentsDataType.TILES.getName(),
+				catalog.getTableType("tiles"));
+		TestCase.assertNull(catalog.getTableType("missing"));
+		TestCase.assertTrue(catalog.isTableType(
+				ContentsDataType.ATTRIBUTES.getName(), "attributes"));
+		TestCase.assertFalse(catalog.isTableType(
+				ContentsDataType.FEATURES.getName(), "attributes"));
+
+		try {
+			catalog.getTables().add("table");
+			TestCase.fail("Expected unmodifiable tables");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+
+	}
+
+	/**
+	 * Test contents are returned as copies that do not alter the snapshot
+	 */
+	@Test
+	public void testContentsCopies() {
+
+		List<Contents> loaded = createContents();
+		GeoPackageCatalog catalog = new GeoPackageCatalog(true, loaded);
+
+		// Changes to the loaded rows after the snapshot
+		loaded.get(0).setIdentifier("changed");
+		loaded.get(0).setDataType(ContentsDataType.ATTRIBUTES);
+
+		Contents contents = catalog.getContents("features1");
+		TestCase.assertEquals("features1", contents.getTableName());
+		TestCase.assertEquals("identifier features1", contents.getIdentifier());
+		TestCase.assertEquals(ContentsDataType.FEATURES,
+				contents.getDataType());
+		TestCase.assertNotSame(contents, catalog.getContents("features1"));
+
+		contents.setIdentifier("modified");
+		contents.setDataType(ContentsDataType.TILES);
+		contents.getLastChange().setTime(0);
+		Contents unchanged = catalog.getContents("features1");
+		TestCase.assertEquals("identifier features1",
+				unchanged.getIdentifier());
+		TestCase.assertEquals(ContentsDataType.FEATURES.getName(),
+				catalog.getTableType("features1"));
+		TestCase.assertTrue(unchanged.getLastChange().getTime() > 0);
+
+		List<Contents> all = catalog.getContents();
+		TestCase.assertEquals(4, all.size());
+		all.get(1).setIdentifier("modified");
+		all.clear();
+		TestCase.assertEquals("identifier tiles", catalog.getContents("tiles")
+				.getIdentifier());
+		TestCase.assertEquals(4, catalog.getContents().size());
+
+		TestCase.assertNull(catalog.getContents("missing"));
+
+	}
+
+	/**
+	 * Test copying contents without a last change
+	 */
+	@Test
+	public void testCopyWithoutLastChange() {
+
+		Contents contents = new Contents();
+		contents.setTableName("table");
+		contents.setDataType(ContentsDataType.FEATURES);
+
+		Contents copy = contents.copy();
+		TestCase.assertEquals("table", copy.getTableName());
+		TestCase.assertNull(copy.getLastChange());
+
+	}
+
+	/**
+	 * Test the geometry columns, tile matrix set, tile matrix, extensions, and
+	 * spatial reference system lookups, and contents foreign rows answered
+	 * from the snapshot
+	 */
+	@Test
+	public void testCoreTables() {
+
+		List<Contents> contents = createContents();
+		SpatialReferenceSystem srs = new SpatialReferenceSystem();
+		srs.setSrsId(4326);
+		srs.setSrsName("WGS 84");
+
+		GeometryColumns geometryColumns = new GeometryColumns();
+		geometryColumns.setContents(contents.get(0));
+		geometryColumns.setColumnName("geom");
+		geometryColumns.setSrs(srs);
+
+		TileMatrixSet tileMatrixSet = new TileMatrixSet();
+		tileMatrixSet.setContents(contents.get(1));
+		tileMatrixSet.setSrs(srs);
+
+		List<TileMatrix> tileMatrices = new ArrayList<>();
+		for (long zoom : new long[] { 2, 0, 1 }) {
+			TileMatrix tileMatrix = new TileMatrix();
+			tileMatrix.setContents(contents.get(1));
+			tileMatrix.setZoomLevel(zoom);
+			tileMatrices.add(tileMatrix);
+		}
+
+		List<Extensions> extensions = new ArrayList<>();
+		extensions.add(createExtension("features1", "ext_a"));
+		extensions.add(createExtension(null, "ext_b"));
+		extensions.add(createExtension("features1", "ext_c"));
+
+		GeoPackageCatalog catalog = new GeoPackageCatalog(true, contents,
+				Arrays.asList(geometryColumns), Arrays.asList(tileMatrixSet),
+				tileMatrices, extensions, Arrays.asList(srs));
+
+		TestCase.assertEquals("geom", catalog.getGeometryColumns("features1")
+				.getColumnName());
+		TestCase.assertNull(catalog.getGeometryColumns("tiles"));
+		TestCase.assertEquals("tiles", catalog.getTileMatrixSet("tiles")
+				.getTableName());
+		TestCase.assertNull(catalog.getTileMatrixSet("features1"));
+		List<TileMatrix> zoomOrdered = catalog.getTileMatrices("tiles");
+		TestCase.assertEquals(3, zoomOrdered.size());
+		for (int i = 0; i < zoomOrdered.size(); i++) {
+			TestCase.assertEquals(i, zoomOrdered.get(i).getZoomLevel());
+		}
+		TestCase.assertEquals(1, catalog.getTileMatrix("tiles", 1)
+				.getZoomLevel());
+		TestCase.assertNull(catalog.getTileMatrix("tiles", 3));
+		TestCase.assertTrue(catalog.getTileMatrices("features1").isEmpty());
+
+		TestCase.assertEquals(3, catalog.getExtensions().size());
+		TestCase.assertEquals("ext_b", catalog.getExtensions().get(1)
+				.getExtensionName());
+		TestCase.assertEquals(2, catalog.getExtensions("features1").size());
+		TestCase.assertTrue(catalog.hasExtension("ext_b", null));
+		TestCase.assertFalse(catalog.hasExtension("ext_b", "features1"));
+		TestCase.assertEquals("WGS 84", catalog.getSrs(4326).getSrsName());
+		TestCase.assertNull(catalog.getSrs(3857));
+		TestCase.assertEquals(1, catalog.getSrs().size());
+
+		// Rows are copies
+		geometryColumns.setColumnName("changed");
+		catalog.getGeometryColumns("features1").setColumnName("modified");
+		catalog.getSrs(4326).setSrsName("modified");
+		catalog.getTileMatrices("tiles").get(0).setZoomLevel(5);
+		TestCase.assertEquals("geom", catalog.getGeometryColumns("features1")
+				.getColumnName());
+		TestCase.assertEquals("WGS 84", catalog.getSrs(4326).getSrsName());
+		TestCase.assertNotNull(catalog.getTileMatrix("tiles", 0));
+
+		// Contents foreign rows from the snapshot
+		Contents features = catalog.getContents("features1");
+		TestCase.assertEquals("geom", features.getGeometryColumns()
+				.getColumnName());
+		TestCase.assertNull(features.getTileMatrixSet());
+		TestCase.assertTrue(features.getTileMatrix().isEmpty());
+		Contents tiles = catalog.getContents("tiles");
+		TestCase.assertNull(tiles.getGeometryColumns());
+		TestCase.assertEquals("tiles", tiles.getTileMatrixSet().getTableName());
+		ForeignCollection<TileMatrix> tileMatrixCollection = tiles
+				.getTileMatrix();
+		TestCase.assertEquals(3, tileMatrixCollection.size());
+		TestCase.assertTrue(tileMatrixCollection.isEager());
+		long zoom = 0;
+		for (TileMatrix tileMatrix : tileMatrixCollection) {
+			TestCase.assertEquals(zoom++, tileMatrix.getZoomLevel());
+		}
+		try {
+			tileMatrixCollection.add(new TileMatrix());
+			TestCase.fail("Expected read only tile matrix collection");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+
+	}
+
+	/**
+	 * Test copying contents copies the spatial reference system
+	 */
+	@Test
+	public void testCopySrs() {
+
+		SpatialReferenceSystem srs = new SpatialReferenceSystem();
+		srs.setSrsId(4326);
+		srs.setSrsName("WGS 84");
+		Contents contents = createContents("features", ContentsDataType.FEATURES);
+		contents.setSrs(srs);
+
+		Contents copy = contents.copy();
+		TestCase.assertNotSame(srs, copy.getSrs());
+		TestCase.assertEquals(4326, copy.getSrs().getSrsId());
+		TestCase.assertEquals(Long.valueOf(4326), copy.getSrsId());
+		copy.getSrs().setSrsName("modified");
+		TestCase.assertEquals("WGS 84", srs.getSrsName());
+
+	}
+
+	/**
+	 * Create a catalog
+	 * 
+	 * @return catalog
+	 */
+	private static GeoPackageCatalog createCatalog() {
+		return new GeoPackageCatalog(true, createContents());
+	}
+
+	/**
+	 * Create contents rows
+	 * 
+	 * @return contents
+	 */
+	private static List<Contents> createContents() {
+		List<Contents> contents = new ArrayList<>();
+		contents.add(createContents("features1", ContentsDataType.FEATURES));
+		contents.add(createContents("tiles", ContentsDataType.TILES));
+		contents.add(createContents("features2", ContentsDataType.FEATURES));
+		contents.add(createContents("attributes",
+				ContentsDataType.ATTRIBUTES));
+		return contents;
+	}
+
+	/**
+	 * Create a contents row
+	 * 
+	 * @param table
+	 *            table name
+	 * @param dataType
+	 *            data type
+	 * @return contents
+	 */
+	private static Contents createContents(String table,
+			ContentsDataType dataType) {
+		Contents contents = new Contents();
+		contents.setTableName(table);
+		contents.setDataType(dataType);
+		contents.setIdentifier("identifier " + table);
+		contents.setLastChange(new Date());
+		return contents;
+	}
+
+	/**
+	 * Create an extension
+	 * 
+	 * @param table
+	 *            table name or null
+	 * @param extensionName
+	 *            extension name
+	 * @return extension
+	 */
+	private static Extensions createExtension(String table,
+			String extensionName) {
+		Extensions extension = new Extensions();
+		extension.setTableName(table);
+		extension.setExtensionName(extensionName);
+		return extension;
+	}
+
+}
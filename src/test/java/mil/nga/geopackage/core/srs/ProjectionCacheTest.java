@@ -0,0 +1,157 @@
+package mil.nga.geopackage.core.srs;
+
+import java.sql.SQLException;
+
+import junit.framework.TestCase;
+import mil.nga.geopackage.factory.SQLiteGeoPackage;
+import mil.nga.sf.proj.Projection;
+import mil.nga.sf.proj.ProjectionConstants;
+import mil.nga.sf.proj.ProjectionTransform;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.j256.ormlite.stmt.DeleteBuilder;
+import com.j256.ormlite.stmt.UpdateBuilder;
+
+/**
+ * Projection Cache Test, verifying Spatial Reference System DAO changes clear
+ * cached projections
+ * 
+ * @author osbornb
+ */
+public class ProjectionCacheTest {
+
+	/**
+	 * GeoPackage
+	 */
+	private SQLiteGeoPackage geoPackage;
+
+	/**
+	 * Spatial Reference System DAO
+	 */
+	private SpatialReferenceSystemDao srsDao;
+
+	/**
+	 * WGS 84 Spatial Reference System
+	 */
+	private SpatialReferenceSystem srs;
+
+	/**
+	 * Create the GeoPackage
+	 * 
+	 * @throws SQLException
+	 *             upon error
+	 */
+	@Before
+	public void setUp() throws SQLException {
+		geoPackage = SQLiteGeoPackage.create();
+		srsDao = geoPackage.getSpatialReferenceSystemDao();
+		srs = srsDao.queryForId((long) ProjectionConstants.EPSG_WORLD_GEODETIC_SYSTEM);
+		ProjectionCache.clear();
+	}
+
+	/**
+	 * Close and delete the GeoPackage
+	 */
+	@After
+	public void tearDown() {
+		geoPackage.close();
+		geoPackage.getFile().delete();
+	}
+
+	/**
+	 * Test projections are cached until a DAO update
+	 * 
+	 * @throws SQLException
+	 *             upon error
+	 */
+	@Test
+	public void testUpdate() throws SQLException {
+
+		Projection projection = srs.getProjection();
+		TestCase.assertSame(projection, srs.getProjection());
+
+		srs.setDescription("updated");
+		srsDao.update(srs);
+		assertCleared(projection);
+
+	}
+
+	/**
+	 * Test an update builder change clears cached projections
+	 * 
+	 * @throws SQLException
+	 *             upon error
+	 */
+	@Test
+	public void testUpdateBuilder() throws SQLException {
+
+		Projection projection = srs.getProjection();
+
+		UpdateBuilder<SpatialReferenceSystem, Long> updateBuilder = srsDao
+				.updateBuilder();
+		updateBuilder.updateColumnValue(SpatialReferenceSystem.COLUMN_DESCRIPTION,
+				"updated");
+		updateBuilder.where().eq(SpatialReferenceSystem.COLUMN_ID, srs.getId());
+		TestCase.assertEquals(1, updateBuilder.update());
+		assertCleared(projection);
+
+	}
+
+	/**
+	 * Test deletes by id and by delete builder clear cached projections
+	 * 
+	 * @throws SQLException
+	 *             upon error
+	 */
+	@Test
+	public void testDelete() throws SQLException {
+
+		Projection projection = srs.getProjection();
+		TestCase.assertEquals(1, srsDao.deleteById(srs.getId()));
+		assertCleared(projection);
+
+		srsDao.create(srs);
+		projection = srs.getProjection();
+		DeleteBuilder<SpatialReferenceSystem, Long> deleteBuilder = srsDao
+				.deleteBuilder();
+		deleteBuilder.where().eq(SpatialReferenceSystem.COLUMN_ID, srs.getId());
+		TestCase.assertEquals(1, deleteBuilder.delete());
+		assertCleared(projection);
+
+	}
+
+	/**
+	 * Test Spatial Reference System transformations are independent instances
+	 * 
+	 * @throws SQLException
+	 *             upon error
+	 */
+	@Test
+	public void testTransformation() throws SQLException {
+
+		Projection from = srsDao.getOrCreateCode(
+				ProjectionConstants.AUTHORITY_EPSG,
+				ProjectionConstants.EPSG_WEB_MERCATOR).getProjection();
+		ProjectionTransform transform = srs.getTransformation(from);
+		TestCase.assertNotSame(transform, srs.getTransformation(from));
+		TestCase.assertSame(from, transform.getFromProjection());
+		TestCase.assertSame(srs.getProjection(), transform.getToProjection());
+
+	}
+
+	/**
+	 * Assert the cached projection was cleared
+	 * 
+	 * @param projection
+	 *            previously cached projection
+	 */
+	private void assertCleared(Projection projection) {
+		Projection current = srs.getProjection();
+		TestCase.assertNotSame(projection, current);
+		TestCase.assertSame(current, srs.getProjection());
+	}
+
+}
@@ -0,0 +1,262 @@
+package mil.nga.geopackage.db;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+import junit.framework.TestCase;
+import mil.nga.geopackage.GeoPackageException;
+
+import org.junit.Test;
+
+/**
+ * Date Codec Test, comparing the codec against {@link SimpleDateFormat}
+ * 
+ * @author osbornb
+ */
+public class DateCodecTest {
+
+	/**
+	 * Min supported epoch milliseconds, 1583-01-01T00:00:00.000Z
+	 */
+	private static final long MIN_MILLIS = -12212553600000L;
+
+	/**
+	 * Max supported epoch milliseconds, 9999-12-31T23:59:59.999Z
+	 */
+	private static final long MAX_MILLIS = 253402300799999L;
+
+	/**
+	 * Test formatting against the simple date formats
+	 */
+	@Test
+	public void testFormat() {
+
+		SimpleDateFormat dateFormat = format(DateConverter.DATE_FORMAT);
+		SimpleDateFormat dateTimeFormat = format(DateConverter.DATETIME_FORMAT);
+
+		for (long millis : testMillis(new Random(21))) {
+			Date date = new Date(millis);
+			TestCase.assertEquals(dateFormat.format(date),
+					DateCodec.formatDate(millis));
+			TestCase.assertEquals(dateTimeFormat.format(date),
+					DateCodec.formatDateTime(millis));
+		}
+
+	}
+
+	/**
+	 * Test parsing against the simple date formats
+	 * 
+	 * @throws ParseException
+	 *             upon error
+	 */
+	@Test
+	public void testParse() throws ParseException {
+
+		SimpleDateFormat dateFormat = format(DateConverter.DATE_FORMAT);
+		SimpleDateFormat dateTimeFormat = format(DateConverter.DATETIME_FORMAT);
+		SimpleDateFormat dateTimeFormat2 = format(DateConverter.DATETIME_FORMAT2);
+
+		for (long millis : testMillis(new Random(210))) {
+			Date date = new Date(millis);
+
+			String dateValue = dateFormat.format(date);
+			TestCase.assertEquals(dateValue, dateFormat.parse(dateValue)
+					.getTime(), DateCodec.parseDate(dateValue));
+
+			String dateTimeValue = dateTimeFormat.format(date);
+			TestCase.assertEquals(dateTimeValue, millis,
+					DateCodec.parseDateTime(dateTimeValue));
+
+			String dateTimeValue2 = dateTimeFormat2.format(date);
+			TestCase.assertEquals(dateTimeValue2,
+					dateTimeFormat2.parse(dateTimeValue2).getTime(),
+					DateCodec.parseDateTime(dateTimeValue2));
+		}
+
+	}
+
+	/**
+	 * Test the converters round trip values through the codec
+	 */
+	@Test
+	public void testConverter() {
+
+		DateConverter dateConverter = DateConverter.dateConverter();
+		DateConverter dateTimeConverter = DateConverter.dateTimeConverter();
+
+		for (long millis : testMillis(new Random(2100))) {
+			TestCase.assertEquals(millis, dateTimeConverter
+					.millisValue(dateTimeConverter.stringValue(millis)));
+			long day = millis / 86400000L;
+			if (millis % 86400000L < 0) {
+				day--;
+			}
+			TestCase.assertEquals(day * 86400000L, dateConverter
+					.millisValue(dateConverter.stringValue(millis)));
+			TestCase.assertEquals(new Date(millis),
+					dateTimeConverter.dateValue(DateCodec
+							.formatDateTime(millis)));
+		}
+
+		// Lenient fallback parsing outside of the fixed layouts
+		SimpleDateFormat lenientFormat = format(DateConverter.DATE_FORMAT);
+		for (String value : new String[] { "2018-3-5", "1582-10-10",
+				"2019-02-30" }) {
+			TestCase.assertEquals(DateCodec.INVALID,
+					DateCodec.parseDate(value));
+			try {
+				TestCase.assertEquals(value, lenientFormat.parse(value)
+						.getTime(), dateConverter.millisValue(value));
+			} catch (ParseException e) {
+				TestCase.fail("Failed to parse: " + value);
+			}
+		}
+
+		try {
+			dateTimeConverter.millisValue("not a date");
+			TestCase.fail("Expected parse failure");
+		} catch (GeoPackageException e) {
+			// expected
+		}
+
+	}
+
+	/**
+	 * Test parsing invalid dates, comparing calendar invalid dates against a
+	 * non lenient simple date format
+	 */
+	@Test
+	public void testInvalid() {
+
+		SimpleDateFormat dateFormat = format(DateConverter.DATE_FORMAT);
+		dateFormat.setLenient(false);
+		SimpleDateFormat dateTimeFormat = format(DateConverter.DATETIME_FORMAT);
+		dateTimeFormat.setLenient(false);
+
+		String[] invalidDates = new String[] { "2019-02-29", "1900-02-29",
+				"2100-02-29", "2019-04-31", "2019-06-31", "2019-09-31",
+				"2019-11-31", "2019-01-32", "2019-13-01", "2019-00-10",
+				"2019-01-00" };
+		for (String value : invalidDates) {
+			TestCase.assertEquals(value, DateCodec.INVALID,
+					DateCodec.parseDate(value));
+			assertParseException(dateFormat, value);
+
+			String dateTimeValue = value + "T10:15:30.123Z";
+			TestCase.assertEquals(dateTimeValue, DateCodec.INVALID,
+					DateCodec.parseDateTime(dateTimeValue));
+			assertParseException(dateTimeFormat, dateTimeValue);
+		}
+
+		String[] invalidTimes = new String[] { "2019-01-01T24:00:00.000Z",
+				"2019-01-01T10:60:00.000Z", "2019-01-01T10:15:60.000Z",
+				"2019-01-01T10:15:30.-12Z" };
+		for (String value : invalidTimes) {
+			TestCase.assertEquals(value, DateCodec.INVALID,
+					DateCodec.parseDateTime(value));
+			assertParseException(dateTimeFormat, value);
+		}
+
+		String[] invalidLayouts = new String[] { "2019-1-01", "2019/01/01",
+				"19-01-01", "2019-01-011", "201a-01-01", "1582-12-31",
+				"0000-01-01", "2019-01-01 10:15:30.123Z",
+				"2019-01-01T10:15:30.123", "2019-01-01T10:15:30,123Z",
+				"2019-01-01T10-15-30.123Z", "2019-01-01T10:15:30.1Z",
+				"2019-01-01T10:15Z" };
+		for (String value : invalidLayouts) {
+			TestCase.assertEquals(value, DateCodec.INVALID,
+					DateCodec.parseDate(value));
+			TestCase.assertEquals(value, DateCodec.INVALID,
+					DateCodec.parseDateTime(value));
+		}
+
+		String[] validDates = new String[] { "2000-02-29", "2016-02-29",
+				"1600-02-29", "1583-01-01", "9999-12-31" };
+		for (String value : validDates) {
+			TestCase.assertTrue(value,
+					DateCodec.parseDate(value) != DateCodec.INVALID);
+		}
+
+	}
+
+	/**
+	 * Test formatting outside of the supported years
+	 */
+	@Test
+	public void testUnsupported() {
+
+		for (long millis : new long[] { MIN_MILLIS - 1, MAX_MILLIS + 1,
+				Long.MIN_VALUE, Long.MAX_VALUE }) {
+			TestCase.assertFalse(DateCodec.isSupported(millis));
+			TestCase.assertNull(DateCodec.formatDate(millis));
+			TestCase.assertNull(DateCodec.formatDateTime(millis));
+		}
+
+		TestCase.assertTrue(DateCodec.isSupported(MIN_MILLIS));
+		TestCase.assertTrue(DateCodec.isSupported(MAX_MILLIS));
+		TestCase.assertEquals(MIN_MILLIS,
+				DateCodec.parseDateTime("1583-01-01T00:00:00.000Z"));
+		TestCase.assertEquals(MAX_MILLIS,
+				DateCodec.parseDateTime("9999-12-31T23:59:59.999Z"));
+
+	}
+
+	/**
+	 * Create a UTC simple date format
+	 * 
+	 * @param pattern
+	 *            date pattern
+	 * @return simple date format
+	 */
+	private static SimpleDateFormat format(String pattern) {
+		SimpleDateFormat format = new SimpleDateFormat(pattern);
+		format.setTimeZone(TimeZone.getTimeZone("UTC"));
+		return format;
+	}
+
+	/**
+	 * Assert the non lenient format fails to parse the value
+	 * 
+	 * @param format
+	 *            simple date format
+	 * @param value
+	 *            value
+	 */
+	private static void assertParseException(SimpleDateFormat format,
+			String value) {
+		try {
+			format.parse(value);
+			TestCase.fail("Expected parse failure: " + value);
+		} catch (ParseException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Create supported test epoch milliseconds, including the supported
+	 * boundaries, the epoch, and leap days
+	 * 
+	 * @param random
+	 *            random
+	 * @return epoch milliseconds
+	 */
+	private static long[] testMillis(Random random) {
+		long[] millis = new long[1000];
+		millis[0] = MIN_MILLIS;
+		millis[1] = MAX_MILLIS;
+		millis[2] = 0;
+		millis[3] = -1;
+		millis[4] = 951782400000L; // 2000-02-29
+		millis[5] = 1456703999999L; // 2016-02-28T23:59:59.999Z
+		for (int i = 6; i < millis.length; i++) {
+			millis[i] = MIN_MILLIS
+					+ (long) (random.nextDouble() * (MAX_MILLIS - MIN_MILLIS));
+		}
+		return millis;
+	}
+
+}
@@ -0,0 +1,228 @@
+package mil.nga.geopackage.db;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import junit.framework.TestCase;
+import mil.nga.geopackage.GeoPackageException;
+
+import org.junit.Test;
+
+/**
+ * GeoPackage Core Connection Pool Test, using stub connections
+ * 
+ * @author osbornb
+ */
+public class GeoPackageCoreConnectionPoolTest {
+
+	/**
+	 * Opened stub connections
+	 */
+	private final List<StubGeoPackageCoreConnection> opened = new ArrayList<>();
+
+	/**
+	 * Test connections are opened on demand and reused
+	 */
+	@Test
+	public void testAcquireRelease() {
+
+		GeoPackageCoreConnectionPool<StubGeoPackageCoreConnection> pool = createPool(2);
+		TestCase.assertEquals(2, pool.getMaxConnections());
+		TestCase.assertEquals(0, pool.getOpenConnections());
+		TestCase.assertEquals(2, pool.getAvailableConnections());
+
+		StubGeoPackageCoreConnection connection1 = pool.acquire();
+		StubGeoPackageCoreConnection connection2 = pool.acquire();
+		TestCase.assertNotSame(connection1, connection2);
+		TestCase.assertEquals(2, pool.getOpenConnections());
+		TestCase.assertEquals(2, pool.getConnectionsInUse());
+		TestCase.assertEquals(0, pool.getAvailableConnections());
+
+		pool.release(connection1);
+		TestCase.assertEquals(1, pool.getConnectionsInUse());
+		TestCase.assertEquals(1, pool.getAvailableConnections());
+		TestCase.assertSame(connection1, pool.acquire());
+		TestCase.assertEquals(2, opened.size());
+
+		pool.release(connection1);
+		pool.release(connection2);
+		TestCase.assertEquals(0, pool.getConnectionsInUse());
+		TestCase.assertEquals(2, pool.getAvailableConnections());
+		TestCase.assertEquals(2, pool.getOpenConnections());
+		TestCase.assertEquals(0, connection1.getCloses());
+
+	}
+
+	/**
+	 * Test releasing a connection twice or a connection not acquired from the
+	 * pool fails without adding permits
+	 */
+	@Test
+	public void testDoubleRelease() {
+
+		GeoPackageCoreConnectionPool<StubGeoPackageCoreConnection> pool = createPool(1);
+
+		StubGeoPackageCoreConnection connection = pool.acquire();
+		pool.release(connection);
+		assertReleaseFails(pool, connection);
+		assertReleaseFails(pool, new StubGeoPackageCoreConnection(-1));
+
+		TestCase.assertEquals(1, pool.getAvailableConnections());
+		TestCase.assertSame(connection, pool.acquire());
+		TestCase.assertEquals(0, pool.getAvailableConnections());
+		pool.release(connection);
+		assertReleaseFails(pool, connection);
+		TestCase.assertEquals(1, pool.getAvailableConnections());
+
+	}
+
+	/**
+	 * Test acquiring blocks while all connections are in use
+	 * 
+	 * @throws InterruptedException
+	 *             upon interruption
+	 */
+	@Test
+	public void testBlocking() throws InterruptedException {
+
+		final GeoPackageCoreConnectionPool<StubGeoPackageCoreConnection> pool = createPool(1);
+		StubGeoPackageCoreConnection connection = pool.acquire();
+
+		final CountDownLatch acquired = new CountDownLatch(1);
+		final AtomicReference<StubGeoPackageCoreConnection> waiter = new AtomicReference<>();
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				waiter.set(pool.acquire());
+				acquired.countDown();
+			}
+		});
+		thread.start();
+
+		TestCase.assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+		pool.release(connection);
+		TestCase.assertTrue(acquired.await(5, TimeUnit.SECONDS));
+		thread.join();
+		TestCase.assertSame(connection, waiter.get());
+		TestCase.assertEquals(1, opened.size());
+
+		pool.release(waiter.get());
+
+	}
+
+	/**
+	 * Test closing the pool closes idle connections and connections in use
+	 * when released
+	 */
+	@Test
+	public void testClose() {
+
+		GeoPackageCoreConnectionPool<StubGeoPackageCoreConnection> pool = createPool(2);
+
+		StubGeoPackageCoreConnection idle = pool.acquire();
+		StubGeoPackageCoreConnection inUse = pool.acquire();
+		pool.release(idle);
+
+		pool.close();
+		TestCase.assertTrue(pool.isClosed());
+		TestCase.assertEquals(1, idle.getCloses());
+		TestCase.assertEquals(0, inUse.getCloses());
+		TestCase.assertEquals(1, pool.getOpenConnections());
+
+		pool.release(inUse);
+		TestCase.assertEquals(1, inUse.getCloses());
+		TestCase.assertEquals(0, pool.getOpenConnections());
+		assertReleaseFails(pool, inUse);
+		TestCase.assertEquals(1, inUse.getCloses());
+
+		try {
+			pool.acquire();
+			TestCase.fail("Expected closed pool failure");
+		} catch (GeoPackageException e) {
+			// expected
+		}
+
+	}
+
+	/**
+	 * Test a failed open returns its permit
+	 */
+	@Test
+	public void testOpenFailure() {
+
+		GeoPackageCoreConnectionPool<StubGeoPackageCoreConnection> pool = new GeoPackageCoreConnectionPool<>(
+				new GeoPackageCoreConnectionFactory<StubGeoPackageCoreConnection>() {
+					@Override
+					public StubGeoPackageCoreConnection open() {
+						throw new IllegalStateException("open failure");
+					}
+				}, 1);
+
+		for (int i = 0; i < 2; i++) {
+			try {
+				pool.acquire();
+				TestCase.fail("Expected open failure");
+			} catch (GeoPackageException e) {
+				// expected
+			}
+			TestCase.assertEquals(1, pool.getAvailableConnections());
+			TestCase.assertEquals(0, pool.getOpenConnections());
+		}
+
+		try {
+			createPool(0);
+			TestCase.fail("Expected max connections failure");
+		} catch (GeoPackageException e) {
+			// expected
+		}
+
+	}
+
+	/**
+	 * Create a pool opening stub connections
+	 * 
+	 * @param maxConnections
+	 *            max connections
+	 * @return pool
+	 */
+	private GeoPackageCoreConnectionPool<StubGeoPackageCoreConnection> createPool(
+			int maxConnections) {
+		return new GeoPackageCoreConnectionPool<>(
+				new GeoPackageCoreConnectionFactory<StubGeoPackageCoreConnection>() {
+					@Override
+					public StubGeoPackageCoreConnection open() {
+						synchronized (opened) {
+							StubGeoPackageCoreConnection connection = new StubGeoPackageCoreConnection(
+									opened.size() + 1);
+							opened.add(connection);
+							return connection;
+						}
+					}
+				}, maxConnections);
+	}
+
+	/**
+	 * Assert releasing the connection fails
+	 * 
+	 * @param pool
+	 *            pool
+	 * @param connection
+	 *            connection
+	 */
+	private static void assertReleaseFails(
+			GeoPackageCoreConnectionPool<StubGeoPackageCoreConnection> pool,
+			StubGeoPackageCoreConnection connection) {
+		int available = pool.getAvailableConnections();
+		try {
+			pool.release(connection);
+			TestCase.fail("Expected release failure");
+		} catch (GeoPackageException e) {
+			// expected
+		}
+		TestCase.assertEquals(available, pool.getAvailableConnections());
+	}
+
+}
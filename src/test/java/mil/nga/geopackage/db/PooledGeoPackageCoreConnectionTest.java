@@ -0,0 +1,294 @@
+package mil.nga.geopackage.db;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.support.DatabaseConnection;
+
+/**
+ * Pooled GeoPackage Core Connection Test, verifying writer transaction pinning
+ * and the {@link PooledConnectionSource} routing using stub connections
+ * 
+ * @author osbornb
+ */
+public class PooledGeoPackageCoreConnectionTest {
+
+	/**
+	 * Writer connection id
+	 */
+	private static final int WRITER_ID = 0;
+
+	/**
+	 * Test reads use pooled readers and writes use the writer
+	 */
+	@Test
+	public void testRouting() {
+
+		PooledGeoPackageCoreConnection<StubGeoPackageCoreConnection> connection = createConnection(2);
+		StubGeoPackageCoreConnection writer = connection.getWriter();
+
+		TestCase.assertFalse(connection.isPinnedToWriter());
+		TestCase.assertTrue(connection.count("table", null, null) > WRITER_ID);
+		TestCase.assertTrue(connection.min("table", "column", null, null)
+				> WRITER_ID);
+		TestCase.assertTrue(connection.max("table", "column", null, null)
+				> WRITER_ID);
+		TestCase.assertTrue(connection.querySingleIntResult("SELECT 1", null)
+				> WRITER_ID);
+		TestCase.assertEquals(WRITER_ID,
+				connection.delete("table", null, null));
+		TestCase.assertEquals(0, connection.getReaders()
+				.getConnectionsInUse());
+
+		connection.execSQL("DELETE FROM table");
+		TestCase.assertEquals(1, writer.getStatements().size());
+
+		StubGeoPackageCoreConnection reader = connection.acquireReader();
+		TestCase.assertNotSame(writer, reader);
+		TestCase.assertEquals(1, connection.getReaders().getConnectionsInUse());
+		connection.releaseReader(reader);
+		TestCase.assertEquals(0, connection.getReaders()
+				.getConnectionsInUse());
+
+		connection.close();
+		TestCase.assertEquals(1, writer.getCloses());
+		TestCase.assertEquals(1, reader.getCloses());
+
+	}
+
+	/**
+	 * Test transactions and savepoints pin reads to the writer until the
+	 * outermost transaction ends
+	 */
+	@Test
+	public void testTransactionPinning() {
+
+		PooledGeoPackageCoreConnection<StubGeoPackageCoreConnection> connection = createConnection(1);
+
+		connection.execSQL("BEGIN TRANSACTION");
+		assertPinned(connection, true);
+		connection.execSQL("COMMIT");
+		assertPinned(connection, false);
+
+		connection.execSQL("  begin immediate");
+		connection.execSQL("SAVEPOINT sp1");
+		connection.execSQL("ROLLBACK TO SAVEPOINT sp1");
+		assertPinned(connection, true);
+		connection.execSQL("rollback transaction to sp1");
+		assertPinned(connection, true);
+		connection.execSQL("RELEASE SAVEPOINT sp1");
+		assertPinned(connection, true);
+		connection.execSQL("END TRANSACTION");
+		assertPinned(connection, false);
+
+		connection.execSQL("SAVEPOINT sp2");
+		connection.execSQL("SAVEPOINT sp3");
+		connection.execSQL("RELEASE sp3");
+		assertPinned(connection, true);
+		connection.execSQL("RELEASE sp2");
+		assertPinned(connection, false);
+		connection.execSQL("RELEASE sp2");
+		assertPinned(connection, false);
+
+		connection.execSQL("BEGIN");
+		connection.execSQL("SAVEPOINT sp4");
+		connection.execSQL("ROLLBACK");
+		assertPinned(connection, false);
+
+		TestCase.assertEquals(0, connection.getReaders()
+				.getConnectionsInUse());
+
+	}
+
+	/**
+	 * Test a transaction pins only the thread that began it
+	 * 
+	 * @throws InterruptedException
+	 *             upon interruption
+	 */
+	@Test
+	public void testPinningPerThread() throws InterruptedException {
+
+		final PooledGeoPackageCoreConnection<StubGeoPackageCoreConnection> connection = createConnection(1);
+
+		connection.execSQL("BEGIN TRANSACTION");
+		assertPinned(connection, true);
+
+		final AtomicInteger otherThread = new AtomicInteger(-1);
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				otherThread.set(connection.count("table", null, null));
+			}
+		});
+		thread.start();
+		thread.join();
+		TestCase.assertTrue(otherThread.get() > WRITER_ID);
+
+		connection.execSQL("COMMIT");
+		assertPinned(connection, false);
+
+	}
+
+	/**
+	 * Test nested reads on a thread share its reader instead of waiting on an
+	 * exhausted pool
+	 */
+	@Test(timeout = 10000)
+	public void testNestedReaders() {
+
+		PooledGeoPackageCoreConnection<StubGeoPackageCoreConnection> connection = createConnection(1);
+
+		StubGeoPackageCoreConnection reader = connection.acquireReader();
+		StubGeoPackageCoreConnection nested = connection.acquireReader();
+		TestCase.assertSame(reader, nested);
+		TestCase.assertEquals(reader.count("table", null, null),
+				connection.count("table", null, null));
+		TestCase.assertEquals(1, connection.getReaders().getConnectionsInUse());
+
+		connection.releaseReader(nested);
+		TestCase.assertEquals(1, connection.getReaders().getConnectionsInUse());
+		connection.releaseReader(reader);
+		TestCase.assertEquals(0, connection.getReaders()
+				.getConnectionsInUse());
+
+	}
+
+	/**
+	 * Test the connection source routes read only connections to readers and
+	 * read write connections to the writer
+	 * 
+	 * @throws SQLException
+	 *             upon error
+	 */
+	@Test
+	public void testConnectionSource() throws SQLException {
+
+		PooledGeoPackageCoreConnection<StubGeoPackageCoreConnection> connection = createConnection(2);
+		StubGeoPackageCoreConnection writer = connection.getWriter();
+		ConnectionSource connectionSource = connection.getConnectionSource();
+		TestCase.assertTrue(connectionSource instanceof PooledConnectionSource);
+		TestCase.assertFalse(connectionSource.isSingleConnection("table"));
+
+		// Read only from a reader, held until released and shared by nested
+		// reads on the same thread
+		DatabaseConnection readOnly = connectionSource
+				.getReadOnlyConnection("table");
+		TestCase.assertFalse(writer.getConnections().contains(readOnly));
+		TestCase.assertEquals(1, connection.getReaders().getConnectionsInUse());
+		DatabaseConnection readOnly2 = connectionSource
+				.getReadOnlyConnection("table");
+		TestCase.assertEquals(1, connection.getReaders().getConnectionsInUse());
+		connectionSource.releaseConnection(readOnly);
+		TestCase.assertEquals(1, connection.getReaders().getConnectionsInUse());
+		connectionSource.releaseConnection(readOnly2);
+		TestCase.assertEquals(0, connection.getReaders()
+				.getConnectionsInUse());
+		TestCase.assertTrue(writer.getReleased().isEmpty());
+
+		StubGeoPackageCoreConnection reader = connection.acquireReader();
+		TestCase.assertTrue(reader.getReleased().contains(readOnly)
+				|| reader.getReleased().contains(readOnly2));
+		connection.releaseReader(reader);
+
+		// Read write from the writer
+		DatabaseConnection readWrite = connectionSource
+				.getReadWriteConnection("table");
+		TestCase.assertTrue(writer.getConnections().contains(readWrite));
+		TestCase.assertEquals(0, connection.getReaders()
+				.getConnectionsInUse());
+		connectionSource.releaseConnection(readWrite);
+		TestCase.assertTrue(writer.getReleased().contains(readWrite));
+
+		// Read only from the writer within an ORMLite transaction
+		TestCase.assertTrue(connectionSource.saveSpecialConnection(readWrite));
+		TestCase.assertSame(readWrite,
+				connectionSource.getSpecialConnection("table"));
+		assertWriterReadOnly(connection);
+		connectionSource.clearSpecialConnection(readWrite);
+		TestCase.assertNull(connectionSource.getSpecialConnection("table"));
+
+		// Read only from the writer when pinned
+		connection.execSQL("BEGIN TRANSACTION");
+		assertWriterReadOnly(connection);
+		connection.execSQL("COMMIT");
+
+		DatabaseConnection unpinned = connectionSource
+				.getReadOnlyConnection("table");
+		TestCase.assertFalse(writer.getConnections().contains(unpinned));
+		connectionSource.releaseConnection(unpinned);
+		TestCase.assertEquals(0, connection.getReaders()
+				.getConnectionsInUse());
+
+	}
+
+	/**
+	 * Create a pooled connection over stub connections
+	 * 
+	 * @param maxReaders
+	 *            max readers
+	 * @return pooled connection
+	 */
+	private static PooledGeoPackageCoreConnection<StubGeoPackageCoreConnection> createConnection(
+			int maxReaders) {
+		final AtomicInteger ids = new AtomicInteger(WRITER_ID);
+		return new PooledGeoPackageCoreConnection<>(
+				new StubGeoPackageCoreConnection(WRITER_ID),
+				new GeoPackageCoreConnectionFactory<StubGeoPackageCoreConnection>() {
+					@Override
+					public StubGeoPackageCoreConnection open() {
+						return new StubGeoPackageCoreConnection(ids
+								.incrementAndGet());
+					}
+				}, maxReaders);
+	}
+
+	/**
+	 * Assert whether reads on the current thread are pinned to the writer
+	 * 
+	 * @param connection
+	 *            pooled connection
+	 * @param pinned
+	 *            expected pinned
+	 */
+	private static void assertPinned(
+			PooledGeoPackageCoreConnection<StubGeoPackageCoreConnection> connection,
+			boolean pinned) {
+		TestCase.assertEquals(pinned, connection.isPinnedToWriter());
+		TestCase.assertEquals(pinned,
+				connection.count("table", null, null) == WRITER_ID);
+		StubGeoPackageCoreConnection reader = connection.acquireReader();
+		TestCase.assertEquals(pinned, reader == connection.getWriter());
+		TestCase.assertEquals(pinned ? 0 : 1, connection.getReaders()
+				.getConnectionsInUse());
+		connection.releaseReader(reader);
+	}
+
+	/**
+	 * Assert a read only connection comes from and is released to the writer
+	 * 
+	 * @param connection
+	 *            pooled connection
+	 * @throws SQLException
+	 *             upon error
+	 */
+	private static void assertWriterReadOnly(
+			PooledGeoPackageCoreConnection<StubGeoPackageCoreConnection> connection)
+			throws SQLException {
+		StubGeoPackageCoreConnection writer = connection.getWriter();
+		ConnectionSource connectionSource = connection.getConnectionSource();
+		DatabaseConnection readOnly = connectionSource
+				.getReadOnlyConnection("table");
+		TestCase.assertTrue(writer.getConnections().contains(readOnly));
+		TestCase.assertEquals(0, connection.getReaders()
+				.getConnectionsInUse());
+		connectionSource.releaseConnection(readOnly);
+		TestCase.assertTrue(writer.getReleased().contains(readOnly));
+	}
+
+}
@@ -0,0 +1,264 @@
+package mil.nga.geopackage.db;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+import mil.nga.geopackage.core.srs.SpatialReferenceSystem;
+import mil.nga.geopackage.core.srs.SpatialReferenceSystemDao;
+import mil.nga.geopackage.factory.GeoPackageCoreImpl;
+import mil.nga.geopackage.factory.SQLiteGeoPackage;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.j256.ormlite.dao.CloseableIterator;
+
+/**
+ * Pooled GeoPackage Test, reading and writing an on disk SQLite GeoPackage in
+ * write ahead logging mode through a pooled connection
+ *
+ * @author osbornb
+ */
+public class PooledSQLiteGeoPackageTest {
+
+	/**
+	 * GeoPackage file
+	 */
+	private File file;
+
+	/**
+	 * Pooled GeoPackage
+	 */
+	private PooledSQLiteGeoPackage geoPackage;
+
+	/**
+	 * Create the GeoPackage file with a test table
+	 */
+	@Before
+	public void setUp() {
+		SQLiteGeoPackage created = SQLiteGeoPackage.create();
+		file = created.getFile();
+		created.execSQL("PRAGMA journal_mode=WAL");
+		created.execSQL("CREATE TABLE test (id INTEGER PRIMARY KEY, name TEXT)");
+		created.close();
+	}
+
+	/**
+	 * Close the GeoPackage and delete the file
+	 */
+	@After
+	public void tearDown() {
+		if (geoPackage != null) {
+			geoPackage.close();
+		}
+		file.delete();
+	}
+
+	/**
+	 * Test nested reads on a thread share its reader with a single reader
+	 * pool
+	 */
+	@Test(timeout = 10000)
+	public void testNestedReads() {
+
+		geoPackage = new PooledSQLiteGeoPackage(file, 1);
+		PooledGeoPackageCoreConnection<SQLiteGeoPackageConnection> connection = geoPackage
+				.getDatabase();
+		connection.execSQL("INSERT INTO test (name) VALUES ('a')");
+
+		SQLiteGeoPackageConnection reader = connection.acquireReader();
+		try {
+			TestCase.assertNotSame(connection.getWriter(), reader);
+			TestCase.assertEquals(1, connection.count("test", null, null));
+			TestCase.assertEquals("a", connection.querySingleStringResult(
+					"SELECT name FROM test", null));
+		} finally {
+			connection.releaseReader(reader);
+		}
+		TestCase.assertEquals(0, connection.getReaders()
+				.getConnectionsInUse());
+
+	}
+
+	/**
+	 * Test nested ORMLite DAO reads through the GeoPackage with a single
+	 * reader pool
+	 *
+	 * @throws SQLException
+	 *             upon error
+	 */
+	@Test(timeout = 10000)
+	public void testNestedDaoReads() throws SQLException {
+
+		geoPackage = new PooledSQLiteGeoPackage(file, 1);
+		SpatialReferenceSystemDao srsDao = geoPackage
+				.getSpatialReferenceSystemDao();
+
+		List<SpatialReferenceSystem> srsList = srsDao.queryForAll();
+		TestCase.assertFalse(srsList.isEmpty());
+
+		int count = 0;
+		CloseableIterator<SpatialReferenceSystem> iterator = srsDao.iterator();
+		try {
+			while (iterator.hasNext()) {
+				SpatialReferenceSystem srs = iterator.next();
+				TestCase.assertEquals(srs.getSrsName(),
+						srsDao.queryForId(srs.getId()).getSrsName());
+				TestCase.assertEquals(srsList.size(), srsDao.countOf());
+				count++;
+			}
+		} finally {
+			iterator.closeQuietly();
+		}
+		TestCase.assertEquals(srsList.size(), count);
+		TestCase.assertEquals(0, geoPackage.getDatabase().getReaders()
+				.getConnectionsInUse());
+
+	}
+
+	/**
+	 * Test reads on separate threads use separate readers concurrently
+	 *
+	 * @throws InterruptedException
+	 *             upon interruption
+	 */
+	@Test(timeout = 10000)
+	public void testConcurrentReads() throws InterruptedException {
+
+		geoPackage = new PooledSQLiteGeoPackage(file, 2);
+		final PooledGeoPackageCoreConnection<SQLiteGeoPackageConnection> connection = geoPackage
+				.getDatabase();
+		connection.execSQL("INSERT INTO test (name) VALUES ('a')");
+
+		SQLiteGeoPackageConnection reader = connection.acquireReader();
+		try {
+			final CountDownLatch latch = new CountDownLatch(1);
+			final AtomicInteger otherCount = new AtomicInteger(-1);
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					SQLiteGeoPackageConnection otherReader = connection
+							.acquireReader();
+					try {
+						otherCount.set(otherReader.count("test", null, null));
+						latch.countDown();
+					} finally {
+						connection.releaseReader(otherReader);
+					}
+				}
+			});
+			thread.start();
+			latch.await();
+			thread.join();
+			TestCase.assertEquals(1, otherCount.get());
+			TestCase.assertEquals(1, reader.count("test", null, null));
+		} finally {
+			connection.releaseReader(reader);
+		}
+		TestCase.assertEquals(0, connection.getReaders()
+				.getConnectionsInUse());
+
+	}
+
+	/**
+	 * Test uncommitted writer transaction changes are read by the writing
+	 * thread and not by readers on other threads
+	 *
+	 * @throws InterruptedException
+	 *             upon interruption
+	 */
+	@Test(timeout = 10000)
+	public void testTransactionVisibility() throws InterruptedException {
+
+		geoPackage = new PooledSQLiteGeoPackage(file, 2);
+		final PooledGeoPackageCoreConnection<SQLiteGeoPackageConnection> connection = geoPackage
+				.getDatabase();
+
+		connection.execSQL("BEGIN TRANSACTION");
+		connection.execSQL("INSERT INTO test (name) VALUES ('a')");
+		TestCase.assertTrue(connection.isPinnedToWriter());
+		TestCase.assertEquals(1, connection.count("test", null, null));
+		TestCase.assertEquals(0, countOnThread(connection));
+
+		connection.execSQL("COMMIT");
+		TestCase.assertFalse(connection.isPinnedToWriter());
+		TestCase.assertEquals(1, connection.count("test", null, null));
+		TestCase.assertEquals(1, countOnThread(connection));
+
+	}
+
+	/**
+	 * Count the test table rows from another thread
+	 *
+	 * @param connection
+	 *            pooled connection
+	 * @return count
+	 * @throws InterruptedException
+	 *             upon interruption
+	 */
+	private static int countOnThread(
+			final PooledGeoPackageCoreConnection<SQLiteGeoPackageConnection> connection)
+			throws InterruptedException {
+		final AtomicInteger count = new AtomicInteger(-1);
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				count.set(connection.count("test", null, null));
+			}
+		});
+		thread.start();
+		thread.join();
+		return count.get();
+	}
+
+	/**
+	 * GeoPackage over an on disk SQLite file with a writer connection and a
+	 * pool of reader connections
+	 */
+	private static class PooledSQLiteGeoPackage extends GeoPackageCoreImpl {
+
+		/**
+		 * Constructor
+		 *
+		 * @param file
+		 *            GeoPackage file
+		 * @param maxReaders
+		 *            max reader connections
+		 */
+		private PooledSQLiteGeoPackage(final File file, int maxReaders) {
+			super(file.getName(), file.getAbsolutePath(),
+					new SQLiteGeoPackageConnection(file),
+					new GeoPackageCoreConnectionFactory<SQLiteGeoPackageConnection>() {
+						@Override
+						public SQLiteGeoPackageConnection open() {
+							return new SQLiteGeoPackageConnection(file);
+						}
+					}, maxReaders, null, true);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@SuppressWarnings("unchecked")
+		@Override
+		public PooledGeoPackageCoreConnection<SQLiteGeoPackageConnection> getDatabase() {
+			return (PooledGeoPackageCoreConnection<SQLiteGeoPackageConnection>) super
+					.getDatabase();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void execSQL(String sql) {
+			getDatabase().execSQL(sql);
+		}
+
+	}
+
+}
@@ -0,0 +1,276 @@
+package mil.nga.geopackage.db;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import mil.nga.geopackage.GeoPackageException;
+
+import com.j256.ormlite.jdbc.JdbcConnectionSource;
+import com.j256.ormlite.jdbc.JdbcDatabaseConnection;
+import com.j256.ormlite.support.ConnectionSource;
+
+/**
+ * GeoPackage connection to an on disk SQLite database file through the SQLite
+ * JDBC driver, with the ORMLite JDBC connection source sharing the same
+ * single database connection
+ * 
+ * @author osbornb
+ */
+public class SQLiteGeoPackageConnection extends GeoPackageCoreConnection {
+
+	/**
+	 * Database file
+	 */
+	private final File file;
+
+	/**
+	 * Connection source
+	 */
+	private final JdbcConnectionSource connectionSource;
+
+	/**
+	 * JDBC connection
+	 */
+	private final Connection connection;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param file
+	 *            database file, created if it does not exist
+	 */
+	public SQLiteGeoPackageConnection(File file) {
+		this.file = file;
+		try {
+			connectionSource = new JdbcConnectionSource("jdbc:sqlite:"
+					+ file.getAbsolutePath());
+			connection = ((JdbcDatabaseConnection) connectionSource
+					.getReadWriteConnection(null)).getInternalConnection();
+		} catch (SQLException e) {
+			throw new GeoPackageException("Failed to open database: " + file,
+					e);
+		}
+	}
+
+	/**
+	 * Get the database file
+	 * 
+	 * @return file
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Get the JDBC connection
+	 * 
+	 * @return connection
+	 */
+	public Connection getConnection() {
+		return connection;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ConnectionSource getConnectionSource() {
+		return connectionSource;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void execSQL(String sql) {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute(sql);
+		} catch (SQLException e) {
+			throw new GeoPackageException("Failed to execute SQL: " + sql, e);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int delete(String table, String whereClause, String[] whereArgs) {
+		StringBuilder sql = new StringBuilder("DELETE FROM ").append(CoreSQLUtils
+				.quoteWrap(table));
+		if (whereClause != null) {
+			sql.append(" WHERE ").append(whereClause);
+		}
+		try (PreparedStatement statement = prepare(sql.toString(), whereArgs)) {
+			return statement.executeUpdate();
+		} catch (SQLException e) {
+			throw new GeoPackageException("Failed to delete from table: "
+					+ table, e);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int count(String table, String where, String[] args) {
+		StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM ")
+				.append(CoreSQLUtils.quoteWrap(table));
+		if (where != null) {
+			sql.append(" WHERE ").append(where);
+		}
+		Integer count = querySingleIntResult(sql.toString(), args);
+		return count != null ? count : 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Integer min(String table, String column, String where,
+			String[] args) {
+		return aggregate("MIN", table, column, where, args);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Integer max(String table, String column, String where,
+			String[] args) {
+		return aggregate("MAX", table, column, where, args);
+	}
+
+	/**
+	 * Query for an aggregate column value
+	 * 
+	 * @param function
+	 *            aggregate function
+	 * @param table
+	 *            table name
+	 * @param column
+	 *            column name
+	 * @param where
+	 *            where clause
+	 * @param args
+	 *            where arguments
+	 * @return aggregate value or null
+	 */
+	private Integer aggregate(String function, String table, String column,
+			String where, String[] args) {
+		StringBuilder sql = new StringBuilder("SELECT ").append(function)
+				.append("(").append(CoreSQLUtils.quoteWrap(column))
+				.append(") FROM ").append(CoreSQLUtils.quoteWrap(table));
+		if (where != null) {
+			sql.append(" WHERE ").append(where);
+		}
+		return querySingleIntResult(sql.toString(), args);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void close() {
+		try {
+			connectionSource.close();
+		} catch (Exception e) {
+			throw new GeoPackageException("Failed to close database: " + file,
+					e);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean columnExists(String tableName, String columnName) {
+		boolean exists = false;
+		try (PreparedStatement statement = prepare("PRAGMA table_info("
+				+ CoreSQLUtils.quoteWrap(tableName) + ")", null);
+				ResultSet results = statement.executeQuery()) {
+			while (!exists && results.next()) {
+				exists = columnName.equals(results.getString("name"));
+			}
+		} catch (SQLException e) {
+			throw new GeoPackageException("Failed to check column: "
+					+ tableName + "." + columnName, e);
+		}
+		return exists;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String querySingleStringResult(String sql, String[] args) {
+		List<String> results = querySingleColumnStringResults(sql, args);
+		return results.isEmpty() ? null : results.get(0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Integer querySingleIntResult(String sql, String[] args) {
+		Integer result = null;
+		try (PreparedStatement statement = prepare(sql, args);
+				ResultSet results = statement.executeQuery()) {
+			if (results.next()) {
+				int value = results.getInt(1);
+				if (!results.wasNull()) {
+					result = value;
+				}
+			}
+		} catch (SQLException e) {
+			throw new GeoPackageException("Failed to query: " + sql, e);
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<String> querySingleColumnStringResults(String sql,
+			String[] args) {
+		List<String> values = new ArrayList<>();
+		try (PreparedStatement statement = prepare(sql, args);
+				ResultSet results = statement.executeQuery()) {
+			while (results.next()) {
+				values.add(results.getString(1));
+			}
+		} catch (SQLException e) {
+			throw new GeoPackageException("Failed to query: " + sql, e);
+		}
+		return values;
+	}
+
+	/**
+	 * Prepare the statement and bind the arguments
+	 * 
+	 * @param sql
+	 *            sql statement
+	 * @param args
+	 *            arguments
+	 * @return prepared statement
+	 * @throws SQLException
+	 *             upon failure
+	 */
+	private PreparedStatement prepare(String sql, String[] args)
+			throws SQLException {
+		PreparedStatement statement = connection.prepareStatement(sql);
+		if (args != null) {
+			for (int i = 0; i < args.length; i++) {
+				statement.setString(i + 1, args[i]);
+			}
+		}
+		return statement;
+	}
+
+}
@@ -0,0 +1,306 @@
+package mil.nga.geopackage.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.support.DatabaseConnection;
+
+/**
+ * Stub GeoPackage connection recording executed statements, closes, and the
+ * database connections handed out and released by its connection source.
+ * Single result queries return the connection id.
+ * 
+ * @author osbornb
+ */
+public class StubGeoPackageCoreConnection extends GeoPackageCoreConnection {
+
+	/**
+	 * Connection id
+	 */
+	private final int id;
+
+	/**
+	 * Executed statements
+	 */
+	private final List<String> statements = Collections
+			.synchronizedList(new ArrayList<String>());
+
+	/**
+	 * Database connections handed out by the connection source
+	 */
+	private final List<DatabaseConnection> connections = Collections
+			.synchronizedList(new ArrayList<DatabaseConnection>());
+
+	/**
+	 * Database connections released to the connection source
+	 */
+	private final List<DatabaseConnection> released = Collections
+			.synchronizedList(new ArrayList<DatabaseConnection>());
+
+	/**
+	 * Connection source
+	 */
+	private final ConnectionSource connectionSource;
+
+	/**
+	 * Saved special connection
+	 */
+	private volatile DatabaseConnection special;
+
+	/**
+	 * Close count
+	 */
+	private volatile int closes = 0;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param id
+	 *            connection id
+	 */
+	public StubGeoPackageCoreConnection(int id) {
+		this.id = id;
+		this.connectionSource = (ConnectionSource) Proxy.newProxyInstance(
+				getClass().getClassLoader(),
+				new Class<?>[] { ConnectionSource.class },
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method,
+							Object[] args) {
+						return invokeConnectionSource(proxy, method, args);
+					}
+				});
+	}
+
+	/**
+	 * Get the connection id
+	 * 
+	 * @return id
+	 */
+	public int getId() {
+		return id;
+	}
+
+	/**
+	 * Get the executed statements
+	 * 
+	 * @return statements
+	 */
+	public List<String> getStatements() {
+		return statements;
+	}
+
+	/**
+	 * Get the database connections handed out by the connection source
+	 * 
+	 * @return database connections
+	 */
+	public List<DatabaseConnection> getConnections() {
+		return connections;
+	}
+
+	/**
+	 * Get the database connections released to the connection source
+	 * 
+	 * @return released database connections
+	 */
+	public List<DatabaseConnection> getReleased() {
+		return released;
+	}
+
+	/**
+	 * Get the number of times the connection was closed
+	 * 
+	 * @return close count
+	 */
+	public int getCloses() {
+		return closes;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ConnectionSource getConnectionSource() {
+		return connectionSource;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void execSQL(String sql) {
+		statements.add(sql);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int delete(String table, String whereClause, String[] whereArgs) {
+		return id;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int count(String table, String where, String[] args) {
+		return id;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Integer min(String table, String column, String where,
+			String[] args) {
+		return id;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Integer max(String table, String column, String where,
+			String[] args) {
+		return id;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void close() {
+		closes++;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean columnExists(String tableName, String columnName) {
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String querySingleStringResult(String sql, String[] args) {
+		return String.valueOf(id);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Integer querySingleIntResult(String sql, String[] args) {
+		return id;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<String> querySingleColumnStringResults(String sql,
+			String[] args) {
+		return Collections.singletonList(String.valueOf(id));
+	}
+
+	/**
+	 * Handle a connection source call
+	 * 
+	 * @param proxy
+	 *            connection source
+	 * @param method
+	 *            method
+	 * @param args
+	 *            arguments
+	 * @return result
+	 */
+	private Object invokeConnectionSource(Object proxy, Method method,
+			Object[] args) {
+		Object value = null;
+		switch (method.getName()) {
+		case "getReadOnlyConnection":
+		case "getReadWriteConnection":
+			DatabaseConnection connection = createDatabaseConnection(method
+					.getName());
+			connections.add(connection);
+			value = connection;
+			break;
+		case "releaseConnection":
+			released.add((DatabaseConnection) args[0]);
+			break;
+		case "saveSpecialConnection":
+			special = (DatabaseConnection) args[0];
+			value = true;
+			break;
+		case "clearSpecialConnection":
+			special = null;
+			break;
+		case "getSpecialConnection":
+			value = special;
+			break;
+		case "isOpen":
+			value = closes == 0;
+			break;
+		case "isSingleConnection":
+			value = true;
+			break;
+		case "hashCode":
+			value = System.identityHashCode(proxy);
+			break;
+		case "equals":
+			value = proxy == args[0];
+			break;
+		case "toString":
+			value = "Connection Source " + id;
+			break;
+		default:
+			throw new UnsupportedOperationException(method.getName());
+		}
+		return value;
+	}
+
+	/**
+	 * Create a stub database connection
+	 * 
+	 * @param type
+	 *            connection type
+	 * @return database connection
+	 */
+	private DatabaseConnection createDatabaseConnection(final String type) {
+		return (DatabaseConnection) Proxy.newProxyInstance(getClass()
+				.getClassLoader(), new Class<?>[] { DatabaseConnection.class },
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method,
+							Object[] args) {
+						Object value;
+						switch (method.getName()) {
+						case "hashCode":
+							value = System.identityHashCode(proxy);
+							break;
+						case "equals":
+							value = proxy == args[0];
+							break;
+						case "toString":
+							value = type + " " + id;
+							break;
+						default:
+							throw new UnsupportedOperationException(method
+									.getName());
+						}
+						return value;
+					}
+				});
+	}
+
+}
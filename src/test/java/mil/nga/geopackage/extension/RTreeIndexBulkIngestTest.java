@@ -0,0 +1,285 @@
+package mil.nga.geopackage.extension;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Date;
+
+import junit.framework.TestCase;
+import mil.nga.geopackage.core.contents.Contents;
+import mil.nga.geopackage.core.contents.ContentsDataType;
+import mil.nga.geopackage.factory.SQLiteGeoPackage;
+import mil.nga.geopackage.geom.GeoPackageGeometryData;
+import mil.nga.sf.Point;
+import mil.nga.sf.proj.ProjectionConstants;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * RTree Index Bulk Ingest Test
+ * 
+ * @author osbornb
+ */
+public class RTreeIndexBulkIngestTest {
+
+	/**
+	 * GeoPackage
+	 */
+	private SQLiteGeoPackage geoPackage;
+
+	/**
+	 * RTree extension
+	 */
+	private SQLiteRTreeIndexExtension extension;
+
+	/**
+	 * Create the GeoPackage and feature table with ids 1 through 10 and the
+	 * RTree Index extension
+	 * 
+	 * @throws IOException
+	 *             upon failure
+	 * @throws SQLException
+	 *             upon failure
+	 */
+	@Before
+	public void setUp() throws IOException, SQLException {
+		geoPackage = SQLiteGeoPackage.create();
+		geoPackage.createGeometryColumnsTable();
+		geoPackage
+				.execSQL("CREATE TABLE features (id INTEGER PRIMARY KEY, geom GEOMETRY)");
+		Contents contents = new Contents();
+		contents.setTableName("features");
+		contents.setDataType(ContentsDataType.FEATURES);
+		contents.setIdentifier("features");
+		contents.setLastChange(new Date(0));
+		geoPackage.getContentsDao().create(contents);
+		for (long id = 1; id <= 10; id++) {
+			insertFeature(id, id);
+		}
+		extension = new SQLiteRTreeIndexExtension(geoPackage);
+		extension.create("features", "geom", "id");
+		assertRTree(10);
+	}
+
+	/**
+	 * Close the GeoPackage
+	 */
+	@After
+	public void tearDown() {
+		geoPackage.close();
+	}
+
+	/**
+	 * Test inserts above and below the max id when the session began
+	 * 
+	 * @throws IOException
+	 *             upon failure
+	 * @throws SQLException
+	 *             upon failure
+	 */
+	@Test
+	public void testInsert() throws IOException, SQLException {
+		geoPackage.execSQL("DELETE FROM features WHERE id = 5");
+
+		RTreeIndexBulkIngest bulkIngest = extension.beginBulkIngest(
+				"features", "geom", "id");
+		TestCase.assertEquals(10L, bulkIngest.getStartMaxId().longValue());
+		TestCase.assertTrue(extension.hasPendingBulkIngest("features", "geom"));
+
+		insertFeature(11, 11);
+		insertFeature(12, 12);
+		insertFeature(5, 50);
+		TestCase.assertEquals(10, rTreeCount());
+
+		bulkIngest.close();
+		TestCase.assertTrue(bulkIngest.isClosed());
+		TestCase.assertFalse(extension.hasPendingBulkIngest("features", "geom"));
+		assertRTree(12);
+
+		insertFeature(13, 13);
+		assertRTree(13);
+	}
+
+	/**
+	 * Test updates of existing and inserted rows
+	 * 
+	 * @throws IOException
+	 *             upon failure
+	 * @throws SQLException
+	 *             upon failure
+	 */
+	@Test
+	public void testUpdate() throws IOException, SQLException {
+		RTreeIndexBulkIngest bulkIngest = extension.beginBulkIngest(
+				"features", "geom", "id");
+
+		insertFeature(11, 11);
+		updateFeature(3, 30);
+		updateFeature(11, 110);
+		geoPackage.execSQL("UPDATE features SET geom = NULL WHERE id = 4");
+		geoPackage.execSQL("UPDATE features SET id = 20 WHERE id = 6");
+
+		bulkIngest.close();
+		assertRTree(10);
+		TestCase.assertEquals(30, rTreeMinX(3));
+		TestCase.assertEquals(110, rTreeMinX(11));
+		TestCase.assertEquals(6, rTreeMinX(20));
+	}
+
+	/**
+	 * Test deletes of existing and inserted rows
+	 * 
+	 * @throws IOException
+	 *             upon failure
+	 * @throws SQLException
+	 *             upon failure
+	 */
+	@Test
+	public void testDelete() throws IOException, SQLException {
+		RTreeIndexBulkIngest bulkIngest = extension.beginBulkIngest(
+				"features", "geom", "id");
+
+		insertFeature(11, 11);
+		insertFeature(12, 12);
+		geoPackage.execSQL("DELETE FROM features WHERE id IN (2, 9, 12)");
+
+		bulkIngest.close();
+		assertRTree(9);
+	}
+
+	/**
+	 * Test recovering an abandoned session
+	 * 
+	 * @throws IOException
+	 *             upon failure
+	 * @throws SQLException
+	 *             upon failure
+	 */
+	@Test
+	public void testRecover() throws IOException, SQLException {
+		extension.beginBulkIngest("features", "geom", "id");
+		insertFeature(11, 11);
+		updateFeature(1, 100);
+
+		SQLiteRTreeIndexExtension recovery = new SQLiteRTreeIndexExtension(
+				geoPackage);
+		TestCase.assertTrue(recovery.hasPendingBulkIngest("features", "geom"));
+		TestCase.assertTrue(recovery.recoverBulkIngest("features", "geom",
+				"id"));
+		TestCase.assertFalse(recovery.hasPendingBulkIngest("features", "geom"));
+		assertRTree(11);
+
+		insertFeature(12, 12);
+		assertRTree(12);
+	}
+
+	/**
+	 * Insert a point feature at (x, -x)
+	 * 
+	 * @param id
+	 *            feature id
+	 * @param x
+	 *            x coordinate
+	 * @throws IOException
+	 *             upon failure
+	 * @throws SQLException
+	 *             upon failure
+	 */
+	private void insertFeature(long id, double x) throws IOException,
+			SQLException {
+		try (PreparedStatement statement = geoPackage.getDatabase()
+				.getConnection()
+				.prepareStatement("INSERT INTO features (id, geom) VALUES (?, ?)")) {
+			statement.setLong(1, id);
+			statement.setBytes(2, geometry(x));
+			statement.executeUpdate();
+		}
+	}
+
+	/**
+	 * Update a feature to a point at (x, -x)
+	 * 
+	 * @param id
+	 *            feature id
+	 * @param x
+	 *            x coordinate
+	 * @throws IOException
+	 *             upon failure
+	 * @throws SQLException
+	 *             upon failure
+	 */
+	private void updateFeature(long id, double x) throws IOException,
+			SQLException {
+		try (PreparedStatement statement = geoPackage.getDatabase()
+				.getConnection()
+				.prepareStatement("UPDATE features SET geom = ? WHERE id = ?")) {
+			statement.setBytes(1, geometry(x));
+			statement.setLong(2, id);
+			statement.executeUpdate();
+		}
+	}
+
+	/**
+	 * Create point geometry bytes at (x, -x)
+	 * 
+	 * @param x
+	 *            x coordinate
+	 * @return geometry bytes
+	 * @throws IOException
+	 *             upon failure
+	 */
+	private byte[] geometry(double x) throws IOException {
+		GeoPackageGeometryData data = new GeoPackageGeometryData(
+				ProjectionConstants.EPSG_WORLD_GEODETIC_SYSTEM);
+		data.setGeometry(new Point(x, -x));
+		return data.toBytes();
+	}
+
+	/**
+	 * Assert the RTree contains exactly the envelopes of the feature rows
+	 * with geometries
+	 * 
+	 * @param count
+	 *            expected count
+	 */
+	private void assertRTree(int count) {
+		TestCase.assertEquals(count, geoPackage.getDatabase().count(
+				"features", "geom IS NOT NULL", null));
+		TestCase.assertEquals(count, rTreeCount());
+		TestCase.assertEquals(
+				count,
+				geoPackage
+						.getDatabase()
+						.querySingleIntResult(
+								"SELECT COUNT(*) FROM features f JOIN rtree_features_geom r ON f.id = r.id"
+										+ " WHERE r.minx = ST_MinX(f.geom) AND r.maxx = ST_MaxX(f.geom)"
+										+ " AND r.miny = ST_MinY(f.geom) AND r.maxy = ST_MaxY(f.geom)",
+								null).intValue());
+	}
+
+	/**
+	 * Count the RTree rows
+	 * 
+	 * @return count
+	 */
+	private int rTreeCount() {
+		return geoPackage.getDatabase().count("rtree_features_geom", null,
+				null);
+	}
+
+	/**
+	 * Query the RTree min x of a feature
+	 * 
+	 * @param id
+	 *            feature id
+	 * @return min x
+	 */
+	private int rTreeMinX(long id) {
+		return geoPackage.getDatabase().querySingleIntResult(
+				"SELECT CAST(minx AS INTEGER) FROM rtree_features_geom WHERE id = ?",
+				new String[] { String.valueOf(id) });
+	}
+
+}
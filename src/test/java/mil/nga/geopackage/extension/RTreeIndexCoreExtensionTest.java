@@ -0,0 +1,270 @@
+package mil.nga.geopackage.extension;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import junit.framework.TestCase;
+import mil.nga.geopackage.core.contents.Contents;
+import mil.nga.geopackage.core.contents.ContentsDataType;
+import mil.nga.geopackage.factory.SQLiteGeoPackage;
+import mil.nga.geopackage.geom.GeoPackageGeometryData;
+import mil.nga.geopackage.io.GeoPackageProgress;
+import mil.nga.sf.Point;
+import mil.nga.sf.proj.ProjectionConstants;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * RTree Index Core Extension Test
+ * 
+ * @author osbornb
+ */
+public class RTreeIndexCoreExtensionTest {
+
+	/**
+	 * Feature ids, with gaps
+	 */
+	private static final long[] IDS = { 1, 2, 3, 5, 8, 9, 10, 20, 21, 30 };
+
+	/**
+	 * GeoPackage
+	 */
+	private SQLiteGeoPackage geoPackage;
+
+	/**
+	 * RTree extension
+	 */
+	private SQLiteRTreeIndexExtension extension;
+
+	/**
+	 * Create the GeoPackage, feature table, and RTree
+	 * 
+	 * @throws IOException
+	 *             upon failure
+	 * @throws SQLException
+	 *             upon failure
+	 */
+	@Before
+	public void setUp() throws IOException, SQLException {
+		geoPackage = SQLiteGeoPackage.create();
+		geoPackage.createGeometryColumnsTable();
+		geoPackage
+				.execSQL("CREATE TABLE features (id INTEGER PRIMARY KEY, geom GEOMETRY)");
+		Contents contents = new Contents();
+		contents.setTableName("features");
+		contents.setDataType(ContentsDataType.FEATURES);
+		contents.setIdentifier("features");
+		contents.setLastChange(new Date(0));
+		geoPackage.getContentsDao().create(contents);
+		for (long id : IDS) {
+			insertFeature(id);
+		}
+		extension = new SQLiteRTreeIndexExtension(geoPackage);
+		extension.createAllFunctions();
+		extension.createRTreeIndex("features", "geom");
+	}
+
+	/**
+	 * Close the GeoPackage
+	 */
+	@After
+	public void tearDown() {
+		geoPackage.close();
+	}
+
+	/**
+	 * Test the default single statement load
+	 */
+	@Test
+	public void testLoad() {
+		extension.setLoadChunkSize(3);
+		extension.loadRTreeIndex("features", "geom", "id");
+		assertRTree();
+	}
+
+	/**
+	 * Test the single statement load sorted across the entire table
+	 */
+	@Test
+	public void testLoadSorted() {
+		extension.setLoadSorted(true);
+		extension.loadRTreeIndex("features", "geom", "id");
+		assertRTree();
+	}
+
+	/**
+	 * Test the opt-in chunked load
+	 */
+	@Test
+	public void testLoadChunks() {
+		TestProgress progress = new TestProgress(Integer.MAX_VALUE);
+		extension.setProgress(progress);
+		extension.setLoadChunkSize(3);
+		extension.setLoadSorted(true);
+		TestCase.assertEquals(IDS.length,
+				extension.loadRTreeIndexChunks("features", "geom", "id", false));
+		TestCase.assertEquals(IDS.length, progress.max);
+		TestCase.assertEquals(Arrays.asList(3, 3, 3, 1), progress.added);
+		assertRTree();
+	}
+
+	/**
+	 * Test resuming a canceled chunked load
+	 */
+	@Test
+	public void testResume() {
+		extension.setProgress(new TestProgress(1));
+		extension.setLoadChunkSize(4);
+		TestCase.assertEquals(4,
+				extension.loadRTreeIndexChunks("features", "geom", "id", false));
+		TestCase.assertEquals(4, rTreeCount());
+
+		TestProgress progress = new TestProgress(Integer.MAX_VALUE);
+		extension.setProgress(progress);
+		TestCase.assertEquals(IDS.length - 4,
+				extension.loadRTreeIndexChunks("features", "geom", "id", true));
+		TestCase.assertEquals(IDS.length - 4, progress.max);
+		TestCase.assertEquals(Arrays.asList(4, 2), progress.added);
+		assertRTree();
+
+		TestCase.assertEquals(0,
+				extension.loadRTreeIndexChunks("features", "geom", "id", true));
+		assertRTree();
+	}
+
+	/**
+	 * Insert a point feature at (id, -id)
+	 * 
+	 * @param id
+	 *            feature id
+	 * @throws IOException
+	 *             upon failure
+	 * @throws SQLException
+	 *             upon failure
+	 */
+	private void insertFeature(long id) throws IOException, SQLException {
+		GeoPackageGeometryData data = new GeoPackageGeometryData(
+				ProjectionConstants.EPSG_WORLD_GEODETIC_SYSTEM);
+		data.setGeometry(new Point(id, -id));
+		try (PreparedStatement statement = geoPackage.getDatabase()
+				.getConnection()
+				.prepareStatement("INSERT INTO features (id, geom) VALUES (?, ?)")) {
+			statement.setLong(1, id);
+			statement.setBytes(2, data.toBytes());
+			statement.executeUpdate();
+		}
+	}
+
+	/**
+	 * Assert the RTree contains exactly the feature envelopes
+	 */
+	private void assertRTree() {
+		TestCase.assertEquals(IDS.length, rTreeCount());
+		for (long id : IDS) {
+			String[] args = new String[] { String.valueOf(id) };
+			TestCase.assertEquals(id, rTreeValue("minx", args));
+			TestCase.assertEquals(id, rTreeValue("maxx", args));
+			TestCase.assertEquals(-id, rTreeValue("miny", args));
+			TestCase.assertEquals(-id, rTreeValue("maxy", args));
+		}
+	}
+
+	/**
+	 * Query an RTree value
+	 * 
+	 * @param column
+	 *            RTree column
+	 * @param args
+	 *            feature id argument
+	 * @return value
+	 */
+	private int rTreeValue(String column, String[] args) {
+		return geoPackage.getDatabase().querySingleIntResult(
+				"SELECT CAST(" + column
+						+ " AS INTEGER) FROM rtree_features_geom WHERE id = ?",
+				args);
+	}
+
+	/**
+	 * Count the RTree rows
+	 * 
+	 * @return count
+	 */
+	private int rTreeCount() {
+		return geoPackage.getDatabase().count("rtree_features_geom", null,
+				null);
+	}
+
+	/**
+	 * Progress recording the max and added progress, deactivating after a
+	 * number of progress updates
+	 */
+	private static class TestProgress implements GeoPackageProgress {
+
+		/**
+		 * Max
+		 */
+		private int max;
+
+		/**
+		 * Added progress
+		 */
+		private final List<Integer> added = new ArrayList<>();
+
+		/**
+		 * Updates while active
+		 */
+		private final int activeUpdates;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param activeUpdates
+		 *            updates while active
+		 */
+		public TestProgress(int activeUpdates) {
+			this.activeUpdates = activeUpdates;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void setMax(int max) {
+			this.max = max;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void addProgress(int progress) {
+			added.add(progress);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean isActive() {
+			return added.size() < activeUpdates;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public boolean cleanupOnCancel() {
+			return false;
+		}
+
+	}
+
+}
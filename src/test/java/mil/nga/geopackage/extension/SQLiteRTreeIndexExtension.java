@@ -0,0 +1,156 @@
+package mil.nga.geopackage.extension;
+
+import java.sql.SQLException;
+
+import mil.nga.geopackage.GeoPackageException;
+import mil.nga.geopackage.factory.SQLiteGeoPackage;
+import mil.nga.geopackage.geom.GeoPackageGeometryData;
+import mil.nga.sf.GeometryEnvelope;
+import mil.nga.sf.util.GeometryEnvelopeBuilder;
+
+import org.sqlite.Function;
+
+/**
+ * RTree Index extension over an on disk SQLite GeoPackage, with the geometry
+ * envelope SQL functions registered on the SQLite JDBC connection
+ * 
+ * @author osbornb
+ */
+public class SQLiteRTreeIndexExtension extends RTreeIndexCoreExtension {
+
+	/**
+	 * GeoPackage
+	 */
+	private final SQLiteGeoPackage geoPackage;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param geoPackage
+	 *            GeoPackage
+	 */
+	public SQLiteRTreeIndexExtension(SQLiteGeoPackage geoPackage) {
+		super(geoPackage);
+		this.geoPackage = geoPackage;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void createMinXFunction() {
+		createEnvelopeFunction(MIN_X_FUNCTION, EnvelopeValue.MIN_X);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void createMaxXFunction() {
+		createEnvelopeFunction(MAX_X_FUNCTION, EnvelopeValue.MAX_X);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void createMinYFunction() {
+		createEnvelopeFunction(MIN_Y_FUNCTION, EnvelopeValue.MIN_Y);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void createMaxYFunction() {
+		createEnvelopeFunction(MAX_Y_FUNCTION, EnvelopeValue.MAX_Y);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void createIsEmptyFunction() {
+		createFunction(IS_EMPTY_FUNCTION, new Function() {
+			@Override
+			protected void xFunc() throws SQLException {
+				byte[] bytes = value_blob(0);
+				boolean empty = bytes == null
+						|| new GeoPackageGeometryData(bytes).isEmpty();
+				result(empty ? 1 : 0);
+			}
+		});
+	}
+
+	/**
+	 * Envelope value returned by a geometry envelope function
+	 */
+	private enum EnvelopeValue {
+		MIN_X, MAX_X, MIN_Y, MAX_Y;
+	}
+
+	/**
+	 * Create a function returning a geometry envelope value, or null for
+	 * empty geometries
+	 * 
+	 * @param name
+	 *            function name
+	 * @param value
+	 *            envelope value
+	 */
+	private void createEnvelopeFunction(String name, final EnvelopeValue value) {
+		createFunction(name, new Function() {
+			@Override
+			protected void xFunc() throws SQLException {
+				byte[] bytes = value_blob(0);
+				GeometryEnvelope envelope = null;
+				if (bytes != null) {
+					GeoPackageGeometryData data = new GeoPackageGeometryData(
+							bytes);
+					envelope = data.getEnvelope();
+					if (envelope == null && data.getGeometry() != null) {
+						envelope = GeometryEnvelopeBuilder.buildEnvelope(data
+								.getGeometry());
+					}
+				}
+				if (envelope == null) {
+					result();
+				} else {
+					switch (value) {
+					case MIN_X:
+						result(envelope.getMinX());
+						break;
+					case MAX_X:
+						result(envelope.getMaxX());
+						break;
+					case MIN_Y:
+						result(envelope.getMinY());
+						break;
+					case MAX_Y:
+						result(envelope.getMaxY());
+						break;
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Register the function on the SQLite connection
+	 * 
+	 * @param name
+	 *            function name
+	 * @param function
+	 *            function
+	 */
+	private void createFunction(String name, Function function) {
+		try {
+			Function.create(geoPackage.getDatabase().getConnection(), name,
+					function);
+		} catch (SQLException e) {
+			throw new GeoPackageException("Failed to create function: " + name,
+					e);
+		}
+	}
+
+}
@@ -0,0 +1,466 @@
+package mil.nga.geopackage.extension.coverage;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import junit.framework.TestCase;
+import mil.nga.geopackage.BoundingBox;
+import mil.nga.geopackage.factory.SQLiteGeoPackage;
+import mil.nga.geopackage.tiles.matrix.TileMatrix;
+import mil.nga.geopackage.tiles.matrixset.TileMatrixSet;
+import mil.nga.sf.proj.ProjectionConstants;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Coverage Data Tile Reader Test, batch point queries through a stub tile
+ * reader over a coverage data tile table with zoom levels 0, 1 and 2 where
+ * zoom level 1 has no tiles
+ * 
+ * @author osbornb
+ */
+public class CoverageDataTileReaderTest {
+
+	/**
+	 * Coverage data table name
+	 */
+	private static final String TABLE_NAME = "coverage";
+
+	/**
+	 * GeoPackage
+	 */
+	private SQLiteGeoPackage geoPackage;
+
+	/**
+	 * Coverage data
+	 */
+	private StubCoverageData coverageData;
+
+	/**
+	 * Set up the coverage data tile table and tile matrices
+	 * 
+	 * @throws SQLException
+	 *             upon failure
+	 */
+	@Before
+	public void setUp() throws SQLException {
+
+		geoPackage = SQLiteGeoPackage.create();
+
+		BoundingBox boundingBox = new BoundingBox(0, 0, 4, 4);
+		long srsId = ProjectionConstants.EPSG_WORLD_GEODETIC_SYSTEM;
+		TileMatrixSet tileMatrixSet = CoverageDataCore
+				.createTileTableWithMetadata(geoPackage, TABLE_NAME,
+						boundingBox, srsId, boundingBox, srsId);
+
+		for (int zoom = 0; zoom <= 2; zoom++) {
+			long matrixSize = 1 << zoom;
+			TileMatrix tileMatrix = new TileMatrix();
+			tileMatrix.setContents(tileMatrixSet.getContents());
+			tileMatrix.setZoomLevel(zoom);
+			tileMatrix.setMatrixWidth(matrixSize);
+			tileMatrix.setMatrixHeight(matrixSize);
+			tileMatrix.setTileWidth(4);
+			tileMatrix.setTileHeight(4);
+			tileMatrix.setPixelXSize(1.0 / matrixSize);
+			tileMatrix.setPixelYSize(1.0 / matrixSize);
+			geoPackage.getTileMatrixDao().create(tileMatrix);
+		}
+
+		coverageData = new StubCoverageData(geoPackage, tileMatrixSet);
+		coverageData.getOrCreate();
+		GriddedCoverage griddedCoverage = new GriddedCoverage();
+		griddedCoverage.setTileMatrixSet(tileMatrixSet);
+		griddedCoverage.setDataType(GriddedCoverageDataType.FLOAT);
+		griddedCoverage
+				.setGridCellEncodingType(GriddedCoverageEncodingType.CENTER);
+		geoPackage.getGriddedCoverageDao().create(griddedCoverage);
+		coverageData.queryGriddedCoverage();
+	}
+
+	/**
+	 * Close the GeoPackage
+	 */
+	@After
+	public void tearDown() {
+		geoPackage.close();
+	}
+
+	/**
+	 * Test point queries start at the most detailed zoom level
+	 */
+	@Test
+	public void testMostDetailed() {
+
+		double[] values = coverageData.getProjectedValues(new double[] { 1.3,
+				3.5 }, new double[] { 2.7, 0.2 });
+		assertValues(values, 200.0, 200.0);
+		TestCase.assertEquals(0, coverageData.getReads(0));
+		TestCase.assertEquals(0, coverageData.getReads(1));
+		TestCase.assertEquals(2, coverageData.getReads(2));
+
+		values = coverageData.getValues(new double[] { 1.3 },
+				new double[] { 2.7 });
+		assertValues(values, 200.0);
+	}
+
+	/**
+	 * Test zooming in before out from a zoom level without tiles
+	 */
+	@Test
+	public void testZoomInBeforeOut() {
+
+		coverageData.setZoomIn(true);
+		coverageData.setZoomOut(true);
+		coverageData.setZoomInBeforeOut(true);
+
+		assertValues(getValues(1), 200.0);
+		TestCase.assertEquals(0, coverageData.getReads(0));
+		TestCase.assertEquals(1, coverageData.getReads(1));
+		TestCase.assertEquals(1, coverageData.getReads(2));
+	}
+
+	/**
+	 * Test zooming out before in from a zoom level without tiles
+	 */
+	@Test
+	public void testZoomOutBeforeIn() {
+
+		coverageData.setZoomIn(true);
+		coverageData.setZoomOut(true);
+		coverageData.setZoomInBeforeOut(false);
+
+		assertValues(getValues(1), 0.0);
+		TestCase.assertEquals(1, coverageData.getReads(0));
+		TestCase.assertEquals(1, coverageData.getReads(1));
+		TestCase.assertEquals(0, coverageData.getReads(2));
+	}
+
+	/**
+	 * Test zooming in or out only from a zoom level without tiles
+	 */
+	@Test
+	public void testZoomInOrOutOnly() {
+
+		coverageData.setZoomIn(true);
+		coverageData.setZoomOut(false);
+		coverageData.setZoomInBeforeOut(false);
+		assertValues(getValues(1), 200.0);
+
+		coverageData.setZoomIn(false);
+		coverageData.setZoomOut(true);
+		coverageData.setZoomInBeforeOut(true);
+		assertValues(getValues(1), 0.0);
+
+		coverageData.setZoomIn(false);
+		coverageData.setZoomOut(false);
+		assertValues(getValues(1), Double.NaN);
+
+		// Zooming out from the least detailed zoom level is a no-op
+		coverageData.setZoomIn(false);
+		coverageData.setZoomOut(true);
+		assertValues(getValues(0), 0.0);
+
+		// Unknown zoom levels have no values
+		coverageData.setZoomIn(true);
+		assertValues(getValues(5), Double.NaN);
+	}
+
+	/**
+	 * Test parallel point queries match the serial values
+	 */
+	@Test
+	public void testParallel() {
+
+		double[] latitudes = new double[100];
+		double[] longitudes = new double[100];
+		for (int i = 0; i < latitudes.length; i++) {
+			latitudes[i] = (i % 10) * 0.4 + 0.1;
+			longitudes[i] = (i / 10) * 0.4 + 0.1;
+		}
+
+		coverageData.setZoomIn(true);
+		coverageData.setZoomOut(true);
+		coverageData.setZoomInBeforeOut(true);
+		double[] serial = coverageData.getProjectedValues(latitudes,
+				longitudes, 1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			coverageData.setExecutor(executor);
+			double[] parallel = coverageData.getProjectedValues(latitudes,
+					longitudes, 1);
+			for (int i = 0; i < serial.length; i++) {
+				TestCase.assertEquals(200.0, serial[i]);
+				TestCase.assertEquals(serial[i], parallel[i]);
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Test bounded requests start at the zoom level closest to the result
+	 * pixel size
+	 */
+	@Test
+	public void testBounded() {
+
+		coverageData.setZoomIn(true);
+		coverageData.setZoomOut(true);
+		coverageData.setZoomInBeforeOut(false);
+
+		BoundingBox boundingBox = new BoundingBox(0, 0, 4, 4);
+		CoverageDataResults results = coverageData.getValues(boundingBox, 4,
+				4);
+		TestCase.assertEquals(0, results.getZoomLevel());
+		assertGrid(results, 4, 4, 0.0);
+		TestCase.assertEquals(1, coverageData.getReads(0));
+		TestCase.assertEquals(0, coverageData.getReads(2));
+
+		results = coverageData.getValues(boundingBox, 16, null);
+		TestCase.assertEquals(2, results.getZoomLevel());
+		assertGrid(results, 16, 16, 200.0);
+
+		// Zoom level 1 has no tiles, zoom out before in
+		results = coverageData.getValues(boundingBox, 8, 8);
+		TestCase.assertEquals(1, results.getZoomLevel());
+		assertGrid(results, 8, 8, 0.0);
+
+		coverageData.setZoomInBeforeOut(true);
+		results = coverageData.getValues(boundingBox, 8, 8);
+		assertGrid(results, 8, 8, 200.0);
+
+		// Most detailed pixel size when no size is requested
+		results = coverageData.getValues(new BoundingBox(1, 1, 2, 3));
+		assertGrid(results, 4, 8, 200.0);
+
+		// Pixels outside of the coverage have no values
+		results = coverageData.getValues(new BoundingBox(-4, 0, 4, 4), 2, 1);
+		TestCase.assertTrue(Double.isNaN(results.get(0, 0)));
+		TestCase.assertEquals(0.0, results.get(0, 1));
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			coverageData.setExecutor(executor);
+			results = coverageData.getValues(boundingBox, 16, 16);
+			assertGrid(results, 16, 16, 200.0);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Assert the results grid size and values
+	 * 
+	 * @param results
+	 *            coverage data results
+	 * @param width
+	 *            expected width
+	 * @param height
+	 *            expected height
+	 * @param value
+	 *            expected value
+	 */
+	private static void assertGrid(CoverageDataResults results, int width,
+			int height, double value) {
+		TestCase.assertEquals(width, results.getWidth());
+		TestCase.assertEquals(height, results.getHeight());
+		for (int row = 0; row < height; row++) {
+			for (int column = 0; column < width; column++) {
+				TestCase.assertEquals(value, results.get(row, column));
+			}
+		}
+	}
+
+	/**
+	 * Test writing a gridded tile invalidates the cached tiles so the written
+	 * tile is re-read
+	 * 
+	 * @throws SQLException
+	 *             upon failure
+	 */
+	@Test
+	public void testTileCacheWrite() throws SQLException {
+
+		CoverageDataTileCache tileCache = new CoverageDataTileCache();
+		coverageData.setTileCache(tileCache);
+		TestCase.assertTrue(tileCache.isRegistered(geoPackage));
+
+		assertValues(getValues(2), 200.0);
+		assertValues(getValues(2), 200.0);
+		TestCase.assertEquals(1, coverageData.getReads(2));
+		TestCase.assertEquals(1, tileCache.size());
+
+		// Write the tile and its gridded tile
+		coverageData.setOffset(5.0);
+		GriddedTile griddedTile = new GriddedTile();
+		griddedTile.setContents(coverageData.getTileMatrixSet().getContents());
+		griddedTile.setTableId(1);
+		griddedTile.setOffset(5.0);
+		geoPackage.getGriddedTileDao().create(griddedTile);
+		TestCase.assertEquals(0, tileCache.size());
+
+		assertValues(getValues(2), 205.0);
+		TestCase.assertEquals(2, coverageData.getReads(2));
+
+		// Update the tile
+		coverageData.setOffset(7.0);
+		griddedTile.setOffset(7.0);
+		geoPackage.getGriddedTileDao().update(griddedTile);
+		assertValues(getValues(2), 207.0);
+		TestCase.assertEquals(3, coverageData.getReads(2));
+
+		// Delete the tile
+		coverageData.setOffset(0.0);
+		geoPackage.getGriddedTileDao().delete(griddedTile);
+		assertValues(getValues(2), 200.0);
+		TestCase.assertEquals(4, coverageData.getReads(2));
+
+		// Removed GeoPackages are no longer invalidated on writes
+		tileCache.remove(geoPackage);
+		TestCase.assertFalse(tileCache.isRegistered(geoPackage));
+		assertValues(getValues(2), 200.0);
+		geoPackage.getGriddedTileDao().create(griddedTile);
+		TestCase.assertEquals(1, tileCache.size());
+	}
+
+	/**
+	 * Get the value of the test coordinate starting at the zoom level
+	 * 
+	 * @param zoomLevel
+	 *            zoom level
+	 * @return values
+	 */
+	private double[] getValues(long zoomLevel) {
+		return coverageData.getProjectedValues(new double[] { 1.3 },
+				new double[] { 2.7 }, zoomLevel);
+	}
+
+	/**
+	 * Assert the values, comparing NaN values as equal
+	 * 
+	 * @param values
+	 *            actual values
+	 * @param expected
+	 *            expected values
+	 */
+	private static void assertValues(double[] values, double... expected) {
+		TestCase.assertEquals(expected.length, values.length);
+		for (int i = 0; i < expected.length; i++) {
+			TestCase.assertEquals(expected[i], values[i]);
+		}
+	}
+
+	/**
+	 * Stub coverage data tile reader with constant value tiles at zoom levels
+	 * 0 and 2 plus an offset, counting tile reads by zoom level
+	 */
+	private static class StubCoverageData extends
+			CoverageDataCore<CoverageDataImage> implements
+			CoverageDataTileReader {
+
+		/**
+		 * Tile reads by zoom level
+		 */
+		private final Map<Long, Integer> reads = new HashMap<>();
+
+		/**
+		 * Offset added to the tile values
+		 */
+		private volatile double offset = 0.0;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param geoPackage
+		 *            GeoPackage
+		 * @param tileMatrixSet
+		 *            tile matrix set
+		 */
+		public StubCoverageData(SQLiteGeoPackage geoPackage,
+				TileMatrixSet tileMatrixSet) {
+			super(geoPackage, tileMatrixSet);
+		}
+
+		/**
+		 * Set the offset added to the tile values read after
+		 * 
+		 * @param offset
+		 *            offset
+		 */
+		public void setOffset(double offset) {
+			this.offset = offset;
+		}
+
+		/**
+		 * Get the number of tile reads at the zoom level
+		 * 
+		 * @param zoomLevel
+		 *            zoom level
+		 * @return reads
+		 */
+		public synchronized int getReads(long zoomLevel) {
+			Integer count = reads.get(zoomLevel);
+			return count != null ? count : 0;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public CoverageDataTile readTile(TileMatrix tileMatrix,
+				long tileColumn, long tileRow) {
+			long zoomLevel = tileMatrix.getZoomLevel();
+			synchronized (this) {
+				reads.put(zoomLevel, getReads(zoomLevel) + 1);
+			}
+			CoverageDataTile tile = null;
+			if (zoomLevel != 1) {
+				int width = (int) tileMatrix.getTileWidth();
+				int height = (int) tileMatrix.getTileHeight();
+				double[] values = new double[width * height];
+				Arrays.fill(values, zoomLevel * 100.0 + offset);
+				tile = new CoverageDataTile(TABLE_NAME, zoomLevel, tileColumn,
+						tileRow, null, new CoverageDataGrid(values,
+								width, height));
+			}
+			return tile;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Double getValue(GriddedTile griddedTile,
+				CoverageDataImage image, int x, int y) {
+			throw new UnsupportedOperationException();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public CoverageDataResults getValues(CoverageDataRequest request,
+				Integer width, Integer height) {
+			return getTileReaderValues(request, width, height);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public CoverageDataResults getValuesUnbounded(
+				CoverageDataRequest request) {
+			throw new UnsupportedOperationException();
+		}
+
+	}
+
+}
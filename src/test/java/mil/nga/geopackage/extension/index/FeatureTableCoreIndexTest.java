@@ -0,0 +1,362 @@
+package mil.nga.geopackage.extension.index;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import junit.framework.TestCase;
+import mil.nga.geopackage.BoundingBox;
+import mil.nga.geopackage.GeoPackageException;
+import mil.nga.geopackage.core.contents.Contents;
+import mil.nga.geopackage.core.contents.ContentsDataType;
+import mil.nga.geopackage.factory.SQLiteGeoPackage;
+import mil.nga.geopackage.geom.GeoPackageGeometryData;
+import mil.nga.geopackage.user.UserCoreConnection;
+import mil.nga.geopackage.user.UserCoreResult;
+import mil.nga.sf.Point;
+import mil.nga.sf.proj.ProjectionConstants;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Feature Table Core Index Test
+ * 
+ * @author osbornb
+ */
+public class FeatureTableCoreIndexTest {
+
+	/**
+	 * GeoPackage
+	 */
+	private SQLiteGeoPackage geoPackage;
+
+	/**
+	 * Feature table index
+	 */
+	private TestFeatureTableIndex featureTableIndex;
+
+	/**
+	 * Create the GeoPackage, feature table contents, and feature table index
+	 * 
+	 * @throws SQLException
+	 *             upon failure
+	 */
+	@Before
+	public void setUp() throws SQLException {
+		geoPackage = SQLiteGeoPackage.create();
+		geoPackage.createGeometryColumnsTable();
+		geoPackage
+				.execSQL("CREATE TABLE features (id INTEGER PRIMARY KEY, geom GEOMETRY)");
+		Contents contents = new Contents();
+		contents.setTableName("features");
+		contents.setDataType(ContentsDataType.FEATURES);
+		contents.setIdentifier("features");
+		contents.setLastChange(new Date(0));
+		geoPackage.getContentsDao().create(contents);
+		writeFeatures(0);
+		featureTableIndex = new TestFeatureTableIndex(geoPackage);
+		featureTableIndex.setBatchSize(2);
+	}
+
+	/**
+	 * Close the GeoPackage
+	 */
+	@After
+	public void tearDown() {
+		geoPackage.close();
+	}
+
+	/**
+	 * Test indexing the feature table in batches
+	 */
+	@Test
+	public void testIndex() {
+
+		TestCase.assertFalse(featureTableIndex.isIndexed());
+		TestCase.assertEquals(5, featureTableIndex.index());
+		TestCase.assertTrue(featureTableIndex.isIndexed());
+		TestCase.assertEquals(5, featureTableIndex.count());
+		TestCase.assertEquals(2, featureTableIndex.count(new BoundingBox(0.5,
+				0.5, 2.5, 2.5)));
+
+		// Already indexed
+		TestCase.assertEquals(0, featureTableIndex.index());
+	}
+
+	/**
+	 * Test indexing the feature table with geometry data parsed on an executor
+	 */
+	@Test
+	public void testIndexParallel() {
+
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			featureTableIndex.setExecutor(executor);
+			TestCase.assertEquals(5, featureTableIndex.index());
+		} finally {
+			executor.shutdown();
+		}
+		TestCase.assertTrue(featureTableIndex.isIndexed());
+		TestCase.assertEquals(5, featureTableIndex.count());
+		TestCase.assertEquals(2, featureTableIndex.count(new BoundingBox(0.5,
+				0.5, 2.5, 2.5)));
+	}
+
+	/**
+	 * Test a failure partway through indexing rolls back every inserted batch
+	 * along with the index tables and extension
+	 */
+	@Test
+	public void testIndexFailure() {
+
+		featureTableIndex.setFailAt(4);
+		try {
+			featureTableIndex.index();
+			TestCase.fail("Expected indexing failure");
+		} catch (GeoPackageException e) {
+			TestCase.assertEquals("Indexing failure", e.getMessage());
+		}
+
+		TestCase.assertFalse(featureTableIndex.isIndexed());
+		TestCase.assertNull(featureTableIndex.getExtension());
+		TestCase.assertFalse(geoPackage.getDatabase().tableExists(
+				GeometryIndex.TABLE_NAME));
+	}
+
+	/**
+	 * Test a failure partway through re-indexing leaves the previous index in
+	 * place
+	 */
+	@Test
+	public void testReindexFailure() {
+
+		TestCase.assertEquals(5, featureTableIndex.index());
+		Date lastIndexed = featureTableIndex.getLastIndexed();
+
+		writeFeatures(100);
+		featureTableIndex.setFailAt(4);
+		try {
+			featureTableIndex.index(true);
+			TestCase.fail("Expected indexing failure");
+		} catch (GeoPackageException e) {
+			TestCase.assertEquals("Indexing failure", e.getMessage());
+		}
+
+		TestCase.assertTrue(featureTableIndex.isIndexed());
+		TestCase.assertEquals(lastIndexed, featureTableIndex.getLastIndexed());
+		TestCase.assertEquals(5, featureTableIndex.count());
+		TestCase.assertEquals(2, featureTableIndex.count(new BoundingBox(0.5,
+				0.5, 2.5, 2.5)));
+
+		featureTableIndex.setFailAt(-1);
+		TestCase.assertEquals(5, featureTableIndex.index(true));
+		TestCase.assertEquals(0, featureTableIndex.count(new BoundingBox(0.5,
+				0.5, 2.5, 2.5)));
+	}
+
+	/**
+	 * Write five point features with ids 1 through 5 at the id plus the offset
+	 * 
+	 * @param offset
+	 *            coordinate offset
+	 */
+	private void writeFeatures(double offset) {
+		Connection connection = geoPackage.getDatabase().getConnection();
+		try (PreparedStatement statement = connection
+				.prepareStatement("INSERT OR REPLACE INTO features (id, geom) VALUES (?, ?)")) {
+			for (long id = 1; id <= 5; id++) {
+				GeoPackageGeometryData geometryData = new GeoPackageGeometryData(
+						ProjectionConstants.EPSG_WORLD_GEODETIC_SYSTEM);
+				geometryData.setGeometry(new Point(id + offset, id + offset));
+				statement.setLong(1, id);
+				statement.setBytes(2, geometryData.toBytes());
+				statement.executeUpdate();
+			}
+		} catch (SQLException | IOException e) {
+			throw new GeoPackageException("Failed to write features", e);
+		}
+	}
+
+	/**
+	 * Feature table index reading the feature table through a user connection,
+	 * optionally failing at a geometry
+	 */
+	private static class TestFeatureTableIndex extends FeatureTableCoreIndex {
+
+		/**
+		 * GeoPackage
+		 */
+		private final SQLiteGeoPackage geoPackage;
+
+		/**
+		 * Geometry id to fail at, -1 for none
+		 */
+		private long failAt = -1;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param geoPackage
+		 *            GeoPackage
+		 */
+		public TestFeatureTableIndex(SQLiteGeoPackage geoPackage) {
+			super(geoPackage, "features", "geom");
+			this.geoPackage = geoPackage;
+		}
+
+		/**
+		 * Set the geometry id to fail at
+		 * 
+		 * @param failAt
+		 *            geometry id, -1 for none
+		 */
+		public void setFailAt(long failAt) {
+			this.failAt = failAt;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected int indexTable(TableIndex tableIndex) {
+			return indexTable(tableIndex, new TestUserConnection(geoPackage
+					.getDatabase().getConnection(), failAt), "id");
+		}
+
+	}
+
+	/**
+	 * User connection running raw queries over the JDBC connection, with
+	 * results failing when reading a geometry id
+	 */
+	@SuppressWarnings("rawtypes")
+	private static class TestUserConnection extends UserCoreConnection {
+
+		/**
+		 * JDBC connection
+		 */
+		private final Connection connection;
+
+		/**
+		 * Geometry id to fail at, -1 for none
+		 */
+		private final long failAt;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param connection
+		 *            JDBC connection
+		 * @param failAt
+		 *            geometry id to fail at, -1 for none
+		 */
+		public TestUserConnection(Connection connection, long failAt) {
+			this.connection = connection;
+			this.failAt = failAt;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public UserCoreResult rawQuery(String sql, String[] selectionArgs) {
+			final Statement statement;
+			final ResultSet resultSet;
+			try {
+				statement = connection.createStatement();
+				resultSet = statement.executeQuery(sql);
+			} catch (SQLException e) {
+				throw new GeoPackageException("Failed to query: " + sql, e);
+			}
+			return (UserCoreResult) Proxy.newProxyInstance(
+					UserCoreResult.class.getClassLoader(),
+					new Class<?>[] { UserCoreResult.class },
+					new InvocationHandler() {
+						@Override
+						public Object invoke(Object proxy, Method method,
+								Object[] args) throws SQLException {
+							Object result;
+							switch (method.getName()) {
+							case "moveToNext":
+								result = resultSet.next();
+								break;
+							case "getLong":
+								long id = resultSet
+										.getLong((Integer) args[0] + 1);
+								if (id == failAt) {
+									throw new GeoPackageException(
+											"Indexing failure");
+								}
+								result = id;
+								break;
+							case "getBlob":
+								result = resultSet
+										.getBytes((Integer) args[0] + 1);
+								break;
+							case "close":
+								statement.close();
+								result = null;
+								break;
+							default:
+								throw new UnsupportedOperationException(
+										method.getName());
+							}
+							return result;
+						}
+					});
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public UserCoreResult query(String table, String[] columns,
+				String selection, String[] selectionArgs, String groupBy,
+				String having, String orderBy) {
+			throw new UnsupportedOperationException();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public UserCoreResult query(String table, String[] columns,
+				String[] columnsAs, String selection, String[] selectionArgs,
+				String groupBy, String having, String orderBy) {
+			throw new UnsupportedOperationException();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public UserCoreResult query(String table, String[] columns,
+				String selection, String[] selectionArgs, String groupBy,
+				String having, String orderBy, String limit) {
+			throw new UnsupportedOperationException();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public UserCoreResult query(String table, String[] columns,
+				String[] columnsAs, String selection, String[] selectionArgs,
+				String groupBy, String having, String orderBy, String limit) {
+			throw new UnsupportedOperationException();
+		}
+
+	}
+
+}
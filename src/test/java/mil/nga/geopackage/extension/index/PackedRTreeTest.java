@@ -0,0 +1,156 @@
+package mil.nga.geopackage.extension.index;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Packed R-tree query tests compared against a brute force scan
+ * 
+ * @author osbornb
+ */
+public class PackedRTreeTest {
+
+	/**
+	 * Test queries and counts over empty, single, and multiple level trees
+	 * with varying node sizes
+	 */
+	@Test
+	public void testQueryMatchesBruteForce() {
+
+		Random random = new Random(7);
+
+		int[] sizes = new int[] { 0, 1, 2, 15, 16, 17, 257, 5000 };
+		int[] nodeSizes = new int[] { 2, 3, 16, 64 };
+
+		for (int size : sizes) {
+			for (int nodeSize : nodeSizes) {
+
+				long[] ids = new long[size];
+				double[] minX = new double[size];
+				double[] minY = new double[size];
+				double[] maxX = new double[size];
+				double[] maxY = new double[size];
+				for (int i = 0; i < size; i++) {
+					ids[i] = i * 3 + 1;
+					minX[i] = random.nextDouble() * 360 - 180;
+					minY[i] = random.nextDouble() * 180 - 90;
+					if (random.nextInt(10) == 0) {
+						// Points
+						maxX[i] = minX[i];
+						maxY[i] = minY[i];
+					} else {
+						maxX[i] = minX[i] + random.nextDouble() * 20;
+						maxY[i] = minY[i] + random.nextDouble() * 10;
+					}
+				}
+
+				PackedRTree tree = new PackedRTree(ids, minX, minY, maxX,
+						maxY, size, nodeSize);
+				assertEquals(size, tree.size());
+				assertEquals(nodeSize, tree.getNodeSize());
+
+				for (int query = 0; query < 50; query++) {
+					double queryMinX = random.nextDouble() * 360 - 180;
+					double queryMinY = random.nextDouble() * 180 - 90;
+					double queryMaxX = queryMinX + random.nextDouble() * 60;
+					double queryMaxY = queryMinY + random.nextDouble() * 30;
+					assertQuery(tree, ids, minX, minY, maxX, maxY, queryMinX,
+							queryMinY, queryMaxX, queryMaxY);
+				}
+
+				// Whole world and touching edge queries
+				assertQuery(tree, ids, minX, minY, maxX, maxY, -180, -90, 200,
+						100);
+				if (size > 0) {
+					assertQuery(tree, ids, minX, minY, maxX, maxY, maxX[0],
+							maxY[0], maxX[0] + 1, maxY[0] + 1);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Test the builder produces the same results as the array constructor
+	 */
+	@Test
+	public void testBuilder() {
+
+		Random random = new Random(11);
+		int size = 1000;
+
+		PackedRTree.Builder builder = new PackedRTree.Builder(10);
+		long[] ids = new long[size];
+		double[] minX = new double[size];
+		double[] minY = new double[size];
+		double[] maxX = new double[size];
+		double[] maxY = new double[size];
+		for (int i = 0; i < size; i++) {
+			ids[i] = i;
+			minX[i] = random.nextDouble() * 100;
+			minY[i] = random.nextDouble() * 100;
+			maxX[i] = minX[i] + random.nextDouble();
+			maxY[i] = minY[i] + random.nextDouble();
+			builder.add(ids[i], minX[i], minY[i], maxX[i], maxY[i]);
+		}
+		assertEquals(size, builder.size());
+
+		PackedRTree tree = builder.build();
+		assertEquals(size, tree.size());
+		assertQuery(tree, ids, minX, minY, maxX, maxY, 25, 25, 75, 50);
+	}
+
+	/**
+	 * Assert the tree query and count match a brute force scan
+	 * 
+	 * @param tree
+	 *            packed R-tree
+	 * @param ids
+	 *            geometry ids
+	 * @param minX
+	 *            min x values
+	 * @param minY
+	 *            min y values
+	 * @param maxX
+	 *            max x values
+	 * @param maxY
+	 *            max y values
+	 * @param queryMinX
+	 *            query min x
+	 * @param queryMinY
+	 *            query min y
+	 * @param queryMaxX
+	 *            query max x
+	 * @param queryMaxY
+	 *            query max y
+	 */
+	private static void assertQuery(PackedRTree tree, long[] ids,
+			double[] minX, double[] minY, double[] maxX, double[] maxY,
+			double queryMinX, double queryMinY, double queryMaxX,
+			double queryMaxY) {
+
+		long[] expected = new long[ids.length];
+		int count = 0;
+		for (int i = 0; i < ids.length; i++) {
+			if (minX[i] <= queryMaxX && minY[i] <= queryMaxY
+					&& maxX[i] >= queryMinX && maxY[i] >= queryMinY) {
+				expected[count++] = ids[i];
+			}
+		}
+		expected = Arrays.copyOf(expected, count);
+		Arrays.sort(expected);
+
+		long[] actual = tree.query(queryMinX, queryMinY, queryMaxX,
+				queryMaxY);
+		Arrays.sort(actual);
+
+		assertArrayEquals(expected, actual);
+		assertEquals(count,
+				tree.count(queryMinX, queryMinY, queryMaxX, queryMaxY));
+	}
+
+}
@@ -0,0 +1,307 @@
+package mil.nga.geopackage.factory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import junit.framework.TestCase;
+import mil.nga.geopackage.core.GeoPackageCatalog;
+import mil.nga.geopackage.core.contents.Contents;
+import mil.nga.geopackage.core.contents.ContentsDataType;
+import mil.nga.geopackage.core.srs.SpatialReferenceSystem;
+import mil.nga.geopackage.features.columns.GeometryColumns;
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.proj.ProjectionConstants;
+
+import org.junit.Test;
+
+/**
+ * GeoPackage Core Implementation Test, verifying the schema catalog snapshot
+ * loading and invalidation
+ *
+ * @author osbornb
+ */
+public class GeoPackageCoreImplTest {
+
+	/**
+	 * Test an invalidation while a catalog is loading causes a reload on next
+	 * use
+	 */
+	@Test
+	public void testInvalidationDuringLoad() {
+
+		final MemoryGeoPackage geoPackage = new MemoryGeoPackage();
+		geoPackage.addTable("table1");
+		geoPackage.setAfterLoad(new Runnable() {
+			@Override
+			public void run() {
+				geoPackage.setAfterLoad(null);
+				geoPackage.addTable("table2");
+			}
+		});
+
+		GeoPackageCatalog loading = geoPackage.getCatalog();
+		TestCase.assertTrue(loading.isTable("table1"));
+		TestCase.assertFalse(loading.isTable("table2"));
+
+		GeoPackageCatalog reloaded = geoPackage.getCatalog();
+		TestCase.assertTrue(reloaded.isTable("table2"));
+		TestCase.assertSame(reloaded, geoPackage.getCatalog());
+		TestCase.assertEquals(2, geoPackage.getLoads());
+
+	}
+
+	/**
+	 * Test a catalog loaded before an invalidation and installed after it is
+	 * not used
+	 *
+	 * @throws InterruptedException
+	 *             upon interruption
+	 */
+	@Test(timeout = 10000)
+	public void testInstallAfterInvalidation() throws InterruptedException {
+
+		final MemoryGeoPackage geoPackage = new MemoryGeoPackage();
+		geoPackage.addTable("table1");
+
+		final CountDownLatch loaded = new CountDownLatch(1);
+		final CountDownLatch invalidated = new CountDownLatch(1);
+		geoPackage.setAfterLoad(new Runnable() {
+			@Override
+			public void run() {
+				geoPackage.setAfterLoad(null);
+				loaded.countDown();
+				try {
+					invalidated.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+
+		final AtomicReference<GeoPackageCatalog> stale = new AtomicReference<>();
+		Thread loader = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				stale.set(geoPackage.getCatalog());
+			}
+		});
+		loader.start();
+		loaded.await();
+		geoPackage.addTable("table2");
+		invalidated.countDown();
+		loader.join();
+
+		TestCase.assertFalse(stale.get().isTable("table2"));
+		GeoPackageCatalog catalog = geoPackage.getCatalog();
+		TestCase.assertNotSame(stale.get(), catalog);
+		TestCase.assertTrue(catalog.isTable("table2"));
+
+	}
+
+	/**
+	 * Test catalog loads racing invalidations never hide a completed write
+	 * from the writing thread
+	 *
+	 * @throws InterruptedException
+	 *             upon interruption
+	 */
+	@Test(timeout = 60000)
+	public void testConcurrentLoadAndInvalidation()
+			throws InterruptedException {
+
+		final MemoryGeoPackage geoPackage = new MemoryGeoPackage();
+		final AtomicBoolean done = new AtomicBoolean();
+
+		List<Thread> readers = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			Thread reader = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					while (!done.get()) {
+						geoPackage.getCatalog();
+					}
+				}
+			});
+			reader.start();
+			readers.add(reader);
+		}
+
+		try {
+			for (int i = 0; i < 1000; i++) {
+				String table = "table" + i;
+				geoPackage.addTable(table);
+				TestCase.assertTrue(table, geoPackage.getCatalog()
+						.isTable(table));
+			}
+		} finally {
+			done.set(true);
+			for (Thread reader : readers) {
+				reader.join();
+			}
+		}
+
+		TestCase.assertEquals(1000, geoPackage.getCatalog().getTables().size());
+
+	}
+
+	/**
+	 * Test table contents answer their geometry columns from the catalog
+	 * snapshot and DAO writes invalidate it
+	 *
+	 * @throws SQLException
+	 *             upon error
+	 */
+	@Test
+	public void testContentsFromCatalog() throws SQLException {
+
+		SQLiteGeoPackage geoPackage = SQLiteGeoPackage.create();
+		try {
+
+			geoPackage.createGeometryColumnsTable();
+			geoPackage
+					.execSQL("CREATE TABLE features (id INTEGER PRIMARY KEY, geom BLOB)");
+			SpatialReferenceSystem srs = geoPackage
+					.getSpatialReferenceSystemDao().queryForId(
+							(long) ProjectionConstants.EPSG_WORLD_GEODETIC_SYSTEM);
+
+			Contents contents = new Contents();
+			contents.setTableName("features");
+			contents.setDataType(ContentsDataType.FEATURES);
+			contents.setIdentifier("features");
+			contents.setSrs(srs);
+			geoPackage.getContentsDao().create(contents);
+
+			GeometryColumns geometryColumns = new GeometryColumns();
+			geometryColumns.setContents(contents);
+			geometryColumns.setColumnName("geom");
+			geometryColumns.setGeometryType(GeometryType.GEOMETRY);
+			geometryColumns.setSrs(srs);
+			geometryColumns.setZ((byte) 0);
+			geometryColumns.setM((byte) 0);
+			geoPackage.getGeometryColumnsDao().create(geometryColumns);
+
+			Contents tableContents = geoPackage.getTableContents("features");
+			TestCase.assertEquals("geom", tableContents.getGeometryColumns()
+					.getColumnName());
+			tableContents.getSrs().setSrsName("modified");
+			TestCase.assertEquals(srs.getSrsName(), geoPackage
+					.getTableContents("features").getSrs().getSrsName());
+
+			// Raw SQL changes are not seen until invalidated
+			geoPackage.execSQL("DELETE FROM " + GeometryColumns.TABLE_NAME);
+			TestCase.assertNotNull(geoPackage.getTableContents("features")
+					.getGeometryColumns());
+			geoPackage.invalidateCatalog();
+			TestCase.assertNull(geoPackage.getTableContents("features")
+					.getGeometryColumns());
+
+			// DAO writes invalidate
+			geoPackage.getGeometryColumnsDao().create(geometryColumns);
+			TestCase.assertEquals("geom", geoPackage
+					.getTableContents("features").getGeometryColumns()
+					.getColumnName());
+
+		} finally {
+			geoPackage.close();
+			geoPackage.getFile().delete();
+		}
+
+	}
+
+	/**
+	 * GeoPackage loading its catalog from in memory contents rows
+	 */
+	private static class MemoryGeoPackage extends GeoPackageCoreImpl {
+
+		/**
+		 * Contents rows
+		 */
+		private final List<Contents> rows = new ArrayList<>();
+
+		/**
+		 * Action run after loading a catalog, before it is returned
+		 */
+		private volatile Runnable afterLoad;
+
+		/**
+		 * Catalog loads
+		 */
+		private int loads = 0;
+
+		/**
+		 * Constructor
+		 */
+		private MemoryGeoPackage() {
+			super("memory", "memory", null, null, true);
+		}
+
+		/**
+		 * Add a contents row and invalidate the catalog, as a DAO write would
+		 *
+		 * @param table
+		 *            table name
+		 */
+		private void addTable(String table) {
+			Contents contents = new Contents();
+			contents.setTableName(table);
+			contents.setDataType(ContentsDataType.ATTRIBUTES);
+			synchronized (rows) {
+				rows.add(contents);
+			}
+			invalidateCatalog();
+		}
+
+		/**
+		 * Set the action run after loading a catalog
+		 *
+		 * @param afterLoad
+		 *            action or null
+		 */
+		private void setAfterLoad(Runnable afterLoad) {
+			this.afterLoad = afterLoad;
+		}
+
+		/**
+		 * Get the number of catalog loads
+		 *
+		 * @return loads
+		 */
+		private int getLoads() {
+			synchronized (rows) {
+				return loads;
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected GeoPackageCatalog loadCatalog() {
+			List<Contents> contents;
+			synchronized (rows) {
+				loads++;
+				contents = new ArrayList<>(rows);
+			}
+			GeoPackageCatalog catalog = new GeoPackageCatalog(true, contents);
+			Runnable action = afterLoad;
+			if (action != null) {
+				action.run();
+			}
+			return catalog;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void execSQL(String sql) {
+			throw new UnsupportedOperationException();
+		}
+
+	}
+
+}
@@ -0,0 +1,102 @@
+package mil.nga.geopackage.factory;
+
+import java.io.File;
+import java.io.IOException;
+
+import mil.nga.geopackage.GeoPackageException;
+import mil.nga.geopackage.db.GeoPackageTableCreator;
+import mil.nga.geopackage.db.SQLiteGeoPackageConnection;
+
+/**
+ * GeoPackage over an on disk SQLite database file, for tests against a real
+ * database
+ * 
+ * @author osbornb
+ */
+public class SQLiteGeoPackage extends GeoPackageCoreImpl {
+
+	/**
+	 * Table creator
+	 */
+	private final GeoPackageTableCreator tableCreator;
+
+	/**
+	 * Create a new GeoPackage with the required tables in a temporary file
+	 * deleted on exit
+	 * 
+	 * @return GeoPackage
+	 */
+	public static SQLiteGeoPackage create() {
+		File file;
+		try {
+			file = File.createTempFile("geopackage", ".gpkg");
+		} catch (IOException e) {
+			throw new GeoPackageException(
+					"Failed to create temporary GeoPackage file", e);
+		}
+		file.delete();
+		file.deleteOnExit();
+		SQLiteGeoPackage geoPackage = open(file);
+		geoPackage.getDatabase().setApplicationId();
+		geoPackage.getDatabase().setUserVersion();
+		geoPackage.tableCreator.createRequired();
+		return geoPackage;
+	}
+
+	/**
+	 * Open the GeoPackage file
+	 * 
+	 * @param file
+	 *            GeoPackage file
+	 * @return GeoPackage
+	 */
+	public static SQLiteGeoPackage open(File file) {
+		SQLiteGeoPackageConnection database = new SQLiteGeoPackageConnection(
+				file);
+		return new SQLiteGeoPackage(file, database,
+				new GeoPackageTableCreator(database));
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param file
+	 *            GeoPackage file
+	 * @param database
+	 *            database connection
+	 * @param tableCreator
+	 *            table creator
+	 */
+	private SQLiteGeoPackage(File file, SQLiteGeoPackageConnection database,
+			GeoPackageTableCreator tableCreator) {
+		super(file.getName(), file.getAbsolutePath(), database, tableCreator,
+				true);
+		this.tableCreator = tableCreator;
+	}
+
+	/**
+	 * Get the GeoPackage file
+	 * 
+	 * @return file
+	 */
+	public File getFile() {
+		return new File(getPath());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public SQLiteGeoPackageConnection getDatabase() {
+		return (SQLiteGeoPackageConnection) super.getDatabase();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void execSQL(String sql) {
+		getDatabase().execSQL(sql);
+	}
+
+}
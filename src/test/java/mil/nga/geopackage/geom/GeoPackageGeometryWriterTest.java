@@ -0,0 +1,427 @@
+package mil.nga.geopackage.geom;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+import mil.nga.geopackage.GeoPackageConstants;
+import mil.nga.geopackage.GeoPackageException;
+import mil.nga.geopackage.extension.GeometryExtensions;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryEnvelope;
+import mil.nga.sf.LineString;
+import mil.nga.sf.MultiPoint;
+import mil.nga.sf.Point;
+import mil.nga.sf.util.GeometryEnvelopeBuilder;
+
+import org.junit.Test;
+
+/**
+ * GeoPackage Geometry Writer Test, comparing the written bytes against the
+ * sf-wkb Well-Known Binary writer and reader
+ * 
+ * @author osbornb
+ */
+public class GeoPackageGeometryWriterTest {
+
+	/**
+	 * Spatial reference system id
+	 */
+	private static final int SRS_ID = 4326;
+
+	/**
+	 * Test writing geometry data for every geometry type, dimension, and byte
+	 * order
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testWriteGeometryData() throws IOException {
+
+		Random random = new Random(14);
+
+		for (boolean[] dimension : GeometryTestUtils.DIMENSIONS) {
+			for (ByteOrder byteOrder : GeometryTestUtils.BYTE_ORDERS) {
+				for (Geometry geometry : GeometryTestUtils.createGeometries(
+						random, dimension[0], dimension[1])) {
+
+					GeometryEnvelope envelope = buildEnvelope(geometry);
+
+					GeoPackageGeometryData geometryData = new GeoPackageGeometryData(
+							SRS_ID);
+					geometryData.setByteOrder(byteOrder);
+					geometryData.setGeometry(geometry);
+					geometryData.setEnvelope(envelope);
+
+					byte[] expected = expectedBytes(geometry, envelope,
+							geometryData.isExtended(), byteOrder);
+					String message = message(geometry, byteOrder);
+
+					TestCase.assertEquals(message,
+							GeometryExtensions.isNonStandard(geometry
+									.getGeometryType()),
+							geometryData.isExtended());
+					TestCase.assertEquals(message, expected.length,
+							GeoPackageGeometryWriter.size(geometryData));
+					TestCase.assertEquals(message,
+							expected.length - wkbSize(geometry, byteOrder),
+							GeoPackageGeometryWriter.headerSize(geometryData));
+
+					for (ByteBuffer buffer : buffers(expected.length)) {
+						int position = buffer.position();
+						int written = new GeoPackageGeometryWriter().write(
+								geometryData, buffer);
+						TestCase.assertEquals(message, expected.length,
+								written);
+						TestCase.assertEquals(message, position + written,
+								buffer.position());
+						TestCase.assertEquals(message, ByteOrder.BIG_ENDIAN,
+								buffer.order());
+						TestCase.assertTrue(message, Arrays.equals(expected,
+								bytes(buffer, position, written)));
+					}
+
+					TestCase.assertTrue(message,
+							Arrays.equals(expected, geometryData.toBytes()));
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Test writing geometries with a computed envelope for every geometry
+	 * type, dimension, and byte order, reading them back with the sf-wkb
+	 * reader
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testWriteGeometry() throws IOException {
+
+		Random random = new Random(140);
+
+		for (boolean[] dimension : GeometryTestUtils.DIMENSIONS) {
+			for (ByteOrder byteOrder : GeometryTestUtils.BYTE_ORDERS) {
+				for (Geometry geometry : GeometryTestUtils.createGeometries(
+						random, dimension[0], dimension[1])) {
+
+					GeometryEnvelope envelope = buildEnvelope(geometry);
+					byte[] expected = expectedBytes(geometry, envelope,
+							false, byteOrder);
+					String message = message(geometry, byteOrder);
+
+					TestCase.assertEquals(message, expected.length,
+							GeoPackageGeometryWriter.size(geometry));
+
+					for (ByteBuffer buffer : buffers(expected.length)) {
+						buffer.order(byteOrder);
+						int position = buffer.position();
+						int written = new GeoPackageGeometryWriter().write(
+								geometry, SRS_ID, buffer);
+						TestCase.assertEquals(message, expected.length,
+								written);
+						byte[] bytes = bytes(buffer, position, written);
+						TestCase.assertTrue(message,
+								Arrays.equals(expected, bytes));
+
+						GeoPackageGeometryData geometryData = new GeoPackageGeometryData(
+								bytes);
+						TestCase.assertEquals(message, SRS_ID,
+								geometryData.getSrsId());
+						TestCase.assertEquals(message, byteOrder,
+								geometryData.getByteOrder());
+						TestCase.assertFalse(message, geometryData.isEmpty());
+						TestCase.assertEquals(message, envelope,
+								geometryData.getEnvelope());
+						TestCase.assertEquals(message, geometry,
+								geometryData.getGeometry());
+					}
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Test writing an empty geometry
+	 */
+	@Test
+	public void testWriteEmpty() {
+
+		byte[] bytes = new byte[GeoPackageGeometryWriter
+				.size((Geometry) null)];
+		TestCase.assertEquals(8, bytes.length);
+		new GeoPackageGeometryWriter().write((Geometry) null, SRS_ID,
+				ByteBuffer.wrap(bytes));
+
+		GeoPackageGeometryData geometryData = new GeoPackageGeometryData(bytes);
+		TestCase.assertTrue(geometryData.isEmpty());
+		TestCase.assertNull(geometryData.getEnvelope());
+		TestCase.assertNull(geometryData.getGeometry());
+		TestCase.assertEquals(SRS_ID, geometryData.getSrsId());
+
+	}
+
+	/**
+	 * Test points with dimensions differing from their parent are sized as
+	 * they are written
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testMixedDimensionPoints() throws IOException {
+
+		LineString lineString = new LineString(false, false);
+		lineString.addPoint(new Point(1.0, 2.0));
+		lineString.addPoint(new Point(3.0, 4.0, 5.0));
+		lineString.addPoint(new Point(6.0, 7.0, 8.0, 9.0));
+
+		MultiPoint multiPoint = new MultiPoint(true, true);
+		multiPoint.addPoint(new Point(1.0, 2.0));
+		multiPoint.addPoint(new Point(3.0, 4.0, 5.0, 6.0));
+
+		for (Geometry geometry : new Geometry[] { lineString, multiPoint }) {
+			for (ByteOrder byteOrder : GeometryTestUtils.BYTE_ORDERS) {
+
+				byte[] wkb = GeometryTestUtils.writeWkb(geometry, byteOrder);
+				TestCase.assertEquals(wkb.length,
+						GeoPackageGeometryWriter.wkbSize(geometry));
+
+				int size = GeoPackageGeometryWriter.size(geometry);
+				ByteBuffer buffer = ByteBuffer.allocate(size).order(
+						byteOrder);
+				TestCase.assertEquals(size, new GeoPackageGeometryWriter()
+						.write(geometry, SRS_ID, buffer));
+				TestCase.assertEquals(size, buffer.position());
+				TestCase.assertTrue(Arrays.equals(
+						wkb,
+						Arrays.copyOfRange(buffer.array(), size - wkb.length,
+								size)));
+			}
+		}
+
+	}
+
+	/**
+	 * Test NaN coordinates, as used for empty points, are excluded from the
+	 * written envelope
+	 */
+	@Test
+	public void testNaNCoordinates() {
+
+		MultiPoint multiPoint = new MultiPoint(true, false);
+		multiPoint.addPoint(new Point(Double.NaN, Double.NaN, Double.NaN));
+		multiPoint.addPoint(new Point(1.0, 4.0, Double.NaN));
+		multiPoint.addPoint(new Point(3.0, 2.0, Double.NaN));
+
+		GeometryEnvelope envelope = writeEnvelope(multiPoint);
+		TestCase.assertEquals(1.0, envelope.getMinX());
+		TestCase.assertEquals(3.0, envelope.getMaxX());
+		TestCase.assertEquals(2.0, envelope.getMinY());
+		TestCase.assertEquals(4.0, envelope.getMaxY());
+		TestCase.assertTrue(Double.isNaN(envelope.getMinZ()));
+		TestCase.assertTrue(Double.isNaN(envelope.getMaxZ()));
+
+		envelope = writeEnvelope(new Point(Double.NaN, Double.NaN));
+		TestCase.assertTrue(Double.isNaN(envelope.getMinX()));
+		TestCase.assertTrue(Double.isNaN(envelope.getMaxX()));
+		TestCase.assertTrue(Double.isNaN(envelope.getMinY()));
+		TestCase.assertTrue(Double.isNaN(envelope.getMaxY()));
+
+	}
+
+	/**
+	 * Test writing into a buffer without enough remaining space
+	 */
+	@Test
+	public void testInsufficientBuffer() {
+
+		Geometry geometry = GeometryTestUtils.createLineString(new Random(1),
+				true, false, 3);
+		int size = GeoPackageGeometryWriter.size(geometry);
+		ByteBuffer buffer = ByteBuffer.allocate(size - 1);
+		try {
+			new GeoPackageGeometryWriter().write(geometry, SRS_ID, buffer);
+			TestCase.fail("Expected insufficient buffer failure");
+		} catch (GeoPackageException e) {
+			// expected
+		}
+		TestCase.assertEquals(0, buffer.position());
+
+	}
+
+	/**
+	 * Write the geometry and read the written envelope
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @return written envelope
+	 */
+	private static GeometryEnvelope writeEnvelope(Geometry geometry) {
+		byte[] bytes = new byte[GeoPackageGeometryWriter.size(geometry)];
+		new GeoPackageGeometryWriter().write(geometry, SRS_ID,
+				ByteBuffer.wrap(bytes));
+		return new GeoPackageGeometryData(bytes).getEnvelope();
+	}
+
+	/**
+	 * Build the expected envelope of the geometry, null when it has no points
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @return envelope or null
+	 */
+	private static GeometryEnvelope buildEnvelope(Geometry geometry) {
+		GeometryEnvelope envelope = GeometryEnvelopeBuilder
+				.buildEnvelope(geometry);
+		if (envelope.getMinX() > envelope.getMaxX()) {
+			envelope = null;
+		}
+		return envelope;
+	}
+
+	/**
+	 * Build the expected GeoPackage Geometry Data bytes from the envelope and
+	 * the sf-wkb Well-Known Binary
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @param envelope
+	 *            envelope or null
+	 * @param extended
+	 *            extended geometry
+	 * @param byteOrder
+	 *            byte order
+	 * @return bytes
+	 * @throws IOException
+	 *             upon error
+	 */
+	private static byte[] expectedBytes(Geometry geometry,
+			GeometryEnvelope envelope, boolean extended, ByteOrder byteOrder)
+			throws IOException {
+
+		byte[] wkb = GeometryTestUtils.writeWkb(geometry, byteOrder);
+
+		int indicator = 0;
+		int envelopeValues = 0;
+		if (envelope != null) {
+			indicator = 1;
+			envelopeValues = 4;
+			if (envelope.hasZ()) {
+				indicator += 1;
+				envelopeValues += 2;
+			}
+			if (envelope.hasM()) {
+				indicator += 2;
+				envelopeValues += 2;
+			}
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(8 + envelopeValues * 8
+				+ wkb.length);
+		buffer.order(byteOrder);
+		buffer.put((byte) 'G');
+		buffer.put((byte) 'P');
+		buffer.put(GeoPackageConstants.GEO_PACKAGE_GEOMETRY_VERSION_1);
+		int flags = indicator << 1;
+		if (extended) {
+			flags |= 1 << 5;
+		}
+		if (byteOrder == ByteOrder.LITTLE_ENDIAN) {
+			flags |= 1;
+		}
+		buffer.put((byte) flags);
+		buffer.putInt(SRS_ID);
+		if (envelope != null) {
+			buffer.putDouble(envelope.getMinX());
+			buffer.putDouble(envelope.getMaxX());
+			buffer.putDouble(envelope.getMinY());
+			buffer.putDouble(envelope.getMaxY());
+			if (envelope.hasZ()) {
+				buffer.putDouble(envelope.getMinZ());
+				buffer.putDouble(envelope.getMaxZ());
+			}
+			if (envelope.hasM()) {
+				buffer.putDouble(envelope.getMinM());
+				buffer.putDouble(envelope.getMaxM());
+			}
+		}
+		buffer.put(wkb);
+
+		return buffer.array();
+	}
+
+	/**
+	 * Get the sf-wkb Well-Known Binary size of the geometry
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @param byteOrder
+	 *            byte order
+	 * @return byte count
+	 * @throws IOException
+	 *             upon error
+	 */
+	private static int wkbSize(Geometry geometry, ByteOrder byteOrder)
+			throws IOException {
+		return GeometryTestUtils.writeWkb(geometry, byteOrder).length;
+	}
+
+	/**
+	 * Create heap and direct buffers with room for the bytes after a non zero
+	 * position
+	 * 
+	 * @param size
+	 *            byte count
+	 * @return buffers
+	 */
+	private static List<ByteBuffer> buffers(int size) {
+		ByteBuffer heap = ByteBuffer.allocate(size + 7);
+		heap.position(3);
+		ByteBuffer direct = ByteBuffer.allocateDirect(size + 7);
+		direct.position(5);
+		return Arrays.asList(heap, direct);
+	}
+
+	/**
+	 * Get the bytes written to the buffer
+	 * 
+	 * @param buffer
+	 *            buffer
+	 * @param position
+	 *            start position
+	 * @param length
+	 *            byte count
+	 * @return bytes
+	 */
+	private static byte[] bytes(ByteBuffer buffer, int position, int length) {
+		byte[] bytes = new byte[length];
+		ByteBuffer duplicate = buffer.duplicate();
+		duplicate.position(position);
+		duplicate.get(bytes);
+		return bytes;
+	}
+
+	/**
+	 * Build an assertion message
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @param byteOrder
+	 *            byte order
+	 * @return message
+	 */
+	private static String message(Geometry geometry, ByteOrder byteOrder) {
+		return geometry.getGeometryType() + " Z: " + geometry.hasZ() + " M: "
+				+ geometry.hasM() + " " + byteOrder;
+	}
+
+}
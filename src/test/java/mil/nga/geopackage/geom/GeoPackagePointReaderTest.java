@@ -0,0 +1,139 @@
+package mil.nga.geopackage.geom;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+import mil.nga.geopackage.GeoPackageException;
+import mil.nga.sf.Point;
+import mil.nga.sf.util.GeometryEnvelopeBuilder;
+
+import org.junit.Test;
+
+/**
+ * GeoPackage Point Reader Test
+ * 
+ * @author osbornb
+ */
+public class GeoPackagePointReaderTest {
+
+	/**
+	 * Test reading points for every dimension and byte order, with and
+	 * without an envelope
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testRead() throws IOException {
+
+		for (boolean[] dimension : GeometryTestUtils.DIMENSIONS) {
+			for (ByteOrder byteOrder : GeometryTestUtils.BYTE_ORDERS) {
+				for (boolean envelope : new boolean[] { false, true }) {
+
+					Point point = point(dimension[0], dimension[1]);
+					byte[] bytes = bytes(point, byteOrder, envelope);
+
+					double[] coordinates = new double[4];
+					TestCase.assertTrue(GeoPackagePointReader.read(bytes,
+							coordinates));
+					TestCase.assertEquals(point.getX(), coordinates[0]);
+					TestCase.assertEquals(point.getY(), coordinates[1]);
+					TestCase.assertEquals(
+							point.hasZ() ? point.getZ() : Double.NaN,
+							coordinates[2]);
+					TestCase.assertEquals(
+							point.hasM() ? point.getM() : Double.NaN,
+							coordinates[3]);
+				}
+			}
+		}
+
+		TestCase.assertFalse(GeoPackagePointReader.read(null, new double[4]));
+
+		GeoPackageGeometryData empty = new GeoPackageGeometryData(4326);
+		TestCase.assertFalse(GeoPackagePointReader.read(empty.toBytes(),
+				new double[4]));
+
+	}
+
+	/**
+	 * Test every truncation of point blobs fails with a GeoPackage exception
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testTruncated() throws IOException {
+
+		for (boolean[] dimension : GeometryTestUtils.DIMENSIONS) {
+			for (ByteOrder byteOrder : GeometryTestUtils.BYTE_ORDERS) {
+				for (boolean envelope : new boolean[] { false, true }) {
+
+					byte[] bytes = bytes(point(dimension[0], dimension[1]),
+							byteOrder, envelope);
+
+					for (int length = 0; length < bytes.length; length++) {
+						try {
+							GeoPackagePointReader.read(
+									Arrays.copyOf(bytes, length),
+									new double[4]);
+							TestCase.fail("Expected truncated failure. Length: "
+									+ length + " of " + bytes.length);
+						} catch (GeoPackageException e) {
+							// expected
+						}
+					}
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Create a point
+	 * 
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @return point
+	 */
+	private static Point point(boolean hasZ, boolean hasM) {
+		Point point = new Point(hasZ, hasM, 1.5, -2.5);
+		if (hasZ) {
+			point.setZ(3.5);
+		}
+		if (hasM) {
+			point.setM(-4.5);
+		}
+		return point;
+	}
+
+	/**
+	 * Write the point as GeoPackage Geometry Data bytes
+	 * 
+	 * @param point
+	 *            point
+	 * @param byteOrder
+	 *            byte order
+	 * @param envelope
+	 *            true to write an envelope
+	 * @return bytes
+	 * @throws IOException
+	 *             upon error
+	 */
+	private static byte[] bytes(Point point, ByteOrder byteOrder,
+			boolean envelope) throws IOException {
+		GeoPackageGeometryData geometryData = new GeoPackageGeometryData(4326);
+		geometryData.setByteOrder(byteOrder);
+		geometryData.setGeometry(point);
+		if (envelope) {
+			geometryData.setEnvelope(GeometryEnvelopeBuilder
+					.buildEnvelope(point));
+		}
+		return geometryData.toBytes();
+	}
+
+}
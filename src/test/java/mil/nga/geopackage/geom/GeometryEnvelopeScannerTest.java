@@ -0,0 +1,206 @@
+package mil.nga.geopackage.geom;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+import mil.nga.geopackage.GeoPackageException;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryEnvelope;
+import mil.nga.sf.MultiPoint;
+import mil.nga.sf.Point;
+import mil.nga.sf.util.GeometryEnvelopeBuilder;
+
+import org.junit.Test;
+
+/**
+ * Geometry Envelope Scanner Test, comparing scanned envelopes against the
+ * {@link GeometryEnvelopeBuilder}
+ * 
+ * @author osbornb
+ */
+public class GeometryEnvelopeScannerTest {
+
+	/**
+	 * Test scanning every geometry type, dimension, and byte order
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testScan() throws IOException {
+
+		Random random = new Random(16);
+		GeometryEnvelopeScanner scanner = new GeometryEnvelopeScanner();
+
+		for (boolean[] dimension : GeometryTestUtils.DIMENSIONS) {
+			for (ByteOrder byteOrder : GeometryTestUtils.BYTE_ORDERS) {
+				for (Geometry geometry : GeometryTestUtils.createGeometries(
+						random, dimension[0], dimension[1])) {
+
+					String message = geometry.getGeometryType() + " Z: "
+							+ dimension[0] + " M: " + dimension[1] + " "
+							+ byteOrder;
+
+					GeometryEnvelope expected = buildEnvelope(geometry);
+					byte[] wkb = GeometryTestUtils.writeWkb(geometry,
+							byteOrder);
+
+					TestCase.assertEquals(message, expected,
+							GeometryEnvelopeScanner.scan(wkb));
+
+					// Reused scanner from a buffer position
+					ByteBuffer buffer = ByteBuffer.allocate(wkb.length + 3);
+					buffer.position(1);
+					buffer.put(wkb);
+					buffer.position(1);
+					buffer.order(ByteOrder.LITTLE_ENDIAN);
+					TestCase.assertEquals(message, expected,
+							scanner.scan(buffer));
+					TestCase.assertEquals(message, 1 + wkb.length,
+							buffer.position());
+					TestCase.assertEquals(message, ByteOrder.LITTLE_ENDIAN,
+							buffer.order());
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Test the geometry data envelope from the header, scanned bytes, and
+	 * read geometry
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testGeometryData() throws IOException {
+
+		Random random = new Random(160);
+
+		for (boolean[] dimension : GeometryTestUtils.DIMENSIONS) {
+			for (Geometry geometry : GeometryTestUtils.createGeometries(random,
+					dimension[0], dimension[1])) {
+
+				String message = geometry.getGeometryType() + " Z: "
+						+ dimension[0] + " M: " + dimension[1];
+
+				GeometryEnvelope expected = buildEnvelope(geometry);
+
+				GeoPackageGeometryData geometryData = new GeoPackageGeometryData(
+						4326);
+				geometryData.setGeometry(geometry);
+				byte[] bytes = geometryData.toBytes();
+
+				// Scanned from the bytes without reading the geometry
+				GeoPackageGeometryData lazyData = new GeoPackageGeometryData(
+						bytes, true);
+				TestCase.assertNull(message, lazyData.getEnvelope());
+				TestCase.assertEquals(message, expected,
+						GeometryEnvelopeScanner.getEnvelope(lazyData));
+				TestCase.assertFalse(message, lazyData.isGeometryRead());
+
+				// Built from the read geometry
+				GeoPackageGeometryData readData = new GeoPackageGeometryData(
+						bytes);
+				TestCase.assertTrue(message, readData.isGeometryRead());
+				GeometryEnvelope readEnvelope = GeometryEnvelopeScanner
+						.getEnvelope(readData);
+				if (expected == null) {
+					TestCase.assertTrue(message,
+							readEnvelope.getMinX() > readEnvelope.getMaxX());
+				} else {
+					TestCase.assertEquals(message, expected, readEnvelope);
+				}
+
+				// Header envelope
+				if (expected != null) {
+					GeometryEnvelope header = new GeometryEnvelope(-1.0, -2.0,
+							3.0, 4.0);
+					geometryData.setEnvelope(header);
+					GeoPackageGeometryData headerData = new GeoPackageGeometryData(
+							geometryData.toBytes(), true);
+					TestCase.assertEquals(message, header,
+							GeometryEnvelopeScanner.getEnvelope(headerData));
+				}
+			}
+		}
+
+		GeoPackageGeometryData emptyData = new GeoPackageGeometryData(4326);
+		TestCase.assertNull(GeometryEnvelopeScanner.getEnvelope(emptyData));
+
+	}
+
+	/**
+	 * Test NaN coordinates of empty points are ignored
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testEmptyPoints() throws IOException {
+
+		Point empty = new Point(Double.NaN, Double.NaN);
+		TestCase.assertNull(GeometryEnvelopeScanner.scan(GeometryTestUtils
+				.writeWkb(empty, ByteOrder.BIG_ENDIAN)));
+
+		MultiPoint multiPoint = new MultiPoint();
+		multiPoint.addPoint(new Point(Double.NaN, Double.NaN));
+		multiPoint.addPoint(new Point(1.0, 2.0));
+		multiPoint.addPoint(new Point(-3.0, 5.0));
+		GeometryEnvelope envelope = GeometryEnvelopeScanner
+				.scan(GeometryTestUtils.writeWkb(multiPoint,
+						ByteOrder.LITTLE_ENDIAN));
+		TestCase.assertEquals(new GeometryEnvelope(-3.0, 2.0, 1.0, 5.0),
+				envelope);
+
+	}
+
+	/**
+	 * Test scanning truncated Well-Known Binary
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testTruncated() throws IOException {
+
+		List<Geometry> geometries = GeometryTestUtils.createGeometries(
+				new Random(1), true, true);
+		byte[] wkb = GeometryTestUtils.writeWkb(geometries.get(2),
+				ByteOrder.BIG_ENDIAN);
+
+		for (int length = 0; length < wkb.length; length += 5) {
+			try {
+				GeometryEnvelopeScanner.scan(Arrays.copyOf(wkb, length));
+				TestCase.fail("Expected failure scanning " + length + " of "
+						+ wkb.length + " bytes");
+			} catch (GeoPackageException e) {
+				// expected
+			}
+		}
+
+	}
+
+	/**
+	 * Build the expected envelope of the geometry, null when it has no points
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @return envelope or null
+	 */
+	private static GeometryEnvelope buildEnvelope(Geometry geometry) {
+		GeometryEnvelope envelope = GeometryEnvelopeBuilder
+				.buildEnvelope(geometry);
+		if (envelope.getMinX() > envelope.getMaxX()) {
+			envelope = null;
+		}
+		return envelope;
+	}
+
+}
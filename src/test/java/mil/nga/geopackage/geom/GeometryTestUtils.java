@@ -0,0 +1,323 @@
+package mil.nga.geopackage.geom;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import mil.nga.sf.CircularString;
+import mil.nga.sf.CompoundCurve;
+import mil.nga.sf.CurvePolygon;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryCollection;
+import mil.nga.sf.LineString;
+import mil.nga.sf.MultiLineString;
+import mil.nga.sf.MultiPoint;
+import mil.nga.sf.MultiPolygon;
+import mil.nga.sf.Point;
+import mil.nga.sf.Polygon;
+import mil.nga.sf.PolyhedralSurface;
+import mil.nga.sf.TIN;
+import mil.nga.sf.Triangle;
+import mil.nga.sf.util.ByteWriter;
+import mil.nga.sf.wkb.GeometryWriter;
+
+/**
+ * Geometry test utilities, creating a geometry of every Well-Known Binary
+ * geometry type for each coordinate dimension
+ * 
+ * @author osbornb
+ */
+public class GeometryTestUtils {
+
+	/**
+	 * Byte orders
+	 */
+	public static final ByteOrder[] BYTE_ORDERS = new ByteOrder[] {
+			ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN };
+
+	/**
+	 * Z and M coordinate dimensions: XY, XYZ, XYM, XYZM
+	 */
+	public static final boolean[][] DIMENSIONS = new boolean[][] {
+			{ false, false }, { true, false }, { false, true },
+			{ true, true } };
+
+	/**
+	 * Create a geometry of every type supported by the Well-Known Binary
+	 * reader and writer, including empty geometries
+	 * 
+	 * @param random
+	 *            random
+	 * @param hasZ
+	 *            has z values
+	 * @param hasM
+	 *            has m values
+	 * @return geometries
+	 */
+	public static List<Geometry> createGeometries(Random random,
+			boolean hasZ, boolean hasM) {
+
+		List<Geometry> geometries = new ArrayList<>();
+
+		geometries.add(createPoint(random, hasZ, hasM));
+		geometries.add(createLineString(random, hasZ, hasM, 5));
+		geometries.add(createPolygon(random, hasZ, hasM));
+
+		MultiPoint multiPoint = new MultiPoint(hasZ, hasM);
+		for (int i = 0; i < 4; i++) {
+			multiPoint.addPoint(createPoint(random, hasZ, hasM));
+		}
+		geometries.add(multiPoint);
+
+		MultiLineString multiLineString = new MultiLineString(hasZ, hasM);
+		for (int i = 0; i < 3; i++) {
+			multiLineString.addLineString(createLineString(random, hasZ,
+					hasM, 2 + i));
+		}
+		geometries.add(multiLineString);
+
+		MultiPolygon multiPolygon = new MultiPolygon(hasZ, hasM);
+		for (int i = 0; i < 2; i++) {
+			multiPolygon.addPolygon(createPolygon(random, hasZ, hasM));
+		}
+		geometries.add(multiPolygon);
+
+		CircularString circularString = new CircularString(hasZ, hasM);
+		for (int i = 0; i < 3; i++) {
+			circularString.addPoint(createPoint(random, hasZ, hasM));
+		}
+		geometries.add(circularString);
+
+		CompoundCurve compoundCurve = new CompoundCurve(hasZ, hasM);
+		compoundCurve.addLineString(createLineString(random, hasZ, hasM, 3));
+		compoundCurve.addLineString(createLineString(random, hasZ, hasM, 2));
+		geometries.add(compoundCurve);
+
+		CurvePolygon<LineString> curvePolygon = new CurvePolygon<>(hasZ,
+				hasM);
+		curvePolygon.addRing(createRing(random, hasZ, hasM));
+		curvePolygon.addRing(createRing(random, hasZ, hasM));
+		geometries.add(curvePolygon);
+
+		PolyhedralSurface polyhedralSurface = new PolyhedralSurface(hasZ,
+				hasM);
+		for (int i = 0; i < 3; i++) {
+			polyhedralSurface.addPolygon(createPolygon(random, hasZ, hasM));
+		}
+		geometries.add(polyhedralSurface);
+
+		TIN tin = new TIN(hasZ, hasM);
+		for (int i = 0; i < 2; i++) {
+			tin.addPolygon(createTriangle(random, hasZ, hasM));
+		}
+		geometries.add(tin);
+
+		geometries.add(createTriangle(random, hasZ, hasM));
+
+		GeometryCollection<Geometry> geometryCollection = new GeometryCollection<>(
+				hasZ, hasM);
+		geometryCollection.addGeometries(new ArrayList<>(geometries));
+		GeometryCollection<Geometry> nested = new GeometryCollection<>(hasZ,
+				hasM);
+		nested.addGeometry(createPoint(random, hasZ, hasM));
+		geometryCollection.addGeometry(nested);
+		geometries.add(geometryCollection);
+
+		// Empty geometries
+		geometries.add(new LineString(hasZ, hasM));
+		geometries.add(new Polygon(hasZ, hasM));
+		geometries.add(new MultiPoint(hasZ, hasM));
+		GeometryCollection<Geometry> emptyCollection = new GeometryCollection<>(
+				hasZ, hasM);
+		emptyCollection.addGeometry(new LineString(hasZ, hasM));
+		geometries.add(emptyCollection);
+
+		return geometries;
+	}
+
+	/**
+	 * Create a point
+	 * 
+	 * @param random
+	 *            random
+	 * @param hasZ
+	 *            has z value
+	 * @param hasM
+	 *            has m value
+	 * @return point
+	 */
+	public static Point createPoint(Random random, boolean hasZ, boolean hasM) {
+		Point point = new Point(hasZ, hasM, random.nextDouble() * 360.0
+				- 180.0, random.nextDouble() * 180.0 - 90.0);
+		if (hasZ) {
+			point.setZ(random.nextDouble() * 1000.0 - 500.0);
+		}
+		if (hasM) {
+			point.setM(random.nextDouble() * 100.0);
+		}
+		return point;
+	}
+
+	/**
+	 * Create a line string
+	 * 
+	 * @param random
+	 *            random
+	 * @param hasZ
+	 *            has z values
+	 * @param hasM
+	 *            has m values
+	 * @param numPoints
+	 *            number of points
+	 * @return line string
+	 */
+	public static LineString createLineString(Random random, boolean hasZ,
+			boolean hasM, int numPoints) {
+		LineString lineString = new LineString(hasZ, hasM);
+		for (int i = 0; i < numPoints; i++) {
+			lineString.addPoint(createPoint(random, hasZ, hasM));
+		}
+		return lineString;
+	}
+
+	/**
+	 * Create a closed ring
+	 * 
+	 * @param random
+	 *            random
+	 * @param hasZ
+	 *            has z values
+	 * @param hasM
+	 *            has m values
+	 * @return ring
+	 */
+	public static LineString createRing(Random random, boolean hasZ,
+			boolean hasM) {
+		LineString ring = createLineString(random, hasZ, hasM, 4);
+		ring.addPoint((Point) ring.getPoint(0).copy());
+		return ring;
+	}
+
+	/**
+	 * Create a polygon with an exterior and interior ring
+	 * 
+	 * @param random
+	 *            random
+	 * @param hasZ
+	 *            has z values
+	 * @param hasM
+	 *            has m values
+	 * @return polygon
+	 */
+	public static Polygon createPolygon(Random random, boolean hasZ,
+			boolean hasM) {
+		Polygon polygon = new Polygon(hasZ, hasM);
+		polygon.addRing(createRing(random, hasZ, hasM));
+		polygon.addRing(createRing(random, hasZ, hasM));
+		return polygon;
+	}
+
+	/**
+	 * Create a triangle
+	 * 
+	 * @param random
+	 *            random
+	 * @param hasZ
+	 *            has z values
+	 * @param hasM
+	 *            has m values
+	 * @return triangle
+	 */
+	public static Triangle createTriangle(Random random, boolean hasZ,
+			boolean hasM) {
+		Triangle triangle = new Triangle(hasZ, hasM);
+		LineString ring = createLineString(random, hasZ, hasM, 3);
+		ring.addPoint((Point) ring.getPoint(0).copy());
+		triangle.addRing(ring);
+		return triangle;
+	}
+
+	/**
+	 * Get the points of the geometry in Well-Known Binary order
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @return points
+	 */
+	public static List<Point> getPoints(Geometry geometry) {
+		List<Point> points = new ArrayList<>();
+		addPoints(geometry, points);
+		return points;
+	}
+
+	/**
+	 * Add the points of the geometry in Well-Known Binary order
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @param points
+	 *            points
+	 */
+	private static void addPoints(Geometry geometry, List<Point> points) {
+		switch (geometry.getGeometryType()) {
+		case POINT:
+			points.add((Point) geometry);
+			break;
+		case LINESTRING:
+		case CIRCULARSTRING:
+			points.addAll(((LineString) geometry).getPoints());
+			break;
+		case POLYGON:
+		case TRIANGLE:
+		case CURVEPOLYGON:
+			for (Geometry ring : ((CurvePolygon<?>) geometry).getRings()) {
+				addPoints(ring, points);
+			}
+			break;
+		case COMPOUNDCURVE:
+			for (Geometry lineString : ((CompoundCurve) geometry)
+					.getLineStrings()) {
+				addPoints(lineString, points);
+			}
+			break;
+		case POLYHEDRALSURFACE:
+		case TIN:
+			for (Geometry polygon : ((PolyhedralSurface) geometry)
+					.getPolygons()) {
+				addPoints(polygon, points);
+			}
+			break;
+		default:
+			for (Geometry child : ((GeometryCollection<?>) geometry)
+					.getGeometries()) {
+				addPoints(child, points);
+			}
+		}
+	}
+
+	/**
+	 * Write the geometry as Well-Known Binary with the sf-wkb writer
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @param byteOrder
+	 *            byte order
+	 * @return Well-Known Binary bytes
+	 * @throws IOException
+	 *             upon failure
+	 */
+	public static byte[] writeWkb(Geometry geometry, ByteOrder byteOrder)
+			throws IOException {
+		ByteWriter writer = new ByteWriter();
+		try {
+			writer.setByteOrder(byteOrder);
+			GeometryWriter.writeGeometry(writer, geometry);
+			return writer.getBytes();
+		} finally {
+			writer.close();
+		}
+	}
+
+}
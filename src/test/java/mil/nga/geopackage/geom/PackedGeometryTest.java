@@ -0,0 +1,286 @@
+package mil.nga.geopackage.geom;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+import mil.nga.geopackage.GeoPackageException;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryEnvelope;
+import mil.nga.sf.Point;
+import mil.nga.sf.util.GeometryEnvelopeBuilder;
+
+import org.junit.Test;
+
+/**
+ * Packed Geometry Test, comparing packed geometries against the sf-wkb
+ * Well-Known Binary reader and writer
+ * 
+ * @author osbornb
+ */
+public class PackedGeometryTest {
+
+	/**
+	 * Test reading and writing every geometry type, dimension, and byte order
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testRoundTrip() throws IOException {
+
+		Random random = new Random(15);
+
+		for (boolean[] dimension : GeometryTestUtils.DIMENSIONS) {
+			for (ByteOrder byteOrder : GeometryTestUtils.BYTE_ORDERS) {
+				for (Geometry geometry : GeometryTestUtils.createGeometries(
+						random, dimension[0], dimension[1])) {
+
+					String message = geometry.getGeometryType() + " Z: "
+							+ dimension[0] + " M: " + dimension[1] + " "
+							+ byteOrder;
+
+					byte[] wkb = GeometryTestUtils.writeWkb(geometry,
+							byteOrder);
+					PackedGeometry packedGeometry = PackedGeometry.read(wkb);
+
+					TestCase.assertEquals(message,
+							geometry.getGeometryType(),
+							packedGeometry.getGeometryType());
+					TestCase.assertEquals(message, wkb.length,
+							packedGeometry.wkbSize());
+					TestCase.assertEquals(message, geometry,
+							packedGeometry.toGeometry());
+
+					// Written in each byte order
+					for (ByteOrder writeOrder : GeometryTestUtils.BYTE_ORDERS) {
+						byte[] expected = GeometryTestUtils.writeWkb(geometry,
+								writeOrder);
+						ByteBuffer buffer = ByteBuffer
+								.allocate(expected.length + 2);
+						buffer.order(writeOrder);
+						buffer.position(2);
+						TestCase.assertEquals(message, expected.length,
+								packedGeometry.writeWkb(buffer));
+						TestCase.assertEquals(message, buffer.capacity(),
+								buffer.position());
+						TestCase.assertTrue(message, Arrays.equals(expected,
+								Arrays.copyOfRange(buffer.array(), 2,
+										buffer.capacity())));
+					}
+					TestCase.assertTrue(message, Arrays.equals(
+							GeometryTestUtils.writeWkb(geometry,
+									ByteOrder.BIG_ENDIAN),
+							packedGeometry.toWkbBytes()));
+
+					assertCoordinates(message, geometry, packedGeometry);
+					assertEnvelope(message, geometry, packedGeometry);
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Test reading from a buffer position and reading through the geometry
+	 * data
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testReadBuffer() throws IOException {
+
+		Random random = new Random(150);
+
+		for (ByteOrder byteOrder : GeometryTestUtils.BYTE_ORDERS) {
+			for (Geometry geometry : GeometryTestUtils.createGeometries(
+					random, true, false)) {
+
+				String message = geometry.getGeometryType() + " " + byteOrder;
+
+				byte[] wkb = GeometryTestUtils.writeWkb(geometry, byteOrder);
+				ByteBuffer buffer = ByteBuffer.allocate(wkb.length + 4);
+				buffer.position(3);
+				buffer.put(wkb);
+				buffer.position(3);
+				ByteOrder bufferOrder = byteOrder == ByteOrder.BIG_ENDIAN ? ByteOrder.LITTLE_ENDIAN
+						: ByteOrder.BIG_ENDIAN;
+				buffer.order(bufferOrder);
+
+				PackedGeometry packedGeometry = PackedGeometry.read(buffer);
+				TestCase.assertEquals(message, 3 + wkb.length,
+						buffer.position());
+				TestCase.assertEquals(message, bufferOrder, buffer.order());
+				TestCase.assertEquals(message, geometry,
+						packedGeometry.toGeometry());
+
+				// Through the geometry data and geometry writer
+				GeoPackageGeometryData geometryData = new GeoPackageGeometryData(
+						4326);
+				geometryData.setByteOrder(byteOrder);
+				geometryData.setGeometry(geometry);
+				geometryData.setEnvelope(packedGeometry.getEnvelope());
+				byte[] bytes = geometryData.toBytes();
+
+				PackedGeometry dataPackedGeometry = new GeoPackageGeometryData(
+						bytes).getPackedGeometry();
+				TestCase.assertEquals(message, geometry,
+						dataPackedGeometry.toGeometry());
+
+				ByteBuffer written = ByteBuffer.allocate(
+						GeoPackageGeometryWriter.size(dataPackedGeometry))
+						.order(byteOrder);
+				new GeoPackageGeometryWriter().write(dataPackedGeometry, 4326,
+						written);
+				TestCase.assertEquals(message, written.capacity(),
+						written.position());
+				GeoPackageGeometryData writtenData = new GeoPackageGeometryData(
+						written.array());
+				TestCase.assertEquals(message, geometry,
+						writtenData.getGeometry());
+				if (!geometryData.isExtended()) {
+					TestCase.assertTrue(message,
+							Arrays.equals(bytes, written.array()));
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Test packing geometry data that has not been written to bytes
+	 */
+	@Test
+	public void testUnwrittenGeometryData() {
+
+		Random random = new Random(15);
+
+		for (ByteOrder byteOrder : GeometryTestUtils.BYTE_ORDERS) {
+			for (Geometry geometry : GeometryTestUtils.createGeometries(
+					random, true, true)) {
+
+				GeoPackageGeometryData geometryData = new GeoPackageGeometryData(
+						4326);
+				geometryData.setByteOrder(byteOrder);
+				geometryData.setGeometry(geometry);
+				TestCase.assertNull(geometryData.getBytes());
+
+				PackedGeometry packedGeometry = geometryData
+						.getPackedGeometry();
+				String message = geometry.getGeometryType() + " " + byteOrder;
+				TestCase.assertEquals(message, geometry,
+						packedGeometry.toGeometry());
+				assertEnvelope(message, geometry, packedGeometry);
+				TestCase.assertNull(message, geometryData.getBytes());
+			}
+		}
+
+		GeoPackageGeometryData empty = new GeoPackageGeometryData(4326);
+		TestCase.assertNull(empty.getPackedGeometry());
+
+	}
+
+	/**
+	 * Test reading truncated Well-Known Binary
+	 * 
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testTruncated() throws IOException {
+
+		Geometry geometry = GeometryTestUtils.createPolygon(new Random(1),
+				true, true);
+		byte[] wkb = GeometryTestUtils.writeWkb(geometry,
+				ByteOrder.LITTLE_ENDIAN);
+
+		for (int length = 0; length < wkb.length; length += 7) {
+			try {
+				PackedGeometry.read(Arrays.copyOf(wkb, length));
+				TestCase.fail("Expected failure reading " + length + " of "
+						+ wkb.length + " bytes");
+			} catch (GeoPackageException e) {
+				// expected
+			}
+		}
+
+	}
+
+	/**
+	 * Assert the packed coordinates and point sequences match the geometry
+	 * points
+	 * 
+	 * @param message
+	 *            assertion message
+	 * @param geometry
+	 *            geometry
+	 * @param packedGeometry
+	 *            packed geometry
+	 */
+	private static void assertCoordinates(String message, Geometry geometry,
+			PackedGeometry packedGeometry) {
+
+		List<Point> points = GeometryTestUtils.getPoints(geometry);
+
+		TestCase.assertEquals(message, points.size(),
+				packedGeometry.numVertices());
+		TestCase.assertEquals(message, points.size()
+				* packedGeometry.getDimension(),
+				packedGeometry.getCoordinates().length);
+		TestCase.assertEquals(message, points.size(),
+				packedGeometry.getSequenceOffset(packedGeometry
+						.numSequences()));
+
+		for (int i = 0; i < points.size(); i++) {
+			Point point = points.get(i);
+			TestCase.assertEquals(message, point.getX(),
+					packedGeometry.getX(i));
+			TestCase.assertEquals(message, point.getY(),
+					packedGeometry.getY(i));
+			TestCase.assertEquals(message,
+					point.hasZ() ? point.getZ() : Double.NaN,
+					packedGeometry.getZ(i));
+			TestCase.assertEquals(message,
+					point.hasM() ? point.getM() : Double.NaN,
+					packedGeometry.getM(i));
+		}
+
+		for (int i = 0; i < packedGeometry.numSequences(); i++) {
+			TestCase.assertTrue(message,
+					packedGeometry.getSequenceOffset(i) <= packedGeometry
+							.getSequenceOffset(i + 1));
+		}
+
+	}
+
+	/**
+	 * Assert the packed envelope matches the built envelope
+	 * 
+	 * @param message
+	 *            assertion message
+	 * @param geometry
+	 *            geometry
+	 * @param packedGeometry
+	 *            packed geometry
+	 */
+	private static void assertEnvelope(String message, Geometry geometry,
+			PackedGeometry packedGeometry) {
+
+		GeometryEnvelope expected = GeometryEnvelopeBuilder
+				.buildEnvelope(geometry);
+		GeometryEnvelope envelope = packedGeometry.getEnvelope();
+
+		if (expected.getMinX() > expected.getMaxX()) {
+			TestCase.assertNull(message, envelope);
+		} else {
+			TestCase.assertEquals(message, expected, envelope);
+		}
+
+	}
+
+}
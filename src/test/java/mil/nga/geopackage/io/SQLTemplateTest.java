@@ -0,0 +1,162 @@
+package mil.nga.geopackage.io;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+import mil.nga.geopackage.extension.RTreeIndexCoreExtension;
+
+import org.junit.Test;
+
+/**
+ * SQL Template Test, comparing rendered templates against the sequential
+ * String replaceAll substitution previously used
+ * 
+ * @author osbornb
+ */
+public class SQLTemplateTest {
+
+	/**
+	 * RTree SQL resource names
+	 */
+	private static final String[] RTREE_SQL = new String[] { "rtree_create",
+			"rtree_load", "rtree_load_range", "rtree_load_range_sorted",
+			"rtree_drop", "rtree_trigger_insert", "rtree_trigger_update1",
+			"rtree_trigger_update2", "rtree_trigger_update3",
+			"rtree_trigger_update4", "rtree_trigger_delete",
+			"rtree_trigger_drop" };
+
+	/**
+	 * Table SQL resource names, rendered without substitutions
+	 */
+	private static final String[] TABLE_SQL = new String[] { "gpkg_contents",
+			"gpkg_spatial_ref_sys", "gpkg_tile_matrix_trigger",
+			"gpkg_metadata_reference_trigger", "nga_geometry_index" };
+
+	/**
+	 * Test the RTree SQL resources render the same as replaceAll
+	 */
+	@Test
+	public void testRTreeResources() {
+
+		Map<String, String> values = new HashMap<>();
+		values.put(RTreeIndexCoreExtension.TABLE_SUBSTITUTE, "features");
+		values.put(RTreeIndexCoreExtension.GEOMETRY_COLUMN_SUBSTITUTE, "geom");
+		values.put(RTreeIndexCoreExtension.PK_COLUMN_SUBSTITUTE, "fid");
+		values.put(RTreeIndexCoreExtension.TRIGGER_SUBSTITUTE, "insert");
+		values.put(RTreeIndexCoreExtension.RANGE_START_SUBSTITUTE, "-5");
+		values.put(RTreeIndexCoreExtension.RANGE_END_SUBSTITUTE, "1000");
+
+		for (String name : RTREE_SQL) {
+			List<String> statements = ResourceIOUtils.parseSQLStatements(
+					RTreeIndexCoreExtension.SQL_DIRECTORY, name);
+			List<SQLTemplate> templates = ResourceIOUtils.getSQLTemplates(
+					RTreeIndexCoreExtension.SQL_DIRECTORY, name);
+			TestCase.assertFalse(name, statements.isEmpty());
+			TestCase.assertEquals(name, statements.size(), templates.size());
+			for (int i = 0; i < statements.size(); i++) {
+				String statement = statements.get(i);
+				SQLTemplate template = templates.get(i);
+				TestCase.assertEquals(name, statement, template.getSql());
+				TestCase.assertEquals(name, replaceAll(statement, values),
+						template.render(values));
+			}
+		}
+
+	}
+
+	/**
+	 * Test the table SQL resources render unchanged
+	 */
+	@Test
+	public void testTableResources() {
+
+		Map<String, String> values = new HashMap<>();
+
+		for (String name : TABLE_SQL) {
+			List<String> statements = ResourceIOUtils.parseSQLStatements(
+					"sql", name);
+			List<SQLTemplate> templates = ResourceIOUtils.getSQLTemplates(
+					"sql", name);
+			TestCase.assertEquals(name, statements.size(), templates.size());
+			for (int i = 0; i < statements.size(); i++) {
+				TestCase.assertEquals(name, statements.get(i), templates
+						.get(i).render(values));
+			}
+		}
+
+	}
+
+	/**
+	 * Test repeated, adjacent, missing, and boundary placeholders
+	 */
+	@Test
+	public void testPlaceholders() {
+
+		Map<String, String> values = new HashMap<>();
+		values.put("<t>", "table_name");
+		values.put("<c>", "column");
+		values.put("<long_name_1>", "x");
+
+		String[] sqls = new String[] { "", "SELECT 1", "<t>", "<t><c><t>",
+				"<t> <missing> <c>", "a<t>b<c>c<long_name_1>d",
+				"x < y AND y > z <t>", "<>< t><1a><t", "<t>_<c>_<t>_<c>" };
+
+		for (String sql : sqls) {
+			SQLTemplate template = new SQLTemplate(sql);
+			TestCase.assertEquals(sql, sql, template.getSql());
+			TestCase.assertEquals(sql, sql, template.toString());
+			TestCase.assertEquals(sql, replaceAll(sql, values),
+					template.render(values));
+			TestCase.assertEquals(sql, sql,
+					template.render(new HashMap<String, String>()));
+		}
+
+		TestCase.assertEquals(3, new SQLTemplate("<t><c><t>")
+				.getPlaceholders().size());
+		TestCase.assertEquals("<missing>", new SQLTemplate(
+				"<t> <missing> <c>").getPlaceholders().get(1));
+		TestCase.assertTrue(new SQLTemplate("x < y AND y > z")
+				.getPlaceholders().isEmpty());
+
+	}
+
+	/**
+	 * Test the templates are parsed once and shared
+	 */
+	@Test
+	public void testShared() {
+
+		List<SQLTemplate> templates = ResourceIOUtils.getSQLTemplates(
+				RTreeIndexCoreExtension.SQL_DIRECTORY, "rtree_create");
+		TestCase.assertSame(templates, ResourceIOUtils.getSQLTemplates(
+				RTreeIndexCoreExtension.SQL_DIRECTORY, "rtree_create"));
+
+		ResourceIOUtils.clearSQLTemplates();
+		List<SQLTemplate> reparsed = ResourceIOUtils.getSQLTemplates(
+				RTreeIndexCoreExtension.SQL_DIRECTORY, "rtree_create");
+		TestCase.assertNotSame(templates, reparsed);
+		TestCase.assertEquals(templates.size(), reparsed.size());
+
+	}
+
+	/**
+	 * Substitute the values with sequential String replaceAll calls
+	 * 
+	 * @param sql
+	 *            sql statement
+	 * @param values
+	 *            placeholder to value mapping
+	 * @return substituted sql statement
+	 */
+	private static String replaceAll(String sql, Map<String, String> values) {
+		String substituted = sql;
+		for (Map.Entry<String, String> value : values.entrySet()) {
+			substituted = substituted.replaceAll(value.getKey(),
+					value.getValue());
+		}
+		return substituted;
+	}
+
+}
@@ -0,0 +1,389 @@
+package mil.nga.geopackage.user;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import junit.framework.TestCase;
+import mil.nga.geopackage.BoundingBox;
+import mil.nga.geopackage.GeoPackageException;
+import mil.nga.geopackage.db.GeoPackageDataType;
+import mil.nga.geopackage.db.SQLiteGeoPackageConnection;
+import mil.nga.geopackage.user.custom.UserCustomColumn;
+import mil.nga.geopackage.user.custom.UserCustomTable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * User Core DAO Test
+ * 
+ * @author osbornb
+ */
+public class UserCoreDaoTest {
+
+	/**
+	 * Database
+	 */
+	private SeparateStatementConnection db;
+
+	/**
+	 * DAO
+	 */
+	private TestDao dao;
+
+	/**
+	 * Create the database and table
+	 * 
+	 * @throws Exception
+	 *             upon failure
+	 */
+	@Before
+	public void setUp() throws Exception {
+		File file = File.createTempFile("user_dao", ".gpkg");
+		file.deleteOnExit();
+		db = new SeparateStatementConnection(file);
+		db.execSQL("CREATE TABLE rows (id INTEGER PRIMARY KEY, name TEXT NOT NULL, time DATETIME)");
+		List<UserCustomColumn> columns = new ArrayList<>();
+		columns.add(UserCustomColumn.createPrimaryKeyColumn(0, "id"));
+		columns.add(UserCustomColumn.createColumn(1, "name",
+				GeoPackageDataType.TEXT, true, null));
+		columns.add(UserCustomColumn.createColumn(2, "time",
+				GeoPackageDataType.DATETIME, false, null));
+		dao = new TestDao(db, new UserCustomTable("rows", columns));
+	}
+
+	/**
+	 * Close the database
+	 */
+	@After
+	public void tearDown() {
+		db.close();
+	}
+
+	/**
+	 * Test primary key partition ranges cover the range without gaps or
+	 * overlaps
+	 */
+	@Test
+	public void testPartitionRanges() {
+
+		assertRanges(1, 10, 3, 3);
+		assertRanges(1, 10, 10, 10);
+		assertRanges(1, 2, 8, 2);
+		assertRanges(5, 5, 4, 1);
+		assertRanges(-7, 7, 4, 4);
+		assertRanges(0, Long.MAX_VALUE, 3, 3);
+		assertRanges(Long.MIN_VALUE, Long.MAX_VALUE, 1, 1);
+		assertRanges(Long.MIN_VALUE, Long.MAX_VALUE, 7, 7);
+		assertRanges(Long.MIN_VALUE + 1, Long.MAX_VALUE - 1, 2, 2);
+
+		long[][] ranges = UserCoreDao.partitionRanges(1, 10, 3);
+		TestCase.assertEquals(1, ranges[0][0]);
+		TestCase.assertEquals(3, ranges[0][1]);
+		TestCase.assertEquals(4, ranges[1][0]);
+		TestCase.assertEquals(6, ranges[1][1]);
+		TestCase.assertEquals(7, ranges[2][0]);
+		TestCase.assertEquals(10, ranges[2][1]);
+
+	}
+
+	/**
+	 * Test batch inserts and updates
+	 */
+	@Test
+	public void testBatch() {
+
+		dao.setBatchSize(2);
+		long[] ids = dao.insert(Arrays.asList(row(null, "a"), row(null, "b"),
+				row(7L, "c")));
+		TestCase.assertEquals(3, ids.length);
+		TestCase.assertEquals(7, ids[2]);
+		TestCase.assertEquals(3, count());
+
+		TestCase.assertEquals(2,
+				dao.update(Arrays.asList(row(ids[0], "d"), row(7L, "e"))));
+		TestCase.assertEquals(1, db.count("rows", "name = 'e'", null));
+
+	}
+
+	/**
+	 * Test an insert batch failing partway through is rolled back entirely
+	 */
+	@Test
+	public void testInsertBatchRollback() {
+
+		dao.setBatchSize(10);
+		try {
+			dao.insert(Arrays.asList(row(null, "a"), row(null, "b"),
+					row(null, null), row(null, "c")));
+			TestCase.fail("Expected batch failure");
+		} catch (GeoPackageException e) {
+			// expected
+		}
+		TestCase.assertEquals(0, count());
+
+		// The savepoint was released and later batches commit
+		dao.insert(Arrays.asList(row(null, "d")));
+		TestCase.assertEquals(1, count());
+
+	}
+
+	/**
+	 * Test an update batch failing partway through is rolled back entirely
+	 */
+	@Test
+	public void testUpdateBatchRollback() {
+
+		long[] ids = dao.insert(Arrays.asList(row(null, "a"), row(null, "b"),
+				row(null, "c")));
+		try {
+			dao.update(Arrays.asList(row(ids[0], "d"), row(ids[1], "e"),
+					row(ids[2], null)));
+			TestCase.fail("Expected batch failure");
+		} catch (GeoPackageException e) {
+			// expected
+		}
+		TestCase.assertEquals(1, db.count("rows", "name = 'a'", null));
+		TestCase.assertEquals(1, db.count("rows", "name = 'b'", null));
+		TestCase.assertEquals(1, db.count("rows", "name = 'c'", null));
+
+	}
+
+	/**
+	 * Test epoch millisecond date time values are written in the date time
+	 * text format
+	 */
+	@Test
+	public void testEpochMillisDates() {
+
+		long millis = 1521972930123L;
+		String text = "2018-03-25T10:15:30.123Z";
+
+		TestRow row = row(null, "a");
+		row.setValue("time", millis);
+		long id = dao.insert(Arrays.asList(row))[0];
+		TestCase.assertEquals(text, time(id));
+
+		row.setValue("time", new Date(millis + 1000));
+		dao.update(Arrays.asList(row));
+		TestCase.assertEquals("2018-03-25T10:15:31.123Z", time(id));
+
+	}
+
+	/**
+	 * Query the stored time text of a row
+	 * 
+	 * @param id
+	 *            row id
+	 * @return time text
+	 */
+	private String time(long id) {
+		return db.querySingleStringResult("SELECT time FROM rows WHERE id = ?",
+				new String[] { String.valueOf(id) });
+	}
+
+	/**
+	 * Create a row
+	 * 
+	 * @param id
+	 *            id or null
+	 * @param name
+	 *            name
+	 * @return row
+	 */
+	private TestRow row(Long id, String name) {
+		TestRow row = dao.newRow();
+		if (id != null) {
+			row.setId(id);
+		}
+		row.setValue("name", name);
+		return row;
+	}
+
+	/**
+	 * Count the table rows
+	 * 
+	 * @return count
+	 */
+	private int count() {
+		return db.count("rows", null, null);
+	}
+
+	/**
+	 * Assert the partition ranges are contiguous, ascending, and span the
+	 * min and max
+	 * 
+	 * @param min
+	 *            min primary key
+	 * @param max
+	 *            max primary key
+	 * @param partitions
+	 *            partitions
+	 * @param expectedCount
+	 *            expected range count
+	 */
+	private static void assertRanges(long min, long max, int partitions,
+			int expectedCount) {
+		String message = min + " to " + max + " in " + partitions;
+		long[][] ranges = UserCoreDao.partitionRanges(min, max, partitions);
+		TestCase.assertEquals(message, expectedCount, ranges.length);
+		TestCase.assertEquals(message, min, ranges[0][0]);
+		TestCase.assertEquals(message, max, ranges[ranges.length - 1][1]);
+		for (int i = 0; i < ranges.length; i++) {
+			TestCase.assertTrue(message, ranges[i][0] <= ranges[i][1]);
+			if (i > 0) {
+				TestCase.assertEquals(message, ranges[i - 1][1] + 1,
+						ranges[i][0]);
+			}
+		}
+	}
+
+	/**
+	 * Connection executing {@link #execSQL(String)} statements on a separate
+	 * JDBC connection from the connection source, as a pooled connection
+	 * source may
+	 */
+	private static class SeparateStatementConnection extends
+			SQLiteGeoPackageConnection {
+
+		/**
+		 * Separate statement connection
+		 */
+		private final Connection statementConnection;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param file
+		 *            database file
+		 * @throws SQLException
+		 *             upon failure
+		 */
+		public SeparateStatementConnection(File file) throws SQLException {
+			super(file);
+			statementConnection = DriverManager.getConnection("jdbc:sqlite:"
+					+ file.getAbsolutePath());
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void execSQL(String sql) {
+			try (Statement statement = statementConnection.createStatement()) {
+				statement.execute(sql);
+			} catch (SQLException e) {
+				throw new GeoPackageException("Failed to execute SQL: " + sql,
+						e);
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void close() {
+			try {
+				statementConnection.close();
+			} catch (SQLException e) {
+				throw new GeoPackageException("Failed to close connection", e);
+			}
+			super.close();
+		}
+
+	}
+
+	/**
+	 * Test row
+	 */
+	private static class TestRow extends
+			UserCoreRow<UserCustomColumn, UserCustomTable> {
+
+		/**
+		 * Constructor
+		 * 
+		 * @param table
+		 *            table
+		 */
+		public TestRow(UserCustomTable table) {
+			super(table);
+		}
+
+	}
+
+	/**
+	 * Test result
+	 */
+	private interface TestResult extends
+			UserCoreResult<UserCustomColumn, UserCustomTable, TestRow> {
+	}
+
+	/**
+	 * Test DAO supporting batch writes
+	 */
+	private static class TestDao extends
+			UserCoreDao<UserCustomColumn, UserCustomTable, TestRow, TestResult> {
+
+		/**
+		 * Constructor
+		 * 
+		 * @param db
+		 *            database
+		 * @param table
+		 *            table
+		 */
+		public TestDao(SQLiteGeoPackageConnection db, UserCustomTable table) {
+			super("test", db, null, table);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public TestRow newRow() {
+			return new TestRow(getTable());
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public BoundingBox getBoundingBox() {
+			throw new UnsupportedOperationException();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected TestResult prepareResult(TestResult result) {
+			return result;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int update(TestRow row) {
+			throw new UnsupportedOperationException();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public long insert(TestRow row) {
+			throw new UnsupportedOperationException();
+		}
+
+	}
+
+}
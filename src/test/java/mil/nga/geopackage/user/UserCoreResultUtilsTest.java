@@ -0,0 +1,82 @@
+package mil.nga.geopackage.user;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Date;
+
+import junit.framework.TestCase;
+import mil.nga.geopackage.db.GeoPackageDataType;
+
+import org.junit.Test;
+
+/**
+ * User Core Result Utils Test
+ * 
+ * @author osbornb
+ */
+public class UserCoreResultUtilsTest {
+
+	/**
+	 * Test reading date and date time values as dates and as epoch
+	 * milliseconds
+	 */
+	@Test
+	public void testDateValues() {
+
+		UserCoreResult<?, ?, ?> dateTime = result("2018-03-25T10:15:30.123Z");
+		long millis = 1521972930123L;
+
+		TestCase.assertEquals(new Date(millis), UserCoreResultUtils.getValue(
+				dateTime, 0, GeoPackageDataType.DATETIME));
+		TestCase.assertEquals(new Date(millis), UserCoreResultUtils.getValue(
+				dateTime, 0, GeoPackageDataType.DATETIME, false));
+		TestCase.assertEquals(millis, UserCoreResultUtils.getValue(dateTime,
+				0, GeoPackageDataType.DATETIME, true));
+
+		UserCoreResult<?, ?, ?> date = result("2018-03-25");
+		TestCase.assertEquals(1521936000000L, UserCoreResultUtils.getValue(
+				date, 0, GeoPackageDataType.DATE, true));
+
+		UserCoreResult<?, ?, ?> text = result("2018-03-25");
+		TestCase.assertEquals("2018-03-25", UserCoreResultUtils.getValue(
+				text, 0, GeoPackageDataType.TEXT, true));
+
+		TestCase.assertNull(UserCoreResultUtils.getValue(result(null), 0,
+				GeoPackageDataType.DATETIME, true));
+
+	}
+
+	/**
+	 * Create a result with a single string column value
+	 * 
+	 * @param value
+	 *            string value
+	 * @return result
+	 */
+	private static UserCoreResult<?, ?, ?> result(final String value) {
+		return (UserCoreResult<?, ?, ?>) Proxy.newProxyInstance(
+				UserCoreResult.class.getClassLoader(),
+				new Class<?>[] { UserCoreResult.class },
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method,
+							Object[] args) {
+						Object result;
+						switch (method.getName()) {
+						case "getType":
+							result = UserCoreResultUtils.FIELD_TYPE_STRING;
+							break;
+						case "getString":
+							result = value;
+							break;
+						default:
+							throw new UnsupportedOperationException(method
+									.getName());
+						}
+						return result;
+					}
+				});
+	}
+
+}
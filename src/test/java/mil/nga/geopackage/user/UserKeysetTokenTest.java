@@ -0,0 +1,104 @@
+package mil.nga.geopackage.user;
+
+import junit.framework.TestCase;
+import mil.nga.geopackage.GeoPackageException;
+
+import org.junit.Test;
+
+/**
+ * User Keyset Token Test
+ * 
+ * @author osbornb
+ */
+public class UserKeysetTokenTest {
+
+	/**
+	 * Test encoding and decoding tokens
+	 */
+	@Test
+	public void testEncodeDecode() {
+
+		String[] columns = new String[] { "id", "name", "sort column",
+				"élévation", "地名" };
+		String[] values = new String[] { null, "", "0", "-12.5",
+				"2018-03-25T10:15:30.123Z", "a\u0000b", "v", "n1",
+				"über ☃", "value with 'quotes' and \"doubles\"" };
+		long[] ids = new long[] { 0, 1, -1, 42, Long.MAX_VALUE, Long.MIN_VALUE };
+
+		for (String column : columns) {
+			for (String value : values) {
+				for (long id : ids) {
+					UserKeysetToken token = new UserKeysetToken(column, value,
+							id);
+					String encoded = token.encode();
+					TestCase.assertTrue(encoded.matches("[0-9a-f]+"));
+
+					UserKeysetToken decoded = UserKeysetToken.decode(encoded);
+					TestCase.assertEquals(column, decoded.getColumn());
+					TestCase.assertEquals(value, decoded.getValue());
+					TestCase.assertEquals(id, decoded.getId());
+					TestCase.assertEquals(encoded, decoded.encode());
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Test null and empty values encode differently
+	 */
+	@Test
+	public void testNullValue() {
+
+		String nullToken = new UserKeysetToken("name", null, 7).encode();
+		String emptyToken = new UserKeysetToken("name", "", 7).encode();
+		TestCase.assertFalse(nullToken.equals(emptyToken));
+		TestCase.assertNull(UserKeysetToken.decode(nullToken).getValue());
+		TestCase.assertEquals("", UserKeysetToken.decode(emptyToken)
+				.getValue());
+
+	}
+
+	/**
+	 * Test decoding invalid tokens
+	 */
+	@Test
+	public void testInvalid() {
+
+		String valid = new UserKeysetToken("name", "value", 10).encode();
+
+		String[] tokens = new String[] { "", "a", "abc", "zz", "6e616d65",
+				valid.substring(0, valid.length() - 1),
+				valid + "0",
+				valid.replace('6', 'g'),
+				hex("name\u0000value\u0000v"), hex("name\u0000value\u0000x10"),
+				hex("name\u0000value\u0000vten") };
+
+		for (String token : tokens) {
+			try {
+				UserKeysetToken.decode(token);
+				TestCase.fail("Expected invalid token: " + token);
+			} catch (GeoPackageException e) {
+				// expected
+			}
+		}
+
+	}
+
+	/**
+	 * Hex encode the UTF-8 bytes of the fields
+	 * 
+	 * @param fields
+	 *            token fields
+	 * @return hex string
+	 */
+	private static String hex(String fields) {
+		StringBuilder hex = new StringBuilder();
+		for (byte b : fields.getBytes(java.nio.charset.Charset
+				.forName("UTF-8"))) {
+			hex.append(String.format("%02x", b));
+		}
+		return hex.toString();
+	}
+
+}